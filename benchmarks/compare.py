@@ -0,0 +1,93 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files and flag regressions.
+
+Usage: python3 compare.py baseline.json candidate.json [--threshold 0.10] [--alloc-threshold 0.10]
+
+A benchmark regresses when its score moves in the bad direction by more than the
+threshold AND by more than the two runs' combined error bars (so noise is not flagged).
+Allocation (gc.alloc.rate.norm, bytes/op) regresses when it grows by more than the
+allocation threshold and by more than 16 bytes. Exits with status 1 if anything regressed.
+"""
+import argparse
+import json
+import sys
+
+ALLOC_METRIC = "gc.alloc.rate.norm"
+ALLOC_SLACK_BYTES = 16
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for run in json.load(f):
+            params = run.get("params") or {}
+            key = run["benchmark"] + "".join(f" {k}={v}" for k, v in sorted(params.items()))
+            secondary = {name.lstrip("·"): metric for name, metric in (run.get("secondaryMetrics") or {}).items()}
+            results[key] = {
+                "mode": run["mode"],
+                "score": run["primaryMetric"]["score"],
+                "error": abs(run["primaryMetric"].get("scoreError") or 0.0),
+                "unit": run["primaryMetric"]["scoreUnit"],
+                "alloc": secondary.get(ALLOC_METRIC, {}).get("score"),
+            }
+        return results
+
+
+def short_name(key):
+    # org.example.FooBenchmark.method p=1 -> FooBenchmark.method p=1
+    name, _, params = key.partition(" ")
+    parts = name.split(".")
+    return ".".join(parts[-2:]) + (" " + params if params else "")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=0.10, help="relative score change to flag (default 0.10)")
+    parser.add_argument("--alloc-threshold", type=float, default=0.10, help="relative allocation growth to flag (default 0.10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    regressions = 0
+
+    print(f"{'benchmark':<60} {'baseline':>12} {'candidate':>12} {'change':>8}  {'alloc B/op':>21}")
+    for key in sorted(set(baseline) | set(candidate)):
+        old, new = baseline.get(key), candidate.get(key)
+        if old is None or new is None:
+            print(f"{short_name(key):<60} {'(only in ' + ('candidate' if old is None else 'baseline') + ')':>35}")
+            continue
+
+        # Throughput: higher is better; every time-based mode: lower is better
+        higher_is_better = old["mode"] == "thrpt"
+        change = (new["score"] - old["score"]) / old["score"] if old["score"] else 0.0
+        worse_by = -change if higher_is_better else change
+        beyond_noise = abs(new["score"] - old["score"]) > old["error"] + new["error"]
+        slower = worse_by > args.threshold and beyond_noise
+
+        alloc_text, more_alloc = "", False
+        if old["alloc"] is not None and new["alloc"] is not None:
+            alloc_text = f"{old['alloc']:>9.0f} -> {new['alloc']:<9.0f}"
+            growth = new["alloc"] - old["alloc"]
+            more_alloc = growth > ALLOC_SLACK_BYTES and growth > args.alloc_threshold * max(old["alloc"], 1.0)
+
+        flags = []
+        if slower:
+            flags.append("SLOWER")
+        if more_alloc:
+            flags.append("MORE ALLOC")
+        if flags:
+            regressions += 1
+        elif worse_by < -args.threshold and beyond_noise:
+            flags.append("faster")
+
+        print(f"{short_name(key):<60} {old['score']:>12.3f} {new['score']:>12.3f} {change:>+8.1%}  {alloc_text:>21}  {' '.join(flags)}")
+
+    unit = next(iter(candidate.values()))["unit"] if candidate else ""
+    print(f"\nScores in each benchmark's own unit (e.g. {unit}). {regressions} regression(s).")
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,78 @@
+package project.app.humanelogistics.bench;
+
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.openjdk.jmh.annotations.*;
+import project.app.humanelogistics.service.ChartService;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Full chart renders (layout, drawing and PNG encoding) at the dashboard's resolution. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ChartRenderBenchmark {
+
+    // Days of sentiment history in the trend chart
+    @Param({"30", "365", "3650"})
+    public int days;
+
+    private final ChartService chartService = new ChartService();
+    private TimeSeriesCollection trend;
+    private DefaultCategoryDataset damage;
+    private File output;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        trend = new TimeSeriesCollection();
+        for (String name : new String[]{"News", "Social"}) {
+            TimeSeries series = new TimeSeries(name);
+            LocalDate date = LocalDate.of(2024, 9, 1);
+            for (int i = 0; i < days; i++, date = date.plusDays(1)) {
+                series.add(new Day(date.getDayOfMonth(), date.getMonthValue(), date.getYear()), random.nextDouble() * 2 - 1);
+            }
+            trend.addSeries(series);
+        }
+
+        damage = new DefaultCategoryDataset();
+        String[] categories = {"Affected People", "Economic Production Disruption", "Houses or Buildings Damaged",
+                "Loss of Personal Belongings", "Damaged Infrastructure", "Other"};
+        for (String category : categories) damage.addValue(random.nextInt(500), "Posts", category);
+
+        output = Files.createTempFile("bench-chart", ".png").toFile();
+        output.deleteOnExit();
+    }
+
+    @Benchmark
+    public File sentimentTrend() throws IOException {
+        return chartService.generateAndSaveChart("Sentiment", "Date", "Score", trend, output.getPath());
+    }
+
+    @Benchmark
+    public File damageBar() throws IOException {
+        return chartService.generateBarChart("Damage", "Category", "Posts", damage, output.getPath());
+    }
+
+    @Benchmark
+    public File damagePie() throws IOException {
+        return chartService.generatePieChart("Damage", damage, output.getPath());
+    }
+
+    // What the dashboard does: build and draw into memory at a HiDPI on-screen size, no PNG
+    @Benchmark
+    public BufferedImage sentimentTrendInMemory() {
+        return chartService.renderImage(chartService.createTrendChart("Sentiment", "Date", "Score", trend), 1600, 1000);
+    }
+}
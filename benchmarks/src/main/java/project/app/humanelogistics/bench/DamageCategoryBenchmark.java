@@ -0,0 +1,24 @@
+package project.app.humanelogistics.bench;
+
+import org.openjdk.jmh.annotations.*;
+import project.app.humanelogistics.model.DamageCategory;
+
+import java.util.concurrent.TimeUnit;
+
+/** Parsing of the classifier's reply: exact names, loose spellings, and replies with extra words. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DamageCategoryBenchmark {
+
+    @Param({"HOUSING_DAMAGE", "housing damage", "Category: INFRASTRUCTURE_DAMAGE.", "no idea"})
+    public String reply;
+
+    @Benchmark
+    public DamageCategory fromString() {
+        return DamageCategory.fromString(reply);
+    }
+}
@@ -0,0 +1,51 @@
+package project.app.humanelogistics.bench;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.preprocessing.GoogleNewsCollector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Parsing of a saved Google News results page, with and without the HTML parse itself. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoogleNewsParseBenchmark {
+
+    private static final String FIXTURE = "/fixtures/google-news-results.html";
+    private static final String BASE_URI = "https://www.google.com/";
+
+    private final GoogleNewsCollector collector = new GoogleNewsCollector();
+    private final Date day = new Date();
+    private String html;
+    private Document parsed;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = GoogleNewsParseBenchmark.class.getResourceAsStream(FIXTURE)) {
+            if (in == null) throw new IOException("Missing fixture " + FIXTURE);
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        parsed = Jsoup.parse(html, BASE_URI);
+    }
+
+    @Benchmark
+    public List<Media> parseAndExtract() {
+        return collector.parseDocument(Jsoup.parse(html, BASE_URI), "Typhoon Yagi", day);
+    }
+
+    @Benchmark
+    public List<Media> extractOnly() {
+        return collector.parseDocument(parsed, "Typhoon Yagi", day);
+    }
+}
@@ -0,0 +1,42 @@
+package project.app.humanelogistics.bench;
+
+import org.openjdk.jmh.annotations.*;
+import project.app.humanelogistics.service.KeywordSentimentAnalyzer;
+import project.app.humanelogistics.service.SentimentAnalyzer;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeywordSentimentBenchmark {
+
+    // Headline-sized and article-sized inputs
+    @Param({"headline", "article"})
+    public String size;
+
+    private final KeywordSentimentAnalyzer analyzer = new KeywordSentimentAnalyzer();
+    private String text;
+
+    @Setup
+    public void setUp() {
+        String headline = "Volunteers bring food and water to flooded villages after Typhoon Yagi";
+        if ("headline".equals(size)) {
+            text = headline;
+        } else {
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < 8000) {
+                sb.append("Residents of the northern provinces spent the night on rooftops as the river rose. ");
+            }
+            text = sb.append(headline).toString(); // Keyword only near the end: worst case for the scan
+        }
+    }
+
+    @Benchmark
+    public SentimentAnalyzer.SentimentType analyze() {
+        return analyzer.analyze(text);
+    }
+}
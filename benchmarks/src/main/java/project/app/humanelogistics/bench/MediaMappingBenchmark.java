@@ -0,0 +1,60 @@
+package project.app.humanelogistics.bench;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import project.app.humanelogistics.db.MediaDocumentMapper;
+import project.app.humanelogistics.model.Media;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/** Document-to-Media mapping, done once per document on every repository read. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MediaMappingBenchmark {
+
+    private Document minimal;
+    private Document full;
+
+    @Setup
+    public void setUp() {
+        minimal = new Document("_id", new ObjectId())
+                .append("topic", "Typhoon Yagi")
+                .append("content", "Typhoon Yagi makes landfall in northern Vietnam")
+                .append("url", "https://example.com/news/yagi-landfall")
+                .append("timestamp", new Date())
+                .append("sentiment", -0.6)
+                .append("damageType", "HOUSING_DAMAGE")
+                .append("type", "news")
+                .append("source", "Reuters");
+
+        ByteBuffer signature = ByteBuffer.allocate(64 * Integer.BYTES);
+        for (int i = 0; i < 64; i++) signature.putInt(i * 0x9E3779B9);
+        full = new Document(minimal)
+                .append("canonicalUrl", "https://example.com/news/yagi-landfall")
+                .append("minhash", new Binary(signature.array()))
+                .append("clusterId", "https://example.com/news/yagi-landfall")
+                .append("sentimentAnalyzer", new Document("version", 1).append("model", "gemini-2.0-flash"))
+                .append("damageAnalyzer", new Document("version", 1).append("model", "gemini-2.5-flash"))
+                .append("analysisDueAt", new Date())
+                .append("fastLane", true);
+    }
+
+    @Benchmark
+    public Media mapMinimal() {
+        return MediaDocumentMapper.toMedia(minimal);
+    }
+
+    // With signature, analyzer versions and queue fields, as written by the current pipeline
+    @Benchmark
+    public Media mapFull() {
+        return MediaDocumentMapper.toMedia(full);
+    }
+}
@@ -0,0 +1,105 @@
+package project.app.humanelogistics.bench.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for publisher sites: serves a generated article page for any
+ * {@code /article/<id>} after a simulated network delay, or an error for a share of requests.
+ * Pages are derived from the id, so the same URL always returns the same article.
+ */
+public class FakeArticleServer implements AutoCloseable {
+
+    private static final int HANDLER_THREADS = 64;
+
+    private static final String[] PARAGRAPHS = {
+            "Floodwaters rose quickly overnight, forcing families to move belongings to upper floors while "
+                    + "local officials organized boats to reach the worst-hit neighbourhoods.",
+            "Electricity was cut across several districts as a precaution, and mobile networks reported "
+                    + "intermittent outages while crews worked to restore damaged transmission lines.",
+            "Farmers said the harvest was only weeks away when the storm arrived, and many fields of rice "
+                    + "and vegetables are now completely submerged.",
+            "Relief organizations distributed drinking water, instant noodles and medicine from temporary "
+                    + "shelters set up in schools and community halls.",
+            "Engineers are inspecting bridges and dykes along the river, and traffic on the main highway "
+                    + "has been diverted while landslides are cleared.",
+            "Residents thanked volunteers who arrived from neighbouring provinces with trucks of supplies, "
+                    + "saying the support gave them hope after a difficult week.",
+    };
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final SimulatedLatency latency;
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public FakeArticleServer(SimulatedLatency latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.handlers = Executors.newFixedThreadPool(HANDLER_THREADS, r -> {
+            Thread t = new Thread(r, "fake-article-server");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(handlers);
+        server.createContext("/article/", this::handle);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getServed() { return served.get(); }
+    public long getFailed() { return failed.get(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            boolean ok = latency.pause();
+            if (!ok) {
+                failed.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring("/article/".length());
+            byte[] body = page(id).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            served.incrementAndGet();
+        }
+    }
+
+    // A realistic page shape: navigation and footer around an article of 3-12 paragraphs
+    private static String page(String id) {
+        Random random = new Random(id.hashCode());
+        StringBuilder html = new StringBuilder(8192)
+                .append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Storm update ").append(id)
+                .append("</title></head><body><nav><a href=\"/\">Home</a> <a href=\"/news\">News</a> <a href=\"/weather\">Weather</a></nav>")
+                .append("<div class=\"sidebar\"><a href=\"/most-read\">Most read</a></div>")
+                .append("<article class=\"article-body\"><h1>Storm update ").append(id).append("</h1>");
+        int paragraphs = 3 + random.nextInt(10);
+        for (int i = 0; i < paragraphs; i++) {
+            html.append("<p>").append(PARAGRAPHS[random.nextInt(PARAGRAPHS.length)]).append("</p>");
+        }
+        return html.append("</article><footer>Copyright Local News</footer></body></html>").toString();
+    }
+}
@@ -0,0 +1,39 @@
+package project.app.humanelogistics.bench.load;
+
+import project.app.humanelogistics.model.AnalysisVersion;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.preprocessing.ContentClassifier;
+
+import java.util.Locale;
+
+/**
+ * Stands in for the Gemini damage classifier: keyword rules behind a simulated API delay, with
+ * a share of calls failing.
+ */
+public class FakeDamageClassifier implements ContentClassifier {
+
+    public static final AnalysisVersion VERSION = new AnalysisVersion(1, "loadtest-damage");
+
+    private final SimulatedLatency latency;
+
+    public FakeDamageClassifier(SimulatedLatency latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public DamageCategory classify(String text) {
+        if (!latency.pause()) throw new IllegalStateException("Simulated API error (503 Service Unavailable)");
+        String lower = text == null ? "" : text.toLowerCase(Locale.ROOT);
+        if (lower.contains("evacuated") || lower.contains("stranded") || lower.contains("missing")) return DamageCategory.AFFECTED_PEOPLE;
+        if (lower.contains("bridge") || lower.contains("power") || lower.contains("road")) return DamageCategory.INFRASTRUCTURE_DAMAGE;
+        if (lower.contains("home") || lower.contains("rooftop") || lower.contains("apartment")) return DamageCategory.HOUSING_DAMAGE;
+        if (lower.contains("rice") || lower.contains("factor") || lower.contains("farm")) return DamageCategory.ECONOMIC_IMPACT;
+        if (lower.contains("livestock") || lower.contains("belongings")) return DamageCategory.LOSS_OF_BELONGINGS;
+        return DamageCategory.OTHER;
+    }
+
+    @Override
+    public AnalysisVersion getAnalysisVersion() {
+        return VERSION;
+    }
+}
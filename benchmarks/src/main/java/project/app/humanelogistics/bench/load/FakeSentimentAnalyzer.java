@@ -0,0 +1,42 @@
+package project.app.humanelogistics.bench.load;
+
+import project.app.humanelogistics.model.AnalysisVersion;
+import project.app.humanelogistics.service.KeywordSentimentAnalyzer;
+import project.app.humanelogistics.service.SentimentAnalyzer;
+
+/**
+ * Stands in for the Gemini sentiment model: keyword scoring behind a simulated API delay, with
+ * a share of calls failing the way a rate-limited or unavailable API does.
+ */
+public class FakeSentimentAnalyzer implements SentimentAnalyzer {
+
+    public static final AnalysisVersion VERSION = new AnalysisVersion(1, "loadtest-sentiment");
+
+    private final KeywordSentimentAnalyzer keywords = new KeywordSentimentAnalyzer();
+    private final SimulatedLatency latency;
+
+    public FakeSentimentAnalyzer(SimulatedLatency latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public SentimentType analyze(String text) {
+        if (!latency.pause()) throw new IllegalStateException("Simulated API error (429 Too Many Requests)");
+        return keywords.analyze(text);
+    }
+
+    // Neutral text gets a small non-zero score, as the model returns; 0.0 would mean "not analyzed"
+    @Override
+    public double analyzeScore(String text) {
+        switch (analyze(text)) {
+            case POSITIVE: return 0.6;
+            case NEGATIVE: return -0.6;
+            default: return 0.05;
+        }
+    }
+
+    @Override
+    public AnalysisVersion getAnalysisVersion() {
+        return VERSION;
+    }
+}
@@ -0,0 +1,313 @@
+package project.app.humanelogistics.bench.load;
+
+import project.app.humanelogistics.db.MongoMediaRepository;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.metrics.MetricsReporter;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.service.AnalysisService;
+import project.app.humanelogistics.service.ContentFetchService;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * End-to-end scale test against a local MongoDB. Fills the database with synthetic coverage,
+ * then runs ingestion, backlog analysis and dashboard queries at the same time through the real
+ * {@link AnalysisService}, with the AI models and publisher sites replaced by local fakes that
+ * have realistic delays and error rates. Reports throughput, latency percentiles and heap use.
+ *
+ * Usage: {@code java -cp benchmarks.jar project.app.humanelogistics.bench.load.LoadTest [options]}
+ * <pre>
+ *   --mongo mongodb://localhost:27017   --db storm_loadtest   --topic "Typhoon Loadtest"
+ *   --seed 1000000          documents inserted before the run (0 = reuse what is there)
+ *   --analyzed-share 0.8  --social-share 0.3  --link-only-share 0.05   mix of seeded documents
+ *   --minutes 10            length of the mixed phase
+ *   --ingest-workers 1      concurrent collection cycles
+ *   --items-per-cycle 200   items the synthetic collector returns per cycle
+ *   --analysis-workers 4    concurrent backlog analysis workers
+ *   --readers 4             concurrent dashboard readers
+ *   --ai-median-ms 800  --ai-p99-ms 4000  --ai-error-rate 0.02
+ *   --http-median-ms 150  --http-p99-ms 2000  --http-error-rate 0.05
+ *   --out loadtest-results  summary.txt, metrics.txt/json and the application log
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int SEED_THREADS = 4;
+    private static final int ANALYSIS_BATCH = 50;
+    private static final Duration HEAP_SAMPLE_INTERVAL = Duration.ofMillis(200);
+    private static final Duration STOP_GRACE = Duration.ofMinutes(2);
+
+    private final Map<String, String> options;
+    private final PrintStream console = System.out;
+
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private final AtomicLong ingestCycles = new AtomicLong();
+    private final AtomicLong analyzedItems = new AtomicLong();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                System.err.println("Unexpected argument '" + args[i] + "'. Options are --name value pairs.");
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        String topic = option("topic", "Typhoon Loadtest");
+        Path outDir = Path.of(option("out", "loadtest-results"));
+        Files.createDirectories(outDir);
+
+        SimulatedLatency aiLatency = new SimulatedLatency(
+                longOption("ai-median-ms", 800), longOption("ai-p99-ms", 4000), doubleOption("ai-error-rate", 0.02));
+        SimulatedLatency httpLatency = new SimulatedLatency(
+                longOption("http-median-ms", 150), longOption("http-p99-ms", 2000), doubleOption("http-error-rate", 0.05));
+
+        try (FakeArticleServer articleServer = new FakeArticleServer(httpLatency);
+             PrintStream appLog = new PrintStream(new BufferedOutputStream(
+                     new FileOutputStream(outDir.resolve("app.log").toFile())), false, "UTF-8")) {
+
+            MongoMediaRepository repository = new MongoMediaRepository(
+                    option("mongo", "mongodb://localhost:27017"), option("db", "storm_loadtest"), "news");
+            ZoneId zone = ZoneId.systemDefault();
+            SyntheticMediaGenerator generator = new SyntheticMediaGenerator(longOption("random-seed", 42), topic,
+                    Date.from(LocalDate.of(2024, 9, 1).atStartOfDay(zone).toInstant()),
+                    Date.from(LocalDate.of(2024, 11, 30).atStartOfDay(zone).toInstant()),
+                    articleServer.getBaseUrl(), FakeSentimentAnalyzer.VERSION, FakeDamageClassifier.VERSION);
+            generator.setAnalyzedShare(doubleOption("analyzed-share", 0.8));
+            generator.setSocialShare(doubleOption("social-share", 0.3));
+            generator.setLinkOnlyShare(doubleOption("link-only-share", 0.05));
+
+            // === SEED ===
+            long seedCount = longOption("seed", 1_000_000);
+            String seedLine = seedCount > 0 ? seed(repository, generator, seedCount) : "Seed:        skipped";
+
+            // === MIXED LOAD ===
+            AnalysisService analysisService = new AnalysisService(new FakeSentimentAnalyzer(aiLatency),
+                    new FakeDamageClassifier(aiLatency), new ContentFetchService());
+            analysisService.addRepository("News", repository);
+            analysisService.registerCollectors(new SyntheticCollector(generator,
+                    (int) longOption("items-per-cycle", 200), httpLatency));
+
+            long storedBefore = analysisService.getTotalPostCount(topic);
+            List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+            long gcCountBefore = gcCount(gcs);
+            long gcMillisBefore = gcMillis(gcs);
+
+            Duration length = Duration.ofMinutes(longOption("minutes", 10));
+            int ingestWorkers = (int) longOption("ingest-workers", 1);
+            int analysisWorkers = (int) longOption("analysis-workers", 4);
+            int readers = (int) longOption("readers", 4);
+            console.println("Running mixed load for " + length.toMinutes() + " min (application log: "
+                    + outDir.resolve("app.log") + ")");
+
+            // The application's per-item console output goes to the log, as it would in production
+            System.setOut(appLog);
+            long runStart = System.nanoTime();
+            ExecutorService workers = Executors.newFixedThreadPool(ingestWorkers + analysisWorkers + readers + 1);
+            try (MetricsReporter reporter = MetricsReporter.start(outDir, Duration.ofSeconds(10))) {
+                for (int i = 0; i < ingestWorkers; i++) {
+                    workers.submit(() -> ingestLoop(analysisService, topic));
+                }
+                for (int i = 0; i < analysisWorkers; i++) {
+                    workers.submit(() -> analysisLoop(analysisService, topic));
+                }
+                for (int i = 0; i < readers; i++) {
+                    workers.submit(() -> dashboardLoop(analysisService, topic));
+                }
+                workers.submit(this::heapSampler);
+
+                TimeUnit.NANOSECONDS.sleep(length.toNanos());
+                stopping.set(true);
+                console.println("Stopping: waiting for in-flight cycles to finish...");
+                workers.shutdown();
+                if (!workers.awaitTermination(STOP_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+                    workers.shutdownNow();
+                }
+            } finally {
+                System.setOut(console);
+            }
+            double seconds = (System.nanoTime() - runStart) / 1e9;
+
+            long stored = analysisService.getTotalPostCount(topic) - storedBefore;
+            String summary = summary(seedLine, seconds, ingestWorkers, analysisWorkers, readers, stored,
+                    articleServer, gcCount(gcs) - gcCountBefore, gcMillis(gcs) - gcMillisBefore);
+            console.println(summary);
+            console.println(MetricsReporter.toText());
+            Files.writeString(outDir.resolve("summary.txt"), summary + "\n" + MetricsReporter.toText());
+            console.println("Results written to " + outDir);
+        }
+    }
+
+    // --- PHASES ---
+
+    private String seed(MongoMediaRepository repository, SyntheticMediaGenerator generator, long count)
+            throws InterruptedException {
+        console.println("Seeding " + count + " documents...");
+        AtomicLong remaining = new AtomicLong(count);
+        AtomicLong inserted = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService inserters = Executors.newFixedThreadPool(SEED_THREADS);
+        for (int t = 0; t < SEED_THREADS; t++) {
+            inserters.submit(() -> {
+                long claimed;
+                while ((claimed = Math.min(SEED_BATCH_SIZE, remaining.getAndAdd(-SEED_BATCH_SIZE))) > 0) {
+                    List<Media> batch = new ArrayList<>((int) claimed);
+                    for (int i = 0; i < claimed; i++) batch.add(generator.nextStored());
+                    long total = inserted.addAndGet(repository.insertAll(batch));
+                    if (total / 100_000 != (total - claimed) / 100_000) {
+                        console.printf(Locale.ROOT, "   %,d inserted (%.0f docs/s)%n", total,
+                                total / ((System.nanoTime() - start) / 1e9));
+                    }
+                }
+            });
+        }
+        inserters.shutdown();
+        inserters.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format(Locale.ROOT, "Seed:        %,d docs in %.1f s (%,.0f docs/s)",
+                inserted.get(), seconds, inserted.get() / seconds);
+    }
+
+    private void ingestLoop(AnalysisService analysisService, String topic) {
+        while (!stopping.get()) {
+            analysisService.processNewData(topic, "9/1/2024", "11/30/2024", true);
+            ingestCycles.incrementAndGet();
+        }
+    }
+
+    private void analysisLoop(AnalysisService analysisService, String topic) {
+        while (!stopping.get()) {
+            int updated = analysisService.processExistingData(topic, ANALYSIS_BATCH);
+            analyzedItems.addAndGet(updated);
+            if (updated == 0 && !pause(Duration.ofSeconds(1))) return; // Backlog empty for now
+        }
+    }
+
+    // Every query the dashboard issues when a topic is opened
+    private void dashboardLoop(AnalysisService analysisService, String topic) {
+        while (!stopping.get()) {
+            timed("loadtest.dashboard.count", () -> analysisService.getTotalPostCount(topic));
+            timed("loadtest.dashboard.sentiment", () -> analysisService.getOverallSentiment(topic));
+            timed("loadtest.dashboard.damage", () -> analysisService.getAggregatedDamageStats(topic));
+            timed("loadtest.dashboard.trends", () -> analysisService.getSentimentTrends(topic));
+        }
+    }
+
+    private void heapSampler() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Metrics.gauge("loadtest.heap.usedMb", () -> memory.getHeapMemoryUsage().getUsed() / 1048576.0);
+        Metrics.gauge("loadtest.heap.peakMb", () -> peakHeapBytes.get() / 1048576.0);
+        while (!stopping.get()) {
+            peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            if (!pause(HEAP_SAMPLE_INTERVAL)) return;
+        }
+    }
+
+    // --- REPORT ---
+
+    private String summary(String seedLine, double seconds, int ingestWorkers, int analysisWorkers, int readers,
+                           long stored, FakeArticleServer articleServer, long gcCount, long gcMillis) {
+        long queries = 0;
+        StringBuilder queryLines = new StringBuilder();
+        for (String query : new String[]{"count", "sentiment", "damage", "trends"}) {
+            LatencyHistogram.Snapshot s = Metrics.histogram("loadtest.dashboard." + query).snapshot();
+            queries += s.getCount();
+            queryLines.append(String.format(Locale.ROOT, "  %-12s %8d %9.1f %9.1f %9.1f %9.1f%n", query, s.getCount(),
+                    s.percentile(50) / 1000.0, s.percentile(99) / 1000.0, s.percentile(99.9) / 1000.0, s.getMaxMicros() / 1000.0));
+        }
+        long maxHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
+
+        StringBuilder sb = new StringBuilder("\n=== LOAD TEST SUMMARY ===\n").append(seedLine).append('\n');
+        sb.append(String.format(Locale.ROOT, "Run:         %.0f s, %d ingest / %d analysis / %d reader threads%n",
+                seconds, ingestWorkers, analysisWorkers, readers));
+        sb.append(String.format(Locale.ROOT, "Ingestion:   %d cycles, %,d new items stored (%.1f items/s)%n",
+                ingestCycles.get(), stored, stored / seconds));
+        sb.append(String.format(Locale.ROOT, "Analysis:    %,d backlog items analyzed (%.1f items/s)%n",
+                analyzedItems.get(), analyzedItems.get() / seconds));
+        sb.append(String.format(Locale.ROOT, "Dashboard:   %,d queries (%.1f queries/s)%n", queries, queries / seconds));
+        sb.append(String.format(Locale.ROOT, "  %-12s %8s %9s %9s %9s %9s%n", "query (ms)", "count", "p50", "p99", "p999", "max"));
+        sb.append(queryLines);
+        sb.append(String.format(Locale.ROOT, "Fetch fake:  %,d pages served, %,d failed%n",
+                articleServer.getServed(), articleServer.getFailed()));
+        sb.append(String.format(Locale.ROOT, "Heap:        peak %.0f MB used of %.0f MB max; %d GCs, %d ms total pause%n",
+                peakHeapBytes.get() / 1048576.0, maxHeap / 1048576.0, gcCount, gcMillis));
+        return sb.toString();
+    }
+
+    // --- HELPERS ---
+
+    private static void timed(String histogram, Supplier<?> query) {
+        long start = System.nanoTime();
+        query.get();
+        Metrics.histogram(histogram).recordSince(start);
+    }
+
+    private static boolean pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long gcCount(List<GarbageCollectorMXBean> gcs) {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : gcs) total += Math.max(0, gc.getCollectionCount());
+        return total;
+    }
+
+    private static long gcMillis(List<GarbageCollectorMXBean> gcs) {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : gcs) total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private long longOption(String name, long defaultValue) {
+        return options.containsKey(name) ? Long.parseLong(options.get(name).replace("_", "")) : defaultValue;
+    }
+
+    private double doubleOption(String name, double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+}
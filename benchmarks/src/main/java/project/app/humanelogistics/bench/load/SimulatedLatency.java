@@ -0,0 +1,42 @@
+package project.app.humanelogistics.bench.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log-normal delays shaped by a median and a p99, like the response times of a remote API:
+ * most calls are near the median, a few take many times longer. A share of calls can fail.
+ */
+public class SimulatedLatency {
+
+    private static final double Z_99 = 2.326; // Standard normal quantile of the 99th percentile
+
+    private final double mu;
+    private final double sigma;
+    private final double errorRate;
+
+    public SimulatedLatency(long medianMillis, long p99Millis, double errorRate) {
+        this.mu = Math.log(Math.max(1, medianMillis));
+        this.sigma = Math.log(Math.max(1.0, (double) p99Millis / Math.max(1, medianMillis))) / Z_99;
+        this.errorRate = errorRate;
+    }
+
+    public long sampleMillis() {
+        return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    public boolean shouldFail() {
+        return ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    /** Sleeps for one sampled delay; returns false if the call should be treated as failed. */
+    public boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(sampleMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !shouldFail();
+    }
+}
@@ -0,0 +1,33 @@
+package project.app.humanelogistics.bench.load;
+
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.preprocessing.DataCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** A collector that returns a fixed number of generated items per run after a simulated scrape delay. */
+public class SyntheticCollector implements DataCollector {
+
+    private final SyntheticMediaGenerator generator;
+    private final int itemsPerRun;
+    private final SimulatedLatency pageLatency;
+
+    public SyntheticCollector(SyntheticMediaGenerator generator, int itemsPerRun, SimulatedLatency pageLatency) {
+        this.generator = generator;
+        this.itemsPerRun = itemsPerRun;
+        this.pageLatency = pageLatency;
+    }
+
+    @Override
+    public List<Media> collect(String query, String startDate, String endDate, int limit) {
+        List<Media> items = new ArrayList<>(itemsPerRun);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < itemsPerRun; i++) {
+            // One result page per ten items, as Google News paginates
+            if (i % 10 == 0 && !pageLatency.pause()) break;
+            items.add(generator.nextCollected(now));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,266 @@
+package project.app.humanelogistics.bench.load;
+
+import project.app.humanelogistics.model.AnalysisVersion;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+import project.app.humanelogistics.model.SocialPost;
+import project.app.humanelogistics.preprocessing.NearDuplicateDetector;
+import project.app.humanelogistics.preprocessing.UrlCanonicalizer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces storm coverage that looks like what the collectors store: headlines with snippets
+ * from weighted sources, social posts, syndicated copies of the same story, and timestamps that
+ * surge around landfall and then decay. The same seed always produces the same data.
+ */
+public class SyntheticMediaGenerator {
+
+    // Source name as the collectors report it, its host, and its share of news items
+    private static final String[][] SOURCES = {
+            {"VnExpress International", "e.vnexpress.net"},
+            {"Tuoi Tre News", "tuoitrenews.vn"},
+            {"VietnamNet", "vietnamnet.vn"},
+            {"Reuters", "reuters.com"},
+            {"Associated Press", "apnews.com"},
+            {"BBC", "bbc.com"},
+            {"Nhan Dan", "en.nhandan.vn"},
+            {"Saigon Times", "english.thesaigontimes.vn"},
+            {"Local Blog", "storm-updates.blogspot.com"},
+    };
+    private static final double[] SOURCE_SHARES = {0.24, 0.16, 0.12, 0.08, 0.06, 0.05, 0.12, 0.09, 0.08};
+
+    private static final String[] PLACES = {
+            "Hanoi", "Hai Phong", "Quang Ninh", "Lao Cai", "Yen Bai", "Cao Bang", "Thai Nguyen",
+            "Bac Giang", "Phu Tho", "Tuyen Quang", "Ha Giang", "Lang Son", "Nam Dinh", "Thai Binh"};
+
+    private static final DamageCategory[] CATEGORIES = {
+            DamageCategory.AFFECTED_PEOPLE, DamageCategory.INFRASTRUCTURE_DAMAGE, DamageCategory.HOUSING_DAMAGE,
+            DamageCategory.ECONOMIC_IMPACT, DamageCategory.LOSS_OF_BELONGINGS, DamageCategory.OTHER};
+    private static final double[] CATEGORY_SHARES = {0.25, 0.2, 0.2, 0.15, 0.05, 0.15};
+
+    // Headlines per category, in CATEGORIES order: {place}, {storm} and {n} are filled in
+    private static final String[][] HEADLINES = {
+            {"{n} people evacuated as {storm} floods {place}",
+                    "Thousands stranded in {place} after {storm} cuts off villages",
+                    "{n} dead, dozens missing in {place} landslide after {storm}"},
+            {"Bridge collapses in {place} as {storm} swells the Red River",
+                    "Power outage hits {n} households in {place} after {storm}",
+                    "Roads to {place} blocked by landslides, repair crews deployed"},
+            {"{n} homes unroofed in {place} by {storm} winds",
+                    "Flood water reaches rooftops in {place} villages",
+                    "Apartment blocks in {place} damaged as {storm} makes landfall"},
+            {"{storm} destroys {n} hectares of rice in {place}",
+                    "Factories in {place} halt production after {storm}",
+                    "Fish farms in {place} wiped out by {storm}"},
+            {"Families in {place} lose livestock and savings to {storm} floods",
+                    "Residents of {place} return to find belongings swept away"},
+            {"Schools in {place} reopen a week after {storm}",
+                    "Volunteers bring food and water to {place} after {storm}",
+                    "Government pledges support for {place} recovery after {storm}"},
+    };
+
+    private static final String[] SNIPPETS = {
+            "Authorities in {place} said {n} rescue workers were deployed overnight.",
+            "Heavy rain is expected to continue across the north for another two days.",
+            "The disaster agency said damage estimates are still being collected.",
+            "Residents described winds stronger than anything they had seen in decades.",
+            "Aid groups are appealing for donations of clean water and medicine.",
+    };
+
+    private static final String[] SOCIAL = {
+            "Praying for everyone in {place} tonight #{tag}",
+            "Our street in {place} is under water, no power since yesterday. Stay safe everyone",
+            "Thank you to the volunteers in {place}, real solidarity! #{tag}",
+            "Is it true the dam near {place} is about to break? Worried about my family",
+            "Fake news going around about {place}, please check official sources",
+            "{n} of us are cleaning up the school in {place} this weekend, join if you can #{tag}",
+    };
+
+    private final Random random;
+    private final String topic;
+    private final String hashtag;
+    private final long startMillis;
+    private final long endMillis;
+    private final long peakMillis;
+    private final String runId;
+    private final String articleBaseUrl;
+    private final AnalysisVersion sentimentVersion;
+    private final AnalysisVersion damageVersion;
+    private final NearDuplicateDetector signer = new NearDuplicateDetector();
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer();
+    private final List<Media> recentlyCollected = new ArrayList<>();
+
+    private double socialShare = 0.3;
+    private double analyzedShare = 0.8;
+    private double linkOnlyShare = 0.05;
+    private double syndicatedShare = 0.1;
+    private double rescrapeShare = 0.2;
+
+    private long sequence;
+    private String lastHeadline;
+
+    /**
+     * @param articleBaseUrl where link-only items point (the local {@link FakeArticleServer})
+     * @param sentimentVersion stamped on pre-analyzed items, so they count as current
+     */
+    public SyntheticMediaGenerator(long seed, String topic, Date start, Date end, String articleBaseUrl,
+                                   AnalysisVersion sentimentVersion, AnalysisVersion damageVersion) {
+        this.random = new Random(seed);
+        this.topic = topic;
+        this.hashtag = topic.replaceAll("[^\\p{L}\\p{N}]", "");
+        this.startMillis = start.getTime();
+        this.endMillis = Math.max(end.getTime(), startMillis + 1);
+        this.peakMillis = startMillis + (endMillis - startMillis) / 7; // Landfall early in the range
+        this.runId = Long.toString(System.currentTimeMillis(), 36);
+        this.articleBaseUrl = articleBaseUrl;
+        this.sentimentVersion = sentimentVersion;
+        this.damageVersion = damageVersion;
+    }
+
+    // --- MIX ---
+
+    public void setSocialShare(double share) { this.socialShare = share; }
+    public void setAnalyzedShare(double share) { this.analyzedShare = share; }
+    public void setLinkOnlyShare(double share) { this.linkOnlyShare = share; }
+    public void setSyndicatedShare(double share) { this.syndicatedShare = share; }
+    public void setRescrapeShare(double share) { this.rescrapeShare = share; }
+
+    // --- GENERATION ---
+
+    /**
+     * An item as it would sit in the database after months of collection: most are analyzed and
+     * signed, the rest wait in the backlog. Link-only items have no text and must be fetched.
+     */
+    public synchronized Media nextStored() {
+        long seq = sequence++;
+        DamageCategory category = pick(CATEGORIES, CATEGORY_SHARES);
+        Date timestamp = new Date(surgeTimestamp());
+
+        Media item;
+        if (random.nextDouble() < linkOnlyShare) {
+            item = new News(topic, "", "Local Blog", articleBaseUrl + "/article/" + runId + "-" + seq, timestamp, 0.0);
+        } else if (random.nextDouble() < socialShare) {
+            item = socialPost(seq, timestamp);
+        } else {
+            item = newsItem(seq, category, timestamp);
+        }
+        item.setCanonicalUrl(canonicalizer.canonicalize(item.getUrl()));
+
+        if (item.hasContent() && random.nextDouble() < analyzedShare) {
+            item.setSentiment(sentimentFor(category));
+            item.setDamageType(category);
+            item.setSentimentVersion(sentimentVersion);
+            item.setDamageVersion(damageVersion);
+            item.setMinhash(signer.signature(item.getContent()));
+        }
+        return item;
+    }
+
+    /**
+     * An item as a collector returns it: un-analyzed and published within the day. Some are
+     * stories the collector already returned on an earlier run.
+     */
+    public synchronized Media nextCollected(long nowMillis) {
+        if (!recentlyCollected.isEmpty() && random.nextDouble() < rescrapeShare) {
+            Media seen = recentlyCollected.get(random.nextInt(recentlyCollected.size()));
+            return copyOf(seen);
+        }
+        long seq = sequence++;
+        Date timestamp = new Date(nowMillis - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(1)));
+        Media item = random.nextDouble() < socialShare
+                ? socialPost(seq, timestamp)
+                : newsItem(seq, pick(CATEGORIES, CATEGORY_SHARES), timestamp);
+
+        if (recentlyCollected.size() < 1000) {
+            recentlyCollected.add(item);
+        } else {
+            recentlyCollected.set(random.nextInt(recentlyCollected.size()), item);
+        }
+        return item;
+    }
+
+    private Media newsItem(long seq, DamageCategory category, Date timestamp) {
+        int sourceIndex = pickIndex(SOURCE_SHARES);
+        String headline;
+        if (lastHeadline != null && random.nextDouble() < syndicatedShare) {
+            headline = lastHeadline; // Same wire story under another outlet
+        } else {
+            String[] options = HEADLINES[indexOf(category)];
+            headline = fill(options[random.nextInt(options.length)]);
+            lastHeadline = headline;
+        }
+        String title = headline + " - " + SOURCES[sourceIndex][0];
+        String content = random.nextDouble() < 0.7 ? title + ". " + fill(SNIPPETS[random.nextInt(SNIPPETS.length)]) : title;
+        String url = "https://" + SOURCES[sourceIndex][1] + "/news/" + slug(headline) + "-" + runId + "-" + seq + ".html"
+                + (random.nextDouble() < 0.2 ? "?utm_source=google&utm_medium=news" : "");
+        return new News(topic, content, SOURCES[sourceIndex][0], url, timestamp, 0.0);
+    }
+
+    private Media socialPost(long seq, Date timestamp) {
+        String content = fill(SOCIAL[random.nextInt(SOCIAL.length)]);
+        return new SocialPost(topic, content, "https://facebook.com/posts/" + runId + "-" + seq, timestamp, null, 0.0);
+    }
+
+    private Media copyOf(Media seen) {
+        if (seen instanceof News) {
+            return new News(topic, seen.getContent(), ((News) seen).getSource(), seen.getUrl(), seen.getTimestamp(), 0.0);
+        }
+        return new SocialPost(topic, seen.getContent(), seen.getUrl(), seen.getTimestamp(), null, 0.0);
+    }
+
+    // --- HELPERS ---
+
+    // Most coverage follows landfall and tails off over days; the rest is spread over the range
+    private long surgeTimestamp() {
+        if (random.nextDouble() < 0.3) {
+            return startMillis + (long) (random.nextDouble() * (endMillis - startMillis));
+        }
+        long afterPeak = (long) (-Math.log(1 - random.nextDouble()) * TimeUnit.DAYS.toMillis(4));
+        return Math.min(endMillis, peakMillis + afterPeak);
+    }
+
+    // Never 0.0: that value means "not analyzed"
+    private double sentimentFor(DamageCategory category) {
+        double base = category == DamageCategory.OTHER ? 0.3 : -0.5;
+        double score = Math.max(-1, Math.min(1, base + random.nextGaussian() * 0.35));
+        return score == 0.0 ? 0.01 : Math.round(score * 100) / 100.0;
+    }
+
+    private String fill(String template) {
+        return template.replace("{place}", PLACES[random.nextInt(PLACES.length)])
+                .replace("{storm}", topic)
+                .replace("{tag}", hashtag)
+                .replace("{n}", String.valueOf((int) Math.exp(random.nextDouble() * Math.log(5000)) + 1));
+    }
+
+    private static String slug(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+    }
+
+    private <T> T pick(T[] values, double[] shares) {
+        return values[pickIndex(shares)];
+    }
+
+    private int pickIndex(double[] shares) {
+        double r = random.nextDouble();
+        for (int i = 0; i < shares.length - 1; i++) {
+            r -= shares[i];
+            if (r < 0) return i;
+        }
+        return shares.length - 1;
+    }
+
+    private static int indexOf(DamageCategory category) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (CATEGORIES[i] == category) return i;
+        }
+        return CATEGORIES.length - 1;
+    }
+}
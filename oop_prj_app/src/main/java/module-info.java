@@ -8,6 +8,9 @@ module project.app.humanelogistics {
     requires org.mongodb.bson;
     requires org.mongodb.driver.core;
     requires java.net.http;
+    requires java.management;
+    requires jdk.jfr;
+    requires java.xml;
     requires org.jsoup;
     requires io.github.cdimascio.dotenv.java;
 
@@ -22,12 +25,18 @@ module project.app.humanelogistics {
     exports project.app.humanelogistics.model;
     opens project.app.humanelogistics.model to javafx.fxml;
 
+    // Types of TopicSketch's public API
+    exports project.app.humanelogistics.sketch;
+
     exports project.app.humanelogistics.preprocessing;
     opens project.app.humanelogistics.preprocessing to javafx.fxml;
 
     exports project.app.humanelogistics.db;
     opens project.app.humanelogistics.db to javafx.fxml;
 
+    // Types of MongoMediaRepository's search index API
+    exports project.app.humanelogistics.search;
+
     // NEW: Export the ViewModel package
     exports project.app.humanelogistics.viewmodel;
     opens project.app.humanelogistics.viewmodel to javafx.fxml;
@@ -1,6 +1,11 @@
 package project.app.humanelogistics;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import project.app.humanelogistics.preprocessing.RssFeedCollector;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class Config {
 
@@ -46,6 +51,180 @@ public class Config {
             }
             return DEFAULT_DB_CONN;
         }
-        return conn;
+        return withCompressors(conn);
+    }
+
+    // Wire compression, unless the connection string already chooses (compressors=...)
+    private static String withCompressors(String conn) {
+        String compressors = getMongoCompressors();
+        if (compressors.isEmpty() || conn.contains("compressors=")) return conn;
+        if (conn.indexOf('?') >= 0) return conn + "&compressors=" + compressors;
+        // Options go after the path: mongodb://host/?... even when there is no database name
+        int hosts = conn.indexOf("://") + 3;
+        return conn + (conn.indexOf('/', hosts) >= 0 ? "?" : "/?") + "compressors=" + compressors;
+    }
+
+    // Comma-separated, in order of preference; "none" turns compression off. zstd and snappy need
+    // their libraries on the class path, zlib is built in.
+    public static String getMongoCompressors() {
+        String value = (dotenv != null) ? dotenv.get("MONGO_COMPRESSORS") : System.getenv("MONGO_COMPRESSORS");
+        if (value == null || value.isEmpty()) return "zlib";
+        if (value.trim().equalsIgnoreCase("none")) return "";
+        StringBuilder compressors = new StringBuilder();
+        for (String name : value.split(",")) {
+            name = name.trim().toLowerCase();
+            String library = name.equals("zstd") ? "com.github.luben.zstd.Zstd"
+                    : name.equals("snappy") ? "org.xerial.snappy.Snappy" : null;
+            if (!name.equals("zlib") && library == null) {
+                System.err.println("Invalid MONGO_COMPRESSORS entry '" + name + "', skipping.");
+                continue;
+            }
+            if (library != null) {
+                try {
+                    Class.forName(library);
+                } catch (ClassNotFoundException e) {
+                    System.err.println("MONGO_COMPRESSORS: " + name + " library not found, skipping.");
+                    continue;
+                }
+            }
+            if (compressors.length() > 0) compressors.append(',');
+            compressors.append(name);
+        }
+        return compressors.toString();
+    }
+
+    // Directory for the periodic metrics.txt / metrics.json snapshots
+    public static String getMetricsDir() {
+        String dir = (dotenv != null) ? dotenv.get("METRICS_DIR") : System.getenv("METRICS_DIR");
+        return (dir == null || dir.isEmpty()) ? "metrics" : dir;
+    }
+
+    // --- COLLECTORS ---
+
+    // Comma-separated RSS/Atom feed URLs ({query} is replaced by the topic); unset = Google News search, "none" = off
+    public static String[] getRssFeeds() {
+        String feeds = (dotenv != null) ? dotenv.get("RSS_FEEDS") : System.getenv("RSS_FEEDS");
+        if (feeds == null || feeds.isBlank()) return new String[] {RssFeedCollector.GOOGLE_NEWS_RSS};
+        if ("none".equalsIgnoreCase(feeds.trim())) return new String[0];
+        return Arrays.stream(feeds.split(",")).map(String::trim).filter(f -> !f.isEmpty()).toArray(String[]::new);
+    }
+
+    // --- ANALYSIS QUEUE ---
+
+    // Comma-separated "source=weight" pairs (0..1), e.g. "Reuters=1.0, Local Blog=0.2"; added to the built-in weights
+    public static Map<String, Double> getSourceWeights() {
+        String weights = (dotenv != null) ? dotenv.get("SOURCE_WEIGHTS") : System.getenv("SOURCE_WEIGHTS");
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        if (weights == null || weights.isBlank()) return parsed;
+        for (String entry : weights.split(",")) {
+            if (entry.isBlank()) continue;
+            int eq = entry.lastIndexOf('=');
+            try {
+                if (eq <= 0) throw new NumberFormatException();
+                parsed.put(entry.substring(0, eq).trim(), Double.parseDouble(entry.substring(eq + 1).trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid SOURCE_WEIGHTS entry '" + entry.trim() + "', ignoring it.");
+            }
+        }
+        return parsed;
+    }
+
+    // --- INGESTION DAEMON ---
+
+    public static String getTopicsFile() {
+        String file = (dotenv != null) ? dotenv.get("TOPICS_FILE") : System.getenv("TOPICS_FILE");
+        return (file == null || file.isEmpty()) ? "topics.conf" : file;
+    }
+
+    public static int getDaemonWorkers() {
+        String workers = (dotenv != null) ? dotenv.get("DAEMON_WORKERS") : System.getenv("DAEMON_WORKERS");
+        try {
+            return (workers == null || workers.isEmpty()) ? 4 : Math.max(1, Integer.parseInt(workers.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid DAEMON_WORKERS '" + workers + "', using 4.");
+            return 4;
+        }
+    }
+
+    // --- DASHBOARD ---
+
+    // Background threads for dashboard queries and chart rendering
+    public static int getDashboardThreads() {
+        String threads = (dotenv != null) ? dotenv.get("DASHBOARD_THREADS") : System.getenv("DASHBOARD_THREADS");
+        try {
+            return (threads == null || threads.isEmpty()) ? 3 : Math.max(1, Integer.parseInt(threads.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid DASHBOARD_THREADS '" + threads + "', using 3.");
+            return 3;
+        }
+    }
+
+    // Shortest time between two live dashboard refreshes; 0 = no live updates (refresh on navigation only)
+    public static long getLiveFrameMillis() {
+        String ms = (dotenv != null) ? dotenv.get("LIVE_FRAME_MS") : System.getenv("LIVE_FRAME_MS");
+        try {
+            return (ms == null || ms.isEmpty()) ? 250 : Math.max(0, Long.parseLong(ms.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid LIVE_FRAME_MS '" + ms + "', using 250.");
+            return 250;
+        }
+    }
+
+    // Memory for rendered chart images; older images are evicted first
+    public static long getChartCacheBytes() {
+        String mb = (dotenv != null) ? dotenv.get("CHART_CACHE_MB") : System.getenv("CHART_CACHE_MB");
+        try {
+            return (mb == null || mb.isEmpty()) ? 64L << 20 : Math.max(0, Long.parseLong(mb.trim())) << 20;
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid CHART_CACHE_MB '" + mb + "', using 64.");
+            return 64L << 20;
+        }
+    }
+
+    // Keeps rendered charts across restarts; unset = memory only
+    public static String getChartCacheDir() {
+        String dir = (dotenv != null) ? dotenv.get("CHART_CACHE_DIR") : System.getenv("CHART_CACHE_DIR");
+        return (dir == null || dir.isEmpty()) ? null : dir;
+    }
+
+    // Time resolution of surge detection; 0 turns it off
+    public static int getSurgeBucketMinutes() {
+        String minutes = (dotenv != null) ? dotenv.get("SURGE_BUCKET_MINUTES") : System.getenv("SURGE_BUCKET_MINUTES");
+        try {
+            return (minutes == null || minutes.isEmpty()) ? 10 : Math.max(0, Integer.parseInt(minutes.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid SURGE_BUCKET_MINUTES '" + minutes + "', using 10.");
+            return 10;
+        }
+    }
+
+    // Standard deviations above (or below) normal that raise a surge alert
+    public static double getSurgeThreshold() {
+        String z = (dotenv != null) ? dotenv.get("SURGE_THRESHOLD") : System.getenv("SURGE_THRESHOLD");
+        try {
+            return (z == null || z.isEmpty()) ? 4.0 : Double.parseDouble(z.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid SURGE_THRESHOLD '" + z + "', using 4.0.");
+            return 4.0;
+        }
+    }
+
+    // Full-text search index of the article browser; unset = no text search
+    public static String getSearchIndexDir() {
+        String dir = (dotenv != null) ? dotenv.get("SEARCH_INDEX_DIR") : System.getenv("SEARCH_INDEX_DIR");
+        return (dir == null || dir.isEmpty()) ? null : dir;
+    }
+
+    // --- RETENTION ---
+
+    // Items older than this keep only their analysis in the main collection; the text is archived. 0 = never
+    public static int getArchiveAfterDays() {
+        String days = (dotenv != null) ? dotenv.get("ARCHIVE_AFTER_DAYS") : System.getenv("ARCHIVE_AFTER_DAYS");
+        try {
+            return (days == null || days.isEmpty()) ? 90 : Math.max(0, Integer.parseInt(days.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid ARCHIVE_AFTER_DAYS '" + days + "', using 90.");
+            return 90;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,88 @@
 package project.app.humanelogistics;
 
-import project.app.humanelogistics.db.MediaRepository;
 import project.app.humanelogistics.db.MongoMediaRepository;
+import project.app.humanelogistics.metrics.MetricsReporter;
 import project.app.humanelogistics.preprocessing.GeminiDamageClassifier;
 import project.app.humanelogistics.preprocessing.GoogleNewsCollector;
+import project.app.humanelogistics.preprocessing.RssFeedCollector;
 import project.app.humanelogistics.preprocessing.SentimentGrade;
+import project.app.humanelogistics.search.ContentIndex;
 import project.app.humanelogistics.service.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class DataIngestionApp {
 
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(60);
+    private static final Duration METRICS_INTERVAL = Duration.ofSeconds(30);
+
+    // Default model budget for re-analysis runs (items per minute)
+    private static final int BACKFILL_RATE = 30;
+
+    private static final Duration ARCHIVE_INTERVAL = Duration.ofHours(24);
+    private static final Duration SEARCH_COMMIT_INTERVAL = Duration.ofSeconds(30);
+    // Writes update the daily sketches themselves; this only folds their updates and rebuilds dirty days
+    private static final Duration SKETCH_REFRESH_INTERVAL = Duration.ofMinutes(1);
+
+    // Buckets in the window surge detection judges: an hour at the default 10-minute buckets
+    private static final int SURGE_WINDOW_BUCKETS = 6;
+    // Older items are catch-up, not news; two days because Google News dates items only to the day
+    private static final Duration SURGE_MAX_ITEM_AGE = Duration.ofDays(2);
+
+    // One process writes the index and picks up what the others save; the dashboard reads the same directory
+    private static void openSearchIndex(MongoMediaRepository repository) {
+        String dir = Config.getSearchIndexDir();
+        if (dir == null) return;
+        ContentIndex index;
+        try {
+            index = ContentIndex.open(Path.of(dir));
+        } catch (IOException e) {
+            System.out.println("Search index not written by this process: " + e.getMessage());
+            return;
+        }
+        try {
+            repository.setSearchIndex(index);
+            repository.catchUpSearchIndex();
+
+            // New items and category changes reach the dashboard (and survive a crash) within one interval
+            ScheduledExecutorService committer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "search-index-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            committer.scheduleWithFixedDelay(() -> {
+                try {
+                    repository.catchUpSearchIndex();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Search index commit failed: " + e.getMessage());
+                }
+            }, SEARCH_COMMIT_INTERVAL.toSeconds(), SEARCH_COMMIT_INTERVAL.toSeconds(), TimeUnit.SECONDS);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                committer.shutdownNow();
+                try {
+                    index.close();
+                } catch (IOException e) {
+                    System.err.println("Could not save search index: " + e.getMessage());
+                }
+            }, "search-index-close"));
+        } catch (IOException e) {
+            System.err.println("Search index disabled: " + e.getMessage());
+            repository.setSearchIndex(null);
+            try {
+                index.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
     public static void main(String[] args) {
         System.out.println("==========================================");
         System.out.println("   HUMANE LOGISTICS - DATA INGESTION TOOL");
@@ -18,25 +90,72 @@ public class DataIngestionApp {
 
         // === DEPENDENCY SETUP (Manual DI) ===
         String dbConn = Config.getDbConnectionString();
-        MediaRepository repository = new MongoMediaRepository(dbConn, "storm_data", "news");
+        MongoMediaRepository repository = new MongoMediaRepository(dbConn, "storm_data", "news");
+        openSearchIndex(repository);
+        // Lets the dashboard apply this tool's analysis updates as deltas instead of re-aggregating
+        repository.enableChangePreImages();
 
         // Create services
         SentimentAnalyzer sentimentAnalyzer = new SentimentGrade();
         GeminiDamageClassifier damageClassifier = new GeminiDamageClassifier();
         ContentFetchService contentFetcher = new ContentFetchService();
 
-        ContentEnrichmentService enrichmentService = new ContentEnrichmentService(
-                sentimentAnalyzer, damageClassifier, contentFetcher
-        );
+        AnalysisService analysisService = new AnalysisService(sentimentAnalyzer, damageClassifier, contentFetcher);
+        analysisService.addRepository("News", repository);
+        Config.getSourceWeights().forEach(analysisService.getEnrichmentPriority()::setSourceWeight);
+        if (Config.getSurgeBucketMinutes() > 0) {
+            analysisService.setSurgeDetector(new SurgeDetector(Duration.ofMinutes(Config.getSurgeBucketMinutes()),
+                    SURGE_WINDOW_BUCKETS, Config.getSurgeThreshold(), SURGE_MAX_ITEM_AGE));
+        }
 
-        DataIngestionService ingestionService = new DataIngestionService(repository);
+        // Register collectors
+        analysisService.registerCollectors(new GoogleNewsCollector());
+        String[] feeds = Config.getRssFeeds();
+        if (feeds.length > 0) analysisService.registerCollectors(new RssFeedCollector(feeds));
 
-        AnalysisOrchestrator orchestrator = new AnalysisOrchestrator(
-                ingestionService, enrichmentService, repository
-        );
+        // Metrics snapshots on disk (also live over JMX); the last one is written on exit
+        MetricsReporter metricsReporter = MetricsReporter.start(Path.of(Config.getMetricsDir()), METRICS_INTERVAL);
+        Runtime.getRuntime().addShutdownHook(new Thread(metricsReporter::close, "metrics-final-snapshot"));
 
-        // Register collectors
-        orchestrator.registerCollector(new GoogleNewsCollector());
+        if (args.length > 0 && "--daemon".equals(args[0])) {
+            runDaemon(analysisService, repository, args.length > 1 ? args[1] : Config.getTopicsFile());
+            return;
+        }
+        if (args.length > 0 && "--archive".equals(args[0])) {
+            // --archive [days]: one retention pass, e.g. after lowering ARCHIVE_AFTER_DAYS
+            int days = Config.getArchiveAfterDays();
+            if (args.length > 1) {
+                try {
+                    days = Integer.parseInt(args[1].trim());
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid number of days '" + args[1] + "'. Usage: --archive [days]");
+                    return;
+                }
+            }
+            archiveOldContent(repository, days);
+            return;
+        }
+        if (args.length > 1 && "--rebuild-sketches".equals(args[0])) {
+            // --rebuild-sketches <topic>: for items stored before sketches were kept up to date on write
+            System.out.println("Rebuilt " + repository.rebuildSketches(args[1]) + " daily sketches of " + args[1]);
+            return;
+        }
+        if (args.length > 1 && "--backfill".equals(args[0])) {
+            // --backfill <topic> [items per minute] [max items]
+            int rate = BACKFILL_RATE;
+            int maxItems = Integer.MAX_VALUE;
+            try {
+                if (args.length > 2) rate = Integer.parseInt(args[2].trim());
+                if (args.length > 3) maxItems = Integer.parseInt(args[3].trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number in '" + String.join(" ", args)
+                        + "'. Usage: --backfill <topic> [items per minute] [max items]");
+                return;
+            }
+            analysisService.backfillStale(args[1], maxItems, rate);
+            refreshSketches(repository);
+            return;
+        }
 
         // === USER INPUT ===
         Scanner scanner = new Scanner(System.in);
@@ -57,6 +176,7 @@ public class DataIngestionApp {
         System.out.println("   [1] Search Only");
         System.out.println("   [2] Search + Analyze");
         System.out.println("   [3] Analyze Existing Data");
+        System.out.println("   [4] Re-analyze Outdated Results (current prompt/model)");
         System.out.print("Enter choice: ");
 
         String choice = scanner.nextLine().trim();
@@ -65,24 +185,116 @@ public class DataIngestionApp {
         switch (choice) {
             case "1":
                 System.out.println("\n>>> SEARCH ONLY <<<");
-                orchestrator.processNewData(topic, startDate, endDate, false);
+                analysisService.processNewData(topic, startDate, endDate, false);
                 break;
             case "2":
                 System.out.println("\n>>> FULL ANALYSIS <<<");
-                orchestrator.processNewData(topic, startDate, endDate, true);
+                analysisService.processNewData(topic, startDate, endDate, true);
                 break;
             case "3":
                 System.out.println("\n>>> ANALYZE EXISTING DATA <<<");
-                orchestrator.processExistingData(topic);
+                analysisService.processExistingData(topic);
+                break;
+            case "4":
+                System.out.println("\n>>> RE-ANALYZE OUTDATED RESULTS <<<");
+                analysisService.backfillStale(topic, Integer.MAX_VALUE, BACKFILL_RATE);
                 break;
             default:
                 System.out.println("Invalid choice. Exiting.");
         }
 
+        refreshSketches(repository);
+
         System.out.println("\n==========================================");
         System.out.println("   OPERATION COMPLETE");
         System.out.println("==========================================");
 
         scanner.close();
     }
+
+    // Hashes older items, then archives the text of items older than `days` (0 = hashing only)
+    private static void archiveOldContent(MongoMediaRepository repository, int days) {
+        long start = System.currentTimeMillis();
+        try {
+            int hashed = repository.assignMissingContentHashes();
+            if (hashed > 0) System.out.println("Added content hashes to " + hashed + " older items.");
+            if (days <= 0) return;
+            int archived = repository.archiveContent(new Date(start - Duration.ofDays(days).toMillis()));
+            System.out.printf("Archived the text of %d items older than %d days in %d s.%n",
+                    archived, days, (System.currentTimeMillis() - start) / 1000);
+        } catch (RuntimeException e) {
+            System.err.println("Archiving failed: " + e.getMessage());
+        }
+    }
+
+    private static void refreshSketches(MongoMediaRepository repository) {
+        try {
+            int rebuilt = repository.refreshSketches();
+            if (rebuilt > 0) System.out.println("Rebuilt " + rebuilt + " daily sketches.");
+        } catch (RuntimeException e) {
+            System.err.println("Sketch refresh failed: " + e.getMessage());
+        }
+    }
+
+    // --- DAEMON MODE ---
+
+    /**
+     * Headless mode: keeps every topic in the topics file up to date until the process is
+     * stopped (Ctrl+C / SIGTERM), then finishes in-flight work before exiting.
+     */
+    private static void runDaemon(AnalysisService analysisService, MongoMediaRepository repository, String topicsFile) {
+        List<TopicSchedule> schedules;
+        try {
+            schedules = TopicSchedule.load(Path.of(topicsFile));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot read topics file '" + topicsFile + "': " + e.getMessage());
+            return;
+        }
+        if (schedules.isEmpty()) {
+            System.err.println("No topics in '" + topicsFile + "'. Exiting.");
+            return;
+        }
+        for (TopicSchedule s : schedules) {
+            System.out.println("   Tracking: " + s.getTopic() + " (every " + s.getRefreshInterval().toMinutes() + " min)");
+        }
+
+        IngestionScheduler scheduler = new IngestionScheduler(analysisService, schedules, Config.getDaemonWorkers());
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> scheduler.shutdown(SHUTDOWN_GRACE), "ingestion-daemon-shutdown"));
+        scheduler.start();
+
+        // Retention runs beside ingestion; it only touches items long past analysis
+        ScheduledExecutorService retention = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "content-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int archiveDays = Config.getArchiveAfterDays();
+        retention.scheduleWithFixedDelay(() -> archiveOldContent(repository, archiveDays),
+                0, ARCHIVE_INTERVAL.toMinutes(), TimeUnit.MINUTES);
+
+        ScheduledExecutorService sketchRefresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sketch-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sketchRefresher.execute(() -> {
+            for (TopicSchedule s : schedules) {
+                try {
+                    int built = repository.ensureSketches(s.getTopic());
+                    if (built > 0) System.out.println("Built " + built + " daily sketches of " + s.getTopic());
+                } catch (RuntimeException e) {
+                    System.err.println("Could not build sketches of " + s.getTopic() + ": " + e.getMessage());
+                }
+            }
+        });
+        sketchRefresher.scheduleWithFixedDelay(() -> refreshSketches(repository),
+                SKETCH_REFRESH_INTERVAL.toSeconds(), SKETCH_REFRESH_INTERVAL.toSeconds(), TimeUnit.SECONDS);
+
+        try {
+            scheduler.awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
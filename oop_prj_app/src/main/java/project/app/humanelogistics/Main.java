@@ -4,16 +4,32 @@ import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import project.app.humanelogistics.controller.DashBoardController;
+import project.app.humanelogistics.metrics.MetricsReporter;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public class Main extends Application {
+    private MetricsReporter metricsReporter;
+    private DashBoardController dashboard;
+
     @Override
     public void start(Stage stage) throws IOException {
+        metricsReporter = MetricsReporter.start(Path.of(Config.getMetricsDir()), Duration.ofSeconds(30));
+
         FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("hello-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1200, 800);
+        dashboard = fxmlLoader.getController();
         stage.setTitle("Humane Logistics Data Application");
         stage.setScene(scene);
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        if (dashboard != null) dashboard.shutdown();
+        if (metricsReporter != null) metricsReporter.close();
+    }
 }
\ No newline at end of file
@@ -1,44 +1,67 @@
 package project.app.humanelogistics.controller;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.IndexedCell;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import project.app.humanelogistics.model.ArticleFilter;
+import project.app.humanelogistics.model.ArticleSummary;
+import project.app.humanelogistics.model.DamageCategory;
 import project.app.humanelogistics.model.Developer;
+import project.app.humanelogistics.service.ChartService;
 import project.app.humanelogistics.utils.UIFactory;
+import project.app.humanelogistics.viewmodel.ArticleBrowserViewModel;
+import project.app.humanelogistics.viewmodel.ChartSize;
 import project.app.humanelogistics.viewmodel.DashboardViewModel;
+import project.app.humanelogistics.viewmodel.RenderedChart;
 
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 public class DashBoardController {
 
+    private static final String ANY_DAMAGE = "All damage types";
+    private static final String ANY_SENTIMENT = "Any sentiment";
+    private static final String NEWEST_FIRST = "Newest first";
+
     @FXML private VBox mainContent;
     @FXML private ImageView imgLogo;
     @FXML private Button informationButton;
     @FXML private Button sentimentButton;
     @FXML private Button inventoryButton;
+    @FXML private Button articlesButton;
     @FXML private Button homeButton;
     @FXML private Label lblTotalPosts;
     @FXML private Label lblSentimentScore;
     @FXML private Label lblSentimentLabel;
     @FXML private Label lblTopDamage;
     @FXML private Label lblTopDamageCount;
+    @FXML private Label lblPostSources;
+    @FXML private Label lblSentimentSpread;
 
     private DashboardViewModel viewModel;
+    private ArticleBrowserViewModel articleBrowser;
+    private VBox articleBrowserView; // Built on first visit, kept with its filters and position
 
     // This list holds the "Cards" (Dashboard Widgets) so we can restore them later
     private ObservableList<Node> defaultDashboardContent;
 
-    private static final String CHART_FILE_PATH = "sentiment_score_chart.png";
-    private static final String DAMAGE_PIE_PATH = "damage_type_pie.png";
-    private static final String DAMAGE_BAR_PATH = "damage_type_bar.png";
 
     @FXML
     public void initialize() {
@@ -57,6 +80,8 @@ public class DashBoardController {
         if (lblSentimentScore != null) lblSentimentScore.textProperty().bind(viewModel.sentimentScoreProperty());
         if (lblTopDamage != null) lblTopDamage.textProperty().bind(viewModel.topDamageProperty());
         if (lblTopDamageCount != null) lblTopDamageCount.textProperty().bind(viewModel.topDamageCountProperty());
+        if (lblPostSources != null) lblPostSources.textProperty().bind(viewModel.postSourcesProperty());
+        if (lblSentimentSpread != null) lblSentimentSpread.textProperty().bind(viewModel.sentimentSpreadProperty());
 
         if (lblSentimentLabel != null) {
             lblSentimentLabel.textProperty().bind(viewModel.sentimentLabelProperty());
@@ -72,22 +97,28 @@ public class DashBoardController {
             }
         });
 
-        // Show Chart when ViewModel has a file ready
-        viewModel.chartFileProperty().addListener((obs, oldVal, newFile) -> {
-            if (newFile != null) {
-                showChart("Sentiment Analysis Result", newFile);
+        // Show Chart when ViewModel has one rendered
+        viewModel.chartProperty().addListener((obs, oldVal, newChart) -> {
+            if (newChart != null) {
+                showChart(newChart);
             }
         });
 
-        // Show Gallery when ViewModel has multiple files ready
-        viewModel.galleryFilesProperty().addListener((obs, oldVal, fileList) -> {
-            if (fileList != null && !fileList.isEmpty()) {
-                showChartGallery("Damage Analysis Report", fileList);
+        // Show Gallery when ViewModel has several rendered
+        viewModel.galleryProperty().addListener((obs, oldVal, charts) -> {
+            if (charts != null && !charts.isEmpty()) {
+                showChartGallery("Damage Analysis Report", charts);
             }
         });
 
         setupNavigation();
         viewModel.loadDashboardStats();
+        viewModel.startLiveUpdates();
+    }
+
+    /** Stops following data changes; called when the window closes. */
+    public void shutdown() {
+        viewModel.stopLiveUpdates();
     }
 
     // --- Navigation Logic ---
@@ -103,20 +134,138 @@ public class DashBoardController {
         mainContent.getChildren().add(UIFactory.createLoadingText(message));
     }
 
-    private void showChart(String title, File chartFile) {
-        VBox chartBox = UIFactory.createChartContainer(title, chartFile);
-        mainContent.getChildren().setAll(chartBox);
+    private void showChart(RenderedChart chart) {
+        mainContent.getChildren().setAll(createChartBox(chart));
     }
 
-    private void showChartGallery(String mainTitle, List<File> chartFiles) {
+    private void showChartGallery(String mainTitle, List<RenderedChart> charts) {
         mainContent.getChildren().clear();
         mainContent.getChildren().add(UIFactory.createSectionHeader(mainTitle));
-        for (int i = 0; i < chartFiles.size(); i++) {
-            VBox chartBox = UIFactory.createChartContainer("Analysis Chart " + (i + 1), chartFiles.get(i));
-            mainContent.getChildren().add(chartBox);
+        for (RenderedChart chart : charts) {
+            mainContent.getChildren().add(createChartBox(chart));
         }
     }
 
+    private VBox createChartBox(RenderedChart chart) {
+        return UIFactory.createChartContainer(chart.getTitle(), chart.getImage(), UIFactory.CHART_DISPLAY_WIDTH,
+                () -> exportChart(chart));
+    }
+
+    // PNG files are only written when the user asks for one
+    private void exportChart(RenderedChart chart) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Chart");
+        chooser.setInitialFileName(chart.getKind().name().toLowerCase(Locale.ROOT) + ".png");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG image", "*.png"));
+        File file = chooser.showSaveDialog(mainContent.getScene().getWindow());
+        if (file != null) viewModel.exportChart(chart, file);
+    }
+
+    // On-screen chart size in pixels of the current display, so images are neither upscaled nor wasted
+    private ChartSize chartSize() {
+        double width = UIFactory.CHART_DISPLAY_WIDTH;
+        double scale = 1.0;
+        if (mainContent.getScene() != null && mainContent.getScene().getWindow() != null) {
+            scale = mainContent.getScene().getWindow().getOutputScaleX();
+        }
+        return new ChartSize(width, width / ChartService.getAspectRatio(), scale);
+    }
+
+    // --- Article Browser ---
+
+    private void showArticleBrowser() {
+        if (articleBrowserView == null) {
+            articleBrowser = viewModel.createArticleBrowser();
+            articleBrowserView = createArticleBrowserView();
+        }
+        mainContent.getChildren().setAll(articleBrowserView);
+    }
+
+    private VBox createArticleBrowserView() {
+        ComboBox<String> damage = new ComboBox<>();
+        damage.getItems().add(ANY_DAMAGE);
+        for (DamageCategory category : DamageCategory.values()) damage.getItems().add(category.getDisplayName());
+        damage.setValue(ANY_DAMAGE);
+
+        ComboBox<String> sentiment = new ComboBox<>();
+        sentiment.getItems().addAll(ANY_SENTIMENT, "Negative", "Neutral", "Positive");
+        sentiment.setValue(ANY_SENTIMENT);
+
+        TextField source = new TextField();
+        source.setPromptText("Source (exact name)");
+
+        TextField text = new TextField();
+        text.setPromptText("Search: words, \"phrase\", OR, -exclude");
+
+        ComboBox<String> order = new ComboBox<>();
+        order.getItems().addAll(NEWEST_FIRST, "Oldest first");
+        order.setValue(NEWEST_FIRST);
+
+        Label status = new Label();
+        status.textProperty().bind(articleBrowser.statusMessageProperty());
+
+        TableView<ArticleSummary> table = UIFactory.createArticleTable(articleBrowser.getRows());
+        followScrolling(table);
+
+        Runnable apply = () -> {
+            // Same thresholds as the sentiment label on the dashboard
+            Double min = null;
+            Double max = null;
+            if ("Negative".equals(sentiment.getValue())) max = -0.05;
+            if ("Neutral".equals(sentiment.getValue())) { min = -0.05; max = 0.05; }
+            if ("Positive".equals(sentiment.getValue())) min = 0.05;
+
+            DamageCategory category = null;
+            for (DamageCategory c : DamageCategory.values()) {
+                if (c.getDisplayName().equals(damage.getValue())) category = c;
+            }
+            articleBrowser.setFilter(new ArticleFilter(viewModel.getTopic(), category, min, max,
+                    source.getText(), text.getText(), NEWEST_FIRST.equals(order.getValue())));
+            table.scrollTo(0);
+        };
+        damage.setOnAction(e -> apply.run());
+        sentiment.setOnAction(e -> apply.run());
+        source.setOnAction(e -> apply.run());
+        text.setOnAction(e -> apply.run());
+        order.setOnAction(e -> apply.run());
+        apply.run();
+
+        HBox filters = new HBox(10, text, damage, sentiment, source, order);
+        return new VBox(15, UIFactory.createSectionHeader("Articles: " + viewModel.getTopic()), filters, status, table);
+    }
+
+    // Fetches the next (previous) page as the user nears the end (start) of the loaded rows, and
+    // keeps the visible rows in place when rows are added or dropped above them
+    private void followScrolling(TableView<ArticleSummary> table) {
+        table.skinProperty().addListener((obs, oldSkin, skin) -> {
+            VirtualFlow<?> flow = (VirtualFlow<?>) table.lookup(".virtual-flow");
+            if (flow == null) return;
+
+            Runnable loadIfNearEdge = () -> {
+                IndexedCell<?> first = flow.getFirstVisibleCell();
+                IndexedCell<?> last = flow.getLastVisibleCell();
+                int margin = ArticleBrowserViewModel.PAGE_SIZE / 4;
+                if (last != null && last.getIndex() >= table.getItems().size() - margin) articleBrowser.loadNext();
+                else if (first != null && first.getIndex() < margin) articleBrowser.loadPrevious();
+            };
+            flow.positionProperty().addListener((o, oldPosition, position) -> loadIfNearEdge.run());
+
+            table.getItems().addListener((ListChangeListener<ArticleSummary>) change -> {
+                IndexedCell<?> first = flow.getFirstVisibleCell();
+                int shift = 0;
+                while (change.next()) {
+                    // Only changes at the top move the rows on screen; a list refilled from empty does not
+                    if (change.getFrom() != 0 || change.getList().size() == change.getAddedSize()) continue;
+                    shift += change.getAddedSize() - change.getRemovedSize();
+                }
+                if (first != null && shift != 0) {
+                    flow.scrollToTop(Math.max(0, Math.min(table.getItems().size() - 1, first.getIndex() + shift)));
+                }
+                Platform.runLater(loadIfNearEdge);
+            });
+        });
+    }
+
     private void showDevelopers(List<Developer> developers) {
         mainContent.getChildren().clear();
         mainContent.getChildren().add(UIFactory.createSectionHeader("About Developers"));
@@ -137,16 +286,23 @@ public class DashBoardController {
 
         sentimentButton.setOnAction(e -> {
             updateActiveButton(sentimentButton);
-            viewModel.generateSentimentChart(CHART_FILE_PATH);
+            viewModel.generateSentimentChart(chartSize());
         });
 
         inventoryButton.setOnAction(e -> {
             updateActiveButton(inventoryButton);
-            viewModel.generateDamageCharts(DAMAGE_PIE_PATH, DAMAGE_BAR_PATH);
+            viewModel.generateDamageCharts(chartSize());
+        });
+
+        articlesButton.setOnAction(e -> {
+            updateActiveButton(articlesButton);
+            viewModel.cancelCharts();
+            showArticleBrowser();
         });
 
         informationButton.setOnAction(e -> {
             updateActiveButton(informationButton);
+            viewModel.cancelCharts();
             List<Developer> devs = Arrays.asList(
                     new Developer("Backend Lead", "Data & Analysis", "/project/app/humanelogistics/picture1.jpg"),
                     new Developer("Frontend Lead", "UI & UX", "/project/app/humanelogistics/picture2.jpg")
@@ -168,6 +324,7 @@ public class DashBoardController {
         if (sentimentButton != null) sentimentButton.getStyleClass().remove("active");
         if (informationButton != null) informationButton.getStyleClass().remove("active");
         if (inventoryButton != null) inventoryButton.getStyleClass().remove("active");
+        if (articlesButton != null) articlesButton.getStyleClass().remove("active");
         if (clicked != null) clicked.getStyleClass().add("active");
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package project.app.humanelogistics.db;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold storage for the text of old items: one deflate-compressed document per item, under the
+ * item's own _id, in a collection beside the items. Written once, read back only when an
+ * archived item's full text is needed (re-analysis, re-indexing).
+ */
+final class ContentArchive {
+
+    private final MongoCollection<Document> collection;
+
+    ContentArchive(MongoCollection<Document> collection) {
+        this.collection = collection;
+    }
+
+    // Replaces on _id, so archiving the same items again (after an interrupted run) is harmless
+    void store(Map<ObjectId, String> contents) {
+        if (contents.isEmpty()) return;
+        List<WriteModel<Document>> writes = new ArrayList<>(contents.size());
+        for (Map.Entry<ObjectId, String> entry : contents.entrySet()) {
+            byte[] text = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            Document doc = new Document("_id", entry.getKey())
+                    .append("length", text.length)
+                    .append("deflated", new Binary(deflate(text)));
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", entry.getKey()), doc, new ReplaceOptions().upsert(true)));
+        }
+        collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+    }
+
+    // Missing ids (never archived) are simply absent from the result
+    Map<ObjectId, String> load(Collection<ObjectId> ids) {
+        Map<ObjectId, String> contents = new HashMap<>();
+        if (ids.isEmpty()) return contents;
+        for (Document doc : collection.find(Filters.in("_id", ids))) {
+            byte[] text = inflate(doc.get("deflated", Binary.class).getData(), doc.getInteger("length"));
+            contents.put(doc.getObjectId("_id"), new String(text, StandardCharsets.UTF_8));
+        }
+        return contents;
+    }
+
+    /** Written with every item, so the text is recognized again once it is archived. Null hashes as "". */
+    static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] text = (content != null ? content : "").getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(text));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE has SHA-256
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] text = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(text, read, length - read);
+                if (n == 0 && inflater.needsInput()) break;
+                read += n;
+            }
+            if (read != length) throw new IllegalStateException("Archived content is truncated");
+            return text;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Archived content is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package project.app.humanelogistics.db;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import project.app.humanelogistics.model.TopicSketch;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The per-day sketches of each topic, kept up to date by the writes themselves: every insert and
+ * every first analysis result pushes a small entry onto its day's document, in the same single
+ * update whoever writes. Readers fold the pending entries into the saved sketch in memory.
+ *
+ * A change a sketch cannot take back (a sentiment replaced by another, a new canonical URL) marks
+ * the day dirty instead. {@link #refresh} rebuilds dirty days from their items and folds pending
+ * entries into the saved sketch; it runs in the ingestion tool, never on the dashboard's reads.
+ * A day's document is dirty when first created, as items saved before it may exist. A write that
+ * leaves more than MAX_PENDING entries folds them itself, so days stay small without a refresh.
+ *
+ * Folds and rebuilds are conditional on the document's revision, and remove exactly the entries
+ * they took into account, so entries pushed meanwhile are never lost. Each entry names its item:
+ * a rebuild removes the entries of the items its scan already counted, and keeps the rest.
+ */
+final class DailySketchStore {
+
+    // Beyond this many days to rebuild, one pass over the whole topic beats a query per day range
+    private static final int MAX_DAY_RANGES = 30;
+    // Pending entries a day may collect before the write that exceeds it folds them
+    private static final int MAX_PENDING = 500;
+    private static final Bson SKETCH_FIELDS = Projections.include("topic", "timestamp", "source", "url", "canonicalUrl", "sentiment");
+
+    private final MongoCollection<Document> items;
+    private final MongoCollection<Document> sketches;
+
+    DailySketchStore(MongoCollection<Document> items, MongoCollection<Document> sketches) {
+        this.items = items;
+        this.sketches = sketches;
+    }
+
+    // --- WRITE PATH ---
+
+    /** Counts newly stored item documents into their days. */
+    void recordInserted(Collection<Document> docs) {
+        Map<String, Change> changes = new LinkedHashMap<>();
+        for (Document doc : docs) {
+            Date timestamp = doc.getDate("timestamp");
+            if (timestamp == null) continue;
+            Document entry = new Document("_id", new ObjectId())
+                    .append("i", doc.getObjectId("_id"))
+                    .append("n", 1)
+                    .append("s", sourceOf(doc.getString("source"), doc.getString("url")))
+                    .append("a", articleOf(doc));
+            double sentiment = MediaDocumentMapper.safeDouble(doc, "sentiment");
+            if (sentiment != 0.0) entry.append("v", sentiment);
+            change(changes, doc.getString("topic"), timestamp).entries.add(entry);
+        }
+        apply(changes);
+    }
+
+    /**
+     * Applies analysis results to the days of the documents they replaced: before holds the
+     * SKETCH_FIELDS of each document as it was, after its new sentiment and canonical URL.
+     */
+    void recordAnalysis(Map<Document, Document> beforeAndAfter) {
+        Map<String, Change> changes = new LinkedHashMap<>();
+        for (Map.Entry<Document, Document> update : beforeAndAfter.entrySet()) {
+            Document before = update.getKey();
+            Date timestamp = before.getDate("timestamp");
+            if (timestamp == null) continue;
+            double oldSentiment = MediaDocumentMapper.safeDouble(before, "sentiment");
+            double newSentiment = MediaDocumentMapper.safeDouble(update.getValue(), "sentiment");
+            String oldArticle = articleOf(before);
+            String newArticle = update.getValue().getString("canonicalUrl") != null
+                    ? update.getValue().getString("canonicalUrl") : oldArticle;
+
+            if (!Objects.equals(oldArticle, newArticle) || (oldSentiment != 0.0 && newSentiment != oldSentiment)) {
+                change(changes, before.getString("topic"), timestamp).dirty = true;
+            } else if (oldSentiment == 0.0 && newSentiment != 0.0) {
+                change(changes, before.getString("topic"), timestamp).entries.add(new Document("_id", new ObjectId())
+                        .append("i", before.getObjectId("_id")).append("v", newSentiment));
+            }
+        }
+        apply(changes);
+    }
+
+    /** For writes whose previous state is unknown: the day is rebuilt on the next refresh. */
+    void markDirty(String topic, Date timestamp) {
+        if (topic == null || timestamp == null) return;
+        Map<String, Change> changes = new LinkedHashMap<>();
+        change(changes, topic, timestamp).dirty = true;
+        apply(changes);
+    }
+
+    // --- READ PATH ---
+
+    /** The saved sketches of the topic with their pending entries folded in; days without items are left out. */
+    Map<LocalDate, TopicSketch> read(String topic) {
+        Map<LocalDate, TopicSketch> daily = new TreeMap<>();
+        try (MongoCursor<Document> cursor = sketches.find(Filters.eq("topic", topic)).iterator()) {
+            while (cursor.hasNext()) {
+                MongoMediaRepository.checkCancelled();
+                TopicSketch sketch = folded(cursor.next());
+                if (sketch.getItemCount() > 0) daily.put(sketch.getDay(), sketch);
+            }
+        }
+        return daily;
+    }
+
+    // --- MAINTENANCE ---
+
+    /**
+     * Rebuilds dirty days and folds pending entries into their sketches, for every topic.
+     * Returns the number of days rebuilt.
+     */
+    int refresh() {
+        int rebuilt = 0;
+        // No revision: saved before sketches were kept on the write path
+        Bson due = Filters.or(Filters.eq("dirty", true), Filters.exists("pending.0"), Filters.exists("rev", false));
+        List<Document> docs = sketches.find(due).projection(Projections.include("_id")).into(new ArrayList<>());
+        for (Document id : docs) {
+            Document doc = sketches.find(Filters.eq("_id", id.get("_id"))).first();
+            if (doc == null) continue;
+            // A store lost to a concurrent change leaves the day due: it is picked up again next time
+            if (Boolean.TRUE.equals(doc.getBoolean("dirty")) || doc.get("rev") == null) {
+                LocalDate day = LocalDate.parse(doc.getString("day"));
+                Map<ObjectId, Boolean> scanned = new HashMap<>();
+                TopicSketch sketch = build(doc.getString("topic"), Set.of(day), scanned).getOrDefault(day, new TopicSketch(day));
+                storeRebuilt(doc, doc.getString("_id"), doc.getString("topic"), sketch, scanned);
+                rebuilt++;
+            } else {
+                store(doc, folded(doc), null);
+            }
+        }
+        return rebuilt;
+    }
+
+    /** Rebuilds every day of the topic from its items, e.g. for data stored before sketches existed. */
+    int rebuild(String topic) {
+        Map<String, Document> saved = new HashMap<>();
+        for (Document doc : sketches.find(Filters.eq("topic", topic))) saved.put(doc.getString("_id"), doc);
+        Map<ObjectId, Boolean> scanned = new HashMap<>();
+        Map<LocalDate, TopicSketch> built = build(topic, null, scanned);
+        for (TopicSketch sketch : built.values()) {
+            String key = key(topic, sketch.getDay());
+            storeRebuilt(saved.remove(key), key, topic, sketch, scanned);
+        }
+        for (Document doc : saved.values()) {
+            storeRebuilt(doc, doc.getString("_id"), topic, new TopicSketch(LocalDate.parse(doc.getString("day"))), scanned);
+        }
+        return built.size();
+    }
+
+    // --- HELPER METHODS ---
+
+    private static final class Change {
+        final List<Document> entries = new ArrayList<>();
+        String topic;
+        LocalDate day;
+        boolean dirty;
+    }
+
+    private static Change change(Map<String, Change> changes, String topic, Date timestamp) {
+        LocalDate day = timestamp.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        Change change = changes.computeIfAbsent(key(topic, day), k -> new Change());
+        change.topic = topic;
+        change.day = day;
+        return change;
+    }
+
+    // One upsert per day; a new day document starts out dirty
+    private void apply(Map<String, Change> changes) {
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        for (Map.Entry<String, Change> entry : changes.entrySet()) {
+            Change change = entry.getValue();
+            if (!change.dirty && change.entries.isEmpty()) continue;
+            List<Bson> updates = new ArrayList<>();
+            updates.add(Updates.setOnInsert("topic", change.topic));
+            updates.add(Updates.setOnInsert("day", change.day.toString()));
+            if (change.dirty) {
+                updates.add(Updates.set("dirty", true));
+                updates.add(Updates.inc("rev", 1)); // Fails any fold or rebuild that read the day before
+            } else {
+                updates.add(Updates.setOnInsert("dirty", true));
+                updates.add(Updates.setOnInsert("rev", 0));
+            }
+            if (!change.entries.isEmpty()) updates.add(Updates.pushEach("pending", change.entries));
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", entry.getKey()), Updates.combine(updates),
+                    new UpdateOptions().upsert(true)));
+        }
+        if (writes.isEmpty()) return;
+        sketches.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        trim(changes.keySet());
+    }
+
+    /**
+     * Folds the pending entries of the given days once they exceed MAX_PENDING. A dirty day is
+     * rebuilt from its items anyway, so its entries are dropped; the revision bump fails any
+     * rebuild that read them. A lost race leaves the entries for the next write or refresh.
+     */
+    private void trim(Collection<String> keys) {
+        Bson full = Filters.and(Filters.in("_id", keys), Filters.exists("pending." + MAX_PENDING));
+        for (Document doc : sketches.find(full)) {
+            if (Boolean.TRUE.equals(doc.getBoolean("dirty")) || doc.get("rev") == null) {
+                List<ObjectId> read = new ArrayList<>();
+                for (Document entry : doc.getList("pending", Document.class, List.of())) read.add(entry.getObjectId("_id"));
+                sketches.updateOne(Filters.eq("_id", doc.get("_id")), Updates.combine(
+                        Updates.pullByFilter(new Document("pending", new Document("_id", new Document("$in", read)))),
+                        Updates.set("dirty", true),
+                        Updates.inc("rev", 1)));
+            } else {
+                store(doc, folded(doc), null);
+            }
+        }
+    }
+
+    // before: the day as read before the scan (null if it had no document); a day changed during the scan stays due
+    private void storeRebuilt(Document before, String key, String topic, TopicSketch sketch, Map<ObjectId, Boolean> scanned) {
+        Document current = sketches.find(Filters.eq("_id", key)).first();
+        if (current == null) {
+            store(new Document("_id", key).append("topic", topic), sketch, scanned);
+        } else if (before != null && Objects.equals(before.get("rev"), current.get("rev"))) {
+            store(current, sketch, scanned);
+        }
+    }
+
+    /**
+     * Replaces the saved sketch, if nobody changed the day since it was read. A fold removes all the
+     * pending entries it was read with; a rebuild (scanned: item id -> analyzed when scanned) those
+     * the scan already counted.
+     */
+    private void store(Document read, TopicSketch sketch, Map<ObjectId, Boolean> scanned) {
+        List<ObjectId> folded = new ArrayList<>();
+        for (Document entry : read.getList("pending", Document.class, List.of())) {
+            Boolean analyzed = scanned != null ? scanned.get(entry.getObjectId("i")) : null;
+            if (scanned == null || (analyzed != null && (entry.containsKey("n") || analyzed))) {
+                folded.add(entry.getObjectId("_id"));
+            }
+        }
+        Number rev = read.get("rev", Number.class);
+
+        List<Bson> updates = new ArrayList<>(List.of(
+                Updates.set("day", sketch.getDay().toString()),
+                Updates.set("items", sketch.getItemCount()),
+                Updates.set("analyzed", sketch.getAnalyzedCount()),
+                Updates.set("sentimentSum", sketch.getSentimentSum()),
+                Updates.set("sources", new Binary(sketch.getSources().toBytes())),
+                Updates.set("articles", new Binary(sketch.getArticles().toBytes())),
+                Updates.set("sentiment", new Binary(sketch.getSentiment().toBytes())),
+                Updates.set("dirty", false),
+                Updates.set("rev", rev != null ? rev.longValue() + 1 : 1L),
+                Updates.setOnInsert("topic", read.getString("topic"))));
+        if (!folded.isEmpty()) {
+            updates.add(Updates.pullByFilter(new Document("pending", new Document("_id", new Document("$in", folded)))));
+        }
+        Bson filter = Filters.and(Filters.eq("_id", read.get("_id")),
+                rev != null ? Filters.eq("rev", rev) : Filters.exists("rev", false));
+        try {
+            sketches.updateOne(filter, Updates.combine(updates), new UpdateOptions().upsert(rev == null && read.get("day") == null));
+        } catch (MongoWriteException e) {
+            // The day was created by a write meanwhile; it starts out dirty and is rebuilt on the next refresh
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) throw e;
+        }
+    }
+
+    private static TopicSketch folded(Document doc) {
+        TopicSketch sketch = MediaDocumentMapper.toTopicSketch(doc);
+        for (Document entry : doc.getList("pending", Document.class, List.of())) {
+            Number sentiment = entry.get("v", Number.class);
+            if (entry.containsKey("n")) {
+                sketch.add(entry.getString("s"), entry.getString("a"), sentiment != null ? sentiment.doubleValue() : 0.0);
+            } else if (sentiment != null) {
+                sketch.addAnalysis(sentiment.doubleValue());
+            }
+        }
+        return sketch;
+    }
+
+    // Sketches of the given days (all days if null), built from their items; records the items counted
+    private Map<LocalDate, TopicSketch> build(String topic, Set<LocalDate> days, Map<ObjectId, Boolean> scanned) {
+        ZoneId zone = ZoneId.systemDefault();
+        List<Bson> conditions = new ArrayList<>();
+        conditions.add(Filters.eq("topic", topic));
+        conditions.add(Filters.type("timestamp", "date"));
+        if (days != null && days.size() <= MAX_DAY_RANGES) {
+            List<Bson> ranges = new ArrayList<>();
+            for (LocalDate day : days) {
+                ranges.add(Filters.and(
+                        Filters.gte("timestamp", Date.from(day.atStartOfDay(zone).toInstant())),
+                        Filters.lt("timestamp", Date.from(day.plusDays(1).atStartOfDay(zone).toInstant()))));
+            }
+            conditions.add(Filters.or(ranges));
+        }
+
+        Map<LocalDate, TopicSketch> built = new TreeMap<>();
+        try (MongoCursor<Document> cursor = items.find(Filters.and(conditions)).projection(SKETCH_FIELDS).iterator()) {
+            while (cursor.hasNext()) {
+                Document doc = cursor.next();
+                LocalDate day = doc.getDate("timestamp").toInstant().atZone(zone).toLocalDate();
+                if (days != null && !days.contains(day)) continue;
+                double sentiment = MediaDocumentMapper.safeDouble(doc, "sentiment");
+                built.computeIfAbsent(day, TopicSketch::new)
+                        .add(sourceOf(doc.getString("source"), doc.getString("url")), articleOf(doc), sentiment);
+                scanned.put(doc.getObjectId("_id"), sentiment != 0.0);
+            }
+        }
+        return built;
+    }
+
+    private static String key(String topic, LocalDate day) {
+        return topic + "|" + day;
+    }
+
+    // The canonical URL where known
+    private static String articleOf(Document doc) {
+        return doc.getString("canonicalUrl") != null ? doc.getString("canonicalUrl") : doc.getString("url");
+    }
+
+    // The outlet for news; posts have none, so the site they were posted on
+    private static String sourceOf(String source, String url) {
+        if (source != null && !source.isBlank()) return source;
+        if (url == null) return null;
+        try {
+            return URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package project.app.humanelogistics.db;
+
+import project.app.humanelogistics.model.MediaChange;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for change streams, for servers without them (e.g. a standalone local
+ * instance). Repositories publish what they write; only writes made by this process are seen.
+ * Listeners run on the writing thread and must be quick.
+ */
+public final class MediaChangeBus {
+
+    private static final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private MediaChangeBus() {}
+
+    /**
+     * Delivers changes to {@code topic} in the collection {@code namespace} ("db.collection") until
+     * closed. Never complete: other processes' writes are not seen.
+     */
+    public static MediaRepository.ChangeWatch subscribe(String namespace, String topic, Consumer<MediaChange> listener) {
+        Subscription subscription = new Subscription(namespace, topic, listener);
+        subscriptions.add(subscription);
+        return new MediaRepository.ChangeWatch() {
+            @Override
+            public boolean isComplete() {
+                return false;
+            }
+
+            @Override
+            public void close() {
+                subscriptions.remove(subscription);
+            }
+        };
+    }
+
+    // Lets writers skip building changes (and reading previous state) when nobody listens
+    public static boolean hasSubscribers(String namespace) {
+        for (Subscription s : subscriptions) {
+            if (s.namespace.equals(namespace)) return true;
+        }
+        return false;
+    }
+
+    public static void publish(String namespace, MediaChange change) {
+        for (Subscription s : subscriptions) {
+            if (!s.namespace.equals(namespace) || !s.topic.equals(change.getTopic())) continue;
+            try {
+                s.listener.accept(change);
+            } catch (Exception e) {
+                System.err.println("Change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Subscription {
+        final String namespace;
+        final String topic;
+        final Consumer<MediaChange> listener;
+
+        Subscription(String namespace, String topic, Consumer<MediaChange> listener) {
+            this.namespace = namespace;
+            this.topic = topic;
+            this.listener = listener;
+        }
+    }
+}
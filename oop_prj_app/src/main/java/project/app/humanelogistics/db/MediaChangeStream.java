@@ -0,0 +1,172 @@
+package project.app.humanelogistics.db;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import project.app.humanelogistics.model.MediaChange;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Follows the change stream of the media collection for one topic and hands each write that
+ * affects the dashboard to a listener, on its own thread. After an error it resumes where it
+ * stopped; if that is no longer possible the listener gets a RESYNC.
+ */
+class MediaChangeStream implements MediaRepository.ChangeWatch {
+
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final MongoCollection<Document> collection;
+    private final String topic;
+    private final boolean preImages;
+    private final Consumer<MediaChange> listener;
+    private final List<Bson> pipeline;
+
+    private volatile boolean closed;
+    private BsonDocument resumeToken;
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+
+    // Opens the stream right away, so a server without change streams fails here and not on the thread
+    MediaChangeStream(MongoCollection<Document> collection, String topic, boolean preImages,
+                      Consumer<MediaChange> listener) {
+        this.collection = collection;
+        this.topic = topic;
+        this.preImages = preImages;
+        this.listener = listener;
+        this.pipeline = Arrays.asList(
+                Aggregates.match(Filters.or(
+                        Filters.eq("operationType", "invalidate"),
+                        Filters.and(
+                                Filters.or(Filters.eq("fullDocument.topic", topic),
+                                        Filters.eq("fullDocumentBeforeChange.topic", topic)),
+                                // Leases and other bookkeeping do not change what the dashboard shows
+                                Filters.or(Filters.ne("operationType", "update"),
+                                        Filters.exists("updateDescription.updatedFields.sentiment"),
+                                        Filters.exists("updateDescription.updatedFields.damageType"))))),
+                // Only the aggregated fields cross the wire, not article content or signatures
+                Aggregates.project(Projections.include("operationType", "clusterTime",
+                        "fullDocument.topic", "fullDocument.timestamp", "fullDocument.sentiment", "fullDocument.damageType",
+                        "fullDocumentBeforeChange.topic", "fullDocumentBeforeChange.timestamp",
+                        "fullDocumentBeforeChange.sentiment", "fullDocumentBeforeChange.damageType")));
+        this.cursor = open();
+
+        Thread thread = new Thread(this::follow, "media-change-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public boolean isComplete() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        closed = true; // The thread notices within one await period and closes the cursor
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        ChangeStreamIterable<Document> stream = collection.watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (preImages) stream = stream.fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        if (resumeToken != null) stream = stream.resumeAfter(resumeToken);
+        return stream.cursor();
+    }
+
+    private void follow() {
+        while (!closed) {
+            try {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event == null) continue;
+                resumeToken = event.getResumeToken();
+
+                if (event.getOperationType() == OperationType.INVALIDATE) {
+                    // Collection dropped or renamed: nothing to resume
+                    resumeToken = null;
+                    listener.accept(MediaChange.resync(topic));
+                    reopen();
+                    continue;
+                }
+                MediaChange change = toChange(event);
+                // The write's cluster time tells the listener whether its aggregates already include it
+                if (change != null && event.getClusterTime() != null) change = change.at(event.getClusterTime().getValue());
+                if (change != null) listener.accept(change);
+            } catch (MongoException e) {
+                if (closed) break;
+                System.err.println("Change stream: " + e.getMessage() + ", reconnecting...");
+                reopen();
+            }
+        }
+        closeCursor();
+    }
+
+    private void reopen() {
+        closeCursor();
+        long backoff = 500;
+        while (!closed) {
+            try {
+                cursor = open();
+                return;
+            } catch (MongoCommandException e) {
+                if (resumeToken == null) {
+                    System.err.println("Change stream: " + e.getMessage());
+                } else {
+                    // Resume point no longer in the oplog: changes were missed
+                    resumeToken = null;
+                    listener.accept(MediaChange.resync(topic));
+                    continue;
+                }
+            } catch (MongoException e) {
+                System.err.println("Change stream: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void closeCursor() {
+        if (cursor == null) return;
+        try {
+            cursor.close();
+        } catch (MongoException ignored) {}
+        cursor = null;
+    }
+
+    private MediaChange toChange(ChangeStreamDocument<Document> event) {
+        Document after = event.getFullDocument();
+        Document before = event.getFullDocumentBeforeChange();
+        switch (event.getOperationType()) {
+            case INSERT:
+                return after == null ? null : MediaChange.inserted(MediaDocumentMapper.toChangeState(after));
+            case UPDATE:
+            case REPLACE:
+                // Without the previous version (no pre-images) the update cannot be applied as a delta
+                if (after == null || before == null) return MediaChange.resync(topic);
+                return MediaChange.updated(MediaDocumentMapper.toChangeState(before), MediaDocumentMapper.toChangeState(after));
+            case DELETE:
+                return before == null ? MediaChange.resync(topic) : MediaChange.deleted(MediaDocumentMapper.toChangeState(before));
+            default:
+                return null;
+        }
+    }
+}
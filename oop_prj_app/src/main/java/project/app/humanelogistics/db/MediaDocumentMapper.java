@@ -0,0 +1,188 @@
+package project.app.humanelogistics.db;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import project.app.humanelogistics.model.AnalysisVersion;
+import project.app.humanelogistics.model.ArticleSummary;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.MediaChange;
+import project.app.humanelogistics.model.News;
+import project.app.humanelogistics.model.SocialPost;
+import project.app.humanelogistics.model.SurgeAlert;
+import project.app.humanelogistics.model.TopicSketch;
+import project.app.humanelogistics.sketch.HyperLogLog;
+import project.app.humanelogistics.sketch.TDigest;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Converts between {@link Media} objects and stored MongoDB documents. Runs once per document on
+ * every read and write, so it is kept separate from the repository (and its connection) to be
+ * benchmarked.
+ */
+public final class MediaDocumentMapper {
+
+    private MediaDocumentMapper() {}
+
+    public static Media toMedia(Document doc) {
+        String topic = doc.getString("topic");
+        String content = doc.getString("content");
+        String url = doc.getString("url");
+        Date timestamp = doc.getDate("timestamp");
+        double sentiment = safeDouble(doc, "sentiment");
+
+        String dmgStr = doc.getString("damageType");
+        DamageCategory damage = DamageCategory.fromString(dmgStr);
+
+        String type = doc.getString("type");
+
+        Media media;
+        if ("news".equalsIgnoreCase(type)) {
+            String source = doc.getString("source");
+            media = new News(topic, content, source, url, timestamp, sentiment);
+        } else {
+            // Assuming SocialPost has a compatible constructor
+            media = new SocialPost(topic, content, url, timestamp, null, sentiment);
+        }
+        media.setDamageType(damage);
+        ObjectId id = doc.getObjectId("_id");
+        if (id != null) media.setId(id.toHexString());
+        media.setCanonicalUrl(doc.getString("canonicalUrl"));
+        Object minhash = doc.get("minhash");
+        if (minhash instanceof Binary) media.setMinhash(fromBinary((Binary) minhash));
+        media.setClusterId(doc.getString("clusterId"));
+        media.setSentimentVersion(fromDocument(doc.get("sentimentAnalyzer", Document.class)));
+        media.setDamageVersion(fromDocument(doc.get("damageAnalyzer", Document.class)));
+        media.setAnalysisDueAt(doc.getDate("analysisDueAt"));
+        media.setFastLane(Boolean.TRUE.equals(doc.getBoolean("fastLane")));
+        return media;
+    }
+
+    // From the browser's projection: everything but the content, which is cut to a snippet
+    public static ArticleSummary toArticleSummary(Document doc) {
+        return new ArticleSummary(doc.getObjectId("_id").toHexString(), doc.getDate("timestamp"),
+                doc.getString("type"), doc.getString("source"), doc.getString("url"), doc.getString("snippet"),
+                safeDouble(doc, "sentiment"), DamageCategory.fromString(doc.getString("damageType")));
+    }
+
+    // New documents only; analysis results of stored ones are written as updates
+    public static Document toDocument(Media item) {
+        Document doc = new Document("topic", item.getTopic())
+                .append("content", item.getContent())
+                .append("contentHash", ContentArchive.hash(item.getContent()))
+                .append("url", item.getUrl())
+                .append("timestamp", item.getTimestamp())
+                .append("sentiment", item.getSentiment())
+                .append("damageType", item.getDamageType().name());
+        if (item.getCanonicalUrl() != null) {
+            doc.append("canonicalUrl", item.getCanonicalUrl());
+        }
+        if (item.getMinhash() != null) {
+            doc.append("minhash", toBinary(item.getMinhash()));
+        }
+        if (item.getClusterId() != null) {
+            doc.append("clusterId", item.getClusterId());
+        }
+        appendVersions(doc, item);
+        if (item.getAnalysisDueAt() != null) {
+            doc.append("analysisDueAt", item.getAnalysisDueAt()).append("fastLane", item.isFastLane());
+        }
+        if (item instanceof News) {
+            doc.append("source", ((News) item).getSource()).append("type", "news");
+        } else {
+            doc.append("type", "social_post");
+        }
+        return doc;
+    }
+
+    static void appendVersions(Document doc, Media item) {
+        if (item.getSentimentVersion() != null) {
+            doc.append("sentimentAnalyzer", toDocument(item.getSentimentVersion()));
+        }
+        if (item.getDamageVersion() != null) {
+            doc.append("damageAnalyzer", toDocument(item.getDamageVersion()));
+        }
+    }
+
+    // The fields the dashboard aggregates, from a full document or a projection of them
+    static MediaChange.State toChangeState(Document doc) {
+        return new MediaChange.State(doc.getString("topic"), doc.getDate("timestamp"),
+                safeDouble(doc, "sentiment"), doc.getString("damageType"));
+    }
+
+    // The saved part of a day's sketch; a day that only has pending updates so far starts empty
+    static TopicSketch toTopicSketch(Document doc) {
+        LocalDate day = LocalDate.parse(doc.getString("day"));
+        if (doc.get("sources") == null) return new TopicSketch(day);
+        return new TopicSketch(day,
+                doc.get("items", Number.class).longValue(), doc.get("analyzed", Number.class).longValue(),
+                safeDouble(doc, "sentimentSum"),
+                HyperLogLog.fromBytes(doc.get("sources", Binary.class).getData()),
+                HyperLogLog.fromBytes(doc.get("articles", Binary.class).getData()),
+                TDigest.fromBytes(doc.get("sentiment", Binary.class).getData()));
+    }
+
+    static Document toDocument(SurgeAlert alert) {
+        Document doc = new Document("topic", alert.getTopic())
+                .append("kind", alert.getKind().name())
+                .append("windowStart", alert.getWindowStart())
+                .append("windowEnd", alert.getWindowEnd())
+                .append("observed", alert.getObserved())
+                .append("expected", alert.getExpected())
+                .append("zScore", alert.getZScore())
+                .append("detectedAt", alert.getDetectedAt());
+        if (alert.getCategory() != null) doc.append("category", alert.getCategory().name());
+        return doc;
+    }
+
+    static SurgeAlert toSurgeAlert(Document doc) {
+        String category = doc.getString("category");
+        return new SurgeAlert(doc.getString("topic"), SurgeAlert.Kind.valueOf(doc.getString("kind")),
+                category != null ? DamageCategory.fromString(category) : null,
+                doc.getDate("windowStart"), doc.getDate("windowEnd"), safeDouble(doc, "observed"),
+                safeDouble(doc, "expected"), safeDouble(doc, "zScore"), doc.getDate("detectedAt"));
+    }
+
+    static double safeDouble(Document doc, String key) {
+        Object val = doc.get(key);
+        if (val == null) return 0.0;
+
+        if (val instanceof Double) return (Double) val;
+        if (val instanceof Integer) return ((Integer) val).doubleValue();
+        if (val instanceof String) {
+            try {
+                return Double.parseDouble((String) val);
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+        return 0.0;
+    }
+
+    static Document toDocument(AnalysisVersion version) {
+        return new Document("version", version.getVersion()).append("model", version.getModelId());
+    }
+
+    static AnalysisVersion fromDocument(Document doc) {
+        if (doc == null || doc.getInteger("version") == null) return null;
+        return new AnalysisVersion(doc.getInteger("version"), doc.getString("model"));
+    }
+
+    // Signatures are stored as packed binary (256 bytes) rather than a 64-element array
+    static Binary toBinary(int[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        for (int v : values) buffer.putInt(v);
+        return new Binary(buffer.array());
+    }
+
+    static int[] fromBinary(Binary binary) {
+        ByteBuffer buffer = ByteBuffer.wrap(binary.getData());
+        int[] values = new int[buffer.remaining() / Integer.BYTES];
+        for (int i = 0; i < values.length; i++) values[i] = buffer.getInt();
+        return values;
+    }
+}
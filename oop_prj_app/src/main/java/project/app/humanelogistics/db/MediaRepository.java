@@ -1,15 +1,54 @@
 package project.app.humanelogistics.db;
 
+import project.app.humanelogistics.model.AnalysisVersion;
+import project.app.humanelogistics.model.ArticleFilter;
+import project.app.humanelogistics.model.ArticleSummary;
+import project.app.humanelogistics.model.DashboardTotals;
 import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.MediaChange;
+import project.app.humanelogistics.model.SurgeAlert;
+import project.app.humanelogistics.model.TopicSketch;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public interface MediaRepository {
     void save(Media item);
     void updateAnalysis(Media item);
+
+    // Writes many analysis results in one round trip. Returns the items that failed, with the reason.
+    Map<Media, String> updateAnalysisBatch(List<Media> items);
     List<Media> findByTopic(String topic);
 
+    // All stored copies of an article, looked up through the canonical-URL index
+    List<Media> findByCanonicalUrl(String canonicalUrl);
+
+    // Items of a topic that carry a near-duplicate signature (content not loaded)
+    List<Media> findWithSignatures(String topic);
+
+    // --- WORK CLAIMING (several workers sharing one backlog) ---
+
+    // Atomically leases the next un-analyzed item of the topic to owner: fast lane first, then by
+    // due time. Returns null when none is left.
+    Media claimNext(String topic, String owner, Duration lease);
+
+    // Queues un-analyzed items stored before prioritization existed; returns how many were updated
+    int assignMissingPriorities(String topic, Function<Media, Date> dueAt);
+
+    // Extends the lease; false if it expired and was taken over by another worker
+    boolean renewLease(Media item, String owner, Duration lease);
+
+    void releaseLease(Media item, String owner);
+
+    // Leases the newest item of the topic whose results were not produced by the given analyzer
+    // versions; items analyzed after notAnalyzedSince (already tried by this backfill) are skipped
+    Media claimStale(String topic, AnalysisVersion sentiment, AnalysisVersion damage,
+                     Date notAnalyzedSince, String owner, Duration lease);
+
     // --- NEW OPTIMIZED METHODS ---
     long countByTopic(String topic);
 
@@ -21,4 +60,40 @@ public interface MediaRepository {
     // Returns Map<SourceType, Map<Date, AverageScore>>
     // e.g. "news" -> { 2024-09-01: 0.5, 2024-09-02: -0.2 }
     Map<String, Map<LocalDate, Double>> getDailySentimentTrends(String topic);
+
+    // --- ARTICLE BROWSER ---
+
+    // Up to limit items matching the filter that come after `from` in the filter's order (before it if
+    // !forward), in that order; from = null starts at the beginning. Full content is not loaded.
+    List<ArticleSummary> findArticles(ArticleFilter filter, ArticleSummary from, boolean forward, int limit);
+
+    // --- SKETCHES ---
+
+    // Approximate distinct sources/articles and sentiment quantiles of the topic, per day of the
+    // items' timestamps (undated items are left out). Sketches of other repositories merge in.
+    Map<LocalDate, TopicSketch> getDailySketches(String topic);
+
+    // --- SURGE ALERTS ---
+
+    void saveAlert(SurgeAlert alert);
+
+    // The topic's most recent alerts, newest first
+    List<SurgeAlert> findAlerts(String topic, int limit);
+
+    // --- LIVE DASHBOARD ---
+
+    // Everything the dashboard shows for the topic, as sums and counts that changes can be applied to
+    DashboardTotals getDashboardTotals(String topic);
+
+    // Delivers changes to the topic's items as they happen, until closed: from a change stream where
+    // the server has them, otherwise from the writes made by this process
+    ChangeWatch watchChanges(String topic, Consumer<MediaChange> listener);
+
+    /** An open watch. Complete if it sees every writer's changes, not only this process's. */
+    interface ChangeWatch extends AutoCloseable {
+        boolean isComplete();
+
+        @Override
+        void close();
+    }
 }
\ No newline at end of file
@@ -1,29 +1,116 @@
 package project.app.humanelogistics.db;
 
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.*;
 import com.mongodb.client.model.Accumulators;
 import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Facet;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.AnalysisVersion;
+import project.app.humanelogistics.model.ArticleFilter;
+import project.app.humanelogistics.model.ArticleSummary;
 import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.DashboardTotals;
 import project.app.humanelogistics.model.Media;
-import project.app.humanelogistics.model.News;
-import project.app.humanelogistics.model.SocialPost;
+import project.app.humanelogistics.model.MediaChange;
+import project.app.humanelogistics.model.SurgeAlert;
+import project.app.humanelogistics.model.TopicSketch;
+import project.app.humanelogistics.search.ContentIndex;
+import project.app.humanelogistics.search.SearchHit;
+import project.app.humanelogistics.search.SearchQuery;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class MongoMediaRepository implements MediaRepository {
+    private static final int MAX_CLAIMS = 3;
+    // An analyzed item that still looks un-analyzed (e.g. the AI call failed) is retried only after this
+    private static final long RETRY_AFTER_MILLIS = 60 * 60 * 1000L;
+    private static final int PRIORITY_BATCH_SIZE = 500;
+    // The claim order; also finds the items that have no due time yet without reading the whole topic
+    private static final Bson PRIORITY_INDEX = Indexes.compoundIndex(
+            Indexes.ascending("topic"), Indexes.descending("fastLane"), Indexes.ascending("analysisDueAt"));
+
+    private static final LatencyHistogram SAVE_LATENCY = Metrics.histogram("mongo.save");
+    private static final LatencyHistogram INSERT_BATCH_LATENCY = Metrics.histogram("mongo.insertBatch");
+    private static final LatencyHistogram UPDATE_BATCH_LATENCY = Metrics.histogram("mongo.updateBatch");
+    private static final LatencyHistogram CLAIM_LATENCY = Metrics.histogram("mongo.claim");
+    private static final LatencyHistogram LOOKUP_LATENCY = Metrics.histogram("mongo.findByCanonicalUrl");
+    private static final LatencyHistogram DASHBOARD_READ_LATENCY = Metrics.histogram("mongo.dashboardRead");
+    private static final LatencyHistogram ARTICLE_PAGE_LATENCY = Metrics.histogram("mongo.articlePage");
+    private static final LatencyHistogram SKETCH_READ_LATENCY = Metrics.histogram("mongo.sketchRead");
+    private static final Counter SKETCH_DAYS_REBUILT = Metrics.counter("mongo.sketchDaysRebuilt");
+    private static final LatencyHistogram ARCHIVE_BATCH_LATENCY = Metrics.histogram("mongo.archiveBatch");
+    private static final Counter ARCHIVED_ITEMS = Metrics.counter("mongo.archivedItems");
+    private static final Counter ARCHIVE_READS = Metrics.counter("mongo.archiveReads");
+    private static final int SNIPPET_LENGTH = 160;
+    // A text search narrows the article browser to at most this many of the newest matches
+    private static final int MAX_SEARCH_HITS = 5_000;
+    private static final int ARCHIVE_BATCH_SIZE = 500;
+    // Items may be stored slightly out of _id order by concurrent writers; catch-up re-reads this far back
+    private static final long SEARCH_CATCH_UP_MARGIN_SECONDS = 10 * 60;
+
+    // What an analysis write replaced: the fields MediaChange carries, and those the day's sketch counts
+    private static final Bson BEFORE_FIELDS = Projections.include(
+            "topic", "timestamp", "sentiment", "damageType", "source", "url", "canonicalUrl");
+
+    private final MongoClient client;
+    private final MongoDatabase database;
     private final MongoCollection<Document> collection;
+    private final String namespace;
+    private final MongoCollection<Document> sketches;
+    private final DailySketchStore sketchStore;
+    private final MongoCollection<Document> alerts;
+    private final ContentArchive archive;
+    private volatile ContentIndex searchIndex;
 
     public MongoMediaRepository(String connectionString, String dbName, String collName) {
         try {
-            MongoClient client = MongoClients.create(connectionString);
-            MongoDatabase db = client.getDatabase(dbName);
-            this.collection = db.getCollection(collName);
+            this.client = MongoClients.create(connectionString);
+            this.database = client.getDatabase(dbName);
+            this.collection = database.getCollection(collName);
+            this.namespace = collection.getNamespace().getFullName();
+            this.sketches = database.getCollection(collName + "_sketches");
+            this.sketchStore = new DailySketchStore(collection, sketches);
+            this.alerts = database.getCollection(collName + "_alerts");
+            this.archive = new ContentArchive(database.getCollection(collName + "_archive"));
+            // Persistent canonical-URL index, checked before every fetch/enrichment
+            this.collection.createIndex(Indexes.ascending("canonicalUrl"));
+            // Exact-duplicate check of save(); the text itself may be archived
+            this.collection.createIndex(Indexes.ascending("contentHash"));
+            this.collection.createIndex(Indexes.ascending("topic", "leaseExpiresAt"));
+            this.collection.createIndex(PRIORITY_INDEX);
+            // Also the article browser's sort order: _id breaks ties between equal timestamps
+            this.collection.createIndex(Indexes.compoundIndex(
+                    Indexes.ascending("topic"), Indexes.descending("timestamp"), Indexes.descending("_id")));
+            this.sketches.createIndex(Indexes.ascending("topic"));
+            this.alerts.createIndex(Indexes.compoundIndex(Indexes.ascending("topic"), Indexes.descending("detectedAt")));
         } catch (Exception e) {
             throw new RuntimeException("Failed to connect to MongoDB", e);
         }
@@ -31,28 +118,131 @@ public class MongoMediaRepository implements MediaRepository {
 
     @Override
     public void save(Media item) {
-        if(collection.find(new Document("content", item.getContent())).first() != null) return;
-        Document doc = new Document("topic", item.getTopic())
-                .append("content", item.getContent())
-                .append("url", item.getUrl())
-                .append("timestamp", item.getTimestamp())
-                .append("sentiment", item.getSentiment())
-                .append("damageType", item.getDamageType().name());
-        if (item instanceof News) {
-            doc.append("source", ((News) item).getSource()).append("type", "news");
-        } else {
-            doc.append("type", "social_post");
-        }
+        long start = System.nanoTime();
+        // By hash: archived items no longer have their text, and the hash is indexed
+        if(collection.find(Filters.eq("contentHash", ContentArchive.hash(item.getContent()))).first() != null) return;
+        Document doc = MediaDocumentMapper.toDocument(item);
         collection.insertOne(doc);
+        item.setId(doc.getObjectId("_id").toHexString());
+        SAVE_LATENCY.recordSince(start);
+        recordSketches(() -> sketchStore.recordInserted(List.of(doc)));
+        if (searchIndex != null) searchIndex.add(item);
+        if (MediaChangeBus.hasSubscribers(namespace)) {
+            MediaChangeBus.publish(namespace, MediaChange.inserted(MediaChange.State.of(item)));
+        }
+    }
+
+    /**
+     * Inserts items known to be new in one unordered bulk write, skipping the per-item content
+     * check of {@link #save}. Meant for bulk loads (imports, load tests). Returns the number inserted.
+     */
+    public int insertAll(List<Media> items) {
+        if (items.isEmpty()) return 0;
+        List<Document> docs = new ArrayList<>(items.size());
+        for (Media item : items) docs.add(MediaDocumentMapper.toDocument(item));
+
+        long start = System.nanoTime();
+        Set<Integer> failed = new HashSet<>();
+        try {
+            collection.insertMany(docs, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) failed.add(error.getIndex());
+        } finally {
+            INSERT_BATCH_LATENCY.recordSince(start);
+        }
+        List<Document> inserted = new ArrayList<>(docs.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (failed.contains(i)) continue;
+            inserted.add(docs.get(i));
+            items.get(i).setId(docs.get(i).getObjectId("_id").toHexString());
+            if (searchIndex != null) searchIndex.add(items.get(i));
+        }
+        recordSketches(() -> sketchStore.recordInserted(inserted));
+        if (MediaChangeBus.hasSubscribers(namespace)) {
+            for (int i = 0; i < items.size(); i++) {
+                if (!failed.contains(i)) MediaChangeBus.publish(namespace, MediaChange.inserted(MediaChange.State.of(items.get(i))));
+            }
+        }
+        return items.size() - failed.size();
     }
 
     @Override
     public void updateAnalysis(Media item) {
-        collection.updateOne(
-                new Document("content", item.getContent()),
-                new Document("$set", new Document("sentiment", item.getSentiment())
-                        .append("damageType", item.getDamageType().name()))
-        );
+        if (searchIndex != null) searchIndex.updateCategory(item.getId(), item.getDamageType());
+        Document before = collection.findOneAndUpdate(matchFilter(item), analysisUpdate(item),
+                new FindOneAndUpdateOptions().projection(BEFORE_FIELDS).returnDocument(ReturnDocument.BEFORE));
+        if (before == null) return;
+        recordSketches(() -> sketchStore.recordAnalysis(Map.of(before, sketchFields(item))));
+        if (MediaChangeBus.hasSubscribers(namespace)) publishAnalysis(MediaDocumentMapper.toChangeState(before), item);
+    }
+
+    /**
+     * Besides the bulk update, costs one find for the documents as they were and one upsert per
+     * touched day for the daily sketches.
+     */
+    @Override
+    public Map<Media, String> updateAnalysisBatch(List<Media> items) {
+        Map<Media, String> failures = new LinkedHashMap<>();
+        if (items.isEmpty()) return failures;
+
+        List<WriteModel<Document>> updates = new ArrayList<>(items.size());
+        for (Media item : items) {
+            updates.add(new UpdateOneModel<>(matchFilter(item), analysisUpdate(item)));
+        }
+        Map<String, Document> before = currentDocuments(items);
+
+        long start = System.nanoTime();
+        int matched = -1;
+        try {
+            // Unordered: one bad document does not stop the rest of the batch
+            matched = collection.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getMatchedCount();
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failures.put(items.get(error.getIndex()), error.getMessage());
+            }
+            matched = e.getWriteResult().getMatchedCount();
+        } catch (Exception e) {
+            for (Media item : items) failures.put(item, e.getMessage());
+        }
+        UPDATE_BATCH_LATENCY.recordSince(start);
+        // An update that matched nothing (item deleted or archived meanwhile) did not write either
+        if (matched >= 0 && matched < items.size() - failures.size()) {
+            for (Media item : unmatched(items, failures.keySet())) failures.put(item, "No stored item matches");
+        }
+
+        if (searchIndex != null) {
+            for (Media item : items) {
+                if (!failures.containsKey(item)) searchIndex.updateCategory(item.getId(), item.getDamageType());
+            }
+        }
+        Map<Document, Document> analyzed = new HashMap<>();
+        List<Media> unknown = new ArrayList<>();
+        for (Media item : items) {
+            if (failures.containsKey(item)) continue;
+            Document previous = item.getId() != null ? before.get(item.getId()) : null;
+            if (previous != null) {
+                analyzed.put(previous, sketchFields(item));
+            } else {
+                unknown.add(item);
+            }
+        }
+        recordSketches(() -> {
+            sketchStore.recordAnalysis(analyzed);
+            for (Media item : unknown) sketchStore.markDirty(item.getTopic(), item.getTimestamp());
+        });
+
+        if (MediaChangeBus.hasSubscribers(namespace)) {
+            for (Media item : items) {
+                if (failures.containsKey(item)) continue;
+                Document previous = item.getId() != null ? before.get(item.getId()) : null;
+                if (previous != null) {
+                    publishAnalysis(MediaDocumentMapper.toChangeState(previous), item);
+                } else {
+                    MediaChangeBus.publish(namespace, MediaChange.resync(item.getTopic()));
+                }
+            }
+        }
+        return failures;
     }
 
     @Override
@@ -60,17 +250,119 @@ public class MongoMediaRepository implements MediaRepository {
         List<Media> items = new ArrayList<>();
         // In "Analyze Only" mode, we fetch items that need analysis
         // This usually means sentiment is 0.0 AND damageType is UNKNOWN or missing
+        List<Document> docs = collection.find(needsAnalysisFilter(topic)).limit(50).into(new ArrayList<>()); // Process in batches
+        for (Document doc : withArchivedContent(docs)) {
+            items.add(MediaDocumentMapper.toMedia(doc));
+        }
+        return items;
+    }
+
+    // --- WORK CLAIMING ---
+    // Lease expiry uses the local clock, so worker hosts are expected to be NTP-synchronized.
+
+    @Override
+    public Media claimNext(String topic, String owner, Duration lease) {
+        Date now = new Date();
+        Bson filter = Filters.and(
+                needsAnalysisFilter(topic),
+                Filters.or(Filters.exists("leaseExpiresAt", false), Filters.lt("leaseExpiresAt", now)),
+                // Items that keep failing analysis are not handed out forever
+                Filters.or(Filters.exists("claimCount", false), Filters.lt("claimCount", MAX_CLAIMS)),
+                Filters.or(Filters.exists("analyzedAt", false), Filters.lt("analyzedAt", new Date(now.getTime() - RETRY_AFTER_MILLIS)))
+        );
+        // Atomic: two workers can never receive the same document
+        long start = System.nanoTime();
+        Document doc = collection.findOneAndUpdate(filter, leaseUpdate(owner, lease, now),
+                new FindOneAndUpdateOptions()
+                        .sort(Sorts.orderBy(Sorts.descending("fastLane"), Sorts.ascending("analysisDueAt")))
+                        .returnDocument(ReturnDocument.AFTER));
+        CLAIM_LATENCY.recordSince(start);
+        return doc == null ? null : MediaDocumentMapper.toMedia(withArchivedContent(doc));
+    }
+
+    @Override
+    public int assignMissingPriorities(String topic, Function<Media, Date> dueAt) {
+        Bson filter = Filters.and(needsAnalysisFilter(topic), Filters.eq("analysisDueAt", null));
+        Bson projection = Projections.include("topic", "content", "url", "timestamp", "type", "source");
+
+        int assigned = 0;
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (Document doc : collection.find(filter).projection(projection).hint(PRIORITY_INDEX)) {
+            Media item = MediaDocumentMapper.toMedia(doc);
+            updates.add(new UpdateOneModel<>(Filters.eq("_id", doc.getObjectId("_id")),
+                    Updates.combine(Updates.set("analysisDueAt", dueAt.apply(item)), Updates.set("fastLane", false))));
+            if (updates.size() >= PRIORITY_BATCH_SIZE) {
+                assigned += collection.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                updates.clear();
+            }
+        }
+        if (!updates.isEmpty()) {
+            assigned += collection.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return assigned;
+    }
+
+    @Override
+    public Media claimStale(String topic, AnalysisVersion sentiment, AnalysisVersion damage,
+                            Date notAnalyzedSince, String owner, Duration lease) {
+        Date now = new Date();
         Bson filter = Filters.and(
                 Filters.eq("topic", topic),
-                Filters.or(
-                        Filters.eq("sentiment", 0.0),
-                        Filters.eq("damageType", "UNKNOWN"),
-                        Filters.exists("damageType", false)
-                )
+                Filters.or(isStale("sentimentAnalyzer", sentiment), isStale("damageAnalyzer", damage)),
+                Filters.or(Filters.exists("leaseExpiresAt", false), Filters.lt("leaseExpiresAt", now)),
+                Filters.or(Filters.exists("analyzedAt", false), Filters.lt("analyzedAt", notAnalyzedSince))
         );
 
-        for (Document doc : collection.find(filter).limit(50)) { // Process in batches
-            items.add(mapDocumentToMedia(doc));
+        // Newest first: recent coverage is what the dashboard shows
+        Document doc = collection.findOneAndUpdate(filter, leaseUpdate(owner, lease, now),
+                new FindOneAndUpdateOptions().sort(Sorts.descending("timestamp")).returnDocument(ReturnDocument.AFTER));
+        return doc == null ? null : MediaDocumentMapper.toMedia(withArchivedContent(doc));
+    }
+
+    @Override
+    public boolean renewLease(Media item, String owner, Duration lease) {
+        UpdateResult result = collection.updateOne(
+                Filters.and(Filters.eq("_id", new ObjectId(item.getId())), Filters.eq("leaseOwner", owner)),
+                Updates.set("leaseExpiresAt", new Date(System.currentTimeMillis() + lease.toMillis()))
+        );
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public void releaseLease(Media item, String owner) {
+        collection.updateOne(
+                Filters.and(Filters.eq("_id", new ObjectId(item.getId())), Filters.eq("leaseOwner", owner)),
+                Updates.combine(Updates.unset("leaseOwner"), Updates.unset("leaseExpiresAt"), Updates.inc("claimCount", -1))
+        );
+    }
+
+    @Override
+    public List<Media> findByCanonicalUrl(String canonicalUrl) {
+        List<Media> items = new ArrayList<>();
+        if (canonicalUrl == null || canonicalUrl.isEmpty()) return items;
+
+        long start = System.nanoTime();
+        List<Document> docs = collection.find(Filters.eq("canonicalUrl", canonicalUrl)).limit(10).into(new ArrayList<>());
+        for (Document doc : withArchivedContent(docs)) {
+            items.add(MediaDocumentMapper.toMedia(doc));
+        }
+        LOOKUP_LATENCY.recordSince(start);
+        return items;
+    }
+
+    @Override
+    public List<Media> findWithSignatures(String topic) {
+        List<Media> items = new ArrayList<>();
+        Bson projection = Projections.include(
+                "topic", "url", "canonicalUrl", "timestamp", "sentiment", "damageType", "type", "source", "minhash", "clusterId",
+                "sentimentAnalyzer", "damageAnalyzer");
+
+        FindIterable<Document> docs = collection.find(Filters.and(Filters.eq("topic", topic), Filters.exists("minhash")))
+                .projection(projection)
+                .sort(Sorts.descending("timestamp"))
+                .limit(10000); // Recent stories are the ones still being syndicated
+        for (Document doc : docs) {
+            items.add(MediaDocumentMapper.toMedia(doc));
         }
         return items;
     }
@@ -82,24 +374,30 @@ public class MongoMediaRepository implements MediaRepository {
 
     @Override
     public double getAverageSentiment(String topic) {
+        long start = System.nanoTime();
         double total = 0;
         int count = 0;
 
         FindIterable<Document> docs = collection.find(Filters.eq("topic", topic))
                 .projection(Projections.include("sentiment"));
 
-        for (Document doc : docs) {
-            double val = getSafeDouble(doc, "sentiment");
-            if (val != 0.0) {
-                total += val;
-                count++;
+        try (MongoCursor<Document> cursor = docs.iterator()) {
+            while (cursor.hasNext()) {
+                checkCancelled();
+                double val = MediaDocumentMapper.safeDouble(cursor.next(), "sentiment");
+                if (val != 0.0) {
+                    total += val;
+                    count++;
+                }
             }
         }
+        DASHBOARD_READ_LATENCY.recordSince(start);
         return count == 0 ? 0.0 : total / count;
     }
 
     @Override
     public Map<String, Integer> getDamageDistribution(String topic) {
+        long start = System.nanoTime();
         Map<String, Integer> distribution = new HashMap<>();
 
         // Aggregation: Group by damageType and count
@@ -112,24 +410,30 @@ public class MongoMediaRepository implements MediaRepository {
                 Aggregates.group("$damageType", Accumulators.sum("count", 1))
         ));
 
-        for (Document doc : results) {
-            String typeCode = doc.getString("_id");
-            if (typeCode == null) continue;
+        try (MongoCursor<Document> cursor = results.iterator()) {
+            while (cursor.hasNext()) {
+                checkCancelled();
+                Document doc = cursor.next();
+                String typeCode = doc.getString("_id");
+                if (typeCode == null) continue;
 
-            try {
-                String displayName = DamageCategory.valueOf(typeCode).getDisplayName();
-                distribution.put(displayName, doc.getInteger("count"));
-            } catch (IllegalArgumentException e) {
-                // If DB has a value not in Enum (e.g. older data), treat as Other
-                distribution.merge("Other", doc.getInteger("count"), Integer::sum);
+                try {
+                    String displayName = DamageCategory.valueOf(typeCode).getDisplayName();
+                    distribution.put(displayName, doc.getInteger("count"));
+                } catch (IllegalArgumentException e) {
+                    // If DB has a value not in Enum (e.g. older data), treat as Other
+                    distribution.merge("Other", doc.getInteger("count"), Integer::sum);
+                }
             }
         }
+        DASHBOARD_READ_LATENCY.recordSince(start);
         return distribution;
     }
 
     @Override
     public Map<String, Map<LocalDate, Double>> getDailySentimentTrends(String topic) {
-        Map<String, Map<LocalDate, Double>> trends = new HashMap<>();
+        long start = System.nanoTime();
+        Map<String, Map<LocalDate, double[]>> sums = new HashMap<>(); // Type -> day -> {sum, count}
 
         Bson projection = Projections.fields(
                 Projections.include("timestamp", "sentiment", "type"),
@@ -139,69 +443,523 @@ public class MongoMediaRepository implements MediaRepository {
         FindIterable<Document> docs = collection.find(Filters.eq("topic", topic))
                 .projection(projection);
 
-        for (Document doc : docs) {
-            Date date = doc.getDate("timestamp");
-            if (date == null) continue;
-
-            LocalDate localDate = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-            String type = doc.getString("type");
-            if (type == null) type = "unknown";
+        try (MongoCursor<Document> cursor = docs.iterator()) {
+            while (cursor.hasNext()) {
+                checkCancelled();
+                Document doc = cursor.next();
+                Date date = doc.getDate("timestamp");
+                if (date == null) continue;
 
-            double sentiment = getSafeDouble(doc, "sentiment");
-            if (sentiment == 0.0) continue;
+                LocalDate localDate = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                String type = doc.getString("type");
+                if (type == null) type = "unknown";
 
-            trends.putIfAbsent(type, new TreeMap<>());
-            Map<LocalDate, Double> dateMap = trends.get(type);
+                double sentiment = MediaDocumentMapper.safeDouble(doc, "sentiment");
+                if (sentiment == 0.0) continue;
 
-            if (dateMap.containsKey(localDate)) {
-                double currentAvg = dateMap.get(localDate);
-                dateMap.put(localDate, (currentAvg + sentiment) / 2.0);
-            } else {
-                dateMap.put(localDate, sentiment);
+                double[] sumAndCount = sums.computeIfAbsent(type, t -> new TreeMap<>())
+                        .computeIfAbsent(localDate, d -> new double[2]);
+                sumAndCount[0] += sentiment;
+                sumAndCount[1]++;
             }
         }
+
+        // Mean of each day, the same figure the live dashboard keeps
+        Map<String, Map<LocalDate, Double>> trends = new HashMap<>();
+        sums.forEach((type, days) -> {
+            Map<LocalDate, Double> daily = new TreeMap<>();
+            days.forEach((day, sumAndCount) -> daily.put(day, sumAndCount[0] / sumAndCount[1]));
+            trends.put(type, daily);
+        });
+        DASHBOARD_READ_LATENCY.recordSince(start);
         return trends;
     }
 
-    // --- HELPER METHODS ---
+    // --- ARTICLE BROWSER ---
+
+    /**
+     * Keyset paging on (timestamp, _id): each page continues from the last row of the previous one,
+     * so page 5000 costs the same as page 1 (skip would walk all rows before it). Undated items are
+     * not listed, as they have no place in the order.
+     */
+    @Override
+    public List<ArticleSummary> findArticles(ArticleFilter filter, ArticleSummary from, boolean forward, int limit) {
+        long start = System.nanoTime();
+        // Reading backwards walks the reverse order from `from`
+        boolean descending = filter.isNewestFirst() == forward;
+
+        List<Bson> conditions = new ArrayList<>();
+        conditions.add(Filters.eq("topic", filter.getTopic()));
+        conditions.add(Filters.type("timestamp", "date"));
+        if (filter.getDamageType() != null) conditions.add(Filters.eq("damageType", filter.getDamageType().name()));
+        if (filter.getMinSentiment() != null) conditions.add(Filters.gte("sentiment", filter.getMinSentiment()));
+        if (filter.getMaxSentiment() != null) conditions.add(Filters.lte("sentiment", filter.getMaxSentiment()));
+        if (filter.getSource() != null) conditions.add(Filters.eq("source", filter.getSource()));
+        if (filter.getText() != null) {
+            List<ObjectId> ids = searchIds(filter);
+            if (ids.isEmpty()) {
+                ARTICLE_PAGE_LATENCY.recordSince(start);
+                return new ArrayList<>();
+            }
+            conditions.add(Filters.in("_id", ids));
+        }
+        if (from != null) {
+            Date time = from.getTimestamp();
+            ObjectId id = new ObjectId(from.getId());
+            conditions.add(descending
+                    ? Filters.or(Filters.lt("timestamp", time), Filters.and(Filters.eq("timestamp", time), Filters.lt("_id", id)))
+                    : Filters.or(Filters.gt("timestamp", time), Filters.and(Filters.eq("timestamp", time), Filters.gt("_id", id))));
+        }
+
+        Document fields = new Document("timestamp", 1).append("type", 1).append("source", 1).append("url", 1)
+                .append("sentiment", 1).append("damageType", 1)
+                .append("snippet", new Document("$substrCP", Arrays.asList(new Document("$ifNull",
+                        Arrays.asList("$content", new Document("$ifNull", Arrays.asList("$snippet", "")))), 0, SNIPPET_LENGTH)));
+
+        List<ArticleSummary> page = new ArrayList<>(limit);
+        try (MongoCursor<Document> cursor = collection.aggregate(Arrays.asList(
+                Aggregates.match(Filters.and(conditions)),
+                Aggregates.sort(descending ? Sorts.descending("timestamp", "_id") : Sorts.ascending("timestamp", "_id")),
+                Aggregates.limit(limit),
+                Aggregates.project(fields))).iterator()) {
+            while (cursor.hasNext()) {
+                checkCancelled();
+                page.add(MediaDocumentMapper.toArticleSummary(cursor.next()));
+            }
+        }
+        if (!forward) Collections.reverse(page);
+        ARTICLE_PAGE_LATENCY.recordSince(start);
+        return page;
+    }
+
+    // The index applies the category itself; sentiment and source are left to the query
+    private List<ObjectId> searchIds(ArticleFilter filter) {
+        ContentIndex index = searchIndex;
+        if (index == null) throw new IllegalStateException("Text search is not available: SEARCH_INDEX_DIR is not set");
+        SearchQuery query = new SearchQuery(filter.getTopic(), filter.getText(), filter.getDamageType(), null, null);
+        List<ObjectId> ids = new ArrayList<>();
+        for (SearchHit hit : index.search(query, MAX_SEARCH_HITS)) ids.add(new ObjectId(hit.getId()));
+        return ids;
+    }
+
+    // --- SEARCH INDEX ---
+
+    /** Keeps {@code index} up to date with every item saved or analyzed through this repository. */
+    public void setSearchIndex(ContentIndex index) {
+        this.searchIndex = index;
+    }
+
+    /**
+     * Adds the items stored since the index was last committed: by a run that did not close it, or
+     * by other processes saving to the same collection (only one of them writes the index). Then
+     * commits, so readers see everything added or re-categorized so far. Meant to be called
+     * periodically by the index writer. Returns the number added.
+     */
+    public int catchUpSearchIndex() throws IOException {
+        ContentIndex index = searchIndex;
+        if (index == null) return 0;
+        long start = System.nanoTime();
+        Bson filter = new Document();
+        if (!index.getLastId().isEmpty()) {
+            long seconds = new ObjectId(index.getLastId()).getTimestamp() - SEARCH_CATCH_UP_MARGIN_SECONDS;
+            filter = Filters.gte("_id", new ObjectId(new Date(Math.max(0, seconds) * 1000)));
+        }
+        // Ids first: most of the margin is usually indexed already, and its text need not be read
+        int added = 0;
+        List<ObjectId> missing = new ArrayList<>();
+        try (MongoCursor<Document> cursor = collection.find(filter).projection(Projections.include("_id"))
+                .sort(Sorts.ascending("_id")).iterator()) {
+            while (cursor.hasNext()) {
+                ObjectId id = cursor.next().getObjectId("_id");
+                if (!index.contains(id.toHexString())) missing.add(id);
+                if (missing.size() < ARCHIVE_BATCH_SIZE && cursor.hasNext()) continue;
+                added += addToSearchIndex(index, missing);
+                missing.clear();
+            }
+        }
+        index.commit();
+        if (added > 0) {
+            System.out.printf("Search index caught up: %d items in %d ms%n", added, (System.nanoTime() - start) / 1_000_000);
+        }
+        return added;
+    }
+
+    private int addToSearchIndex(ContentIndex index, List<ObjectId> ids) {
+        if (ids.isEmpty()) return 0;
+        List<Document> docs = collection.find(Filters.in("_id", ids))
+                .projection(Projections.include("topic", "content", "archived", "timestamp", "damageType", "type", "source", "url"))
+                .into(new ArrayList<>());
+        for (Document doc : withArchivedContent(docs)) index.add(MediaDocumentMapper.toMedia(doc));
+        return docs.size();
+    }
 
-    private double getSafeDouble(Document doc, String key) {
-        Object val = doc.get(key);
-        if (val == null) return 0.0;
+    // --- ARCHIVE ---
 
-        if (val instanceof Double) return (Double) val;
-        if (val instanceof Integer) return ((Integer) val).doubleValue();
-        if (val instanceof String) {
-            try {
-                return Double.parseDouble((String) val);
-            } catch (NumberFormatException e) {
-                return 0.0;
+    /**
+     * Moves the text of analyzed items stored before {@code olderThan} to the compressed archive.
+     * The items keep their analysis, hashes, a content hash and a snippet; the full text is read
+     * back from the archive when one is loaded as a {@link Media}. Items being analyzed (leased)
+     * are left for the next run. Returns the number archived.
+     */
+    public int archiveContent(Date olderThan) {
+        Bson filter = Filters.and(
+                Filters.lt("_id", new ObjectId(olderThan)),
+                Filters.exists("content"),
+                // Analyzed before saving (new data) or by an update (backlog); neutral results only have analyzedAt
+                Filters.or(Filters.exists("analyzedAt"), Filters.nor(needsAnalysisConditions())),
+                Filters.exists("leaseOwner", false));
+        int archived = 0;
+        ObjectId after = null;
+        while (true) {
+            long start = System.nanoTime();
+            Map<ObjectId, String> contents = new LinkedHashMap<>();
+            // Continues after the previous batch instead of rescanning the items archived by it
+            Bson batch = after == null ? filter : Filters.and(filter, Filters.gt("_id", after));
+            for (Document doc : collection.find(batch).projection(Projections.include("content"))
+                    .sort(Sorts.ascending("_id")).limit(ARCHIVE_BATCH_SIZE)) {
+                String content = doc.getString("content");
+                after = doc.getObjectId("_id");
+                contents.put(after, content != null ? content : "");
+            }
+            if (contents.isEmpty()) break;
+
+            // Archive first: a run stopped in between leaves text in both places, never in neither
+            archive.store(contents);
+            List<WriteModel<Document>> updates = new ArrayList<>(contents.size());
+            for (Map.Entry<ObjectId, String> entry : contents.entrySet()) {
+                String content = entry.getValue();
+                updates.add(new UpdateOneModel<>(Filters.eq("_id", entry.getKey()), Updates.combine(
+                        Updates.unset("content"),
+                        Updates.set("archived", true),
+                        Updates.set("contentHash", ContentArchive.hash(content)),
+                        Updates.set("snippet", content.substring(0, Math.min(content.length(), SNIPPET_LENGTH))))));
             }
+            collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            archived += contents.size();
+            ARCHIVED_ITEMS.add(contents.size());
+            ARCHIVE_BATCH_LATENCY.recordSince(start);
+        }
+        return archived;
+    }
+
+    /**
+     * Gives items stored before content hashes were written one, so save() recognizes them as
+     * duplicates. Only finds work once; returns the number updated.
+     */
+    public int assignMissingContentHashes() {
+        Bson filter = Filters.and(Filters.exists("contentHash", false), Filters.exists("content"));
+        int assigned = 0;
+        while (true) {
+            List<WriteModel<Document>> updates = new ArrayList<>();
+            for (Document doc : collection.find(filter).projection(Projections.include("content")).limit(ARCHIVE_BATCH_SIZE)) {
+                String content = doc.getString("content");
+                updates.add(new UpdateOneModel<>(Filters.eq("_id", doc.getObjectId("_id")),
+                        Updates.set("contentHash", ContentArchive.hash(content))));
+            }
+            if (updates.isEmpty()) break;
+            collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            assigned += updates.size();
+        }
+        return assigned;
+    }
+
+    private Document withArchivedContent(Document doc) {
+        return withArchivedContent(Collections.singletonList(doc)).get(0);
+    }
+
+    // Puts the archived text back into the documents that need it, with one archive read for all
+    private List<Document> withArchivedContent(List<Document> docs) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (Document doc : docs) {
+            if (Boolean.TRUE.equals(doc.getBoolean("archived")) && doc.get("content") == null) ids.add(doc.getObjectId("_id"));
+        }
+        if (ids.isEmpty()) return docs;
+        ARCHIVE_READS.add(ids.size());
+        Map<ObjectId, String> contents = archive.load(ids);
+        for (Document doc : docs) {
+            String content = contents.get(doc.getObjectId("_id"));
+            if (content != null) doc.put("content", content);
+        }
+        return docs;
+    }
+
+    // --- SKETCHES ---
+
+    /**
+     * Reads the saved sketches only: they are kept current by the writes of this repository (see
+     * {@link DailySketchStore}), so no item is read here.
+     */
+    @Override
+    public Map<LocalDate, TopicSketch> getDailySketches(String topic) {
+        long start = System.nanoTime();
+        Map<LocalDate, TopicSketch> daily = sketchStore.read(topic);
+        SKETCH_READ_LATENCY.recordSince(start);
+        return daily;
+    }
+
+    /** Rebuilds the days whose sketches writes could not update, and folds pending updates. Ingestion-side. */
+    public int refreshSketches() {
+        int rebuilt = sketchStore.refresh();
+        SKETCH_DAYS_REBUILT.add(rebuilt);
+        return rebuilt;
+    }
+
+    /** Builds every day of the topic from its items; for items stored before sketches were kept on write. */
+    public int rebuildSketches(String topic) {
+        int rebuilt = sketchStore.rebuild(topic);
+        SKETCH_DAYS_REBUILT.add(rebuilt);
+        return rebuilt;
+    }
+
+    /** Rebuilds the topic's sketches if it has none yet. */
+    public int ensureSketches(String topic) {
+        if (sketches.find(Filters.eq("topic", topic)).first() != null) return 0;
+        return rebuildSketches(topic);
+    }
+
+    // A failed sketch update never fails the write it belongs to; rebuildSketches repairs the topic
+    private void recordSketches(Runnable update) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            System.err.println("Could not update daily sketches: " + e.getMessage());
+        }
+    }
+
+    // Day boundaries in the local zone, as the trend chart shows them
+    private static Document localDay() {
+        return new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                .append("date", "$timestamp").append("timezone", ZoneId.systemDefault().getId()));
+    }
+
+    // --- SURGE ALERTS ---
+
+    @Override
+    public void saveAlert(SurgeAlert alert) {
+        alerts.insertOne(MediaDocumentMapper.toDocument(alert));
+    }
+
+    @Override
+    public List<SurgeAlert> findAlerts(String topic, int limit) {
+        List<SurgeAlert> found = new ArrayList<>();
+        for (Document doc : alerts.find(Filters.eq("topic", topic)).sort(Sorts.descending("detectedAt")).limit(limit)) {
+            found.add(MediaDocumentMapper.toSurgeAlert(doc));
+        }
+        return found;
+    }
+
+    // --- LIVE DASHBOARD ---
+
+    /**
+     * Aggregated in a snapshot where the server supports it, so the totals are exact as of a known
+     * cluster time and changes streamed for writes up to it are not counted again.
+     */
+    @Override
+    public DashboardTotals getDashboardTotals(String topic) {
+        long start = System.nanoTime();
+        List<Bson> pipeline = dashboardPipeline(topic);
+        Document result;
+        long asOf = 0;
+        try (ClientSession session = client.startSession(ClientSessionOptions.builder().snapshot(true).build())) {
+            result = collection.aggregate(session, pipeline).first();
+            if (session.getSnapshotTimestamp() != null) asOf = session.getSnapshotTimestamp().getValue();
+        } catch (MongoException e) {
+            // No snapshot reads (standalone server, before 5.0): writes racing the aggregate may count twice
+            result = collection.aggregate(pipeline).first();
+        }
+        DASHBOARD_READ_LATENCY.recordSince(start);
+        if (result == null) return new DashboardTotals(0, 0, 0, Map.of(), Map.of(), asOf);
+
+        List<Document> total = result.getList("total", Document.class);
+        List<Document> sentiment = result.getList("sentiment", Document.class);
+        Map<String, Integer> damage = new HashMap<>();
+        for (Document doc : result.getList("damage", Document.class)) {
+            damage.put(doc.getString("_id"), doc.get("n", Number.class).intValue());
+        }
+        Map<LocalDate, double[]> days = new TreeMap<>();
+        for (Document doc : result.getList("days", Document.class)) {
+            days.put(LocalDate.parse(doc.getString("_id")),
+                    new double[] { MediaDocumentMapper.safeDouble(doc, "sum"), doc.get("n", Number.class).doubleValue() });
+        }
+        return new DashboardTotals(
+                total.isEmpty() ? 0 : total.get(0).get("n", Number.class).longValue(),
+                sentiment.isEmpty() ? 0 : MediaDocumentMapper.safeDouble(sentiment.get(0), "sum"),
+                sentiment.isEmpty() ? 0 : sentiment.get(0).get("n", Number.class).longValue(),
+                damage, days, asOf);
+    }
+
+    @Override
+    public ChangeWatch watchChanges(String topic, Consumer<MediaChange> listener) {
+        try {
+            return new MediaChangeStream(collection, topic, preImagesEnabled(), listener);
+        } catch (MongoException e) {
+            System.out.println("Change streams unavailable (" + e.getMessage()
+                    + "); following writes made by this process only.");
+            return MediaChangeBus.subscribe(namespace, topic, listener);
+        }
+    }
+
+    /**
+     * Makes change streams carry the replaced version of updated items (MongoDB 6.0+), so live
+     * dashboards can apply analysis updates as exact deltas. A setup step for the writer: costs a
+     * copy of each changed document for as long as the oplog keeps it. Returns false if unsupported.
+     */
+    public boolean enableChangePreImages() {
+        try {
+            database.runCommand(new Document("collMod", collection.getNamespace().getCollectionName())
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+            return true;
+        } catch (MongoException e) {
+            System.out.println("Change stream pre-images unavailable (" + e.getMessage()
+                    + "); live dashboards will resync on analysis updates.");
+            return false;
         }
-        return 0.0;
     }
 
-    private Media mapDocumentToMedia(Document doc) {
-        String topic = doc.getString("topic");
-        String content = doc.getString("content");
-        String url = doc.getString("url");
-        Date timestamp = doc.getDate("timestamp");
-        double sentiment = getSafeDouble(doc, "sentiment");
+    // Read-only check; without pre-images an update cannot be applied as a delta and triggers a resync
+    private boolean preImagesEnabled() {
+        Document info = database.listCollections()
+                .filter(Filters.eq("name", collection.getNamespace().getCollectionName())).first();
+        Document options = info != null ? info.get("options", Document.class) : null;
+        Document images = options != null ? options.get("changeStreamPreAndPostImages", Document.class) : null;
+        if (images != null && Boolean.TRUE.equals(images.getBoolean("enabled"))) return true;
+        System.out.println("Change stream pre-images not enabled for " + namespace
+                + "; analysis updates will trigger a resync.");
+        return false;
+    }
+
+    private static List<Bson> dashboardPipeline(String topic) {
+        Bson analyzed = Filters.and(Filters.ne("sentiment", 0), Filters.ne("sentiment", null));
+        return Arrays.asList(
+                Aggregates.match(Filters.eq("topic", topic)),
+                Aggregates.facet(
+                        new Facet("total", Aggregates.count("n")),
+                        new Facet("sentiment", Aggregates.match(analyzed),
+                                Aggregates.group(null, Accumulators.sum("sum", "$sentiment"), Accumulators.sum("n", 1))),
+                        new Facet("damage", Aggregates.match(Filters.and(
+                                        Filters.ne("damageType", "UNKNOWN"), Filters.ne("damageType", null))),
+                                Aggregates.group("$damageType", Accumulators.sum("n", 1))),
+                        new Facet("days", Aggregates.match(Filters.and(analyzed, Filters.type("timestamp", "date"))),
+                                Aggregates.group(localDay(), Accumulators.sum("sum", "$sentiment"), Accumulators.sum("n", 1)))));
+    }
+
+    // The documents as they are before an analysis write, by id
+    private Map<String, Document> currentDocuments(List<Media> items) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (Media item : items) {
+            if (item.getId() != null) ids.add(new ObjectId(item.getId()));
+        }
+        Map<String, Document> docs = new HashMap<>();
+        if (ids.isEmpty()) return docs;
+        for (Document doc : collection.find(Filters.in("_id", ids)).projection(BEFORE_FIELDS)) {
+            docs.put(doc.getObjectId("_id").toHexString(), doc);
+        }
+        return docs;
+    }
+
+    // What an analysis write changes that the day's sketch counts
+    private static Document sketchFields(Media item) {
+        return new Document("sentiment", item.getSentiment()).append("canonicalUrl", item.getCanonicalUrl());
+    }
+
+    private void publishAnalysis(MediaChange.State before, Media item) {
+        MediaChangeBus.publish(namespace, MediaChange.updated(before,
+                before.withAnalysis(item.getSentiment(), item.getDamageType().name())));
+    }
+
+    // --- HELPER METHODS ---
 
-        String dmgStr = doc.getString("damageType");
-        DamageCategory damage = DamageCategory.fromString(dmgStr);
+    // Dashboard reads run on cancellable tasks: leaving the loop closes the cursor on the server too
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Read cancelled");
+    }
 
-        String type = doc.getString("type");
+    // "Analyze Only" candidates: sentiment is 0.0 or damageType is UNKNOWN or missing
+    private Bson needsAnalysisFilter(String topic) {
+        return Filters.and(Filters.eq("topic", topic), Filters.or(needsAnalysisConditions()));
+    }
 
-        Media media;
-        if ("news".equalsIgnoreCase(type)) {
-            String source = doc.getString("source");
-            media = new News(topic, content, source, url, timestamp, sentiment);
-        } else {
-            // Assuming SocialPost has a compatible constructor
-            media = new SocialPost(topic, content, url, timestamp, null, sentiment);
+    // Same test as Media.needsAnalysis()
+    private static List<Bson> needsAnalysisConditions() {
+        return List.of(
+                Filters.eq("sentiment", 0.0),
+                Filters.eq("damageType", "UNKNOWN"),
+                Filters.exists("damageType", false)
+        );
+    }
+
+    // Missing fields count as stale too: they predate versioning
+    private Bson isStale(String field, AnalysisVersion current) {
+        return Filters.or(
+                Filters.ne(field + ".version", current.getVersion()),
+                Filters.ne(field + ".model", current.getModelId())
+        );
+    }
+
+    // A claimed item leaves the fast lane: if its analysis fails it waits its turn like the rest
+    private Bson leaseUpdate(String owner, Duration lease, Date now) {
+        return Updates.combine(
+                Updates.set("leaseOwner", owner),
+                Updates.set("leaseExpiresAt", new Date(now.getTime() + lease.toMillis())),
+                Updates.inc("claimCount", 1),
+                Updates.set("fastLane", false)
+        );
+    }
+
+    // Writing the result also ends any work lease on the document
+    private Bson analysisUpdate(Media item) {
+        List<Bson> updates = new ArrayList<>(List.of(
+                new Document("$set", analysisFields(item)),
+                Updates.unset("leaseOwner"),
+                Updates.unset("leaseExpiresAt")
+        ));
+        // A complete result resets the failure counter, so later re-analysis can claim it again
+        if (!item.needsAnalysis()) updates.add(Updates.unset("claimCount"));
+        return Updates.combine(updates);
+    }
+
+    // Which of the written items no longer match a stored document; only asked after a short count
+    private List<Media> unmatched(List<Media> items, Set<Media> failed) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (Media item : items) {
+            if (!failed.contains(item) && item.getId() != null) ids.add(new ObjectId(item.getId()));
+        }
+        Set<String> found = new HashSet<>();
+        if (!ids.isEmpty()) {
+            for (Document doc : collection.find(Filters.in("_id", ids)).projection(Projections.include("_id"))) {
+                found.add(doc.getObjectId("_id").toHexString());
+            }
+        }
+        List<Media> missing = new ArrayList<>();
+        for (Media item : items) {
+            if (failed.contains(item)) continue;
+            boolean exists = item.getId() != null ? found.contains(item.getId())
+                    : collection.find(matchFilter(item)).projection(Projections.include("_id")).first() != null;
+            if (!exists) missing.add(item);
+        }
+        return missing;
+    }
+
+    // Documents loaded from the database are matched by _id; new items fall back to their content
+    private Bson matchFilter(Media item) {
+        if (item.getId() != null) return Filters.eq("_id", new ObjectId(item.getId()));
+        return Filters.eq("content", item.getContent());
+    }
+
+    private Document analysisFields(Media item) {
+        Document fields = new Document("sentiment", item.getSentiment())
+                .append("damageType", item.getDamageType().name())
+                .append("analyzedAt", new Date());
+        if (item.getCanonicalUrl() != null) {
+            fields.append("canonicalUrl", item.getCanonicalUrl()); // Backfills the index for older documents
+        }
+        if (item.getMinhash() != null) {
+            fields.append("minhash", MediaDocumentMapper.toBinary(item.getMinhash()));
+        }
+        if (item.getClusterId() != null) {
+            fields.append("clusterId", item.getClusterId());
         }
-        media.setDamageType(damage);
-        return media;
+        MediaDocumentMapper.appendVersions(fields, item);
+        return fields;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package project.app.humanelogistics.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import project.app.humanelogistics.model.Media;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Flight Recorder event for one step of an item's life: scrape, dedup, fetch, sentiment,
+ * classify, persist or chart. Recorded with
+ * {@code -XX:StartFlightRecording=filename=ingest.jfr} and read with {@link JfrReport}.
+ *
+ * Stack traces are off and nothing is committed unless a recording is running, so the
+ * events can stay on in production.
+ */
+@Name(ItemStageEvent.NAME)
+@Label("Item Stage")
+@Category({"Humane Logistics", "Ingestion"})
+@Description("One lifecycle step of a collected item")
+@StackTrace(false)
+public class ItemStageEvent extends Event {
+
+    public static final String NAME = "project.app.humanelogistics.ItemStage";
+
+    public static final String SCRAPE = "scrape";
+    public static final String DEDUP = "dedup";
+    public static final String FETCH = "fetch";
+    public static final String SENTIMENT = "sentiment";
+    public static final String CLASSIFY = "classify";
+    public static final String PERSIST = "persist";
+    public static final String CHART = "chart";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Topic")
+    String topic;
+
+    @Label("URL Hash")
+    @Description("64-bit FNV-1a hash of the canonical URL (0 for events not tied to one item)")
+    long urlHash;
+
+    @Label("Size")
+    @Description("Bytes of text handled (UTF-8), or number of items for batch stages")
+    long size;
+
+    @Label("Outcome")
+    String outcome;
+
+    /** Starts timing a stage for an item; the event does nothing if no recording wants it. */
+    public static ItemStageEvent begin(String stage, Media item) {
+        ItemStageEvent event = new ItemStageEvent();
+        if (event.isEnabled()) {
+            event.stage = stage;
+            if (item != null) {
+                event.topic = item.getTopic();
+                event.urlHash = urlHash(item.getCanonicalUrl() != null ? item.getCanonicalUrl() : item.getUrl());
+            }
+            event.begin();
+        }
+        return event;
+    }
+
+    /** Starts timing a stage that is not about a single item (collector runs, batches, charts). */
+    public static ItemStageEvent begin(String stage, String topic) {
+        ItemStageEvent event = new ItemStageEvent();
+        if (event.isEnabled()) {
+            event.stage = stage;
+            event.topic = topic;
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(String outcome, long size) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.size = size;
+            commit();
+        }
+    }
+
+    // The text is only measured if the event is actually recorded
+    public void finish(String outcome, String text) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.size = utf8Length(text);
+            commit();
+        }
+    }
+
+    // Size of a text in bytes as it would travel (UTF-8), without encoding it
+    static long utf8Length(String text) {
+        if (text == null) return 0;
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) bytes += 1;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c)) { bytes += 4; i++; }
+            else bytes += 3;
+        }
+        return bytes;
+    }
+
+    public static long urlHash(String url) {
+        if (url == null || url.isEmpty()) return 0;
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : url.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,142 @@
+package project.app.humanelogistics.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads a Flight Recorder file and explains where ingestion time went: a latency breakdown
+ * per lifecycle stage, then the items that took longest from their first to their last
+ * recorded step (time between steps is queue wait).
+ *
+ * Usage: {@code java ... project.app.humanelogistics.metrics.JfrReport ingest.jfr [slowest=10]}
+ */
+public class JfrReport {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JfrReport <recording.jfr> [number of slowest items]");
+            return;
+        }
+        int slowest = 10;
+        if (args.length > 1) {
+            try {
+                slowest = Integer.parseInt(args[1].trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number of items '" + args[1] + "'. Usage: JfrReport <recording.jfr> [number of slowest items]");
+                return;
+            }
+        }
+
+        Map<String, List<Long>> stageMicros = new TreeMap<>();
+        Map<String, Map<String, Integer>> stageOutcomes = new TreeMap<>();
+        Map<Long, ItemTimeline> items = new HashMap<>();
+
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                if (!ItemStageEvent.NAME.equals(event.getEventType().getName())) continue;
+
+                String stage = event.getString("stage");
+                long micros = event.getDuration().toNanos() / 1000;
+                stageMicros.computeIfAbsent(stage, k -> new ArrayList<>()).add(micros);
+                stageOutcomes.computeIfAbsent(stage, k -> new TreeMap<>())
+                        .merge(String.valueOf(event.getString("outcome")), 1, Integer::sum);
+
+                long urlHash = event.getLong("urlHash");
+                if (urlHash != 0) {
+                    items.computeIfAbsent(urlHash, h -> new ItemTimeline(h, event.getString("topic"))).add(event, stage, micros);
+                }
+            }
+        }
+
+        printStages(stageMicros, stageOutcomes);
+        printSlowest(items, slowest);
+    }
+
+    private static void printStages(Map<String, List<Long>> stageMicros, Map<String, Map<String, Integer>> outcomes) {
+        System.out.println("=== PER-STAGE LATENCY (ms) ===");
+        System.out.printf(Locale.ROOT, "%-10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "stage", "count", "total s", "mean", "p50", "p99", "p999", "max");
+        for (Map.Entry<String, List<Long>> e : stageMicros.entrySet()) {
+            List<Long> values = e.getValue();
+            values.sort(null);
+            long total = 0;
+            for (long v : values) total += v;
+            System.out.printf(Locale.ROOT, "%-10s %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    e.getKey(), values.size(), total / 1e6, total / 1000.0 / values.size(),
+                    percentile(values, 50), percentile(values, 99), percentile(values, 99.9),
+                    values.get(values.size() - 1) / 1000.0);
+        }
+        System.out.println();
+        System.out.println("=== OUTCOMES ===");
+        for (Map.Entry<String, Map<String, Integer>> e : outcomes.entrySet()) {
+            System.out.println("  " + e.getKey() + ": " + e.getValue());
+        }
+        System.out.println();
+    }
+
+    private static void printSlowest(Map<Long, ItemTimeline> items, int limit) {
+        List<ItemTimeline> sorted = new ArrayList<>(items.values());
+        sorted.sort(Comparator.comparing(ItemTimeline::elapsed).reversed());
+
+        System.out.println("=== SLOWEST ITEMS (first to last step) ===");
+        for (ItemTimeline item : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            long elapsedMs = item.elapsed().toMillis();
+            long workMs = item.workMicros / 1000;
+            System.out.printf(Locale.ROOT, "%016x  %-20s total %7d ms  work %7d ms  waiting %7d ms%n",
+                    item.urlHash, truncate(item.topic, 20), elapsedMs, workMs, Math.max(0, elapsedMs - workMs));
+            StringBuilder steps = new StringBuilder("    ");
+            item.stageMicros.forEach((stage, micros) ->
+                    steps.append(stage).append('=').append(micros / 1000).append("ms  "));
+            System.out.println(steps);
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index))) / 1000.0;
+    }
+
+    private static String truncate(String s, int max) {
+        if (s == null) return "-";
+        return s.length() <= max ? s : s.substring(0, max - 1) + "~";
+    }
+
+    private static final class ItemTimeline {
+        final long urlHash;
+        final String topic;
+        final Map<String, Long> stageMicros = new LinkedHashMap<>();
+        Instant first;
+        Instant last;
+        long workMicros;
+
+        ItemTimeline(long urlHash, String topic) {
+            this.urlHash = urlHash;
+            this.topic = topic;
+        }
+
+        void add(RecordedEvent event, String stage, long micros) {
+            if (first == null || event.getStartTime().isBefore(first)) first = event.getStartTime();
+            if (last == null || event.getEndTime().isAfter(last)) last = event.getEndTime();
+            stageMicros.merge(stage, micros, Long::sum);
+            workMicros += micros;
+        }
+
+        Duration elapsed() {
+            return Duration.between(first, last);
+        }
+    }
+}
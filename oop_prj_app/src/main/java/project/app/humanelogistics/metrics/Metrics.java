@@ -0,0 +1,141 @@
+package project.app.humanelogistics.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide metrics registry.
+ *
+ * Look instruments up once (e.g. into a {@code static final} field) and record on them
+ * directly; the lookup is the only part that touches the registry maps. Everything registered
+ * here is visible over JMX as {@code project.app.humanelogistics:type=Metrics} and in the
+ * snapshots written by {@link MetricsReporter}.
+ */
+public final class Metrics {
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new MetricsMBean(), new ObjectName("project.app.humanelogistics:type=Metrics"));
+        } catch (Exception e) {
+            System.err.println("Metrics: JMX export unavailable: " + e.getMessage());
+        }
+    }
+
+    private Metrics() {}
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /** Registers (or replaces) a value that is read whenever metrics are reported. */
+    public static void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // Only if it is still this value, so an owner never removes a gauge someone else registered since
+    public static void removeGauge(String name, DoubleSupplier value) {
+        gauges.remove(name, value);
+    }
+
+    // --- REPORTING VIEWS (sorted by name) ---
+
+    static Map<String, Counter> counters() { return new TreeMap<>(counters); }
+    static Map<String, LatencyHistogram> histograms() { return new TreeMap<>(histograms); }
+    static Map<String, DoubleSupplier> gauges() { return new TreeMap<>(gauges); }
+
+    // Read-only JMX view. Histograms appear as <name>.count/.mean/.p50/.p99/.p999/.max (µs)
+    private static final class MetricsMBean implements DynamicMBean {
+        private static final String[] HISTOGRAM_FIELDS = {"count", "mean", "p50", "p99", "p999", "max"};
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Counter counter = counters.get(attribute);
+            if (counter != null) return counter.get();
+            DoubleSupplier gauge = gauges.get(attribute);
+            if (gauge != null) return gauge.getAsDouble();
+
+            int dot = attribute.lastIndexOf('.');
+            LatencyHistogram histogram = dot > 0 ? histograms.get(attribute.substring(0, dot)) : null;
+            if (histogram == null) throw new AttributeNotFoundException(attribute);
+            LatencyHistogram.Snapshot s = histogram.snapshot();
+            switch (attribute.substring(dot + 1)) {
+                case "count": return (double) s.getCount();
+                case "mean": return s.getMeanMicros();
+                case "p50": return (double) s.percentile(50);
+                case "p99": return (double) s.percentile(99);
+                case "p999": return (double) s.percentile(99.9);
+                case "max": return (double) s.getMaxMicros();
+                default: throw new AttributeNotFoundException(attribute);
+            }
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String name : attributes) {
+                try {
+                    list.add(new Attribute(name, getAttribute(name)));
+                } catch (AttributeNotFoundException ignored) {
+                    // Metric vanished (e.g. a removed gauge); leave it out
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String name : counters().keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "long", "Counter", true, false, false));
+            }
+            for (String name : gauges().keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "double", "Gauge", true, false, false));
+            }
+            for (String name : histograms().keySet()) {
+                for (String field : HISTOGRAM_FIELDS) {
+                    attributes.add(new MBeanAttributeInfo(name + "." + field, "double",
+                            "Latency " + field + " (µs)", true, false, false));
+                }
+            }
+            return new MBeanInfo(Metrics.class.getName(), "Humane Logistics metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName), "No operations");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package project.app.humanelogistics.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Periodically writes every metric to {@code metrics.txt} (for people) and {@code metrics.json}
+ * (for scripts) in the given directory. Files are replaced atomically, so readers never see a
+ * half-written snapshot.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+
+    private MetricsReporter(Path directory) {
+        this.directory = directory;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Writes a snapshot every {@code interval} until closed. */
+    public static MetricsReporter start(Path directory, Duration interval) {
+        MetricsReporter reporter = new MetricsReporter(directory);
+        reporter.scheduler.scheduleAtFixedRate(reporter::writeQuietly,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return reporter;
+    }
+
+    public void write() throws IOException {
+        Files.createDirectories(directory);
+        replace(directory.resolve("metrics.txt"), toText());
+        replace(directory.resolve("metrics.json"), toJson());
+    }
+
+    /** Writes a last snapshot and stops. */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        writeQuietly();
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException e) {
+            System.err.println("Metrics: snapshot failed: " + e.getMessage());
+        }
+    }
+
+    private void replace(Path target, String content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // --- FORMATS ---
+
+    public static String toText() {
+        StringBuilder sb = new StringBuilder("# Metrics snapshot " + Instant.now() + "\n\n");
+        sb.append(String.format(Locale.ROOT, "%-40s %10s %10s %10s %10s %10s %10s%n",
+                "LATENCY (ms)", "count", "mean", "p50", "p99", "p999", "max"));
+        for (Map.Entry<String, LatencyHistogram> e : Metrics.histograms().entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue().snapshot();
+            sb.append(String.format(Locale.ROOT, "%-40s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", e.getKey(), s.getCount(),
+                    s.getMeanMicros() / 1000.0, s.percentile(50) / 1000.0, s.percentile(99) / 1000.0,
+                    s.percentile(99.9) / 1000.0, s.getMaxMicros() / 1000.0));
+        }
+        sb.append(String.format(Locale.ROOT, "%n%-40s %10s%n", "COUNTERS", "value"));
+        for (Map.Entry<String, Counter> e : Metrics.counters().entrySet()) {
+            sb.append(String.format(Locale.ROOT, "%-40s %10d%n", e.getKey(), e.getValue().get()));
+        }
+        sb.append(String.format(Locale.ROOT, "%n%-40s %10s%n", "GAUGES", "value"));
+        for (Map.Entry<String, DoubleSupplier> e : Metrics.gauges().entrySet()) {
+            sb.append(String.format(Locale.ROOT, "%-40s %10.2f%n", e.getKey(), readGauge(e.getValue())));
+        }
+        return sb.toString();
+    }
+
+    // Latencies in microseconds
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder("{\"timestamp\":\"").append(Instant.now()).append("\",\"histograms\":{");
+        String sep = "";
+        for (Map.Entry<String, LatencyHistogram> e : Metrics.histograms().entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue().snapshot();
+            sb.append(sep).append(quote(e.getKey())).append(String.format(Locale.ROOT,
+                    ":{\"count\":%d,\"meanMicros\":%.1f,\"p50\":%d,\"p99\":%d,\"p999\":%d,\"max\":%d}",
+                    s.getCount(), s.getMeanMicros(), s.percentile(50), s.percentile(99), s.percentile(99.9), s.getMaxMicros()));
+            sep = ",";
+        }
+        sb.append("},\"counters\":{");
+        sep = "";
+        for (Map.Entry<String, Counter> e : Metrics.counters().entrySet()) {
+            sb.append(sep).append(quote(e.getKey())).append(':').append(e.getValue().get());
+            sep = ",";
+        }
+        sb.append("},\"gauges\":{");
+        sep = "";
+        for (Map.Entry<String, DoubleSupplier> e : Metrics.gauges().entrySet()) {
+            double value = readGauge(e.getValue());
+            sb.append(sep).append(quote(e.getKey())).append(':')
+                    .append(Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "null");
+            sep = ",";
+        }
+        return sb.append("}}\n").toString();
+    }
+
+    private static double readGauge(DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,38 @@
+package project.app.humanelogistics.model;
+
+import java.util.Objects;
+
+/**
+ * Identifies what produced an analysis result: the analyzer's prompt/logic version and the
+ * model it called. A stored result is stale when it differs from the analyzer's current one.
+ */
+public final class AnalysisVersion {
+    private final int version;
+    private final String modelId;
+
+    public AnalysisVersion(int version, String modelId) {
+        this.version = version;
+        this.modelId = modelId;
+    }
+
+    public int getVersion() { return version; }
+    public String getModelId() { return modelId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AnalysisVersion)) return false;
+        AnalysisVersion other = (AnalysisVersion) o;
+        return version == other.version && Objects.equals(modelId, other.modelId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, modelId);
+    }
+
+    @Override
+    public String toString() {
+        return "v" + version + "@" + modelId;
+    }
+}
@@ -0,0 +1,34 @@
+package project.app.humanelogistics.model;
+
+/**
+ * What the article browser lists: a topic's items, optionally narrowed down, ordered by time.
+ * Null criteria match everything. {@code text} is a full-text query over the content.
+ */
+public final class ArticleFilter {
+    private final String topic;
+    private final DamageCategory damageType;
+    private final Double minSentiment;
+    private final Double maxSentiment;
+    private final String source;
+    private final String text;
+    private final boolean newestFirst;
+
+    public ArticleFilter(String topic, DamageCategory damageType, Double minSentiment, Double maxSentiment,
+                         String source, String text, boolean newestFirst) {
+        this.topic = topic;
+        this.damageType = damageType;
+        this.minSentiment = minSentiment;
+        this.maxSentiment = maxSentiment;
+        this.source = (source == null || source.trim().isEmpty()) ? null : source.trim();
+        this.text = (text == null || text.trim().isEmpty()) ? null : text.trim();
+        this.newestFirst = newestFirst;
+    }
+
+    public String getTopic() { return topic; }
+    public DamageCategory getDamageType() { return damageType; }
+    public Double getMinSentiment() { return minSentiment; }
+    public Double getMaxSentiment() { return maxSentiment; }
+    public String getSource() { return source; }
+    public String getText() { return text; }
+    public boolean isNewestFirst() { return newestFirst; }
+}
@@ -0,0 +1,39 @@
+package project.app.humanelogistics.model;
+
+import java.util.Date;
+
+/**
+ * One row of the article browser: a stored item without its full content, only the first
+ * characters of it.
+ */
+public final class ArticleSummary {
+    private final String id;
+    private final Date timestamp;
+    private final String type;     // "news" or "social_post"
+    private final String source;   // Publisher of a news item, null for posts
+    private final String url;
+    private final String snippet;
+    private final double sentiment;
+    private final DamageCategory damageType;
+
+    public ArticleSummary(String id, Date timestamp, String type, String source, String url, String snippet,
+                          double sentiment, DamageCategory damageType) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.source = source;
+        this.url = url;
+        this.snippet = snippet;
+        this.sentiment = sentiment;
+        this.damageType = damageType;
+    }
+
+    public String getId() { return id; }
+    public Date getTimestamp() { return timestamp; }
+    public String getType() { return type; }
+    public String getSource() { return source; }
+    public String getUrl() { return url; }
+    public String getSnippet() { return snippet; }
+    public double getSentiment() { return sentiment; }
+    public DamageCategory getDamageType() { return damageType; }
+}
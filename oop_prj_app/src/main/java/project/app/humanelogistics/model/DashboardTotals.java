@@ -0,0 +1,114 @@
+package project.app.humanelogistics.model;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The dashboard figures of one topic in one collection, kept as sums and counts so that a
+ * {@link MediaChange} can be applied as a delta instead of re-running the aggregates.
+ * Safe to update from one thread while others read.
+ */
+public class DashboardTotals {
+
+    private long total;
+    private double sentimentSum;      // Over analyzed items (sentiment != 0)
+    private long sentimentCount;
+    private final Map<String, Integer> damage = new HashMap<>();          // Stored category name -> items
+    private final Map<LocalDate, double[]> days = new TreeMap<>();       // Day -> {sentiment sum, count}
+    private final long asOf;          // Cluster time the aggregates were read at, 0 if unknown
+
+    public DashboardTotals() {
+        this.asOf = 0;
+    }
+
+    // Seeds from aggregates computed by the database, read at cluster time asOf (0 if unknown)
+    public DashboardTotals(long total, double sentimentSum, long sentimentCount,
+                           Map<String, Integer> damage, Map<LocalDate, double[]> days, long asOf) {
+        this.asOf = asOf;
+        this.total = total;
+        this.sentimentSum = sentimentSum;
+        this.sentimentCount = sentimentCount;
+        this.damage.putAll(damage);
+        days.forEach((day, sumAndCount) -> this.days.put(day, sumAndCount.clone()));
+    }
+
+    /**
+     * Applies an insert, update or delete; returns false for a RESYNC, which needs fresh totals.
+     * A change the aggregates already include (written at or before asOf) is skipped.
+     */
+    public synchronized boolean apply(MediaChange change) {
+        if (change.getKind() != MediaChange.Kind.RESYNC && asOf != 0
+                && change.getClusterTime() != 0 && change.getClusterTime() <= asOf) {
+            return true;
+        }
+        switch (change.getKind()) {
+            case INSERT:
+                add(change.getAfter(), 1);
+                return true;
+            case UPDATE:
+                add(change.getBefore(), -1);
+                add(change.getAfter(), 1);
+                return true;
+            case DELETE:
+                add(change.getBefore(), -1);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void add(MediaChange.State item, int sign) {
+        total += sign;
+
+        String category = item.getDamageType();
+        if (category != null && !category.equals(DamageCategory.UNKNOWN.name())) {
+            damage.merge(category, sign, Integer::sum);
+            if (damage.get(category) <= 0) damage.remove(category);
+        }
+
+        double sentiment = item.getSentiment();
+        if (sentiment == 0.0) return;
+        sentimentSum += sign * sentiment;
+        sentimentCount += sign;
+
+        if (item.getTimestamp() == null) return;
+        LocalDate day = item.getTimestamp().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        double[] sumAndCount = days.computeIfAbsent(day, d -> new double[2]);
+        sumAndCount[0] += sign * sentiment;
+        sumAndCount[1] += sign;
+        if (sumAndCount[1] <= 0) days.remove(day);
+    }
+
+    // --- READ ---
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized double getAverageSentiment() {
+        return sentimentCount <= 0 ? 0.0 : sentimentSum / sentimentCount;
+    }
+
+    // By display name; names not in DamageCategory (older data) count as "Other"
+    public synchronized Map<String, Integer> getDamageDistribution() {
+        Map<String, Integer> distribution = new HashMap<>();
+        damage.forEach((category, count) -> {
+            try {
+                distribution.merge(DamageCategory.valueOf(category).getDisplayName(), count, Integer::sum);
+            } catch (IllegalArgumentException e) {
+                distribution.merge("Other", count, Integer::sum);
+            }
+        });
+        return distribution;
+    }
+
+    // Average sentiment of the analyzed items of each day
+    public synchronized Map<LocalDate, Double> getDailySentiment() {
+        Map<LocalDate, Double> daily = new TreeMap<>();
+        days.forEach((day, sumAndCount) -> daily.put(day, sumAndCount[0] / sumAndCount[1]));
+        return daily;
+    }
+}
@@ -1,14 +1,23 @@
 package project.app.humanelogistics.model;
 
 import java.util.Date;
+import java.util.Objects;
 
 public abstract class Media {
+    protected String id;         // Database id, null until stored/loaded
     protected String topic;
     protected String content;
     protected String url;
     protected Date timestamp;
     protected double sentiment;
     protected DamageCategory damageType = DamageCategory.UNKNOWN;
+    protected String canonicalUrl;
+    protected int[] minhash;     // Near-duplicate signature, null = not computed
+    protected String clusterId;  // Canonical URL of the near-duplicate cluster representative
+    protected AnalysisVersion sentimentVersion; // What produced the sentiment, null = not analyzed
+    protected AnalysisVersion damageVersion;    // What produced the damage type, null = not analyzed
+    protected Date analysisDueAt; // Place in the backlog analysis queue, null = not queued yet
+    protected boolean fastLane;   // Just collected: analyzed ahead of the regular backlog
 
     public Media(String topic, String content, String url, Date timestamp, double sentiment) {
         this.topic = topic;
@@ -33,7 +42,22 @@ public abstract class Media {
         return url != null && url.startsWith("http");
     }
 
+    // Reuse the analysis of another copy of the same article instead of re-running the models
+    public void copyAnalysisFrom(Media other) {
+        this.sentiment = other.sentiment;
+        this.damageType = other.damageType;
+        this.sentimentVersion = other.sentimentVersion;
+        this.damageVersion = other.damageVersion;
+    }
+
+    // True if both results were produced by the given (current) analyzers
+    public boolean isAnalysisCurrent(AnalysisVersion sentimentCurrent, AnalysisVersion damageCurrent) {
+        return Objects.equals(sentimentVersion, sentimentCurrent) && Objects.equals(damageVersion, damageCurrent);
+    }
+
     // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
     public String getTopic() { return topic; }
     public String getContent() { return content; }
     public String getUrl() { return url; }
@@ -42,4 +66,18 @@ public abstract class Media {
     public void setSentiment(double sentiment) { this.sentiment = sentiment; }
     public DamageCategory getDamageType() { return damageType; }
     public void setDamageType(DamageCategory damageType) { this.damageType = damageType; }
+    public String getCanonicalUrl() { return canonicalUrl; }
+    public void setCanonicalUrl(String canonicalUrl) { this.canonicalUrl = canonicalUrl; }
+    public int[] getMinhash() { return minhash; }
+    public void setMinhash(int[] minhash) { this.minhash = minhash; }
+    public String getClusterId() { return clusterId; }
+    public void setClusterId(String clusterId) { this.clusterId = clusterId; }
+    public AnalysisVersion getSentimentVersion() { return sentimentVersion; }
+    public void setSentimentVersion(AnalysisVersion sentimentVersion) { this.sentimentVersion = sentimentVersion; }
+    public AnalysisVersion getDamageVersion() { return damageVersion; }
+    public void setDamageVersion(AnalysisVersion damageVersion) { this.damageVersion = damageVersion; }
+    public Date getAnalysisDueAt() { return analysisDueAt; }
+    public void setAnalysisDueAt(Date analysisDueAt) { this.analysisDueAt = analysisDueAt; }
+    public boolean isFastLane() { return fastLane; }
+    public void setFastLane(boolean fastLane) { this.fastLane = fastLane; }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package project.app.humanelogistics.model;
+
+import java.util.Date;
+
+/**
+ * A write to a stored item, reduced to the fields the dashboard aggregates. An insert has no
+ * {@code before}, a delete no {@code after}. RESYNC means the topic changed in a way that cannot
+ * be applied as a delta (e.g. an update whose previous state is unknown).
+ * Changes read from a change stream carry the cluster time of the write; others 0 (unknown).
+ */
+public final class MediaChange {
+
+    public enum Kind { INSERT, UPDATE, DELETE, RESYNC }
+
+    private final Kind kind;
+    private final String topic;
+    private final State before;
+    private final State after;
+    private final long clusterTime;
+
+    private MediaChange(Kind kind, String topic, State before, State after, long clusterTime) {
+        this.kind = kind;
+        this.topic = topic;
+        this.before = before;
+        this.after = after;
+        this.clusterTime = clusterTime;
+    }
+
+    public static MediaChange inserted(State after) {
+        return new MediaChange(Kind.INSERT, after.topic, null, after, 0);
+    }
+
+    public static MediaChange updated(State before, State after) {
+        return new MediaChange(Kind.UPDATE, after.topic, before, after, 0);
+    }
+
+    public static MediaChange deleted(State before) {
+        return new MediaChange(Kind.DELETE, before.topic, before, null, 0);
+    }
+
+    public static MediaChange resync(String topic) {
+        return new MediaChange(Kind.RESYNC, topic, null, null, 0);
+    }
+
+    // Same change, stamped with the cluster time of the write
+    public MediaChange at(long clusterTime) {
+        return new MediaChange(kind, topic, before, after, clusterTime);
+    }
+
+    public Kind getKind() { return kind; }
+    public String getTopic() { return topic; }
+    public State getBefore() { return before; }
+    public State getAfter() { return after; }
+    public long getClusterTime() { return clusterTime; }
+
+    /** The aggregated fields of one item. */
+    public static final class State {
+        private final String topic;
+        private final Date timestamp;
+        private final double sentiment;  // 0.0 = not analyzed
+        private final String damageType; // DamageCategory name as stored, may be null
+
+        public State(String topic, Date timestamp, double sentiment, String damageType) {
+            this.topic = topic;
+            this.timestamp = timestamp;
+            this.sentiment = sentiment;
+            this.damageType = damageType;
+        }
+
+        public static State of(Media item) {
+            return new State(item.getTopic(), item.getTimestamp(), item.getSentiment(),
+                    item.getDamageType() != null ? item.getDamageType().name() : null);
+        }
+
+        // Same item with new analysis results
+        public State withAnalysis(double sentiment, String damageType) {
+            return new State(topic, timestamp, sentiment, damageType);
+        }
+
+        public String getTopic() { return topic; }
+        public Date getTimestamp() { return timestamp; }
+        public double getSentiment() { return sentiment; }
+        public String getDamageType() { return damageType; }
+    }
+}
@@ -0,0 +1,53 @@
+package project.app.humanelogistics.model;
+
+import java.util.Date;
+
+/**
+ * A significant change in what a topic's items report, found while they were being analyzed:
+ * far more items of one damage category than usual (DAMAGE), or a shift in sentiment (SENTIMENT).
+ * For DAMAGE the values are item counts in the window, for SENTIMENT average scores.
+ */
+public final class SurgeAlert {
+
+    public enum Kind { DAMAGE, SENTIMENT }
+
+    private final String topic;
+    private final Kind kind;
+    private final DamageCategory category; // DAMAGE only
+    private final Date windowStart;
+    private final Date windowEnd;
+    private final double observed;
+    private final double expected;
+    private final double zScore;
+    private final Date detectedAt;
+
+    public SurgeAlert(String topic, Kind kind, DamageCategory category, Date windowStart, Date windowEnd,
+                      double observed, double expected, double zScore, Date detectedAt) {
+        this.topic = topic;
+        this.kind = kind;
+        this.category = category;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.observed = observed;
+        this.expected = expected;
+        this.zScore = zScore;
+        this.detectedAt = detectedAt;
+    }
+
+    public String getTopic() { return topic; }
+    public Kind getKind() { return kind; }
+    public DamageCategory getCategory() { return category; }
+    public Date getWindowStart() { return windowStart; }
+    public Date getWindowEnd() { return windowEnd; }
+    public double getObserved() { return observed; }
+    public double getExpected() { return expected; }
+    // Standard deviations from the expected value; negative for a drop
+    public double getZScore() { return zScore; }
+    public Date getDetectedAt() { return detectedAt; }
+
+    @Override
+    public String toString() {
+        String what = kind == Kind.DAMAGE ? category.getDisplayName() + " reports" : "sentiment";
+        return String.format("%s: %s %.2f vs %.2f expected (z = %.1f)", topic, what, observed, expected, zScore);
+    }
+}
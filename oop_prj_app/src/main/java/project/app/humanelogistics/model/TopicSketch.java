@@ -0,0 +1,90 @@
+package project.app.humanelogistics.model;
+
+import project.app.humanelogistics.sketch.HyperLogLog;
+import project.app.humanelogistics.sketch.TDigest;
+
+import java.time.LocalDate;
+
+/**
+ * Approximate statistics of a topic's items over one day, or over many once merged: distinct
+ * sources and articles, and sentiment quantiles. Memory stays the same however many items went
+ * in, and sketches of the same topic from different days or repositories merge.
+ *
+ * The exact item count, analyzed count and sentiment sum are kept too.
+ */
+public class TopicSketch {
+
+    private final LocalDate day; // Null once several days were merged
+    private long itemCount;
+    private long analyzedCount;
+    private double sentimentSum;
+    private final HyperLogLog sources;
+    private final HyperLogLog articles;
+    private final TDigest sentiment;
+
+    public TopicSketch(LocalDate day) {
+        this(day, 0, 0, 0, new HyperLogLog(), new HyperLogLog(), new TDigest());
+    }
+
+    public TopicSketch(LocalDate day, long itemCount, long analyzedCount, double sentimentSum,
+                       HyperLogLog sources, HyperLogLog articles, TDigest sentiment) {
+        this.day = day;
+        this.itemCount = itemCount;
+        this.analyzedCount = analyzedCount;
+        this.sentimentSum = sentimentSum;
+        this.sources = sources;
+        this.articles = articles;
+        this.sentiment = sentiment;
+    }
+
+    // article: the canonical URL where known; sentiment 0.0 means not analyzed
+    public void add(String source, String article, double sentimentScore) {
+        itemCount++;
+        sources.add(source);
+        articles.add(article);
+        if (sentimentScore != 0.0) addAnalysis(sentimentScore);
+    }
+
+    // An item already counted got its first sentiment score
+    public void addAnalysis(double sentimentScore) {
+        analyzedCount++;
+        sentimentSum += sentimentScore;
+        sentiment.add(sentimentScore);
+    }
+
+    /** A new sketch of both; the day is kept only if they share it. */
+    public TopicSketch merge(TopicSketch other) {
+        HyperLogLog mergedSources = new HyperLogLog();
+        mergedSources.merge(sources);
+        mergedSources.merge(other.sources);
+        HyperLogLog mergedArticles = new HyperLogLog();
+        mergedArticles.merge(articles);
+        mergedArticles.merge(other.articles);
+        TDigest mergedSentiment = new TDigest();
+        mergedSentiment.merge(sentiment);
+        mergedSentiment.merge(other.sentiment);
+        return new TopicSketch(day != null && day.equals(other.day) ? day : null,
+                itemCount + other.itemCount, analyzedCount + other.analyzedCount, sentimentSum + other.sentimentSum,
+                mergedSources, mergedArticles, mergedSentiment);
+    }
+
+    // --- READ ---
+
+    public LocalDate getDay() { return day; }
+    public long getItemCount() { return itemCount; }
+    public long getAnalyzedCount() { return analyzedCount; }
+    public double getSentimentSum() { return sentimentSum; }
+
+    public long getDistinctSources() { return sources.estimate(); }
+    public long getDistinctArticles() { return articles.estimate(); }
+
+    /** Sentiment score below which a fraction q of the analyzed items lie; NaN if none is analyzed. */
+    public double getSentimentQuantile(double q) {
+        return sentiment.quantile(q);
+    }
+
+    // For storage
+    public HyperLogLog getSources() { return sources; }
+    public HyperLogLog getArticles() { return articles; }
+    public TDigest getSentiment() { return sentiment; }
+}
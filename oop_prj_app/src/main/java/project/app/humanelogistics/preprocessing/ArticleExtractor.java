@@ -0,0 +1,474 @@
+package project.app.humanelogistics.preprocessing;
+
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Readability-style article extractor.
+ *
+ * The page is tokenized in a single streaming pass (no DOM is built) and cut off after
+ * {@code maxChars}. Text is grouped into blocks at block-level tags; each block is scored by
+ * text length, link density and class/id hints, and the blocks belonging to the densest
+ * containers are returned as the article body.
+ */
+public class ArticleExtractor {
+
+    public static final int DEFAULT_MAX_CHARS = 1_000_000;
+
+    private static final int MIN_BLOCK_CHARS = 25;
+    private static final double MAX_LINK_DENSITY = 0.5;
+    private static final double CONTAINER_THRESHOLD = 0.2;
+    private static final int MAX_BLOCK_CHARS = 100_000;
+    private static final int MAX_TAG_CHARS = 4096;
+    private static final int MAX_STACK_DEPTH = 256;
+
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "p", "div", "article", "section", "main", "li", "ul", "ol", "blockquote", "pre",
+            "h1", "h2", "h3", "h4", "h5", "h6", "table", "tr", "td", "th", "dl", "dd", "dt", "body");
+
+    // Elements whose text never belongs to the article body
+    private static final Set<String> SKIP_TAGS = Set.of(
+            "script", "style", "noscript", "nav", "header", "footer", "aside", "form",
+            "iframe", "svg", "button", "select", "template", "figcaption");
+
+    private static final Set<String> RAW_TEXT_TAGS = Set.of("script", "style");
+
+    private static final Set<String> VOID_TAGS = Set.of(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta",
+            "param", "source", "track", "wbr");
+
+    // Never skipped on a class/id hint alone (e.g. <body class="has-sidebar">)
+    private static final Set<String> STRUCTURAL_TAGS = Set.of("html", "body", "main", "article");
+
+    private static final Set<String> DATE_META_KEYS = Set.of(
+            "article:published_time", "og:published_time", "datepublished", "pubdate",
+            "publishdate", "date", "dc.date.issued", "sailthru.date");
+
+    private static final Pattern NEGATIVE_HINT = Pattern.compile(
+            "comment|cookie|consent|banner|newsletter|subscribe|share|social|related|recommend|" +
+                    "sidebar|menu|breadcrumb|footer|promo|advert|sponsor|popup|modal|nav",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern POSITIVE_HINT = Pattern.compile(
+            "article|content|story|entry|post|main|text|body",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "([a-zA-Z_:][-a-zA-Z0-9_:.]*)\\s*(?:=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s\"'=<>`]+)))?");
+
+    private final int maxChars;
+
+    public ArticleExtractor() {
+        this(DEFAULT_MAX_CHARS);
+    }
+
+    public ArticleExtractor(int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    public ExtractedArticle extract(String html) {
+        try {
+            return extract(new StringReader(html == null ? "" : html));
+        } catch (IOException e) {
+            // StringReader does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public ExtractedArticle extract(InputStream in, Charset charset) throws IOException {
+        return extract(new InputStreamReader(in, charset));
+    }
+
+    public ExtractedArticle extract(Reader reader) throws IOException {
+        Session session = new Session();
+        char[] buffer = new char[8192];
+        int total = 0;
+        boolean truncated = false;
+
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            int take = Math.min(n, maxChars - total);
+            for (int i = 0; i < take; i++) {
+                session.accept(buffer[i]);
+            }
+            total += take;
+            if (total >= maxChars) {
+                truncated = true;
+                break;
+            }
+        }
+        return session.finish(truncated);
+    }
+
+    // --- HELPER TYPES ---
+
+    private static final class OpenElement {
+        final String tag;
+        final int id;
+        final boolean block;
+        final boolean skip;
+        final int hint;
+
+        OpenElement(String tag, int id, boolean block, boolean skip, int hint) {
+            this.tag = tag;
+            this.id = id;
+            this.block = block;
+            this.skip = skip;
+            this.hint = hint;
+        }
+    }
+
+    private static final class Block {
+        final String text;
+        final int containerId;
+
+        Block(String text, int containerId) {
+            this.text = text;
+            this.containerId = containerId;
+        }
+    }
+
+    private enum State { TEXT, TAG_OPEN, TAG, COMMENT }
+
+    /** Per-document tokenizer state, so one extractor can be shared across threads. */
+    private static final class Session {
+        private final Deque<OpenElement> stack = new ArrayDeque<>();
+        private final List<Block> blocks = new ArrayList<>();
+        private final Map<Integer, Double> containerScores = new HashMap<>();
+
+        private final StringBuilder tagBuf = new StringBuilder();
+        private final StringBuilder blockBuf = new StringBuilder();
+        private final StringBuilder titleBuf = new StringBuilder();
+
+        private State state = State.TEXT;
+        private char quote;
+        private int commentDashes;
+        private String rawCloseTag;
+        private int rawMatch;
+
+        private int nextId;
+        private int linkDepth;
+        private int textChars;
+        private int linkChars;
+        private int commas;
+        private boolean inTitle;
+
+        private String metaTitle;
+        private Date publishedAt;
+
+        void accept(char c) {
+            switch (state) {
+                case TEXT:
+                    if (rawCloseTag != null) {
+                        acceptRaw(c);
+                    } else if (c == '<') {
+                        state = State.TAG_OPEN;
+                    } else {
+                        text(c);
+                    }
+                    break;
+                case TAG_OPEN:
+                    // "<" not followed by a tag start is plain text (e.g. "a < b")
+                    if (Character.isLetter(c) || c == '/' || c == '!' || c == '?') {
+                        tagBuf.setLength(0);
+                        tagBuf.append(c);
+                        quote = 0;
+                        state = State.TAG;
+                    } else {
+                        text('<');
+                        state = State.TEXT;
+                        accept(c);
+                    }
+                    break;
+                case TAG:
+                    acceptTag(c);
+                    break;
+                case COMMENT:
+                    if (c == '>' && commentDashes >= 2) {
+                        state = State.TEXT;
+                    }
+                    commentDashes = (c == '-') ? commentDashes + 1 : 0;
+                    break;
+            }
+        }
+
+        private void acceptTag(char c) {
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '>') {
+                state = State.TEXT;
+                handleTag(tagBuf.toString());
+                return;
+            } else if ((c == '"' || c == '\'') && tagBuf.length() > 0 && tagBuf.charAt(tagBuf.length() - 1) == '=') {
+                quote = c;
+            }
+
+            if (tagBuf.length() < MAX_TAG_CHARS) tagBuf.append(c);
+            if (tagBuf.length() == 3 && "!--".contentEquals(tagBuf)) {
+                commentDashes = 0;
+                state = State.COMMENT;
+            }
+        }
+
+        // Inside <script>/<style>: only the matching close tag ends the raw text
+        private void acceptRaw(char c) {
+            char expected = rawMatch == 0 ? '<' : rawMatch == 1 ? '/' : rawCloseTag.charAt(rawMatch - 2);
+            if (Character.toLowerCase(c) == expected) {
+                rawMatch++;
+                if (rawMatch == rawCloseTag.length() + 2) {
+                    tagBuf.setLength(0);
+                    tagBuf.append('/').append(rawCloseTag);
+                    rawCloseTag = null;
+                    rawMatch = 0;
+                    state = State.TAG;
+                }
+            } else {
+                rawMatch = (c == '<') ? 1 : 0;
+            }
+        }
+
+        private void text(char c) {
+            if (inTitle && titleBuf.length() < 500) titleBuf.append(c);
+
+            OpenElement top = stack.peek();
+            if (top != null && top.skip) return;
+            if (blockBuf.length() >= MAX_BLOCK_CHARS) return;
+
+            if (Character.isWhitespace(c)) {
+                if (blockBuf.length() > 0 && blockBuf.charAt(blockBuf.length() - 1) != ' ') {
+                    blockBuf.append(' ');
+                }
+                return;
+            }
+            blockBuf.append(c);
+            textChars++;
+            if (linkDepth > 0) linkChars++;
+            if (c == ',') commas++;
+        }
+
+        private void handleTag(String raw) {
+            if (raw.isEmpty() || raw.charAt(0) == '!' || raw.charAt(0) == '?') return;
+
+            boolean closing = raw.charAt(0) == '/';
+            int start = closing ? 1 : 0;
+            int end = start;
+            while (end < raw.length() && !Character.isWhitespace(raw.charAt(end)) && raw.charAt(end) != '/') {
+                end++;
+            }
+            if (end == start) return;
+            String name = raw.substring(start, end).toLowerCase(Locale.ROOT);
+
+            if (closing) {
+                closeTag(name);
+            } else {
+                openTag(name, raw.substring(end), raw.endsWith("/"));
+            }
+        }
+
+        private void openTag(String name, String attrText, boolean selfClosing) {
+            switch (name) {
+                case "title":
+                    inTitle = !selfClosing;
+                    return;
+                case "meta":
+                    readMeta(parseAttributes(attrText));
+                    return;
+                case "br":
+                    text(' ');
+                    return;
+                case "time":
+                    if (publishedAt == null) publishedAt = parseDate(parseAttributes(attrText).get("datetime"));
+                    break;
+                default:
+                    break;
+            }
+            if (VOID_TAGS.contains(name) || selfClosing) return;
+
+            // Implicitly closed elements
+            OpenElement top = stack.peek();
+            if (top != null && (("p".equals(top.tag) && BLOCK_TAGS.contains(name)) || ("li".equals(top.tag) && "li".equals(name)))) {
+                closeTag(top.tag);
+                top = stack.peek();
+            }
+
+            boolean block = BLOCK_TAGS.contains(name);
+            if (block) flushBlock();
+            if (stack.size() >= MAX_STACK_DEPTH) return;
+
+            boolean parentSkip = top != null && top.skip;
+            int parentHint = top != null ? top.hint : 0;
+            boolean skip = parentSkip || SKIP_TAGS.contains(name);
+            int hint = parentHint;
+
+            if (!skip && (block || "span".equals(name))) {
+                Map<String, String> attrs = parseAttributes(attrText);
+                String hintText = attrs.getOrDefault("class", "") + " " + attrs.getOrDefault("id", "");
+                boolean positive = POSITIVE_HINT.matcher(hintText).find() || "article".equals(name) || "main".equals(name);
+                if (positive) {
+                    hint++;
+                } else if (!STRUCTURAL_TAGS.contains(name) && NEGATIVE_HINT.matcher(hintText).find()) {
+                    skip = true;
+                }
+            }
+
+            if ("a".equals(name)) linkDepth++;
+            if (RAW_TEXT_TAGS.contains(name)) rawCloseTag = name;
+            stack.push(new OpenElement(name, nextId++, block, skip, hint));
+        }
+
+        private void closeTag(String name) {
+            if ("title".equals(name)) {
+                inTitle = false;
+                return;
+            }
+
+            int depth = 0;
+            boolean found = false;
+            boolean closesBlock = false;
+            for (OpenElement el : stack) {
+                depth++;
+                closesBlock |= el.block;
+                if (el.tag.equals(name)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                // A stray </p> still ends a paragraph
+                if ("p".equals(name)) flushBlock();
+                return;
+            }
+
+            if (closesBlock) flushBlock();
+            for (int i = 0; i < depth; i++) {
+                OpenElement el = stack.pop();
+                if ("a".equals(el.tag)) linkDepth--;
+            }
+        }
+
+        private void flushBlock() {
+            String raw = blockBuf.toString().trim();
+            int chars = textChars;
+            int links = linkChars;
+            int commaCount = commas;
+            blockBuf.setLength(0);
+            textChars = 0;
+            linkChars = 0;
+            commas = 0;
+
+            if (raw.length() < MIN_BLOCK_CHARS) return;
+            double linkDensity = chars == 0 ? 0 : (double) links / chars;
+            if (linkDensity > MAX_LINK_DENSITY) return;
+
+            // Owner = nearest open block element, container = the block element around it
+            OpenElement owner = null;
+            OpenElement container = null;
+            for (OpenElement el : stack) {
+                if (!el.block) continue;
+                if (owner == null) {
+                    owner = el;
+                } else {
+                    container = el;
+                    break;
+                }
+            }
+            int containerId = container != null ? container.id : -1;
+            int hint = owner != null ? Math.min(owner.hint, 4) : 0;
+
+            String text = raw.indexOf('&') >= 0 ? Parser.unescapeEntities(raw, false) : raw;
+            double score = (text.length() * (1 - linkDensity) + commaCount * 10) * (1 + 0.25 * hint);
+
+            blocks.add(new Block(text, containerId));
+            containerScores.merge(containerId, score, Double::sum);
+        }
+
+        private void readMeta(Map<String, String> attrs) {
+            String key = attrs.getOrDefault("property", attrs.getOrDefault("name", attrs.get("itemprop")));
+            String content = attrs.get("content");
+            if (key == null || content == null) return;
+
+            key = key.toLowerCase(Locale.ROOT);
+            if ("og:title".equals(key) && metaTitle == null) {
+                metaTitle = Parser.unescapeEntities(content.trim(), true);
+            } else if (DATE_META_KEYS.contains(key) && publishedAt == null) {
+                publishedAt = parseDate(content);
+            }
+        }
+
+        ExtractedArticle finish(boolean truncated) {
+            flushBlock();
+
+            double best = 0;
+            for (double score : containerScores.values()) best = Math.max(best, score);
+            double threshold = best * CONTAINER_THRESHOLD;
+
+            StringBuilder body = new StringBuilder();
+            for (Block block : blocks) {
+                if (containerScores.get(block.containerId) < threshold) continue;
+                if (body.length() > 0) body.append('\n');
+                body.append(block.text);
+            }
+
+            String title = metaTitle;
+            if (title == null || title.isEmpty()) {
+                String raw = titleBuf.toString().trim().replaceAll("\\s+", " ");
+                title = raw.isEmpty() ? null : Parser.unescapeEntities(raw, false);
+            }
+            return new ExtractedArticle(title, publishedAt, body.toString(), truncated);
+        }
+    }
+
+    // --- PARSING HELPERS ---
+
+    private static Map<String, String> parseAttributes(String attrText) {
+        Map<String, String> attrs = new HashMap<>();
+        if (attrText == null || attrText.isEmpty()) return attrs;
+
+        Matcher m = ATTRIBUTE.matcher(attrText);
+        while (m.find()) {
+            String value = m.group(2) != null ? m.group(2) : m.group(3) != null ? m.group(3) : m.group(4);
+            attrs.putIfAbsent(m.group(1).toLowerCase(Locale.ROOT), value == null ? "" : value);
+        }
+        return attrs;
+    }
+
+    static Date parseDate(String value) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        try {
+            return Date.from(OffsetDateTime.parse(v).toInstant());
+        } catch (Exception ignored) {}
+        try {
+            return Date.from(Instant.parse(v));
+        } catch (Exception ignored) {}
+        try {
+            return Date.from(LocalDateTime.parse(v).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (Exception ignored) {}
+        try {
+            if (v.length() >= 10) {
+                return Date.from(LocalDate.parse(v.substring(0, 10)).atStartOfDay(ZoneId.systemDefault()).toInstant());
+            }
+        } catch (Exception ignored) {}
+        return null;
+    }
+}
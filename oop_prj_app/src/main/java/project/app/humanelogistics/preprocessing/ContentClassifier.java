@@ -1,7 +1,12 @@
 package project.app.humanelogistics.preprocessing;
 
+import project.app.humanelogistics.model.AnalysisVersion;
 import project.app.humanelogistics.model.DamageCategory;
 
 public interface ContentClassifier {
+    // Throws IllegalStateException when no category could be obtained; UNKNOWN is a real result
     DamageCategory classify(String text);
+
+    // Stored with every classification; must change whenever the prompt or model changes
+    AnalysisVersion getAnalysisVersion();
 }
\ No newline at end of file
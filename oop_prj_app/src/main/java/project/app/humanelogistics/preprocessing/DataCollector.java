@@ -1,6 +1,7 @@
 package project.app.humanelogistics.preprocessing;
 
 import project.app.humanelogistics.model.Media;
+import java.util.Date;
 import java.util.List;
 
 public interface DataCollector {
@@ -9,4 +10,12 @@ public interface DataCollector {
      * Updated to return List<Media> to support polymorphism (News, SocialPost, etc.)
      */
     List<Media> collect(String query, String startDate, String endDate, int limit);
+
+    /**
+     * For repeated runs: only what was published after {@code since} is wanted. Collectors that
+     * cannot tell collect the whole date range again, and the caller drops what it already has.
+     */
+    default List<Media> collectSince(String query, Date since, String startDate, String endDate, int limit) {
+        return collect(query, startDate, endDate, limit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package project.app.humanelogistics.preprocessing;
+
+import java.util.Date;
+
+/**
+ * Result of running {@link ArticleExtractor} over one page:
+ * the main article text plus whatever metadata the page exposed.
+ */
+public class ExtractedArticle {
+    private final String title;
+    private final Date publishedAt;
+    private final String text;
+    private final boolean truncated;
+
+    public ExtractedArticle(String title, Date publishedAt, String text, boolean truncated) {
+        this.title = title;
+        this.publishedAt = publishedAt;
+        this.text = text;
+        this.truncated = truncated;
+    }
+
+    public boolean hasText() {
+        return text != null && !text.isEmpty();
+    }
+
+    public String getTitle() { return title; }
+    public Date getPublishedAt() { return publishedAt; }
+    public String getText() { return text; }
+
+    // True when the page was cut off at the extractor's size limit
+    public boolean isTruncated() { return truncated; }
+}
@@ -3,10 +3,22 @@ package project.app.humanelogistics.preprocessing;
 import com.google.genai.Client;
 import com.google.genai.types.GenerateContentResponse;
 import project.app.humanelogistics.Config;
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.AnalysisVersion;
 import project.app.humanelogistics.model.DamageCategory;
 
 public class GeminiDamageClassifier implements ContentClassifier {
 
+    // Bump PROMPT_VERSION on every prompt change so the backfill re-classifies older results
+    private static final int PROMPT_VERSION = 1;
+    private static final String MODEL_ID = "gemini-2.5-flash";
+    private static final AnalysisVersion VERSION = new AnalysisVersion(PROMPT_VERSION, MODEL_ID);
+
+    private static final LatencyHistogram CALL_LATENCY = Metrics.histogram("gemini.damage");
+    private static final Counter CALL_ERRORS = Metrics.counter("gemini.damage.errors");
+
     private final Client client;
 
     public GeminiDamageClassifier() {
@@ -22,8 +34,9 @@ public class GeminiDamageClassifier implements ContentClassifier {
     @Override
     public DamageCategory classify(String text) {
         if (text == null || text.trim().isEmpty()) return DamageCategory.UNKNOWN;
-        if (client == null) return DamageCategory.UNKNOWN;
+        if (client == null) throw new IllegalStateException("Gemini client is not configured (check API key)");
 
+        String resultText;
         try {
             // Truncate extremely long articles to avoid token limits (e.g., first 3000 chars)
             String safeText = text.length() > 3000 ? text.substring(0, 3000) : text;
@@ -39,20 +52,31 @@ public class GeminiDamageClassifier implements ContentClassifier {
                     "Return ONLY the category name (e.g., HOUSING_DAMAGE). No other text.\n\n" +
                     "Text: " + safeText;
 
+            long start = System.nanoTime();
             GenerateContentResponse response = client.models.generateContent(
-                    "gemini-2.5-flash",
+                    MODEL_ID,
                     prompt,
                     null
             );
+            CALL_LATENCY.recordSince(start);
 
-            String resultText = response.text();
-            if (resultText != null) {
-                return DamageCategory.fromString(resultText.trim());
-            }
-
+            resultText = response.text();
         } catch (Exception e) {
-            System.err.println("Gemini Classification Failure: " + e.getMessage());
+            CALL_ERRORS.increment();
+            throw new IllegalStateException("Gemini classification failure: " + e.getMessage(), e);
+        }
+
+        // fromString falls back to UNKNOWN: only an explicit UNKNOWN counts as an answer
+        DamageCategory category = DamageCategory.fromString(resultText);
+        if (resultText == null || (category == DamageCategory.UNKNOWN && !resultText.toUpperCase().contains("UNKNOWN"))) {
+            CALL_ERRORS.increment();
+            throw new IllegalStateException("Unreadable classification reply: " + resultText);
         }
-        return DamageCategory.UNKNOWN;
+        return category;
+    }
+
+    @Override
+    public AnalysisVersion getAnalysisVersion() {
+        return VERSION;
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
 import project.app.humanelogistics.model.Media;
 import project.app.humanelogistics.model.News;
 
@@ -19,6 +21,8 @@ import java.util.List;
 
 public class GoogleNewsCollector implements DataCollector {
 
+    private static final LatencyHistogram PAGE_LATENCY = Metrics.histogram("collector.google.page");
+
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
 
     @Override
@@ -31,7 +35,8 @@ public class GoogleNewsCollector implements DataCollector {
             LocalDate start = LocalDate.parse(startDate, formatter);
             LocalDate end = LocalDate.parse(endDate, formatter);
 
-            for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            // Cancelled (e.g. by the fan-out's timeout): stop and keep what was found
+            for (LocalDate date = start; !date.isAfter(end) && !Thread.currentThread().isInterrupted(); date = date.plusDays(1)) {
                 String dateStr = date.format(formatter);
                 System.out.println("Scraping for date: " + dateStr);
 
@@ -39,11 +44,13 @@ public class GoogleNewsCollector implements DataCollector {
                         encodedQuery, dateStr, dateStr);
 
                 try {
+                    long requestStart = System.nanoTime();
                     Document doc = Jsoup.connect(url)
                             .userAgent(USER_AGENT)
                             .header("Accept-Language", "en-US,en;q=0.9")
                             .timeout(5000)
                             .get();
+                    PAGE_LATENCY.recordSince(requestStart);
 
                     Date currentDayTimestamp = Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
                     List<Media> dailyPosts = parseDocument(doc, query, currentDayTimestamp);
@@ -57,6 +64,8 @@ public class GoogleNewsCollector implements DataCollector {
 
                     collectedPosts.addAll(dailyPosts);
                     Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } catch (Exception e) {
                     System.err.println("Error scraping date " + dateStr + ": " + e.getMessage());
                 }
@@ -66,14 +75,15 @@ public class GoogleNewsCollector implements DataCollector {
             System.err.println("Collection Error: " + e.getMessage());
         }
 
-        if (collectedPosts.isEmpty()) {
+        if (collectedPosts.isEmpty() && !Thread.currentThread().isInterrupted()) {
             collectedPosts = generateMockData(query);
         }
 
         return collectedPosts;
     }
 
-    private List<Media> parseDocument(Document doc, String topic, Date forceDate) {
+    // Extracts the results of one search page; public so saved pages can be replayed (fixtures, benchmarks)
+    public List<Media> parseDocument(Document doc, String topic, Date forceDate) {
         List<Media> posts = new ArrayList<>();
         Elements articles = doc.select("div.SoaBEf, a.WlydOe");
 
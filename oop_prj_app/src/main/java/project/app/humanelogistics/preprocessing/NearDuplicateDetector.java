@@ -0,0 +1,234 @@
+package project.app.humanelogistics.preprocessing;
+
+import project.app.humanelogistics.model.Media;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Finds syndicated copies of the same story using MinHash signatures.
+ *
+ * Each signature has 64 values, indexed in 16 bands of 4 (LSH): only items sharing at least
+ * one band are compared, and a candidate is accepted when the estimated Jaccard similarity
+ * of their word/bigram sets reaches the threshold. Pairs above ~0.7 similarity are found
+ * with >99% probability.
+ *
+ * Clusters are identified by their representative's canonical URL. Only that key and the
+ * signature are kept, for at most {@code maxClusters} clusters; the oldest indexed are dropped
+ * first, as syndication of a story is over within days.
+ */
+public class NearDuplicateDetector {
+
+    public static final int SIGNATURE_SIZE = 64;
+    public static final double DEFAULT_THRESHOLD = 0.6;
+    public static final int DEFAULT_MAX_CLUSTERS = 20_000; // ~2 KB each with their band entries
+
+    private static final int BANDS = 16;
+    private static final int ROWS = SIGNATURE_SIZE / BANDS;
+
+    // Headlines of a few words collide more easily, so they must be near-identical to match
+    private static final int MIN_TOKENS = 4;
+    private static final int SHORT_TEXT_TOKENS = 8;
+    private static final double SHORT_TEXT_THRESHOLD = 0.8;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        long x = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            x += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(x);
+        }
+    }
+
+    private final double threshold;
+    private final int maxClusters;
+    private final Map<Long, List<Cluster>> buckets = new HashMap<>();
+    // Canonical URL of the representative -> cluster, oldest indexed first
+    private final LinkedHashMap<String, Cluster> clusters = new LinkedHashMap<>();
+
+    public NearDuplicateDetector() {
+        this(DEFAULT_THRESHOLD, DEFAULT_MAX_CLUSTERS);
+    }
+
+    public NearDuplicateDetector(double threshold, int maxClusters) {
+        this.threshold = threshold;
+        this.maxClusters = maxClusters;
+    }
+
+    /**
+     * MinHash over word unigrams and bigrams. Returns null when the text is too short to sign.
+     */
+    public int[] signature(String text) {
+        List<String> tokens = tokens(text);
+        if (tokens.size() < MIN_TOKENS) return null;
+
+        Set<Long> features = new HashSet<>();
+        String previous = null;
+        for (String token : tokens) {
+            features.add(hash(token));
+            if (previous != null) features.add(hash(previous + ' ' + token));
+            previous = token;
+        }
+
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long feature : features) {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int h = (int) (mix(feature ^ SEEDS[i]) >>> 33);
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Returns the canonical URL of the representative of the cluster this item belongs to. If
+     * there is none the item becomes a new representative and its own URL is returned. Null if
+     * the item cannot be clustered (no canonical URL, or no words to sign).
+     */
+    public String findOrAdd(Media item) {
+        if (item.getMinhash() == null) item.setMinhash(signature(item.getContent()));
+        int[] sig = item.getMinhash();
+        String key = item.getCanonicalUrl();
+        if (sig == null || key == null) return null;
+        double required = tokens(item.getContent()).size() < SHORT_TEXT_TOKENS
+                ? Math.max(threshold, SHORT_TEXT_THRESHOLD) : threshold;
+
+        synchronized (this) {
+            Cluster cluster = find(sig, required);
+            if (cluster != null) {
+                if (!cluster.key.equals(key)) cluster.size++;
+                return cluster.key;
+            }
+            index(key, sig);
+            return key;
+        }
+    }
+
+    /** Indexes an already-signed item (e.g. loaded from the database) as a representative. */
+    public synchronized void add(Media representative) {
+        int[] sig = representative.getMinhash();
+        String key = representative.getCanonicalUrl();
+        if (sig == null || sig.length != SIGNATURE_SIZE || key == null) return;
+        index(key, sig);
+    }
+
+    public synchronized int getClusterCount() {
+        return clusters.size();
+    }
+
+    public synchronized int getClusterSize(String key) {
+        Cluster cluster = clusters.get(key);
+        return cluster != null ? cluster.size : 0;
+    }
+
+    public synchronized void clear() {
+        buckets.clear();
+        clusters.clear();
+    }
+
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return (double) same / SIGNATURE_SIZE;
+    }
+
+    // --- HELPER METHODS ---
+
+    private Cluster find(int[] sig, double required) {
+        Cluster best = null;
+        double bestSimilarity = 0;
+        for (int band = 0; band < BANDS; band++) {
+            List<Cluster> candidates = buckets.get(bandKey(sig, band));
+            if (candidates == null) continue;
+            for (Cluster candidate : candidates) {
+                double sim = similarity(candidate.signature, sig);
+                if (sim >= required && sim > bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = sim;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void index(String key, int[] sig) {
+        if (clusters.containsKey(key)) return;
+        Cluster cluster = new Cluster(key, sig.clone());
+        clusters.put(key, cluster);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(sig, band), k -> new ArrayList<>(1)).add(cluster);
+        }
+        Iterator<Cluster> oldest = clusters.values().iterator();
+        while (clusters.size() > maxClusters) {
+            Cluster evicted = oldest.next();
+            oldest.remove();
+            for (int band = 0; band < BANDS; band++) {
+                long bandKey = bandKey(evicted.signature, band);
+                List<Cluster> bucket = buckets.get(bandKey);
+                bucket.remove(evicted);
+                if (bucket.isEmpty()) buckets.remove(bandKey);
+            }
+        }
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static long bandKey(int[] sig, int band) {
+        long h = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            h = h * 31 + sig[row];
+        }
+        return mix(h);
+    }
+
+    // FNV-1a
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static final class Cluster {
+        final String key;
+        final int[] signature;
+        int size = 1;
+
+        Cluster(String key, int[] signature) {
+            this.key = key;
+            this.signature = signature;
+        }
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,294 @@
+package project.app.humanelogistics.preprocessing;
+
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Collects news from RSS 2.0 and Atom feeds.
+ *
+ * Feeds are read with a StAX cursor, so only the item currently being parsed is held in memory.
+ * Feed URLs may contain a {query} placeholder (search feeds); feeds without one are publisher
+ * feeds and are filtered by the query terms instead. file: URLs are read from disk, which is
+ * how local fixtures are used.
+ */
+public class RssFeedCollector implements DataCollector {
+
+    public static final String GOOGLE_NEWS_RSS = "https://news.google.com/rss/search?q={query}&hl=en-US&gl=US&ceid=US:en";
+
+    private static final String USER_AGENT = "Mozilla/5.0";
+    private static final LatencyHistogram FEED_LATENCY = Metrics.histogram("collector.rss.response");
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final DateTimeFormatter INPUT_DATE = DateTimeFormatter.ofPattern("M/d/yyyy");
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final int MAX_UNDATED_SEEN = 10_000;
+
+    private final List<String> feedUrls;
+    private final HttpClient httpClient;
+    private final XMLInputFactory xmlFactory;
+    // Links of undated items already returned by poll(): "since" cannot tell whether they are new
+    private final Set<String> undatedSeen = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_UNDATED_SEEN;
+        }
+    });
+
+    public RssFeedCollector() {
+        this(GOOGLE_NEWS_RSS);
+    }
+
+    public RssFeedCollector(String... feedUrls) {
+        this.feedUrls = Arrays.asList(feedUrls);
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build();
+
+        this.xmlFactory = XMLInputFactory.newFactory();
+        xmlFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        xmlFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        // Feeds are untrusted input
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Feeds have a single page, so {@code limit} is not used; items are filtered to the date range.
+     */
+    @Override
+    public List<Media> collect(String query, String startDate, String endDate, int limit) {
+        Date from = null;
+        Date until = null;
+        try {
+            from = toDate(LocalDate.parse(startDate, INPUT_DATE));
+            until = toDate(LocalDate.parse(endDate, INPUT_DATE).plusDays(1));
+        } catch (Exception e) {
+            System.err.println("Invalid date range, collecting without one: " + e.getMessage());
+        }
+
+        List<Media> collected = new ArrayList<>();
+        for (String feedUrl : feedUrls) {
+            if (Thread.currentThread().isInterrupted()) break;
+            readFeed(feedUrl, query, from, until, false, collected::add);
+        }
+        return collected;
+    }
+
+    @Override
+    public List<Media> collectSince(String query, Date since, String startDate, String endDate, int limit) {
+        return since != null ? poll(query, since) : collect(query, startDate, endDate, limit);
+    }
+
+    /**
+     * Incremental polling: returns only items published after {@code since}.
+     * Remote feeds are requested with If-Modified-Since, so an unchanged feed is not downloaded.
+     * Undated items are returned the first time they are seen only.
+     */
+    public List<Media> poll(String query, Date since) {
+        List<Media> collected = new ArrayList<>();
+        for (String feedUrl : feedUrls) {
+            if (Thread.currentThread().isInterrupted()) break;
+            readFeed(feedUrl, query, since, null, true, collected::add);
+        }
+        return collected;
+    }
+
+    // --- FEED READING ---
+
+    private void readFeed(String feedUrl, String query, Date from, Date until, boolean conditional, Consumer<Media> sink) {
+        boolean searchFeed = feedUrl.contains("{query}");
+        String url = searchFeed
+                ? feedUrl.replace("{query}", URLEncoder.encode(query, StandardCharsets.UTF_8))
+                : feedUrl;
+        String[] terms = searchFeed ? new String[0] : queryTerms(query);
+
+        try (InputStream in = open(url, conditional ? from : null)) {
+            if (in == null) return; // 304 Not Modified
+            int[] found = {0};
+            parse(in, query, item -> {
+                Date ts = item.getTimestamp();
+                // Polling is exclusive of "since"; a date range includes its first day
+                if (from != null && ts != null && (conditional ? !ts.after(from) : ts.before(from))) return;
+                if (until != null && ts != null && !ts.before(until)) return;
+                if (!matchesTerms(item.getContent(), terms)) return;
+                if (conditional && ts == null && !markUndatedSeen(item.getUrl())) return;
+                found[0]++;
+                sink.accept(item);
+            });
+            System.out.println("Feed " + url + ": " + found[0] + " new items");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Error reading feed " + url + ": " + e.getMessage());
+        }
+    }
+
+    private InputStream open(String url, Date ifModifiedSince) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            return Files.newInputStream(Paths.get(uri));
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header("User-Agent", USER_AGENT)
+                .timeout(TIMEOUT)
+                .GET();
+        if (ifModifiedSince != null) {
+            request.header("If-Modified-Since", HTTP_DATE.format(ifModifiedSince.toInstant().atZone(ZoneOffset.UTC)));
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        FEED_LATENCY.recordSince(start); // Time to headers; the body is streamed into the parser
+        if (response.statusCode() == 304) {
+            response.body().close();
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * Streams RSS {@code <item>} and Atom {@code <entry>} elements from the feed into {@code sink}.
+     */
+    public void parse(InputStream in, String topic, Consumer<Media> sink) throws XMLStreamException {
+        XMLStreamReader reader = xmlFactory.createXMLStreamReader(in);
+        try {
+            String channelTitle = null;
+            boolean inItem = false;
+            String title = null, link = null, source = null, date = null;
+            StringBuilder text = new StringBuilder();
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    text.setLength(0);
+                    if ("item".equals(name) || "entry".equals(name)) {
+                        inItem = true;
+                        title = link = source = date = null;
+                    } else if (inItem && "link".equals(name)) {
+                        // Atom: <link rel="alternate" href="..."/>
+                        String href = reader.getAttributeValue(null, "href");
+                        String rel = reader.getAttributeValue(null, "rel");
+                        if (href != null && (rel == null || "alternate".equals(rel)) && link == null) link = href;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (text.length() < 4096) text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    String value = text.toString().trim();
+                    text.setLength(0);
+
+                    if (!inItem) {
+                        if ("title".equals(name) && channelTitle == null) channelTitle = value;
+                        continue;
+                    }
+                    switch (name) {
+                        case "title":
+                            if (title == null) title = value;
+                            break;
+                        case "link":
+                            if (link == null && !value.isEmpty()) link = value;
+                            break;
+                        case "source":
+                        case "name": // Atom <author><name>
+                            if (source == null && !value.isEmpty()) source = value;
+                            break;
+                        case "pubDate":
+                        case "published":
+                        case "updated":
+                        case "dc:date":
+                            if (date == null) date = value;
+                            break;
+                        case "item":
+                        case "entry":
+                            inItem = false;
+                            if (title != null && !title.isEmpty() && link != null) {
+                                String src = source != null ? source : channelTitle;
+                                sink.accept(new News(topic, title, src, link, parseFeedDate(date), 0.0));
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private boolean markUndatedSeen(String link) {
+        synchronized (undatedSeen) {
+            return undatedSeen.add(link);
+        }
+    }
+
+    private Date parseFeedDate(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return Date.from(ZonedDateTime.parse(value, HTTP_DATE).toInstant());
+        } catch (Exception e) {
+            return ArticleExtractor.parseDate(value); // Atom / ISO-8601
+        }
+    }
+
+    private Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private String[] queryTerms(String query) {
+        if (query == null) return new String[0];
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(t -> t.length() > 2)
+                .toArray(String[]::new);
+    }
+
+    private boolean matchesTerms(String text, String[] terms) {
+        if (terms.length == 0) return true;
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (lower.contains(term)) return true;
+        }
+        return false;
+    }
+}
@@ -3,10 +3,22 @@ package project.app.humanelogistics.preprocessing;
 import com.google.genai.Client;
 import com.google.genai.types.GenerateContentResponse;
 import project.app.humanelogistics.Config;
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.AnalysisVersion;
 import project.app.humanelogistics.service.SentimentAnalyzer;
 
 public class SentimentGrade implements SentimentAnalyzer {
 
+    // Bump PROMPT_VERSION on every prompt change so the backfill re-scores older results
+    private static final int PROMPT_VERSION = 1;
+    private static final String MODEL_ID = "gemini-2.0-flash"; // Ensure this model is available to your API key
+    private static final AnalysisVersion VERSION = new AnalysisVersion(PROMPT_VERSION, MODEL_ID);
+
+    private static final LatencyHistogram CALL_LATENCY = Metrics.histogram("gemini.sentiment");
+    private static final Counter CALL_ERRORS = Metrics.counter("gemini.sentiment.errors");
+
     private final Client client;
 
     public SentimentGrade() {
@@ -25,34 +37,41 @@ public class SentimentGrade implements SentimentAnalyzer {
     @Override
     public double analyzeScore(String text) {
         if (text == null || text.trim().isEmpty()) return 0.0;
-        if (client == null) {
-            System.err.println("Error: Gemini Client is null (Check API Key)");
-            return 0.0;
-        }
+        if (client == null) throw new IllegalStateException("Gemini client is not configured (check API key)");
 
+        String resultText;
         try {
             String prompt = "Analyze the sentiment of this text regarding a disaster. " +
                     "Rate it on a scale from -1.0 (extremely negative/critical) to 1.0 (extremely positive/hopeful). " +
                     "0.0 is neutral. Respond with ONLY the numeric value (e.g., -0.5, 0.8, 0.0). No words.\n\nPost: " + text;
 
+            long start = System.nanoTime();
             GenerateContentResponse response = client.models.generateContent(
-                    "gemini-2.0-flash", // Ensure this model is available to your API key
+                    MODEL_ID,
                     prompt,
                     null
             );
+            CALL_LATENCY.recordSince(start);
 
-            String resultText = response.text();
-            if (resultText != null) {
-                // Clean up any stray markdown or whitespace
-                resultText = resultText.replaceAll("[^\\d.-]", "");
-                if (resultText.isEmpty()) return 0.0;
-                return Double.parseDouble(resultText.trim());
-            }
-
+            resultText = response.text();
         } catch (Exception e) {
-            System.err.println("Gemini API Failure: " + e.getMessage());
+            CALL_ERRORS.increment();
+            throw new IllegalStateException("Gemini API failure: " + e.getMessage(), e);
+        }
+
+        // Clean up any stray markdown or whitespace
+        String number = resultText == null ? "" : resultText.replaceAll("[^\\d.-]", "");
+        try {
+            return Double.parseDouble(number.trim());
+        } catch (NumberFormatException e) {
+            CALL_ERRORS.increment();
+            throw new IllegalStateException("Unreadable sentiment reply: " + resultText);
         }
-        return 0.0;
+    }
+
+    @Override
+    public AnalysisVersion getAnalysisVersion() {
+        return VERSION;
     }
 
     @Override
@@ -80,9 +99,13 @@ public class SentimentGrade implements SentimentAnalyzer {
         // 3. Run Analysis
         for (String text : testCases) {
             System.out.println("Analyzing: " + text);
-            double score = analyzer.analyzeScore(text);
-            SentimentType type = analyzer.analyze(text);
-            System.out.printf("Result: %.2f (%s)%n%n", score, type);
+            try {
+                double score = analyzer.analyzeScore(text);
+                SentimentType type = analyzer.analyze(text);
+                System.out.printf("Result: %.2f (%s)%n%n", score, type);
+            } catch (IllegalStateException e) {
+                System.out.println("Failed: " + e.getMessage() + "\n");
+            }
         }
     }
 }
\ No newline at end of file
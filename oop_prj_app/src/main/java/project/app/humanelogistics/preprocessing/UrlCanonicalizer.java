@@ -0,0 +1,117 @@
+package project.app.humanelogistics.preprocessing;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces the many URLs a syndicated story appears under to one canonical form,
+ * so the same article is only fetched and analyzed once.
+ *
+ * e.g. http://m.example.com/amp/news/story/?utm_source=fb&id=7#top
+ *   -> https://example.com/news/story?id=7
+ */
+public class UrlCanonicalizer {
+
+    // Only names no site uses for content; generic ones (ref, share, output, amp) are kept
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid",
+            "ocid", "cmpid", "ref_src", "ref_url", "_ga", "_gl", "spm", "smid",
+            "ito", "outputtype");
+    private static final String[] TRACKING_PREFIXES = {"utm_", "at_", "pk_", "hsa_"};
+    private static final String[] HOST_PREFIXES = {"www.", "m.", "mobile.", "amp."};
+    // Second-level labels under which a country code forms a public suffix, e.g. co.uk, com.au
+    private static final Set<String> SECOND_LEVEL_SUFFIXES = Set.of("co", "com", "net", "org", "gov", "ac", "edu", "ne", "or");
+
+    // AMP caches wrap the publisher URL: /c/s/example.com/path or google.com/amp/s/example.com/path
+    private static final Pattern AMP_CACHE_PATH = Pattern.compile("^/(?:amp|[cvi])/(s/)?(.+)$");
+
+    public String canonicalize(String rawUrl) {
+        if (rawUrl == null || rawUrl.isBlank()) return "";
+        String trimmed = rawUrl.trim();
+
+        try {
+            URI uri = new URI(trimmed);
+            String host = uri.getHost();
+            if (host == null) return trimmed;
+            host = host.toLowerCase(Locale.ROOT);
+
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+
+            if (host.endsWith(".cdn.ampproject.org") || (isGoogle(host) && path.startsWith("/amp/"))) {
+                Matcher m = AMP_CACHE_PATH.matcher(path);
+                if (m.matches()) {
+                    String inner = (m.group(1) != null ? "https://" : "http://") + m.group(2);
+                    if (uri.getRawQuery() != null) inner += "?" + uri.getRawQuery();
+                    return canonicalize(inner);
+                }
+            }
+
+            for (String prefix : HOST_PREFIXES) {
+                if (host.startsWith(prefix) && isRegistrable(host.substring(prefix.length()))) {
+                    host = host.substring(prefix.length());
+                }
+            }
+
+            int port = uri.getPort();
+            String portPart = (port == -1 || port == 80 || port == 443) ? "" : ":" + port;
+
+            return "https://" + host + portPart + normalizePath(path) + normalizeQuery(uri.getRawQuery());
+        } catch (Exception e) {
+            return trimmed;
+        }
+    }
+
+    private static boolean isGoogle(String host) {
+        return host.equals("google.com") || host.endsWith(".google.com");
+    }
+
+    // Whether the host is more than a public suffix, e.g. not "dev" (amp.dev) or "co.uk" (m.co.uk)
+    private static boolean isRegistrable(String host) {
+        String[] labels = host.split("\\.");
+        if (labels.length < 2 || labels[0].isEmpty()) return false;
+        return labels.length > 2 || labels[1].length() != 2 || !SECOND_LEVEL_SUFFIXES.contains(labels[0]);
+    }
+
+    private String normalizePath(String path) {
+        path = path.replaceAll("/{2,}", "/");
+
+        // AMP variants: /amp/news/x, /news/x/amp, /news/x.amp, /news/x.amp.html
+        path = path.replaceFirst("^/amp/", "/");
+        path = path.replaceFirst("/amp/?$", "");
+        path = path.replaceFirst("\\.amp(\\.html?)?$", "$1");
+
+        if (path.endsWith("/") && path.length() > 1) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path.isEmpty() ? "/" : path;
+    }
+
+    private String normalizeQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+
+        List<String> kept = new ArrayList<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            String key = pair.split("=", 2)[0].toLowerCase(Locale.ROOT);
+            if (!isTrackingParam(key)) kept.add(pair);
+        }
+        if (kept.isEmpty()) return "";
+
+        // Parameter order carries no meaning, so sort for a stable key
+        kept.sort(null);
+        return "?" + String.join("&", kept);
+    }
+
+    private boolean isTrackingParam(String key) {
+        if (TRACKING_PARAMS.contains(key)) return true;
+        for (String prefix : TRACKING_PREFIXES) {
+            if (key.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
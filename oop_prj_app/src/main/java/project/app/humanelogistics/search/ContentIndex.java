@@ -0,0 +1,544 @@
+package project.app.humanelogistics.search;
+
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.Media;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text index over the content of stored items, kept in a directory of segment files.
+ * New items are searchable as soon as they are added; they are written out as a new segment
+ * every {@link #FLUSH_DOCS} items and on {@link #commit()}. Small segments are merged so the
+ * number a query visits stays bounded; a merge never grows postings past MAX_MERGED_POSTINGS,
+ * as they are mapped as one buffer, so a large index keeps several big segments. A document added again under the same id replaces the
+ * old version.
+ *
+ * One process writes ({@link #open}), holding the directory's write.lock; others may read the
+ * same directory ({@link #openReadOnly}) and pick up each commit. The directory's "segments" file is the commit point: it is replaced
+ * atomically and lists the segments (and their live files) that make up the index.
+ */
+public class ContentIndex implements AutoCloseable {
+
+    private static final int FLUSH_DOCS = 20_000;
+    private static final int MAX_SEGMENTS = 10;
+    private static final int MERGE_FACTOR = 4;
+    // Half the 2 GB a mapped buffer can hold: merged postings can come out a little larger than the parts
+    private static final long MAX_MERGED_POSTINGS = 1L << 30;
+    private static final long RELOAD_CHECK_MILLIS = 1_000;
+    private static final String MANIFEST = "segments";
+    private static final String WRITE_LOCK = "write.lock";
+    private static final String TOPIC_TERM = "#topic:"; // Never produced by the analyzer
+
+    private static final LatencyHistogram QUERY_LATENCY = Metrics.histogram("search.query");
+    private static final LatencyHistogram FLUSH_LATENCY = Metrics.histogram("search.flush");
+
+    private final Path dir;
+    private final boolean readOnly;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel lockChannel; // Held by the writer until close
+    private FileLock writeLock;
+    private boolean closed;   // Writes after close (e.g. a commit racing shutdown) are dropped
+    private final List<SegmentFile> segments = new ArrayList<>();
+    private MemorySegment memory = new MemorySegment();
+    private long nextSegment;
+    private long generation;
+    private String lastId = "";
+    private FileTime manifestTime;
+    private long lastReloadCheck;
+
+    private ContentIndex(Path dir, boolean readOnly) {
+        this.dir = dir;
+        this.readOnly = readOnly;
+    }
+
+    /** Opens the index for writing; fails if another process (or another open) is writing it. */
+    public static ContentIndex open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        ContentIndex index = new ContentIndex(dir, false);
+        index.lockForWriting();
+        try {
+            index.load();
+            index.deleteUnreferencedFiles();
+        } catch (IOException | RuntimeException e) {
+            index.unlock();
+            throw e;
+        }
+        return index;
+    }
+
+    public static ContentIndex openReadOnly(Path dir) throws IOException {
+        ContentIndex index = new ContentIndex(dir, true);
+        index.load();
+        return index;
+    }
+
+    // --- WRITING ---
+
+    /** Indexes the item's content under its id; items not stored yet (no id) are skipped. */
+    public void add(Media item) {
+        String id = item.getId();
+        if (readOnly || !isObjectId(id)) return;
+        List<String> terms = TextAnalyzer.terms(item.getContent());
+        if (item.getTopic() != null) terms.add(TOPIC_TERM + item.getTopic());
+        long timestamp = item.getTimestamp() != null ? item.getTimestamp().getTime() : Long.MIN_VALUE;
+        byte category = (byte) (item.getDamageType() != null ? item.getDamageType() : DamageCategory.UNKNOWN).ordinal();
+
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            setCategory(id, IndexPart.DELETED);
+            memory.add(id, timestamp, category, terms);
+            if (id.compareTo(lastId) > 0) lastId = id;
+            // After a failed flush, try again once as many documents have come in again
+            if (memory.maxDoc() % FLUSH_DOCS == 0) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    System.err.println("Search index flush failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // After an analysis update: the damage category is the only indexed field that changes
+    public void updateCategory(String id, DamageCategory category) {
+        if (readOnly || !isObjectId(id) || category == null) return;
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            setCategory(id, (byte) category.ordinal());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Writes everything added or changed so far; readers see it from now on. Cheap if nothing changed. */
+    public void commit() throws IOException {
+        if (readOnly) return;
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            if (memory.maxDoc() > 0) {
+                flush();
+            } else if (segments.stream().anyMatch(file -> file.segment.categoriesChanged())) {
+                writeManifest();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (readOnly) return;
+        lock.writeLock().lock();
+        try {
+            commit();
+        } finally {
+            closed = true;
+            lock.writeLock().unlock();
+            unlock();
+        }
+    }
+
+    /** Whether the current version of the item is in the index. */
+    public boolean contains(String id) {
+        if (!isObjectId(id)) return false;
+        lock.readLock().lock();
+        try {
+            int doc = memory.find(id);
+            if (doc >= 0 && memory.category(doc) != IndexPart.DELETED) return true;
+            for (SegmentFile file : segments) {
+                doc = file.segment.find(id);
+                if (doc >= 0 && file.segment.category(doc) != IndexPart.DELETED) return true;
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Highest id added so far; items stored after it still need to be added. Empty if none. */
+    public String getLastId() {
+        lock.readLock().lock();
+        try {
+            return lastId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void setCategory(String id, byte category) {
+        int doc = memory.find(id);
+        if (doc >= 0 && memory.category(doc) != IndexPart.DELETED) {
+            memory.setCategory(doc, category);
+            return;
+        }
+        for (SegmentFile file : segments) {
+            doc = file.segment.find(id);
+            if (doc >= 0 && file.segment.category(doc) != IndexPart.DELETED) {
+                file.segment.setCategory(doc, category);
+                return;
+            }
+        }
+    }
+
+    // Writes the memory part as a segment, merges if there are too many, then commits
+    private void flush() throws IOException {
+        long start = System.nanoTime();
+        String name = String.format("seg-%06d", nextSegment++);
+        Segment.write(dir.resolve(name + ".seg"), List.of(memory));
+        segments.add(new SegmentFile(name, null, Segment.open(dir.resolve(name + ".seg"), null)));
+        memory = new MemorySegment();
+        FLUSH_LATENCY.recordSince(start);
+
+        List<SegmentFile> merged = new ArrayList<>();
+        while (segments.size() > MAX_SEGMENTS) {
+            List<SegmentFile> mergedAway = mergeSmallest();
+            if (mergedAway.isEmpty()) break; // Only segments too big to merge are left
+            merged.addAll(mergedAway);
+        }
+        writeManifest();
+        for (SegmentFile file : merged) file.delete(dir);
+    }
+
+    // Returns the segments merged away (none if no two fit together); their files can go once the new manifest is written
+    private List<SegmentFile> mergeSmallest() throws IOException {
+        List<SegmentFile> candidates = new ArrayList<>(segments);
+        candidates.sort(Comparator.comparingInt(file -> file.segment.liveDocs()));
+        List<SegmentFile> smallest = new ArrayList<>();
+        long postings = 0;
+        for (SegmentFile file : candidates) {
+            if (smallest.size() == MERGE_FACTOR) break;
+            if (postings + file.segment.postingsBytes() > MAX_MERGED_POSTINGS) continue;
+            smallest.add(file);
+            postings += file.segment.postingsBytes();
+        }
+        if (smallest.size() < 2) return List.of();
+
+        List<Segment> parts = new ArrayList<>();
+        for (SegmentFile file : smallest) parts.add(file.segment);
+        String name = String.format("seg-%06d", nextSegment++);
+        Segment.write(dir.resolve(name + ".seg"), parts);
+        segments.removeAll(smallest);
+        segments.add(new SegmentFile(name, null, Segment.open(dir.resolve(name + ".seg"), null)));
+        return smallest;
+    }
+
+    private void writeManifest() throws IOException {
+        generation++;
+        List<Path> replacedLiveFiles = new ArrayList<>();
+        StringBuilder manifest = new StringBuilder();
+        manifest.append("generation ").append(generation).append('\n');
+        manifest.append("next ").append(nextSegment).append('\n');
+        manifest.append("lastId ").append(lastId.isEmpty() ? "-" : lastId).append('\n');
+        for (SegmentFile file : segments) {
+            // Live files are never overwritten: a reader may be loading the previous one
+            if (file.segment.categoriesChanged()) {
+                String live = file.name + "-" + generation + ".live";
+                file.segment.writeCategories(dir.resolve(live));
+                if (file.liveFile != null) replacedLiveFiles.add(dir.resolve(file.liveFile));
+                file.liveFile = live;
+            }
+            manifest.append("segment ").append(file.name).append(' ')
+                    .append(file.liveFile != null ? file.liveFile : "-").append('\n');
+        }
+        Path temp = dir.resolve(MANIFEST + ".tmp");
+        Files.writeString(temp, manifest);
+        Files.move(temp, dir.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+        for (Path file : replacedLiveFiles) deleteQuietly(file);
+    }
+
+    // --- READING ---
+
+    /** Matching items, newest first, at most {@code limit}. */
+    public List<SearchHit> search(SearchQuery query, int limit) {
+        if (query.isEmpty() || limit <= 0) return new ArrayList<>();
+        if (readOnly) reloadIfChanged();
+        long start = System.nanoTime();
+        // Oldest of the best `limit` on top, so it is the one replaced by a newer hit
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(Comparator.comparing(SearchHit::getTimestamp));
+
+        lock.readLock().lock();
+        try {
+            for (SegmentFile file : segments) collect(file.segment, query, limit, best);
+            collect(memory, query, limit, best);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparing(SearchHit::getTimestamp).reversed());
+        QUERY_LATENCY.recordSince(start);
+        return hits;
+    }
+
+    private static void collect(IndexPart part, SearchQuery query, int limit, PriorityQueue<SearchHit> best) {
+        int[] docs = query.getTopic() != null ? part.docs(TOPIC_TERM + query.getTopic()) : null;
+        for (List<List<String>> group : query.getRequired()) {
+            if (docs != null && docs.length == 0) return;
+            int[] any = new int[0];
+            for (List<String> phrase : group) any = union(any, match(part, phrase, docs));
+            docs = docs == null ? any : intersect(docs, any);
+        }
+        if (docs == null) return;
+        for (List<String> phrase : query.getExcluded()) {
+            if (docs.length == 0) return;
+            docs = subtract(docs, match(part, phrase, docs));
+        }
+
+        long from = query.getFrom() != null ? query.getFrom().getTime() : Long.MIN_VALUE;
+        long to = query.getTo() != null ? query.getTo().getTime() : Long.MAX_VALUE;
+        byte category = query.getCategory() != null ? (byte) query.getCategory().ordinal() : IndexPart.DELETED;
+        DamageCategory[] categories = DamageCategory.values();
+        // Documents are mostly added in time order: from the last, older ones soon fall below the cutoff
+        for (int i = docs.length - 1; i >= 0; i--) {
+            int doc = docs[i];
+            byte docCategory = part.category(doc);
+            if (docCategory == IndexPart.DELETED) continue;
+            if (category != IndexPart.DELETED && docCategory != category) continue;
+            long timestamp = part.timestamp(doc);
+            if ((query.getFrom() != null || query.getTo() != null) && (timestamp < from || timestamp >= to)) continue;
+            if (best.size() == limit && timestamp <= best.peek().getTimestamp().getTime()) continue;
+            best.add(new SearchHit(part.id(doc), new Date(timestamp), categories[docCategory]));
+            if (best.size() > limit) best.poll();
+        }
+    }
+
+    // Documents containing the terms one after another; `within` (if not null) limits the candidates
+    private static int[] match(IndexPart part, List<String> phrase, int[] within) {
+        int[] docs = within;
+        for (String term : phrase) {
+            int[] termDocs = part.docs(term);
+            docs = docs == null ? termDocs : intersect(docs, termDocs);
+            if (docs.length == 0) return docs;
+        }
+        if (phrase.size() == 1) return docs;
+
+        int[][][] termPositions = new int[phrase.size()][][];
+        for (int t = 0; t < phrase.size(); t++) termPositions[t] = part.positions(phrase.get(t), docs);
+        int[] matches = new int[docs.length];
+        int count = 0;
+        int[][] positions = new int[phrase.size()][];
+        for (int i = 0; i < docs.length; i++) {
+            for (int t = 0; t < phrase.size(); t++) positions[t] = termPositions[t][i];
+            if (containsPhrase(positions)) matches[count++] = docs[i];
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static boolean containsPhrase(int[][] positions) {
+        for (int first : positions[0]) {
+            boolean all = true;
+            for (int t = 1; t < positions.length && all; t++) {
+                all = Arrays.binarySearch(positions[t], first + t) >= 0;
+            }
+            if (all) return true;
+        }
+        return false;
+    }
+
+    // --- SORTED DOC LISTS ---
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) out[n++] = a[i++];
+            else if (i == a.length || b[j] < a[i]) out[n++] = b[j++];
+            else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] subtract(int[] a, int[] b) {
+        int[] out = new int[a.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length) {
+            if (j == b.length || a[i] < b[j]) out[n++] = a[i++];
+            else if (a[i] > b[j]) j++;
+            else {
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // --- FILES ---
+
+    private void load() throws IOException {
+        Path manifestFile = dir.resolve(MANIFEST);
+        FileTime modified;
+        List<String> lines;
+        try {
+            modified = Files.getLastModifiedTime(manifestFile);
+            lines = Files.readAllLines(manifestFile);
+        } catch (NoSuchFileException e) {
+            return; // New index
+        }
+
+        Map<String, SegmentFile> open = new HashMap<>();
+        for (SegmentFile file : segments) open.put(file.name + " " + file.liveFile, file);
+        List<SegmentFile> loaded = new ArrayList<>();
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            switch (parts[0]) {
+                case "generation": generation = Long.parseLong(parts[1]); break;
+                case "next": nextSegment = Long.parseLong(parts[1]); break;
+                case "lastId": lastId = parts[1].equals("-") ? "" : parts[1]; break;
+                case "segment": {
+                    String live = parts[2].equals("-") ? null : parts[2];
+                    SegmentFile file = open.get(parts[1] + " " + live);
+                    if (file == null) {
+                        file = new SegmentFile(parts[1], live, Segment.open(dir.resolve(parts[1] + ".seg"),
+                                live != null ? dir.resolve(live) : null));
+                    }
+                    loaded.add(file);
+                    break;
+                }
+                default: break;
+            }
+        }
+        segments.clear();
+        segments.addAll(loaded);
+        // Only now: a commit whose segments could not be opened (merged away meanwhile) is retried
+        manifestTime = modified;
+    }
+
+    // Readers pick up the writer's commits; a commit being written is simply seen on the next check
+    private void reloadIfChanged() {
+        long now = System.currentTimeMillis();
+        if (now - lastReloadCheck < RELOAD_CHECK_MILLIS) return;
+        lastReloadCheck = now;
+        try {
+            FileTime modified = Files.getLastModifiedTime(dir.resolve(MANIFEST));
+            if (modified.equals(manifestTime)) return;
+            lock.writeLock().lock();
+            try {
+                load();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            System.err.println("Search index reload failed: " + e.getMessage());
+        }
+    }
+
+    // Two writers would reuse each other's segment names and delete each other's files
+    private void lockForWriting() throws IOException {
+        lockChannel = FileChannel.open(dir.resolve(WRITE_LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            writeLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            writeLock = null; // Already open for writing in this JVM
+        }
+        if (writeLock == null) {
+            lockChannel.close();
+            throw new IOException("Search index " + dir + " is being written by another process");
+        }
+    }
+
+    private void unlock() throws IOException {
+        if (lockChannel == null) return;
+        try {
+            if (writeLock != null) writeLock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    // Leftovers of merges, replaced live files and interrupted writes
+    private void deleteUnreferencedFiles() throws IOException {
+        Set<String> referenced = new HashSet<>();
+        referenced.add(MANIFEST);
+        referenced.add(WRITE_LOCK);
+        for (SegmentFile file : segments) {
+            referenced.add(file.name + ".seg");
+            if (file.liveFile != null) referenced.add(file.liveFile);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (!referenced.contains(file.getFileName().toString())) deleteQuietly(file);
+            }
+        }
+    }
+
+    // Windows keeps memory-mapped files from being deleted; they go on the next open instead
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {}
+    }
+
+    private static boolean isObjectId(String id) {
+        if (id == null || id.length() != 24) return false;
+        for (int i = 0; i < id.length(); i++) {
+            if (Character.digit(id.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static final class SegmentFile {
+        final String name;
+        String liveFile; // Null while the categories are still those written with the segment
+        final Segment segment;
+
+        SegmentFile(String name, String liveFile, Segment segment) {
+            this.name = name;
+            this.liveFile = liveFile;
+            this.segment = segment;
+        }
+
+        void delete(Path dir) {
+            deleteQuietly(dir.resolve(name + ".seg"));
+            if (liveFile != null) deleteQuietly(dir.resolve(liveFile));
+        }
+    }
+}
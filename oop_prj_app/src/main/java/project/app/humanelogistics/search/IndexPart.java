@@ -0,0 +1,34 @@
+package project.app.humanelogistics.search;
+
+/**
+ * One part of the index (an on-disk segment, or the documents added since the last flush).
+ * Documents are numbered from 0 within the part, in the order they were added.
+ */
+interface IndexPart {
+
+    byte DELETED = -1; // Category of a document replaced by a newer version
+
+    int maxDoc();
+
+    // Documents containing the term, ascending; empty if none
+    int[] docs(String term);
+
+    // Positions of the term in each of docs(term), in the same order
+    int[][] positions(String term);
+
+    // Positions of the term in each of the given documents, which all contain it (ascending)
+    int[][] positions(String term, int[] docs);
+
+    // All terms, ascending
+    Iterable<String> terms();
+
+    String id(int doc);
+
+    long timestamp(int doc); // Long.MIN_VALUE if unknown
+
+    byte category(int doc);  // DamageCategory ordinal, or DELETED
+
+    void setCategory(int doc, byte category);
+
+    int find(String id);     // -1 if not in this part
+}
@@ -0,0 +1,121 @@
+package project.app.humanelogistics.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/** Documents added since the last flush, searchable at once; written out as a {@link Segment}. */
+final class MemorySegment implements IndexPart {
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> docsById = new HashMap<>();
+    private long[] timestamps = new long[64];
+    private byte[] categories = new byte[64];
+
+    int add(String id, long timestamp, byte category, List<String> terms) {
+        int doc = ids.size();
+        ids.add(id);
+        docsById.put(id, doc);
+        if (doc == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, doc * 2);
+            categories = Arrays.copyOf(categories, doc * 2);
+        }
+        timestamps[doc] = timestamp;
+        categories[doc] = category;
+        for (int position = 0; position < terms.size(); position++) {
+            postings.computeIfAbsent(terms.get(position), t -> new Postings()).add(doc, position);
+        }
+        return doc;
+    }
+
+    @Override
+    public int maxDoc() {
+        return ids.size();
+    }
+
+    @Override
+    public int[] docs(String term) {
+        Postings p = postings.get(term);
+        return p == null ? new int[0] : Arrays.copyOf(p.docs, p.docCount);
+    }
+
+    @Override
+    public int[][] positions(String term) {
+        Postings p = postings.get(term);
+        if (p == null) return new int[0][];
+        int[][] positions = new int[p.docCount][];
+        for (int i = 0, next = 0; i < p.docCount; i++) {
+            positions[i] = Arrays.copyOfRange(p.positions, next, next + p.freqs[i]);
+            next += p.freqs[i];
+        }
+        return positions;
+    }
+
+    @Override
+    public int[][] positions(String term, int[] docs) {
+        Postings p = postings.get(term);
+        int[][] positions = new int[docs.length][];
+        if (p == null) return positions;
+        for (int i = 0, next = 0, start = 0; i < p.docCount && next < docs.length; start += p.freqs[i++]) {
+            if (p.docs[i] == docs[next]) positions[next++] = Arrays.copyOfRange(p.positions, start, start + p.freqs[i]);
+        }
+        return positions;
+    }
+
+    @Override
+    public Iterable<String> terms() {
+        return new TreeSet<>(postings.keySet());
+    }
+
+    @Override
+    public String id(int doc) {
+        return ids.get(doc);
+    }
+
+    @Override
+    public long timestamp(int doc) {
+        return timestamps[doc];
+    }
+
+    @Override
+    public byte category(int doc) {
+        return categories[doc];
+    }
+
+    @Override
+    public void setCategory(int doc, byte category) {
+        categories[doc] = category;
+    }
+
+    @Override
+    public int find(String id) {
+        Integer doc = docsById.get(id);
+        return doc == null ? -1 : doc;
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int docCount;
+        int[] positions = new int[4];
+        int positionCount;
+
+        // Documents arrive in order, so a term seen again in the same document extends the last entry
+        void add(int doc, int position) {
+            if (docCount == 0 || docs[docCount - 1] != doc) {
+                if (docCount == docs.length) {
+                    docs = Arrays.copyOf(docs, docCount * 2);
+                    freqs = Arrays.copyOf(freqs, docCount * 2);
+                }
+                docs[docCount++] = doc;
+            }
+            freqs[docCount - 1]++;
+            if (positionCount == positions.length) positions = Arrays.copyOf(positions, positionCount * 2);
+            positions[positionCount++] = position;
+        }
+    }
+}
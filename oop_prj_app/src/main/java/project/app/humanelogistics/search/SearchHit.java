@@ -0,0 +1,22 @@
+package project.app.humanelogistics.search;
+
+import project.app.humanelogistics.model.DamageCategory;
+
+import java.util.Date;
+
+/** A stored item matching a query; its other fields are read from the database by id. */
+public final class SearchHit {
+    private final String id;
+    private final Date timestamp;
+    private final DamageCategory category;
+
+    SearchHit(String id, Date timestamp, DamageCategory category) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.category = category;
+    }
+
+    public String getId() { return id; }
+    public Date getTimestamp() { return timestamp; }
+    public DamageCategory getCategory() { return category; }
+}
@@ -0,0 +1,91 @@
+package project.app.humanelogistics.search;
+
+import project.app.humanelogistics.model.DamageCategory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A full-text query within one topic. Words are all required; {@code "..."} is a phrase,
+ * {@code OR} between two clauses accepts either, and {@code -word} or {@code -"..."} excludes.
+ * For example: {@code "bridge collapse" "phu tho" -rumor flood OR landslide}.
+ * Null category and dates match everything.
+ */
+public final class SearchQuery {
+
+    private final String topic;
+    private final List<List<List<String>>> required = new ArrayList<>(); // AND of (OR of phrases)
+    private final List<List<String>> excluded = new ArrayList<>();
+    private final DamageCategory category;
+    private final Date from;
+    private final Date to;
+
+    public SearchQuery(String topic, String text, DamageCategory category, Date from, Date to) {
+        this.topic = topic;
+        this.category = category;
+        this.from = from;
+        this.to = to;
+        parse(text == null ? "" : text);
+    }
+
+    private void parse(String text) {
+        boolean or = false;
+        int i = 0;
+        while (i < text.length()) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            boolean exclude = text.charAt(i) == '-' && i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1));
+            if (exclude) i++;
+
+            boolean quoted = text.charAt(i) == '"';
+            int end;
+            String clause;
+            if (quoted) {
+                end = text.indexOf('"', i + 1);
+                if (end < 0) end = text.length();
+                clause = text.substring(i + 1, end);
+                i = end + 1;
+            } else {
+                end = i;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end))) end++;
+                clause = text.substring(i, end);
+                i = end;
+            }
+
+            if (!quoted && !exclude && clause.equals("OR")) {
+                or = !required.isEmpty();
+                continue;
+            }
+            // A word the analyzer splits (e.g. "Phú-Thọ") is matched as a phrase
+            List<String> phrase = TextAnalyzer.terms(clause);
+            if (phrase.isEmpty()) continue;
+            if (exclude) {
+                excluded.add(phrase);
+            } else if (or) {
+                required.get(required.size() - 1).add(phrase);
+            } else {
+                List<List<String>> group = new ArrayList<>();
+                group.add(phrase);
+                required.add(group);
+            }
+            or = false;
+        }
+    }
+
+    // Without a required word nothing is searched: exclusions alone would match the whole topic
+    public boolean isEmpty() {
+        return required.isEmpty();
+    }
+
+    public String getTopic() { return topic; }
+    public DamageCategory getCategory() { return category; }
+    public Date getFrom() { return from; }
+    public Date getTo() { return to; }
+
+    List<List<List<String>>> getRequired() { return Collections.unmodifiableList(required); }
+    List<List<String>> getExcluded() { return Collections.unmodifiableList(excluded); }
+}
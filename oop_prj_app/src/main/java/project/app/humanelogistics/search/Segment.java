@@ -0,0 +1,350 @@
+package project.app.humanelogistics.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * An immutable, on-disk part of the index. The term dictionary and the per-document columns
+ * are held in memory; the postings stay in the file and are memory-mapped.
+ *
+ * Postings of a term are two varint streams: (doc gap, frequency) pairs, then the position
+ * gaps of every occurrence. Queries without phrases read only the first.
+ *
+ * File: header, documents (id, timestamp, category), documents in id order, dictionary
+ * (term, doc frequency, offsets), postings, and the postings length as the last 8 bytes.
+ * Categories change after writing (analysis updates, replaced documents); the current ones are
+ * kept in a separate live file.
+ */
+final class Segment implements IndexPart {
+
+    private static final int MAGIC = 0x484C5349; // "HLSI"
+    private static final int VERSION = 1;
+    private static final int ID_BYTES = 12;       // MongoDB ObjectId
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int maxDoc;
+    private final byte[] ids;
+    private final long[] timestamps;
+    private final int[] docsInIdOrder;
+    private final byte[] categories;
+    private boolean categoriesChanged;
+    private final String[] terms;
+    private final int[] docFreqs;
+    private final int[] docsOffsets;
+    private final int[] positionsOffsets;
+    private final ByteBuffer postings;
+
+    private Segment(int maxDoc, byte[] ids, long[] timestamps, int[] docsInIdOrder, byte[] categories,
+                    String[] terms, int[] docFreqs, int[] docsOffsets, int[] positionsOffsets, ByteBuffer postings) {
+        this.maxDoc = maxDoc;
+        this.ids = ids;
+        this.timestamps = timestamps;
+        this.docsInIdOrder = docsInIdOrder;
+        this.categories = categories;
+        this.terms = terms;
+        this.docFreqs = docFreqs;
+        this.docsOffsets = docsOffsets;
+        this.positionsOffsets = positionsOffsets;
+        this.postings = postings;
+    }
+
+    // liveFile: current categories, or null if none changed since the segment was written
+    static Segment open(Path file, Path liveFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+            channel.read(trailer, size - Long.BYTES);
+            long postingsLength = trailer.flip().getLong();
+            ByteBuffer postings = channel.map(FileChannel.MapMode.READ_ONLY, size - Long.BYTES - postingsLength, postingsLength);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1 << 16));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not an index segment: " + file);
+            int maxDoc = in.readInt();
+            byte[] ids = new byte[maxDoc * ID_BYTES];
+            long[] timestamps = new long[maxDoc];
+            byte[] categories = new byte[maxDoc];
+            for (int doc = 0; doc < maxDoc; doc++) {
+                in.readFully(ids, doc * ID_BYTES, ID_BYTES);
+                timestamps[doc] = in.readLong();
+                categories[doc] = in.readByte();
+            }
+            int[] docsInIdOrder = new int[maxDoc];
+            for (int i = 0; i < maxDoc; i++) docsInIdOrder[i] = in.readInt();
+
+            int termCount = in.readInt();
+            String[] terms = new String[termCount];
+            int[] docFreqs = new int[termCount];
+            int[] docsOffsets = new int[termCount];
+            int[] positionsOffsets = new int[termCount];
+            for (int i = 0; i < termCount; i++) {
+                terms[i] = in.readUTF();
+                docFreqs[i] = in.readInt();
+                docsOffsets[i] = in.readInt();
+                positionsOffsets[i] = in.readInt();
+            }
+
+            if (liveFile != null) {
+                byte[] live = Files.readAllBytes(liveFile);
+                if (live.length != maxDoc) throw new IOException("Live file does not match segment: " + liveFile);
+                categories = live;
+            }
+            return new Segment(maxDoc, ids, timestamps, docsInIdOrder, categories,
+                    terms, docFreqs, docsOffsets, positionsOffsets, postings);
+        }
+    }
+
+    /**
+     * Writes the live documents of the parts, in order, as one segment: a flush (one memory part)
+     * or a merge (several segments). Returns the number of documents written.
+     */
+    static int write(Path file, List<? extends IndexPart> parts) throws IOException {
+        int[][] newDocs = new int[parts.size()][];
+        List<Integer> partOf = new ArrayList<>();
+        List<Integer> docOf = new ArrayList<>();
+        for (int p = 0; p < parts.size(); p++) {
+            IndexPart part = parts.get(p);
+            newDocs[p] = new int[part.maxDoc()];
+            for (int doc = 0; doc < part.maxDoc(); doc++) {
+                if (part.category(doc) == DELETED) {
+                    newDocs[p][doc] = -1;
+                } else {
+                    newDocs[p][doc] = partOf.size();
+                    partOf.add(p);
+                    docOf.add(doc);
+                }
+            }
+        }
+        int maxDoc = partOf.size();
+        TreeSet<String> allTerms = new TreeSet<>();
+        for (IndexPart part : parts) part.terms().forEach(allTerms::add);
+
+        // Postings go to a side file first: the dictionary in front of them is only known at the end
+        Path postingsFile = file.resolveSibling(file.getFileName() + ".postings");
+        List<String> terms = new ArrayList<>();
+        List<int[]> entries = new ArrayList<>(); // doc frequency, docs offset, positions offset
+        long offset = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(postingsFile), 1 << 16)) {
+            VarIntBuffer docs = new VarIntBuffer();
+            VarIntBuffer positions = new VarIntBuffer();
+            for (String term : allTerms) {
+                docs.clear();
+                positions.clear();
+                int docFreq = 0;
+                int previous = 0;
+                for (int p = 0; p < parts.size(); p++) {
+                    int[] termDocs = parts.get(p).docs(term);
+                    if (termDocs.length == 0) continue;
+                    int[][] termPositions = parts.get(p).positions(term);
+                    for (int i = 0; i < termDocs.length; i++) {
+                        int doc = newDocs[p][termDocs[i]];
+                        if (doc < 0) continue;
+                        docs.writeVarInt(doc - previous);
+                        docs.writeVarInt(termPositions[i].length);
+                        previous = doc;
+                        int last = 0;
+                        for (int position : termPositions[i]) {
+                            positions.writeVarInt(position - last);
+                            last = position;
+                        }
+                        docFreq++;
+                    }
+                }
+                if (docFreq == 0) continue;
+                if (offset + docs.size() + positions.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Index segment would exceed 2 GB: " + file);
+                }
+                terms.add(term);
+                entries.add(new int[] { docFreq, (int) offset, (int) (offset + docs.size()) });
+                out.write(docs.array(), 0, docs.size());
+                out.write(positions.array(), 0, positions.size());
+                offset += docs.size() + positions.size();
+            }
+        }
+
+        Integer[] idOrder = new Integer[maxDoc];
+        byte[][] idBytes = new byte[maxDoc][];
+        for (int doc = 0; doc < maxDoc; doc++) {
+            idOrder[doc] = doc;
+            idBytes[doc] = HEX.parseHex(parts.get(partOf.get(doc)).id(docOf.get(doc)));
+        }
+        Arrays.sort(idOrder, (a, b) -> Arrays.compareUnsigned(idBytes[a], idBytes[b]));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(maxDoc);
+            for (int doc = 0; doc < maxDoc; doc++) {
+                IndexPart part = parts.get(partOf.get(doc));
+                out.write(idBytes[doc]);
+                out.writeLong(part.timestamp(docOf.get(doc)));
+                out.writeByte(part.category(docOf.get(doc)));
+            }
+            for (Integer doc : idOrder) out.writeInt(doc);
+            out.writeInt(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                out.writeUTF(terms.get(i));
+                for (int value : entries.get(i)) out.writeInt(value);
+            }
+            Files.copy(postingsFile, out);
+            out.writeLong(offset);
+        } finally {
+            Files.deleteIfExists(postingsFile);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        return maxDoc;
+    }
+
+    long postingsBytes() {
+        return postings.capacity();
+    }
+
+    // --- LIVE CATEGORIES ---
+
+    boolean categoriesChanged() {
+        return categoriesChanged;
+    }
+
+    void writeCategories(Path liveFile) throws IOException {
+        Path temp = liveFile.resolveSibling(liveFile.getFileName() + ".tmp");
+        Files.write(temp, categories);
+        Files.move(temp, liveFile, StandardCopyOption.ATOMIC_MOVE);
+        categoriesChanged = false;
+    }
+
+    // Documents not replaced by a newer version
+    int liveDocs() {
+        int live = 0;
+        for (byte category : categories) {
+            if (category != DELETED) live++;
+        }
+        return live;
+    }
+
+    // --- IndexPart ---
+
+    @Override
+    public int maxDoc() {
+        return maxDoc;
+    }
+
+    @Override
+    public int[] docs(String term) {
+        int t = Arrays.binarySearch(terms, term);
+        if (t < 0) return new int[0];
+        ByteBuffer in = postings.duplicate().position(docsOffsets[t]);
+        int[] docs = new int[docFreqs[t]];
+        int doc = 0;
+        for (int i = 0; i < docs.length; i++) {
+            doc += VarIntBuffer.readVarInt(in);
+            VarIntBuffer.readVarInt(in); // Frequency
+            docs[i] = doc;
+        }
+        return docs;
+    }
+
+    @Override
+    public int[][] positions(String term) {
+        int t = Arrays.binarySearch(terms, term);
+        if (t < 0) return new int[0][];
+        ByteBuffer in = postings.duplicate().position(docsOffsets[t]);
+        int[][] positions = new int[docFreqs[t]][];
+        for (int i = 0; i < positions.length; i++) {
+            VarIntBuffer.readVarInt(in); // Doc gap
+            positions[i] = new int[VarIntBuffer.readVarInt(in)];
+        }
+        in.position(positionsOffsets[t]);
+        for (int[] docPositions : positions) {
+            int position = 0;
+            for (int j = 0; j < docPositions.length; j++) {
+                position += VarIntBuffer.readVarInt(in);
+                docPositions[j] = position;
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public int[][] positions(String term, int[] docs) {
+        int t = Arrays.binarySearch(terms, term);
+        int[][] positions = new int[docs.length][];
+        if (t < 0) return positions;
+        ByteBuffer in = postings.duplicate().position(docsOffsets[t]);
+        ByteBuffer positionsIn = postings.duplicate().position(positionsOffsets[t]);
+        int doc = 0;
+        for (int i = 0, next = 0; i < docFreqs[t] && next < docs.length; i++) {
+            doc += VarIntBuffer.readVarInt(in);
+            int freq = VarIntBuffer.readVarInt(in);
+            if (doc != docs[next]) {
+                VarIntBuffer.skipVarInts(positionsIn, freq);
+                continue;
+            }
+            int[] docPositions = new int[freq];
+            int position = 0;
+            for (int j = 0; j < freq; j++) {
+                position += VarIntBuffer.readVarInt(positionsIn);
+                docPositions[j] = position;
+            }
+            positions[next++] = docPositions;
+        }
+        return positions;
+    }
+
+    @Override
+    public Iterable<String> terms() {
+        return Arrays.asList(terms);
+    }
+
+    @Override
+    public String id(int doc) {
+        return HEX.formatHex(ids, doc * ID_BYTES, (doc + 1) * ID_BYTES);
+    }
+
+    @Override
+    public long timestamp(int doc) {
+        return timestamps[doc];
+    }
+
+    @Override
+    public byte category(int doc) {
+        return categories[doc];
+    }
+
+    @Override
+    public void setCategory(int doc, byte category) {
+        categories[doc] = category;
+        categoriesChanged = true;
+    }
+
+    @Override
+    public int find(String id) {
+        byte[] key = HEX.parseHex(id);
+        int low = 0;
+        int high = maxDoc - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int doc = docsInIdOrder[mid];
+            int cmp = Arrays.compareUnsigned(ids, doc * ID_BYTES, (doc + 1) * ID_BYTES, key, 0, ID_BYTES);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return doc;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,54 @@
+package project.app.humanelogistics.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into index terms: runs of letters and digits in any script, lower-cased, with
+ * diacritics removed. "Sập cầu Phú Thọ" and "sap cau phu tho" give the same terms, so a search
+ * typed without Vietnamese accents still finds accented text (and vice versa).
+ */
+public final class TextAnalyzer {
+
+    // Longer runs are URLs, hashes and the like; not worth a dictionary entry
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private TextAnalyzer() {}
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        int start = -1;
+        for (int i = 0; i <= text.length(); ) {
+            int cp = i < text.length() ? text.codePointAt(i) : ' ';
+            boolean inTerm = Character.isLetterOrDigit(cp) || (start >= 0 && Character.getType(cp) == Character.NON_SPACING_MARK);
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) terms.add(fold(text.substring(start, i)));
+                start = -1;
+            }
+            i += Character.charCount(cp);
+        }
+        return terms;
+    }
+
+    // Lower case without accents; đ has no decomposition and is mapped by hand
+    static String fold(String term) {
+        boolean ascii = true;
+        for (int i = 0; i < term.length() && ascii; i++) ascii = term.charAt(i) < 0x80;
+        if (ascii) return term.toLowerCase(Locale.ROOT);
+
+        String decomposed = Normalizer.normalize(term, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (c == 'đ' || c == 'Đ') c = 'd';
+            folded.append(c);
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package project.app.humanelogistics.search;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable byte array of variable-length integers: 7 bits per byte, so the small gaps between
+ * sorted doc ids and positions mostly take one byte.
+ */
+final class VarIntBuffer {
+
+    private byte[] bytes = new byte[64];
+    private int size;
+
+    void writeVarInt(int value) {
+        if (size + 5 > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 5));
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    static void skipVarInts(ByteBuffer buffer, int count) {
+        while (count > 0) {
+            if (buffer.get() >= 0) count--;
+        }
+    }
+}
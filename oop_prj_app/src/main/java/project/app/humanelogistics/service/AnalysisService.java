@@ -1,28 +1,84 @@
 package project.app.humanelogistics.service;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import project.app.humanelogistics.db.MediaRepository;
+import project.app.humanelogistics.metrics.ItemStageEvent;
+import project.app.humanelogistics.model.AnalysisVersion;
 import project.app.humanelogistics.model.DamageCategory;
 import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.SurgeAlert;
+import project.app.humanelogistics.model.TopicSketch;
 import project.app.humanelogistics.preprocessing.ContentClassifier;
 import project.app.humanelogistics.preprocessing.DataCollector;
+import project.app.humanelogistics.preprocessing.NearDuplicateDetector;
+import project.app.humanelogistics.preprocessing.UrlCanonicalizer;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class AnalysisService {
 
+    // Long enough for a day-by-day scrape of a multi-month range
+    private static final Duration COLLECTOR_TIMEOUT = Duration.ofMinutes(15);
+
+    // Ingestion pipeline sizing: I/O-bound stages get more workers than the rate-limited AI stage
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int DEDUP_WORKERS = 2;
+    private static final int FETCH_WORKERS = 8;
+    private static final int ANALYZE_WORKERS = 4;
+    private static final int SAVE_WORKERS = 2;
+
+    // Backlog analysis results are written in bulk; each item takes ~1s of AI time, so the
+    // delay must span many items for batches to form
+    private static final int WRITE_BATCH_SIZE = 100;
+    private static final Duration WRITE_MAX_DELAY = Duration.ofSeconds(30);
+
     private final Map<String, MediaRepository> repoMap = new LinkedHashMap<>();
     private final SentimentAnalyzer sentimentAnalyzer;
     private final ContentClassifier damageClassifier;
+    private final ContentFetchService contentFetcher;
+    private final UrlCanonicalizer urlCanonicalizer = new UrlCanonicalizer();
+    private final NearDuplicateDetector nearDuplicates = new NearDuplicateDetector();
+    private final Set<String> signedTopics = new HashSet<>();
+    private final EnrichmentPriority enrichmentPriority = new EnrichmentPriority();
+    private final Set<String> prioritizedTopics = new HashSet<>();
+    private SurgeDetector surgeDetector; // Null: no surge detection
 
     // List to hold collectors (Google News, etc.)
     private final List<DataCollector> collectors = new ArrayList<>();
 
+    // Shared by all collectors so they run concurrently
+    private final ExecutorService collectorPool = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "collector");
+        t.setDaemon(true);
+        return t;
+    });
+    private final CollectorFanOut collectorFanOut = new CollectorFanOut(collectorPool, COLLECTOR_TIMEOUT, urlCanonicalizer);
+
     public AnalysisService(SentimentAnalyzer sentimentAnalyzer, ContentClassifier damageClassifier) {
+        this(sentimentAnalyzer, damageClassifier, new ContentFetchService());
+    }
+
+    public AnalysisService(SentimentAnalyzer sentimentAnalyzer, ContentClassifier damageClassifier,
+                           ContentFetchService contentFetcher) {
         this.sentimentAnalyzer = sentimentAnalyzer;
         this.damageClassifier = damageClassifier;
+        this.contentFetcher = contentFetcher;
+    }
+
+    // Source weights and other knobs of the backlog ordering
+    public EnrichmentPriority getEnrichmentPriority() {
+        return enrichmentPriority;
+    }
+
+    // Every freshly collected item leaving enrichment is fed to the detector; its alerts are stored with the item.
+    // Backlog items are not: they arrive in whatever order they were claimed, long after they were news.
+    public void setSurgeDetector(SurgeDetector surgeDetector) {
+        this.surgeDetector = surgeDetector;
     }
 
     public void addRepository(String label, MediaRepository repo) {
@@ -43,70 +99,263 @@ public class AnalysisService {
 
     // --- INGESTION LOGIC ---
 
+    /**
+     * Runs collect -> dedup -> fetch -> analyze -> save as a pipeline: every stage has its own
+     * workers and a bounded queue, so the slow AI calls overlap with scraping, fetching and saving.
+     */
     public void processNewData(String topic, String startDate, String endDate, boolean analyzeImmediately) {
+        processNewData(topic, null, startDate, endDate, analyzeImmediately);
+    }
+
+    /** Collects only what was published after {@code since} where the collector can tell (null: the whole range). */
+    public void processNewData(String topic, Date since, String startDate, String endDate, boolean analyzeImmediately) {
         System.out.println("Starting Cycle for: " + topic + " [" + startDate + " to " + endDate + "]");
+        MediaRepository primary = repoMap.isEmpty() ? null : repoMap.values().iterator().next();
+        if (primary != null) loadSignatures(topic, primary);
+
+        IngestionPipeline pipeline = new IngestionPipeline("ingest " + topic);
+        PipelineStage<Media, PendingItem> dedup = pipeline.addStage(new PipelineStage<>("dedup", DEDUP_WORKERS, QUEUE_CAPACITY,
+                (item, emit) -> {
+                    PendingItem pending = linkOrSkip(item, topic, primary, analyzeImmediately);
+                    if (pending != null) emit.accept(pending);
+                }));
+        dedup.then(pipeline.addStage(new PipelineStage<PendingItem, PendingItem>("fetch", FETCH_WORKERS, QUEUE_CAPACITY,
+                        (work, emit) -> {
+                            if (work.analyze && reuseClusterAnalysis(work.item, primary)) work.analyze = false;
+                            if (work.analyze) work.text = fetchText(work.item);
+                            emit.accept(work);
+                        })))
+                .then(pipeline.addStage(new PipelineStage<PendingItem, Media>("analyze", ANALYZE_WORKERS, QUEUE_CAPACITY,
+                        (work, emit) -> {
+                            // The cluster representative may have finished while this item was queued
+                            if (work.analyze && !reuseClusterAnalysis(work.item, primary)) analyzeText(work.item, work.text);
+                            emit.accept(work.item);
+                        })))
+                .then(pipeline.addStage(new PipelineStage<Media, Void>("save", SAVE_WORKERS, QUEUE_CAPACITY,
+                        (item, emit) -> {
+                            // Anything still un-analyzed jumps the regular backlog
+                            if (item.needsAnalysis()) {
+                                item.setFastLane(true);
+                                item.setAnalysisDueAt(enrichmentPriority.dueAt(item, new Date()));
+                            }
+                            ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.PERSIST, item);
+                            if (primary != null) primary.save(item);
+                            event.finish(primary != null ? "saved" : "no-repository", item.getContent());
+                            detectSurges(item, primary);
+                        })));
+
+        pipeline.start();
+        int total = 0;
+        try {
+            // All collectors run at once; items arrive de-duplicated by canonical URL
+            total = collectorFanOut.collectAll(collectors, topic, since, startDate, endDate, 1, dedup::submit);
+        } finally {
+            pipeline.drain();
+        }
+        System.out.println("Collected " + total + " unique items for: " + topic);
+    }
 
-        for (DataCollector collector : collectors) {
-            List<Media> freshData = collector.collect(topic, startDate, endDate, 1);
-            for(Media item : freshData) {
-                if (analyzeImmediately) {
-                    analyzeItem(item); // Enrichment
-                }
-                if (!repoMap.isEmpty()) {
-                    repoMap.values().iterator().next().save(item);
-                }
-            }
+    // Returns null if the item is already stored for this topic
+    private PendingItem linkOrSkip(Media item, String topic, MediaRepository primary, boolean analyzeImmediately) {
+        ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.DEDUP, item);
+        String canonical = item.getCanonicalUrl();
+        List<Media> copies = primary != null ? primary.findByCanonicalUrl(canonical) : Collections.emptyList();
+        if (containsTopic(copies, topic)) {
+            System.out.println("   [DUPLICATE] Already stored: " + canonical);
+            event.finish("duplicate", item.getContent());
+            return null;
+        }
+
+        Media analyzedCopy = findReusableAnalysis(item, copies, primary);
+        if (analyzedCopy != null) {
+            item.copyAnalysisFrom(analyzedCopy); // Link to the existing analysis
+            System.out.println("   [LINKED] Reusing analysis of: " + analyzedCopy.getCanonicalUrl());
+            event.finish("linked", item.getContent());
+            return new PendingItem(item, false);
         }
+        event.finish(item.getClusterId() != null ? "near-duplicate" : "new", item.getContent());
+        return new PendingItem(item, analyzeImmediately);
     }
 
     public void processExistingData(String topic) {
+        processExistingData(topic, Integer.MAX_VALUE);
+    }
+
+    /** Analyzes at most {@code maxItems} backlog items of the topic. Returns the number analyzed and written. */
+    public int processExistingData(String topic, int maxItems) {
         System.out.println("Scanning database for un-analyzed items: " + topic);
         int totalProcessed = 0;
+        int totalClaimed = 0;
+        int totalFailed = 0;
 
         for (Map.Entry<String, MediaRepository> entry : repoMap.entrySet()) {
+            if (totalClaimed >= maxItems) break;
             String repoName = entry.getKey();
             MediaRepository repo = entry.getValue();
+            loadSignatures(topic, repo);
+            assignPriorities(topic, repo);
 
-            // Fetch items that need analysis
-            List<Media> posts = repo.findByTopic(topic);
-            System.out.println("[" + repoName + "] Found " + posts.size() + " potential candidates.");
-
+            // Items are leased one at a time, so other workers on the same topic never get them too
             int batchCount = 0;
-            for (Media item : posts) {
-                batchCount++;
-
-                // --- PRINT SPECIFIC DATA BEING WORKED ON ---
-                String preview = item.getContent() != null
-                        ? (item.getContent().length() > 60 ? item.getContent().substring(0, 60) + "..." : item.getContent())
-                        : "No Content";
-
-                // Print progress and content preview
-                System.out.printf("   Processing [%d/%d]: %s%n", batchCount, posts.size(), preview);
-
-                // Double check if analysis is actually needed
-                boolean needsAnalysis = (item.getSentiment() == 0.0) ||
-                        (item.getDamageType() == null || item.getDamageType() == DamageCategory.UNKNOWN);
-
-                if (needsAnalysis) {
-                    analyzeItem(item); // Call AI Models
-                    repo.updateAnalysis(item); // Save result to DB
-
-                    // Print the result of the analysis
-                    System.out.println("      -> Result: [Damage: " + item.getDamageType() + "] [Sentiment: " + String.format("%.2f", item.getSentiment()) + "]");
-                    totalProcessed++;
-                } else {
-                    System.out.println("      -> Skipped (Already Analyzed)");
+            Set<Media> analyzedFailed = Collections.newSetFromMap(new IdentityHashMap<>());
+            AnalysisWriteBuffer writeBuffer = AnalysisWriteBuffer.open(repo, WRITE_BATCH_SIZE, WRITE_MAX_DELAY);
+            WorkClaimer claimer = new WorkClaimer(repo, topic);
+            System.out.println("[" + repoName + "] Claiming work as " + claimer.getOwner());
+            try {
+                Media item;
+                while (!Thread.currentThread().isInterrupted() && totalClaimed < maxItems
+                        && (item = claimer.claim()) != null) {
+                    batchCount++;
+                    totalClaimed++;
+
+                    // --- PRINT SPECIFIC DATA BEING WORKED ON ---
+                    String preview = item.getContent() != null
+                            ? (item.getContent().length() > 60 ? item.getContent().substring(0, 60) + "..." : item.getContent())
+                            : "No Content";
+
+                    // Print progress and content preview
+                    System.out.printf("   Processing [%d]: %s%n", batchCount, preview);
+
+                    // Double check if analysis is actually needed
+                    boolean needsAnalysis = (item.getSentiment() == 0.0) ||
+                            (item.getDamageType() == null || item.getDamageType() == DamageCategory.UNKNOWN);
+
+                    if (needsAnalysis) {
+                        if (item.getCanonicalUrl() == null) {
+                            item.setCanonicalUrl(urlCanonicalizer.canonicalize(item.getUrl()));
+                        }
+                        Media analyzedCopy = findReusableAnalysis(item, repo.findByCanonicalUrl(item.getCanonicalUrl()), repo);
+                        boolean analyzed = true;
+                        if (analyzedCopy != null) {
+                            item.copyAnalysisFrom(analyzedCopy); // Already analyzed as another copy of the story
+                        } else {
+                            analyzed = analyzeItem(item); // Call AI Models
+                        }
+                        writeBuffer.add(item); // Saved to DB in the next bulk write, which also ends the lease
+                        claimer.complete(item);
+                        detectSurges(item, repo); // First results: the item counted for nothing when saved
+
+                        // Print the result of the analysis
+                        System.out.println("      -> Result: [Damage: " + item.getDamageType() + "] [Sentiment: " + String.format("%.2f", item.getSentiment()) + "]");
+                        if (analyzed) {
+                            totalProcessed++;
+                        } else {
+                            analyzedFailed.add(item); // Still written: the attempt ends the lease
+                        }
+                    } else {
+                        claimer.release(item);
+                        System.out.println("      -> Skipped (Already Analyzed)");
+                    }
+
+                    // Optional: small delay to avoid hitting rate limits too fast if processing many items
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
                 }
+            } finally {
+                writeBuffer.close(); // Flushes whatever is still pending
+                claimer.close();     // Returns any lease still held
+            }
+            // Failed analyses were never counted; only the rest of the failed writes come off
+            for (Media failed : writeBuffer.getFailedItems()) {
+                if (!analyzedFailed.contains(failed)) totalProcessed--;
+            }
+            totalFailed += analyzedFailed.size();
+        }
+        System.out.println("Batch Analysis Complete. Successfully updated " + totalProcessed + " items ("
+                + totalFailed + " failed analysis).");
+        return totalProcessed;
+    }
 
-                // Optional: small delay to avoid hitting rate limits too fast if processing many items
-                try { Thread.sleep(200); } catch (InterruptedException e) {}
+    // --- STALE RE-ANALYSIS (BACKFILL) ---
+
+    /**
+     * Re-analyzes items whose stored results came from an older prompt or model, newest first.
+     * Only the stale part of each analysis is redone, and at most {@code perMinute} items go
+     * to the models per minute. Returns the number of items updated.
+     */
+    public int backfillStale(String topic, int maxItems, int perMinute) {
+        if (damageClassifier == null) {
+            System.err.println("Backfill needs a damage classifier.");
+            return 0;
+        }
+        AnalysisVersion sentimentCurrent = sentimentAnalyzer.getAnalysisVersion();
+        AnalysisVersion damageCurrent = damageClassifier.getAnalysisVersion();
+        System.out.println("Backfilling " + topic + " to sentiment " + sentimentCurrent + ", damage " + damageCurrent
+                + " (max " + perMinute + " items/min)");
+
+        Date runStart = new Date();
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+        long nextSlot = System.nanoTime();
+        int totalUpdated = 0;
+        int totalClaimed = 0;
+        int totalReused = 0;
+        int totalFailed = 0;
+
+        for (Map.Entry<String, MediaRepository> entry : repoMap.entrySet()) {
+            if (totalClaimed >= maxItems) break;
+            MediaRepository repo = entry.getValue();
+
+            AnalysisWriteBuffer writeBuffer = AnalysisWriteBuffer.open(repo, WRITE_BATCH_SIZE, WRITE_MAX_DELAY);
+            WorkClaimer claimer = new WorkClaimer(repo,
+                    (owner, lease) -> repo.claimStale(topic, sentimentCurrent, damageCurrent, runStart, owner, lease),
+                    WorkClaimer.DEFAULT_LEASE);
+            System.out.println("[" + entry.getKey() + "] Claiming stale items as " + claimer.getOwner());
+            try {
+                Media item;
+                while (!Thread.currentThread().isInterrupted() && totalClaimed < maxItems
+                        && (item = claimer.claim()) != null) {
+                    totalClaimed++;
+                    System.out.println("   Re-analyzing [" + totalClaimed + "]: " + item.getUrl()
+                            + " (sentiment " + item.getSentimentVersion() + ", damage " + item.getDamageVersion() + ")");
+
+                    // Another copy of the story may already carry current results
+                    Media current = findCurrentCopy(item, repo, sentimentCurrent, damageCurrent);
+                    if (current != null) {
+                        item.copyAnalysisFrom(current);
+                        totalReused++;
+                    } else {
+                        nextSlot = awaitRateSlot(nextSlot, intervalNanos);
+                        if (!analyzeText(item, fetchText(item),
+                                !sentimentCurrent.equals(item.getSentimentVersion()),
+                                !damageCurrent.equals(item.getDamageVersion()))) {
+                            totalFailed++;
+                        }
+                    }
+                    // Written even on failure: the new analyzedAt backs the item off until the next run,
+                    // and its unchanged version keeps it stale so that run retries it.
+                    // Not shown to the surge detector: it counted the item once, and a run over recent
+                    // items would count them all again at once, which looks like a surge
+                    writeBuffer.add(item);
+                    claimer.complete(item);
+                    totalUpdated++;
+                }
+            } finally {
+                writeBuffer.close();
+                claimer.close();
             }
+            totalUpdated -= writeBuffer.getFailedItems().size();
         }
-        System.out.println("Batch Analysis Complete. Successfully updated " + totalProcessed + " items.");
+        totalUpdated -= totalFailed;
+        System.out.println("Backfill Complete. Updated " + totalUpdated + " items (" + totalReused + " from current copies, "
+                + totalFailed + " failed and left stale).");
+        return totalUpdated;
     }
 
     // --- OPTIMIZED READ LOGIC ---
 
+    /**
+     * Follows the topic's dashboard figures across all repositories as they change. onFrame gets a
+     * snapshot at most once per frameMillis, and only after a change. Close the result to stop.
+     */
+    public LiveDashboard openLiveDashboard(String topic, long frameMillis, Consumer<LiveDashboard.Snapshot> onFrame) {
+        LiveDashboard live = new LiveDashboard(topic, repoMap, onFrame);
+        live.start(frameMillis);
+        return live;
+    }
+
     public long getTotalPostCount(String topic) {
         long total = 0;
         for (MediaRepository repo : repoMap.values()) {
@@ -153,57 +402,205 @@ public class AnalysisService {
         return allTrends;
     }
 
+    /** Per-day sketches of the topic, each merged across all repositories. */
+    public Map<LocalDate, TopicSketch> getDailySketches(String topic) {
+        Map<LocalDate, TopicSketch> merged = new TreeMap<>();
+        for (MediaRepository repo : repoMap.values()) {
+            repo.getDailySketches(topic).forEach((day, sketch) -> merged.merge(day, sketch, TopicSketch::merge));
+        }
+        return merged;
+    }
+
+    // The whole topic in one sketch: a source or article seen on several days counts once
+    public TopicSketch getTopicSketch(String topic) {
+        TopicSketch total = new TopicSketch(null);
+        for (TopicSketch day : getDailySketches(topic).values()) {
+            total = total.merge(day);
+        }
+        return total;
+    }
+
     // --- HELPER METHODS ---
 
-    private void analyzeItem(Media item) {
+    // A failed alert write is reported but never stops ingestion
+    private void detectSurges(Media item, MediaRepository repo) {
+        if (surgeDetector == null) return;
+        for (SurgeAlert alert : surgeDetector.observe(item)) {
+            System.out.println("   [SURGE] " + alert);
+            if (repo == null) continue;
+            try {
+                repo.saveAlert(alert);
+            } catch (Exception e) {
+                System.err.println("   Could not store surge alert: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean containsTopic(List<Media> copies, String topic) {
+        for (Media copy : copies) {
+            if (topic.equals(copy.getTopic())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds an analyzed copy of the item: first an exact copy (same canonical URL), then the
+     * representative of its near-duplicate cluster. Returns null if the item needs its own analysis.
+     */
+    private Media findReusableAnalysis(Media item, List<Media> canonicalCopies, MediaRepository repo) {
+        Media exact = findAnalyzed(canonicalCopies);
+        if (exact != null) return exact;
+
+        String representative = nearDuplicates.findOrAdd(item);
+        if (representative != null && !representative.equals(item.getCanonicalUrl())) {
+            item.setClusterId(representative);
+        }
+
+        // The representative's analysis, once it is stored (now or in an earlier run)
+        if (item.getClusterId() != null && repo != null) {
+            return findAnalyzed(repo.findByCanonicalUrl(item.getClusterId()));
+        }
+        return null;
+    }
+
+    // Seeds the near-duplicate index with the signatures already stored for this topic
+    private void loadSignatures(String topic, MediaRepository repo) {
+        synchronized (signedTopics) {
+            if (!signedTopics.add(topic + "@" + System.identityHashCode(repo))) return;
+        }
+        List<Media> signed = repo.findWithSignatures(topic);
+        // Newest first: indexed in reverse, so the newest are the last to be evicted
+        for (int i = signed.size() - 1; i >= 0; i--) {
+            if (signed.get(i).getClusterId() == null) nearDuplicates.add(signed.get(i));
+        }
+        System.out.println("Near-duplicate index: loaded " + signed.size() + " signatures for " + topic);
+    }
+
+    private Media findCurrentCopy(Media item, MediaRepository repo, AnalysisVersion sentiment, AnalysisVersion damage) {
+        List<Media> copies = new ArrayList<>();
+        if (item.getCanonicalUrl() != null) copies.addAll(repo.findByCanonicalUrl(item.getCanonicalUrl()));
+        if (item.getClusterId() != null) copies.addAll(repo.findByCanonicalUrl(item.getClusterId()));
+        for (Media copy : copies) {
+            if (!copy.needsAnalysis() && copy.isAnalysisCurrent(sentiment, damage)) return copy;
+        }
+        return null;
+    }
+
+    // Spaces model calls evenly; a slow call uses up its own slot rather than allowing a burst later
+    private long awaitRateSlot(long slot, long intervalNanos) {
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Math.max(slot, System.nanoTime()) + intervalNanos;
+    }
+
+    // Gives items stored before prioritization a due time, so claiming can work in priority order
+    private void assignPriorities(String topic, MediaRepository repo) {
+        synchronized (prioritizedTopics) {
+            if (!prioritizedTopics.add(topic + "@" + System.identityHashCode(repo))) return;
+        }
+        Date now = new Date();
+        int assigned = repo.assignMissingPriorities(topic, item -> enrichmentPriority.dueAt(item, now));
+        if (assigned > 0) System.out.println("Analysis queue: prioritized " + assigned + " older items for " + topic);
+    }
+
+    private Media findAnalyzed(List<Media> copies) {
+        for (Media copy : copies) {
+            if (!copy.needsAnalysis()) return copy;
+        }
+        return null;
+    }
+
+    // Returns false if the analysis failed
+    private boolean analyzeItem(Media item) {
+        return analyzeText(item, fetchText(item));
+    }
+
+    // Copies the analysis of the item's near-duplicate representative, if that is stored by now
+    private boolean reuseClusterAnalysis(Media item, MediaRepository repo) {
+        if (item.getClusterId() == null || repo == null) return false;
+        Media representative = findAnalyzed(repo.findByCanonicalUrl(item.getClusterId()));
+        if (representative == null) return false;
+        item.copyAnalysisFrom(representative);
+        return true;
+    }
+
+    private String fetchText(Media item) {
         String textToAnalyze = item.getContent();
 
         // If content is missing but we have a URL, try to fetch it
         String url = item.getUrl();
         if ((textToAnalyze == null || textToAnalyze.isEmpty()) && url != null && url.startsWith("http")) {
-            System.out.print("      (Fetching URL content... ");
-            String fullBody = fetchUrlContent(url);
+            ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.FETCH, item);
+            String fullBody = contentFetcher.fetchContent(url);
+            event.finish(fullBody.isEmpty() ? "failed" : "ok", fullBody);
+            System.out.println("      (Fetching URL content... " + (fullBody.isEmpty() ? "Failed)" : "Success)"));
             if (!fullBody.isEmpty()) {
                 textToAnalyze = fullBody;
-                System.out.println("Success)");
-            } else {
-                System.out.println("Failed)");
             }
         }
+        return textToAnalyze;
+    }
 
+    private boolean analyzeText(Media item, String textToAnalyze) {
+        return analyzeText(item, textToAnalyze, true, true);
+    }
+
+    // Each result is stamped with the version that produced it, so a prompt/model change can be backfilled.
+    // A failed analyzer leaves its fields and version as they were, so the item stays due for analysis.
+    // Returns false if any requested analysis failed.
+    private boolean analyzeText(Media item, String textToAnalyze, boolean sentiment, boolean damage) {
         // Safety check if text is still empty
         if (textToAnalyze == null || textToAnalyze.isEmpty()) {
             System.out.println("      (Skipping AI: No text available)");
-            return;
+            return false;
         }
-
-        try {
-            double score = sentimentAnalyzer.analyzeScore(textToAnalyze);
-            item.setSentiment(score);
-        } catch (Exception e) {
-            System.err.println("      Sentiment Error: " + e.getMessage());
+        boolean ok = true;
+
+        if (sentiment) {
+            ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.SENTIMENT, item);
+            try {
+                double score = sentimentAnalyzer.analyzeScore(textToAnalyze);
+                item.setSentiment(score);
+                item.setSentimentVersion(sentimentAnalyzer.getAnalysisVersion());
+                event.finish(score == 0.0 ? "neutral" : "ok", textToAnalyze);
+            } catch (Exception e) {
+                event.finish("error", textToAnalyze);
+                System.err.println("      Sentiment Error: " + e.getMessage());
+                ok = false;
+            }
         }
 
-        try {
-            if (damageClassifier != null) {
+        if (damage && damageClassifier != null) {
+            ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.CLASSIFY, item);
+            try {
                 DamageCategory cat = damageClassifier.classify(textToAnalyze);
                 item.setDamageType(cat);
+                item.setDamageVersion(damageClassifier.getAnalysisVersion());
+                event.finish(cat.name(), textToAnalyze);
+            } catch (Exception e) {
+                event.finish("error", textToAnalyze);
+                System.err.println("      Classification Error: " + e.getMessage());
+                ok = false;
             }
-        } catch (Exception e) {
-            System.err.println("      Classification Error: " + e.getMessage());
         }
+        return ok;
     }
 
-    private String fetchUrlContent(String url) {
-        if (url == null || url.isEmpty() || !url.startsWith("http")) return "";
-        try {
-            Document doc = Jsoup.connect(url)
-                    .userAgent("Mozilla/5.0")
-                    .timeout(5000)
-                    .get();
-            return doc.select("p").text();
-        } catch (Exception e) {
-            return "";
+    // Carries an item through the ingestion pipeline together with the text fetched for it
+    private static final class PendingItem {
+        final Media item;
+        boolean analyze;
+        String text;
+
+        PendingItem(Media item, boolean analyze) {
+            this.item = item;
+            this.analyze = analyze;
         }
     }
 }
@@ -0,0 +1,142 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.db.MediaRepository;
+import project.app.humanelogistics.metrics.ItemStageEvent;
+import project.app.humanelogistics.model.Media;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for analysis results: updates are collected and written with one bulk
+ * write when {@code maxBatch} items are pending or the oldest has waited {@code maxDelay}.
+ *
+ * Always close the buffer (try-with-resources); one shutdown hook, shared by all open
+ * buffers, also flushes them if the JVM exits while items are still pending.
+ */
+public class AnalysisWriteBuffer implements AutoCloseable {
+
+    private static final Set<AnalysisWriteBuffer> open = new LinkedHashSet<>();
+    private static Thread shutdownHook; // Registered while any buffer is open
+
+    private final MediaRepository repository;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+
+    private final List<Media> pending = new ArrayList<>();
+    private final List<Media> failedItems = Collections.synchronizedList(new ArrayList<>());
+    private final ScheduledExecutorService timer;
+
+    private long oldestPendingAt;
+    private long written;
+    private long flushes;
+    private boolean closed;
+
+    private AnalysisWriteBuffer(MediaRepository repository, int maxBatch, Duration maxDelay) {
+        this.repository = repository;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "analysis-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** A buffer that flushes on its own once items have waited {@code maxDelay}; close it when done. */
+    public static AnalysisWriteBuffer open(MediaRepository repository, int maxBatch, Duration maxDelay) {
+        AnalysisWriteBuffer buffer = new AnalysisWriteBuffer(repository, maxBatch, maxDelay);
+        long checkMillis = Math.max(50, maxDelay.toMillis() / 4);
+        buffer.timer.scheduleWithFixedDelay(buffer::flushIfStale, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        register(buffer);
+        return buffer;
+    }
+
+    public synchronized void add(Media item) {
+        if (closed) throw new IllegalStateException("Write buffer is closed");
+        if (pending.isEmpty()) oldestPendingAt = System.nanoTime();
+        pending.add(item);
+        if (pending.size() >= maxBatch) flush();
+    }
+
+    /** Writes everything pending now. Returns the number of items that failed. */
+    public synchronized int flush() {
+        if (pending.isEmpty()) return 0;
+
+        List<Media> batch = new ArrayList<>(pending);
+        pending.clear();
+        flushes++;
+
+        ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.PERSIST, batch.get(0).getTopic());
+        Map<Media, String> failures = repository.updateAnalysisBatch(batch);
+        event.finish(failures.isEmpty() ? "batch" : "batch, " + failures.size() + " failed", batch.size());
+        written += batch.size() - failures.size();
+        for (Map.Entry<Media, String> failure : failures.entrySet()) {
+            failedItems.add(failure.getKey());
+            System.err.println("      [WRITE FAILED] " + failure.getKey().getUrl() + ": " + failure.getValue());
+        }
+        return failures.size();
+    }
+
+    private synchronized void flushIfStale() {
+        if (!pending.isEmpty() && System.nanoTime() - oldestPendingAt >= maxDelayNanos) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        timer.shutdownNow();
+        flush();
+        unregister(this);
+        System.out.println("Write-behind: " + written + " updates in " + flushes + " bulk writes, " + failedItems.size() + " failed.");
+    }
+
+    // --- SHUTDOWN HOOK ---
+
+    private static synchronized void register(AnalysisWriteBuffer buffer) {
+        open.add(buffer);
+        if (shutdownHook != null) return;
+        shutdownHook = new Thread(AnalysisWriteBuffer::flushAll, "analysis-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private static synchronized void unregister(AnalysisWriteBuffer buffer) {
+        open.remove(buffer);
+        if (!open.isEmpty() || shutdownHook == null) return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // Already shutting down; the hook will find nothing pending
+        }
+        shutdownHook = null;
+    }
+
+    private static void flushAll() {
+        List<AnalysisWriteBuffer> buffers;
+        synchronized (AnalysisWriteBuffer.class) {
+            buffers = new ArrayList<>(open);
+        }
+        for (AnalysisWriteBuffer buffer : buffers) buffer.flush();
+    }
+
+    // Items whose update was rejected, so callers can retry or report them
+    public List<Media> getFailedItems() {
+        synchronized (failedItems) {
+            return new ArrayList<>(failedItems);
+        }
+    }
+
+    public synchronized long getWrittenCount() { return written; }
+    public synchronized long getFlushCount() { return flushes; }
+}
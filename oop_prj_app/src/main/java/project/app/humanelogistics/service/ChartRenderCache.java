@@ -0,0 +1,314 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.Metrics;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Rendered chart images keyed by what they show: chart type, topic, a fingerprint of the
+ * dataset and the pixel size. Different data gives a different key, so a cached image is never
+ * out of date; older versions of a chart are dropped once a newer one is rendered.
+ *
+ * The memory tier holds up to {@code maxBytes} of pixels and evicts the least recently used
+ * image. The optional disk tier keeps images across restarts as deflated raw pixels.
+ */
+public class ChartRenderCache {
+
+    private static final int FILE_MAGIC = 0x43484331; // "CHC1"
+    private static final String FILE_SUFFIX = ".chart";
+
+    private static final Counter HITS = Metrics.counter("chart.cache.hits");
+    private static final Counter DISK_HITS = Metrics.counter("chart.cache.diskHits");
+    private static final Counter MISSES = Metrics.counter("chart.cache.misses");
+    // Memory tier of all caches together, so there is one gauge however many caches exist
+    private static final AtomicLong TOTAL_BYTES = new AtomicLong();
+
+    static {
+        Metrics.gauge("chart.cache.megabytes", () -> TOTAL_BYTES.get() / 1048576.0);
+    }
+
+    private final long maxBytes;
+    private final Path directory; // null = memory only
+    private final LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final ExecutorService diskWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "chart-cache-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ChartRenderCache(long maxBytes, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                System.err.println("Chart cache: disk tier disabled (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    // --- LOOKUP ---
+
+    /** Memory tier only; cheap enough to call on the FX thread. */
+    public synchronized BufferedImage getIfPresent(Key key) {
+        return images.get(key);
+    }
+
+    /** Memory tier, then disk tier (a disk hit is promoted to memory). Null on a miss. */
+    public BufferedImage get(Key key) {
+        BufferedImage image = getIfPresent(key);
+        if (image != null) {
+            HITS.increment();
+            return image;
+        }
+        image = readFromDisk(key);
+        if (image != null) {
+            DISK_HITS.increment();
+            putInMemory(key, image);
+            return image;
+        }
+        MISSES.increment();
+        return null;
+    }
+
+    public void put(Key key, BufferedImage image) {
+        putInMemory(key, image);
+        if (directory != null) diskWriter.submit(() -> writeToDisk(key, image));
+    }
+
+    // --- INVALIDATION ---
+
+    /** Drops every version of the chart except the one for {@code fingerprint}. */
+    public void retainOnly(String chartType, String topic, long fingerprint) {
+        removeWhere(key -> key.chartType.equals(chartType) && key.topic.equals(topic) && key.fingerprint != fingerprint,
+                topicPrefix(topic) + chartType + "-", fingerprintPart(fingerprint));
+    }
+
+    // --- FINGERPRINTS ---
+
+    /**
+     * A 64-bit hash of query results (nested maps of strings, dates and numbers), independent of
+     * map iteration order and stable across restarts.
+     */
+    public static long fingerprint(Map<?, ?> data) {
+        return mix(0xcbf29ce484222325L, data);
+    }
+
+    private static long mix(long hash, Object value) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> e : map.entrySet()) sorted.put(String.valueOf(e.getKey()), e.getValue());
+            for (Map.Entry<String, Object> e : sorted.entrySet()) {
+                hash = mix(hash, e.getKey());
+                hash = mix(hash, e.getValue());
+            }
+            return mixLong(hash, sorted.size());
+        }
+        if (value instanceof Number) {
+            return mixLong(hash, Double.doubleToLongBits(((Number) value).doubleValue()));
+        }
+        String s = String.valueOf(value);
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mixLong(hash, s.length());
+    }
+
+    private static long mixLong(long hash, long value) {
+        hash ^= value;
+        hash *= 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    // --- MEMORY TIER ---
+
+    private synchronized void putInMemory(Key key, BufferedImage image) {
+        long size = sizeOf(image);
+        if (size > maxBytes) return;
+        BufferedImage previous = images.put(key, image);
+        if (previous != null) addBytes(-sizeOf(previous));
+        addBytes(size);
+
+        Iterator<Map.Entry<Key, BufferedImage>> eldest = images.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            addBytes(-sizeOf(eldest.next().getValue()));
+            eldest.remove();
+        }
+    }
+
+    private synchronized void addBytes(long delta) {
+        bytes += delta;
+        TOTAL_BYTES.addAndGet(delta);
+    }
+
+    private void removeWhere(Predicate<Key> memoryMatch, String filePrefix, String keepPart) {
+        synchronized (this) {
+            Iterator<Map.Entry<Key, BufferedImage>> it = images.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, BufferedImage> e = it.next();
+                if (memoryMatch.test(e.getKey())) {
+                    addBytes(-sizeOf(e.getValue()));
+                    it.remove();
+                }
+            }
+        }
+        if (directory != null) diskWriter.submit(() -> deleteFiles(filePrefix, keepPart));
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    // --- DISK TIER ---
+
+    private BufferedImage readFromDisk(Key key) {
+        if (directory == null) return null;
+        Path file = directory.resolve(key.fileName());
+        if (!Files.exists(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) return null;
+            int width = in.readInt();
+            int height = in.readInt();
+            if (width != key.width || height != key.height) return null;
+
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            byte[] raw = in.readNBytes(pixels.length * 4);
+            if (raw.length != pixels.length * 4) return null;
+            ByteBuffer.wrap(raw).order(ByteOrder.BIG_ENDIAN).asIntBuffer().get(pixels);
+            return image;
+        } catch (IOException e) {
+            System.err.println("Chart cache: unreadable " + file.getFileName() + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    private void writeToDisk(Key key, BufferedImage image) {
+        Path target = directory.resolve(key.fileName());
+        Path tmp = directory.resolve(key.fileName() + ".tmp");
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = new int[width * height];
+        image.getRaster().getDataElements(0, 0, width, height, pixels);
+
+        ByteBuffer raw = ByteBuffer.allocate(pixels.length * 4).order(ByteOrder.BIG_ENDIAN);
+        raw.asIntBuffer().put(pixels);
+
+        // Charts are mostly flat color: the fastest deflate level already shrinks them ~20x
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream file = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(file, deflater, 64 * 1024))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.write(raw.array());
+        } catch (IOException e) {
+            System.err.println("Chart cache: could not write " + target.getFileName() + " (" + e.getMessage() + ")");
+            return;
+        } finally {
+            deflater.end();
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Chart cache: could not write " + target.getFileName() + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private void deleteFiles(String prefix, String keepPart) {
+        List<Path> doomed = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().contains(keepPart)) doomed.add(file);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        for (Path file : doomed) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static String topicPrefix(String topic) {
+        return Long.toHexString(fingerprint(Map.of("topic", topic))) + "-";
+    }
+
+    private static String fingerprintPart(long fingerprint) {
+        return "-" + Long.toHexString(fingerprint) + "-";
+    }
+
+    /** Identifies one rendered image. */
+    public static final class Key {
+        private final String chartType;
+        private final String topic;
+        private final long fingerprint;
+        private final int width;
+        private final int height;
+
+        public Key(String chartType, String topic, long fingerprint, int width, int height) {
+            this.chartType = chartType;
+            this.topic = topic;
+            this.fingerprint = fingerprint;
+            this.width = width;
+            this.height = height;
+        }
+
+        // <topic hash>-<chart type>-<fingerprint>-<w>x<h>.chart
+        String fileName() {
+            return topicPrefix(topic) + chartType + fingerprintPart(fingerprint) + width + "x" + height + FILE_SUFFIX;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return fingerprint == other.fingerprint && width == other.width && height == other.height
+                    && chartType.equals(other.chartType) && topic.equals(other.topic);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(chartType, topic, fingerprint, width, height);
+        }
+
+        @Override
+        public String toString() {
+            return chartType + "/" + topic + "/" + Long.toHexString(fingerprint) + "/" + width + "x" + height;
+        }
+    }
+}
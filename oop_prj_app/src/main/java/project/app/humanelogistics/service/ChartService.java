@@ -6,6 +6,7 @@ import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.DateTickUnit;
 import org.jfree.chart.axis.DateTickUnitType;
+import org.jfree.chart.axis.TickUnits;
 import org.jfree.chart.plot.CategoryPlot;
 import org.jfree.chart.plot.PiePlot;
 import org.jfree.chart.plot.PlotOrientation;
@@ -15,8 +16,13 @@ import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 import org.jfree.data.time.TimeSeriesCollection;
+import project.app.humanelogistics.metrics.ItemStageEvent;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
 
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -36,10 +42,85 @@ public class ChartService {
     private static final int CHART_WIDTH = 1600;
     private static final int CHART_HEIGHT = 1000;
 
+    // Trend charts: fewest points a series is thinned to, most points still drawn with markers
+    private static final int MIN_TREND_POINTS = 200;
+    private static final int MAX_MARKED_POINTS = 60;
+
+    private static final LatencyHistogram RENDER_LATENCY = Metrics.histogram("chart.render");
+
+    // --- FILE EXPORT (full design resolution) ---
+
     public File generateAndSaveChart(String title, String xAxis, String yAxis, TimeSeriesCollection dataset, String filepath) throws IOException {
+        File file = new File(filepath);
+        savePng(file, createTrendChart(title, xAxis, yAxis, dataset));
+        return file;
+    }
+
+    public File generateBarChart(String title, String xAxis, String yAxis, DefaultCategoryDataset dataset, String filepath) throws IOException {
+        File file = new File(filepath);
+        savePng(file, createBarChart(title, xAxis, yAxis, dataset));
+        return file;
+    }
+
+    public File generatePieChart(String title, DefaultCategoryDataset categoryDataset, String filepath) throws IOException {
+        File file = new File(filepath);
+        savePng(file, createPieChart(title, categoryDataset));
+        return file;
+    }
+
+    // Saves an already built chart, e.g. one shown on screen, at full design resolution
+    public File exportPng(JFreeChart chart, File file) throws IOException {
+        savePng(file, chart);
+        return file;
+    }
+
+    // --- IN-MEMORY RENDERING ---
+
+    /**
+     * Draws the chart straight into an image of the given pixel size, e.g. the on-screen size
+     * times the display's output scale. The layout is done at the design size and scaled, so
+     * fonts and lines keep their proportions at any size. No PNG encoding, no disk.
+     */
+    public BufferedImage renderImage(JFreeChart chart, int pixelWidth, int pixelHeight) {
+        ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.CHART, (String) null);
+        long start = System.nanoTime();
+
+        // Pre-multiplied ARGB is the layout JavaFX images use, so handing it over is a plain copy
+        BufferedImage image = new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+        double scale = Math.min((double) pixelWidth / CHART_WIDTH, (double) pixelHeight / CHART_HEIGHT);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.scale(scale, scale);
+            chart.draw(g2, new Rectangle2D.Double(0, 0, pixelWidth / scale, pixelHeight / scale));
+        } finally {
+            g2.dispose();
+        }
+
+        RENDER_LATENCY.recordSince(start);
+        event.finish("in-memory", (long) pixelWidth * pixelHeight * 4);
+        return image;
+    }
+
+    // Width / height the charts are designed for
+    public static double getAspectRatio() {
+        return (double) CHART_WIDTH / CHART_HEIGHT;
+    }
+
+    // --- CHART BUILDERS ---
+
+    public JFreeChart createTrendChart(String title, String xAxis, String yAxis, TimeSeriesCollection dataset) {
+        return createTrendChart(title, xAxis, yAxis, dataset, CHART_WIDTH);
+    }
+
+    /**
+     * Trend chart for an output {@code pixelWidth} wide: longer series are downsampled to about
+     * one point per pixel, so drawing costs the same for a month of data as for ten years.
+     */
+    public JFreeChart createTrendChart(String title, String xAxis, String yAxis, TimeSeriesCollection dataset, int pixelWidth) {
+        TimeSeriesCollection points = TimeSeriesDownsampler.downsample(dataset, Math.max(pixelWidth, MIN_TREND_POINTS));
         JFreeChart chart = ChartFactory.createTimeSeriesChart(
                 title, xAxis, yAxis,
-                dataset, true, true, false
+                points, true, true, false
         );
 
         // Apply visual improvements
@@ -50,30 +131,29 @@ public class ChartService {
         plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
 
         XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer) plot.getRenderer();
-        for (int i = 0; i < dataset.getSeriesCount(); i++) {
+        for (int i = 0; i < points.getSeriesCount(); i++) {
+            // Markers and thick lines only while the points are far enough apart to tell apart
+            boolean sparse = points.getSeries(i).getItemCount() <= MAX_MARKED_POINTS;
             renderer.setSeriesPaint(i, SERIES_COLORS[i % SERIES_COLORS.length]);
-            // Thicker lines for high resolution
-            renderer.setSeriesStroke(i, new BasicStroke(5.0f));
-            renderer.setSeriesShapesVisible(i, true);
+            renderer.setSeriesStroke(i, new BasicStroke(sparse ? 5.0f : 2.5f));
+            renderer.setSeriesShapesVisible(i, sparse);
             renderer.setSeriesShapesFilled(i, true);
         }
 
+        // The axis picks the finest unit whose labels do not overlap, from days up to years
         DateAxis domainAxis = (DateAxis) plot.getDomainAxis();
-        domainAxis.setDateFormatOverride(new SimpleDateFormat("MMM dd"));
-        domainAxis.setTickUnit(new DateTickUnit(DateTickUnitType.DAY, 1));
+        domainAxis.setStandardTickUnits(createDateTickUnits());
+        domainAxis.setAutoTickUnitSelection(true);
 
         // Font scaling for axis
         domainAxis.setTickLabelFont(new Font("SansSerif", Font.PLAIN, 18));
         domainAxis.setLabelFont(new Font("SansSerif", Font.BOLD, 20));
         plot.getRangeAxis().setTickLabelFont(new Font("SansSerif", Font.PLAIN, 18));
         plot.getRangeAxis().setLabelFont(new Font("SansSerif", Font.BOLD, 20));
-
-        File file = new File(filepath);
-        ChartUtils.saveChartAsPNG(file, chart, CHART_WIDTH, CHART_HEIGHT);
-        return file;
+        return chart;
     }
 
-    public File generateBarChart(String title, String xAxis, String yAxis, DefaultCategoryDataset dataset, String filepath) throws IOException {
+    public JFreeChart createBarChart(String title, String xAxis, String yAxis, DefaultCategoryDataset dataset) {
         JFreeChart chart = ChartFactory.createBarChart(
                 title, xAxis, yAxis,
                 dataset, PlotOrientation.VERTICAL, true, true, false
@@ -94,13 +174,10 @@ public class ChartService {
         BarRenderer renderer = (BarRenderer) plot.getRenderer();
         renderer.setSeriesPaint(0, new Color(52, 152, 219)); // Blue bars
         renderer.setDrawBarOutline(false);
-
-        File file = new File(filepath);
-        ChartUtils.saveChartAsPNG(file, chart, CHART_WIDTH, CHART_HEIGHT);
-        return file;
+        return chart;
     }
 
-    public File generatePieChart(String title, DefaultCategoryDataset categoryDataset, String filepath) throws IOException {
+    public JFreeChart createPieChart(String title, DefaultCategoryDataset categoryDataset) {
         DefaultPieDataset pieDataset = new DefaultPieDataset();
         for (int i = 0; i < categoryDataset.getColumnCount(); i++) {
             Comparable key = categoryDataset.getColumnKey(i);
@@ -128,12 +205,30 @@ public class ChartService {
         for (int i = 0; i < pieDataset.getItemCount(); i++) {
             plot.setSectionPaint(pieDataset.getKey(i), SERIES_COLORS[i % SERIES_COLORS.length]);
         }
+        return chart;
+    }
 
-        File file = new File(filepath);
+    // Rendering and PNG encoding happen together inside saveChartAsPNG
+    private void savePng(File file, JFreeChart chart) throws IOException {
+        ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.CHART, (String) null);
+        long start = System.nanoTime();
         ChartUtils.saveChartAsPNG(file, chart, CHART_WIDTH, CHART_HEIGHT);
-        return file;
+        RENDER_LATENCY.recordSince(start);
+        event.finish(file.getName(), file.length());
     }
 
+    // Per chart: the formats are not safe to share between charts drawn on different threads
+    private static TickUnits createDateTickUnits() {
+        SimpleDateFormat days = new SimpleDateFormat("MMM dd");
+        SimpleDateFormat months = new SimpleDateFormat("MMM yyyy");
+        SimpleDateFormat years = new SimpleDateFormat("yyyy");
+
+        TickUnits units = new TickUnits();
+        for (int n : new int[]{1, 2, 7, 14}) units.add(new DateTickUnit(DateTickUnitType.DAY, n, days));
+        for (int n : new int[]{1, 3, 6}) units.add(new DateTickUnit(DateTickUnitType.MONTH, n, months));
+        for (int n : new int[]{1, 2, 5, 10}) units.add(new DateTickUnit(DateTickUnitType.YEAR, n, years));
+        return units;
+    }
 
     private void applyTheme(JFreeChart chart) {
         chart.setAntiAlias(true);
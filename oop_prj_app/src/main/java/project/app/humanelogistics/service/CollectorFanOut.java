@@ -0,0 +1,176 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.metrics.ItemStageEvent;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.preprocessing.DataCollector;
+import project.app.humanelogistics.preprocessing.UrlCanonicalizer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs every registered collector at the same time and merges their output into one
+ * de-duplicated stream. Each collector has its own timeout, counted from when it starts running;
+ * one that fails or runs past it is cancelled and logged, and the results of the others are
+ * still delivered.
+ */
+public class CollectorFanOut {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final UrlCanonicalizer canonicalizer;
+
+    public CollectorFanOut(ExecutorService executor, Duration timeout, UrlCanonicalizer canonicalizer) {
+        this.executor = executor;
+        this.timeout = timeout;
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * Each collector's items are handed to {@code sink} on the calling thread as soon as it
+     * finishes, in completion order, with their canonical URL already set. The collectors keep
+     * running meanwhile: time the sink takes (e.g. waiting for room in a bounded queue) never
+     * counts against a collector's timeout, it only delays noticing that one is overdue.
+     * Returns the number delivered.
+     */
+    public int collectAll(List<DataCollector> collectors, String topic, String startDate, String endDate,
+                          int limit, Consumer<Media> sink) {
+        return collectAll(collectors, topic, null, startDate, endDate, limit, sink);
+    }
+
+    /** As above, asking collectors that can for only what was published after {@code since} (null: everything). */
+    public int collectAll(List<DataCollector> collectors, String topic, Date since, String startDate, String endDate,
+                          int limit, Consumer<Media> sink) {
+        CompletionService<List<Media>> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<List<Media>>, Run> pending = new HashMap<>();
+
+        for (DataCollector collector : collectors) {
+            Run run = new Run(collector.getClass().getSimpleName());
+            Future<List<Media>> future = completion.submit(() -> {
+                ItemStageEvent event = ItemStageEvent.begin(ItemStageEvent.SCRAPE, topic);
+                List<Media> items = Collections.emptyList();
+                try {
+                    run.startedAt = System.nanoTime();
+                    items = collector.collectSince(topic, since, startDate, endDate, limit);
+                    return items;
+                } finally {
+                    event.finish(run.name, items.size()); // Items found; an empty result also covers failures
+                }
+            });
+            pending.put(future, run);
+        }
+
+        Delivery delivery = new Delivery(sink);
+        try {
+            while (!pending.isEmpty()) {
+                Future<List<Media>> done = completion.poll(nextDeadline(pending.values()), TimeUnit.NANOSECONDS);
+                if (done != null) {
+                    Run run = pending.remove(done);
+                    if (run != null) finish(run, done, delivery);
+                }
+                cancelOverdue(pending, delivery);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Map.Entry<Future<List<Media>>, Run> entry : pending.entrySet()) {
+                entry.getKey().cancel(true);
+                System.err.println("[" + entry.getValue().name + "] Collector interrupted, skipped.");
+            }
+        }
+        return delivery.delivered;
+    }
+
+    // Nanoseconds until the first running collector is due; queued ones get a full timeout each
+    private long nextDeadline(Collection<Run> runs) {
+        long now = System.nanoTime();
+        long wait = timeout.toNanos();
+        for (Run run : runs) {
+            if (run.startedAt != 0) wait = Math.min(wait, run.startedAt + timeout.toNanos() - now);
+        }
+        return Math.max(0, wait);
+    }
+
+    // A collector that completed meanwhile keeps its result, even if it is past its time
+    private void cancelOverdue(Map<Future<List<Media>>, Run> pending, Delivery delivery) {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Future<List<Media>>, Run>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Future<List<Media>>, Run> entry = it.next();
+            Future<List<Media>> future = entry.getKey();
+            Run run = entry.getValue();
+            if (future.isDone()) {
+                it.remove();
+                finish(run, future, delivery);
+            } else if (run.startedAt != 0 && now - run.startedAt >= timeout.toNanos()) {
+                it.remove();
+                future.cancel(true);
+                System.err.println("[" + run.name + "] Collector timed out after " + timeout.toSeconds() + "s, skipped.");
+            }
+        }
+    }
+
+    private void finish(Run run, Future<List<Media>> done, Delivery delivery) {
+        try {
+            List<Media> items = done.get();
+            int unique = 0;
+            for (Media item : items) {
+                if (markSeen(item, delivery.seen)) {
+                    delivery.sink.accept(item);
+                    unique++;
+                }
+            }
+            delivery.delivered += unique;
+            System.out.println("[" + run.name + "] " + items.size() + " items (" + unique + " new)");
+        } catch (ExecutionException e) {
+            System.err.println("[" + run.name + "] Collector failed: " + e.getCause());
+        } catch (CancellationException e) {
+            System.err.println("[" + run.name + "] Collector cancelled, skipped.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Same article from another collector (or another day) is dropped
+    private boolean markSeen(Media item, Set<String> seen) {
+        String canonical = canonicalizer.canonicalize(item.getUrl());
+        item.setCanonicalUrl(canonical);
+        String key = !canonical.isEmpty() ? canonical : "content:" + item.getContent();
+        return seen.add(key);
+    }
+
+    private static final class Run {
+        final String name;
+        volatile long startedAt; // 0 while queued
+
+        Run(String name) {
+            this.name = name;
+        }
+    }
+
+    // What has been handed on so far; used on the calling thread only
+    private static final class Delivery {
+        final Consumer<Media> sink;
+        final Set<String> seen = new HashSet<>();
+        int delivered;
+
+        Delivery(Consumer<Media> sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.preprocessing.ArticleExtractor;
+import project.app.humanelogistics.preprocessing.ExtractedArticle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ContentFetchService {
+
+    private static final String USER_AGENT = "Mozilla/5.0";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5); // Per page: connect, headers and body together
+
+    // Download and extraction together, per page
+    private static final LatencyHistogram FETCH_LATENCY = Metrics.histogram("http.fetch");
+    private static final Counter FETCH_FAILURES = Metrics.counter("http.fetch.failures");
+
+    // Closes bodies still being read at their deadline; the request timeout only covers the headers
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "fetch-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final HttpClient httpClient;
+    private final ArticleExtractor extractor;
+
+    public ContentFetchService() {
+        this(new ArticleExtractor());
+    }
+
+    public ContentFetchService(ArticleExtractor extractor) {
+        this.extractor = extractor;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Downloads the page and streams it through the extractor.
+     * Returns null if the page could not be fetched or is not HTML.
+     */
+    public ExtractedArticle fetchArticle(String url) {
+        if (url == null || url.isEmpty() || !url.startsWith("http")) return null;
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("User-Agent", USER_AGENT)
+                    .timeout(TIMEOUT)
+                    .GET()
+                    .build();
+
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long left = TIMEOUT.toNanos() - (System.nanoTime() - start);
+            try (InputStream body = response.body()) {
+                // A slow body fails the read once the page's time is up instead of holding the worker
+                ScheduledFuture<?> deadline = DEADLINES.schedule(() -> closeQuietly(body), Math.max(0, left), TimeUnit.NANOSECONDS);
+                try {
+                    return read(response, body);
+                } finally {
+                    deadline.cancel(false);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            FETCH_FAILURES.increment();
+            return null;
+        } finally {
+            FETCH_LATENCY.recordSince(start);
+        }
+    }
+
+    private ExtractedArticle read(HttpResponse<InputStream> response, InputStream body) throws Exception {
+        String contentType = response.headers().firstValue("Content-Type").orElse("text/html");
+        if (response.statusCode() != 200 || !contentType.toLowerCase(Locale.ROOT).contains("html")) {
+            FETCH_FAILURES.increment();
+            return null;
+        }
+        return extractor.extract(body, charsetOf(contentType));
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {}
+    }
+
+    // Convenience for callers that only need the body text ("" on failure)
+    public String fetchContent(String url) {
+        ExtractedArticle article = fetchArticle(url);
+        return article != null && article.hasText() ? article.getText() : "";
+    }
+
+    private Charset charsetOf(String contentType) {
+        int idx = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (idx < 0) return StandardCharsets.UTF_8;
+        String name = contentType.substring(idx + 8).split(";")[0].replace("\"", "").trim();
+        try {
+            return Charset.forName(name);
+        } catch (Exception e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
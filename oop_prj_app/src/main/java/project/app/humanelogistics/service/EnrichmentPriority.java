@@ -0,0 +1,85 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides when a backlog item is due for analysis.
+ *
+ * Each item gets a score in [0, 1] from how recent the article is, how much its source is
+ * trusted and how much text it has. The score turns into a due time: the best items are due
+ * as soon as they are queued, the worst up to {@link #MAX_WAIT} later. The queue is worked in
+ * due-time order, so an old low-score item eventually outranks newer ones (aging) and nothing
+ * starves.
+ */
+public class EnrichmentPriority {
+
+    public static final Duration MAX_WAIT = Duration.ofHours(12);
+
+    private static final double RECENCY_WEIGHT = 0.5;
+    private static final double SOURCE_WEIGHT = 0.3;
+    private static final double LENGTH_WEIGHT = 0.2;
+
+    private static final double RECENCY_HALF_LIFE_HOURS = 48;
+    private static final int FULL_LENGTH_CHARS = 4000;
+    private static final double DEFAULT_SOURCE_WEIGHT = 0.5;
+
+    // Keys are lower-case source names as the collectors report them
+    private final Map<String, Double> sourceWeights = new HashMap<>();
+
+    // Built-in weights for the usual disaster-news outlets; setSourceWeight adds or overrides (SOURCE_WEIGHTS)
+    public EnrichmentPriority() {
+        sourceWeights.put("reuters", 1.0);
+        sourceWeights.put("associated press", 1.0);
+        sourceWeights.put("ap news", 1.0);
+        sourceWeights.put("vnexpress", 0.9);
+        sourceWeights.put("vnexpress international", 0.9);
+        sourceWeights.put("bbc", 0.9);
+        sourceWeights.put("tuoi tre news", 0.8);
+        sourceWeights.put("vietnamnet", 0.8);
+        sourceWeights.put("the guardian", 0.8);
+        sourceWeights.put("cnn", 0.8);
+        sourceWeights.put("al jazeera", 0.8);
+    }
+
+    public void setSourceWeight(String source, double weight) {
+        sourceWeights.put(source.toLowerCase(Locale.ROOT), Math.max(0.0, Math.min(1.0, weight)));
+    }
+
+    public double score(Media item, long nowMillis) {
+        return RECENCY_WEIGHT * recency(item, nowMillis)
+                + SOURCE_WEIGHT * sourceWeight(item)
+                + LENGTH_WEIGHT * length(item);
+    }
+
+    public Date dueAt(Media item, Date queuedAt) {
+        double score = score(item, queuedAt.getTime());
+        return new Date(queuedAt.getTime() + (long) ((1.0 - score) * MAX_WAIT.toMillis()));
+    }
+
+    // Halves every RECENCY_HALF_LIFE_HOURS of article age; undated items count as old
+    private double recency(Media item, long nowMillis) {
+        if (item.getTimestamp() == null) return 0.0;
+        double ageHours = Math.max(0, nowMillis - item.getTimestamp().getTime()) / 3_600_000.0;
+        return Math.pow(0.5, ageHours / RECENCY_HALF_LIFE_HOURS);
+    }
+
+    private double sourceWeight(Media item) {
+        if (!(item instanceof News)) return DEFAULT_SOURCE_WEIGHT;
+        String source = ((News) item).getSource();
+        if (source == null || source.isBlank()) return DEFAULT_SOURCE_WEIGHT;
+        return sourceWeights.getOrDefault(source.trim().toLowerCase(Locale.ROOT), DEFAULT_SOURCE_WEIGHT);
+    }
+
+    // Log-scaled: the first few hundred characters matter most
+    private double length(Media item) {
+        int chars = item.getContent() == null ? 0 : item.getContent().length();
+        return Math.min(1.0, Math.log1p(chars) / Math.log1p(FULL_LENGTH_CHARS));
+    }
+}
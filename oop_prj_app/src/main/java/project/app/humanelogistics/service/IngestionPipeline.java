@@ -0,0 +1,75 @@
+package project.app.humanelogistics.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A chain of {@link PipelineStage}s that run concurrently, each with its own workers.
+ * Stages are drained front to back on shutdown so no queued item is lost.
+ */
+public class IngestionPipeline {
+
+    private static final long REPORT_INTERVAL_SECONDS = 5;
+
+    private final String name;
+    private final List<PipelineStage<?, ?>> stages = new ArrayList<>();
+    private ScheduledExecutorService reporter;
+
+    public IngestionPipeline(String name) {
+        this.name = name;
+    }
+
+    /** Stages must be added in flow order. */
+    public <I, O> PipelineStage<I, O> addStage(PipelineStage<I, O> stage) {
+        stage.bind(name.trim().replaceAll("\\s+", "-"));
+        stages.add(stage);
+        return stage;
+    }
+
+    public void start() {
+        for (PipelineStage<?, ?> stage : stages) stage.start();
+
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pipeline-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> System.out.println(status()),
+                REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Graceful shutdown: closes each stage once everything upstream of it has finished, so
+     * all submitted items pass through to the end.
+     */
+    public void drain() {
+        try {
+            for (PipelineStage<?, ?> stage : stages) {
+                stage.close();
+                stage.awaitTermination();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
+        } finally {
+            if (reporter != null) reporter.shutdownNow();
+            System.out.println(status());
+        }
+    }
+
+    /** Immediate shutdown: queued items are dropped. */
+    public void abort() {
+        for (PipelineStage<?, ?> stage : stages) stage.abort();
+        if (reporter != null) reporter.shutdownNow();
+    }
+
+    public String status() {
+        StringJoiner joiner = new StringJoiner(" -> ", "[" + name + "] ", "");
+        for (PipelineStage<?, ?> stage : stages) joiner.add(stage.status());
+        return joiner.toString();
+    }
+}
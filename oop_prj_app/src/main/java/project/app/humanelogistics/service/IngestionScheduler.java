@@ -0,0 +1,219 @@
+package project.app.humanelogistics.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs collection and backlog analysis for many topics on one shared pool of workers.
+ *
+ * Jobs wait in a priority queue: collection of fresh items always goes before backlog
+ * analysis, and within a lane the topic that has used the least worker time goes first
+ * (fair share). Backlog analysis runs in small chunks so one large topic cannot hold a
+ * worker for hours.
+ */
+public class IngestionScheduler {
+
+    private static final int BACKLOG_CHUNK = 20;
+    private static final Duration IDLE_BACKLOG_RECHECK = Duration.ofMinutes(5);
+    // Feeds are polled from a little before the last run: items can show up after their publication time
+    private static final Duration POLL_OVERLAP = Duration.ofHours(1);
+
+    // Declaration order is priority order
+    private enum Lane { FRESH, BACKLOG }
+
+    private final AnalysisService analysisService;
+    private final List<TopicState> topics = new ArrayList<>();
+    private final int workerCount;
+
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "scheduler-ticker");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean running;
+
+    public IngestionScheduler(AnalysisService analysisService, List<TopicSchedule> schedules, int workerCount) {
+        this.analysisService = analysisService;
+        this.workerCount = workerCount;
+        for (TopicSchedule schedule : schedules) topics.add(new TopicState(schedule));
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+
+        for (TopicState topic : topics) {
+            long refreshMillis = topic.schedule.getRefreshInterval().toMillis();
+            ticker.scheduleAtFixedRate(() -> enqueueCollect(topic), 0, refreshMillis, TimeUnit.MILLISECONDS);
+            enqueueBacklog(topic);
+        }
+        for (int i = 0; i < workerCount; i++) {
+            Thread t = new Thread(this::runWorker, "scheduler-worker-" + i);
+            workers.add(t);
+            t.start();
+        }
+        System.out.println("Scheduler started: " + topics.size() + " topics, " + workerCount + " workers.");
+    }
+
+    /**
+     * Stops taking new jobs and lets running ones finish (flushing their writes) for up to
+     * {@code grace}; workers still busy after that are interrupted.
+     */
+    public void shutdown(Duration grace) {
+        synchronized (this) {
+            if (!running) return;
+            running = false;
+        }
+        System.out.println("Scheduler stopping, waiting up to " + grace.toSeconds() + "s for running jobs...");
+        ticker.shutdownNow();
+        queue.clear();
+
+        long deadline = System.nanoTime() + grace.toNanos();
+        try {
+            for (Thread worker : workers) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis > 0) worker.join(remainingMillis);
+                if (worker.isAlive()) worker.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("Scheduler stopped.");
+    }
+
+    /** Blocks until all workers have exited. */
+    public void awaitTermination() throws InterruptedException {
+        for (Thread worker : workers) worker.join();
+    }
+
+    // --- JOBS ---
+
+    private void enqueueCollect(TopicState topic) {
+        if (!running) return;
+        // A fixed window that has passed is collected once, then only its backlog is worked on
+        if (topic.lastCollected != null && !topic.schedule.isLive(LocalDate.now())) return;
+        if (!topic.collectQueued.compareAndSet(false, true)) return; // Previous run still pending
+        queue.add(new Job(Lane.FRESH, topic, () -> collect(topic)));
+    }
+
+    private void enqueueBacklog(TopicState topic) {
+        if (!running) return;
+        if (!topic.backlogQueued.compareAndSet(false, true)) return;
+        queue.add(new Job(Lane.BACKLOG, topic, () -> analyzeBacklog(topic)));
+    }
+
+    private void collect(TopicState topic) {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate end = topic.schedule.resolveEndDate(today);
+            // After the first full run only re-scan from the day before the last one
+            LocalDate start = topic.schedule.getStartDate();
+            if (topic.lastCollected != null && topic.lastCollected.minusDays(1).isAfter(start)) {
+                start = topic.lastCollected.minusDays(1);
+            }
+            if (start.isAfter(end)) return;
+
+            // Fresh items are analyzed straight away instead of joining the backlog
+            Date runStart = new Date();
+            Date since = topic.lastRunStart != null
+                    ? new Date(topic.lastRunStart.getTime() - POLL_OVERLAP.toMillis()) : null;
+            analysisService.processNewData(topic.schedule.getTopic(), since,
+                    start.format(TopicSchedule.DATE_FORMAT), end.format(TopicSchedule.DATE_FORMAT), true);
+            topic.lastCollected = end;
+            topic.lastRunStart = runStart;
+        } finally {
+            topic.collectQueued.set(false);
+        }
+    }
+
+    private void analyzeBacklog(TopicState topic) {
+        int processed = 0;
+        try {
+            processed = analysisService.processExistingData(topic.schedule.getTopic(), BACKLOG_CHUNK);
+        } finally {
+            topic.backlogQueued.set(false);
+        }
+
+        if (processed > 0) {
+            enqueueBacklog(topic); // Re-queue behind fresh work and lighter topics
+        } else if (running) {
+            try {
+                ticker.schedule(() -> enqueueBacklog(topic), IDLE_BACKLOG_RECHECK.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Shut down since the check above; nothing left to recheck for
+            }
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            Job job;
+            try {
+                job = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (job == null) continue;
+
+            long start = System.nanoTime();
+            try {
+                job.work.run();
+            } catch (Exception e) {
+                System.err.println("[" + job.topic.schedule.getTopic() + "] " + job.lane + " job failed: " + e.getMessage());
+            } finally {
+                job.topic.usedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // --- HELPER TYPES ---
+
+    private static final class TopicState {
+        final TopicSchedule schedule;
+        final AtomicLong usedNanos = new AtomicLong(); // Worker time consumed, for fair share
+        final AtomicBoolean collectQueued = new AtomicBoolean();
+        final AtomicBoolean backlogQueued = new AtomicBoolean();
+        volatile LocalDate lastCollected;
+        volatile Date lastRunStart; // Of the last completed collection, for feeds that can poll
+
+        TopicState(TopicSchedule schedule) {
+            this.schedule = schedule;
+        }
+    }
+
+    private final class Job implements Comparable<Job> {
+        final Lane lane;
+        final TopicState topic;
+        final long usedAtEnqueue;
+        final long seq;
+        final Runnable work;
+
+        Job(Lane lane, TopicState topic, Runnable work) {
+            this.lane = lane;
+            this.topic = topic;
+            this.usedAtEnqueue = topic.usedNanos.get();
+            this.seq = sequence.incrementAndGet();
+            this.work = work;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (lane != other.lane) return lane.compareTo(other.lane);
+            if (usedAtEnqueue != other.usedAtEnqueue) return Long.compare(usedAtEnqueue, other.usedAtEnqueue);
+            return Long.compare(seq, other.seq);
+        }
+    }
+}
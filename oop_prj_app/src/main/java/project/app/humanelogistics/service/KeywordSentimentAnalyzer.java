@@ -1,7 +1,16 @@
 package project.app.humanelogistics.service;
 
+import project.app.humanelogistics.model.AnalysisVersion;
+
 public class KeywordSentimentAnalyzer implements SentimentAnalyzer {
 
+    private static final AnalysisVersion VERSION = new AnalysisVersion(1, "keywords");
+
+    @Override
+    public AnalysisVersion getAnalysisVersion() {
+        return VERSION;
+    }
+
     @Override
     public SentimentType analyze(String text) {
         if (text == null || text.isEmpty()) return SentimentType.NEUTRAL;
@@ -0,0 +1,208 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.db.MediaRepository;
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.DashboardTotals;
+import project.app.humanelogistics.model.MediaChange;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the dashboard figures of a topic current without re-running the aggregates: each
+ * repository is aggregated once, then every change to it is applied as a delta. Listeners get a
+ * snapshot at most once per frame, and only if something changed.
+ *
+ * A repository whose changes cannot all be applied (RESYNC) is aggregated again, at most once
+ * per {@link #RESYNC_INTERVAL_MILLIS}. So is one without a change stream, whose watch only sees
+ * this process's writes: there the figures are re-aggregated every interval.
+ */
+public class LiveDashboard implements AutoCloseable {
+
+    private static final long RESYNC_INTERVAL_MILLIS = 5_000;
+
+    private static final Counter APPLIED = Metrics.counter("live.changes.applied");
+    private static final Counter RESYNCS = Metrics.counter("live.resyncs");
+
+    private final String topic;
+    private final List<Source> sources = new ArrayList<>();
+    private final Consumer<Snapshot> onFrame;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final ScheduledExecutorService frames = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "live-dashboard");
+        t.setDaemon(true);
+        return t;
+    });
+
+    LiveDashboard(String topic, Map<String, MediaRepository> repositories, Consumer<Snapshot> onFrame) {
+        this.topic = topic;
+        this.onFrame = onFrame;
+        repositories.forEach((label, repo) -> sources.add(new Source(label, repo)));
+    }
+
+    // Subscribes before aggregating, so nothing written in between is missed
+    void start(long frameMillis) {
+        try {
+            for (Source source : sources) {
+                source.watch = source.repo.watchChanges(topic, source::onChange);
+                source.seed();
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        frames.scheduleWithFixedDelay(this::frame, 0, frameMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        frames.shutdownNow();
+        for (Source source : sources) {
+            try {
+                if (source.watch != null) source.watch.close();
+            } catch (Exception ignored) {}
+        }
+    }
+
+    // Runs on the frame thread; an exception here would stop all further frames
+    private void frame() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Source source : sources) {
+                boolean incomplete = source.watch != null && !source.watch.isComplete();
+                if ((source.stale || incomplete) && now - source.lastSeeded >= RESYNC_INTERVAL_MILLIS) {
+                    if (source.stale) RESYNCS.increment();
+                    source.seed();
+                }
+            }
+            if (dirty.getAndSet(false)) onFrame.accept(snapshot());
+        } catch (Exception e) {
+            System.err.println("Live dashboard: " + e.getMessage());
+        }
+    }
+
+    // Combines the repositories the way AnalysisService does
+    private Snapshot snapshot() {
+        long total = 0;
+        double sentimentSum = 0;
+        int sentimentSources = 0;
+        Map<String, Integer> damage = new HashMap<>();
+        Map<String, Map<LocalDate, Double>> trends = new LinkedHashMap<>();
+        boolean complete = true;
+
+        for (Source source : sources) {
+            complete &= source.watch != null && source.watch.isComplete();
+            DashboardTotals totals = source.totals;
+            if (totals == null) continue;
+            total += totals.getTotal();
+            double average = totals.getAverageSentiment();
+            if (average != 0.0) {
+                sentimentSum += average;
+                sentimentSources++;
+            }
+            totals.getDamageDistribution().forEach((category, count) -> damage.merge(category, count, Integer::sum));
+            trends.put(source.label, totals.getDailySentiment());
+        }
+        return new Snapshot(total, sentimentSources == 0 ? 0.0 : sentimentSum / sentimentSources,
+                damage, trends, complete);
+    }
+
+    private final class Source {
+        final String label;
+        final MediaRepository repo;
+        volatile MediaRepository.ChangeWatch watch;
+
+        volatile DashboardTotals totals;
+        volatile boolean stale;
+        volatile long lastSeeded;
+        private List<MediaChange> pending = new ArrayList<>(); // Changes that arrive while aggregating, null otherwise
+
+        Source(String label, MediaRepository repo) {
+            this.label = label;
+            this.repo = repo;
+        }
+
+        synchronized void onChange(MediaChange change) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                apply(totals, change);
+            }
+        }
+
+        void seed() {
+            synchronized (this) {
+                if (pending == null) pending = new ArrayList<>();
+            }
+            lastSeeded = System.currentTimeMillis();
+            DashboardTotals fresh;
+            try {
+                fresh = repo.getDashboardTotals(topic);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    // Keep the old figures and try again later
+                    for (MediaChange change : pending) apply(totals, change);
+                    pending = null;
+                }
+                stale = true;
+                throw e;
+            }
+
+            synchronized (this) {
+                stale = false;
+                // Changes the aggregation already saw (by cluster time) are skipped by the totals
+                for (MediaChange change : pending) {
+                    if (change.getKind() != MediaChange.Kind.RESYNC) apply(fresh, change);
+                }
+                pending = null;
+                totals = fresh;
+            }
+            dirty.set(true);
+        }
+
+        private void apply(DashboardTotals target, MediaChange change) {
+            if (target != null && target.apply(change)) {
+                APPLIED.increment();
+                dirty.set(true);
+            } else {
+                stale = true;
+            }
+        }
+    }
+
+    /** The combined figures at one moment. */
+    public static final class Snapshot {
+        private final long totalPosts;
+        private final double overallSentiment;
+        private final Map<String, Integer> damageStats;
+        private final Map<String, Map<LocalDate, Double>> sentimentTrends;
+        private final boolean complete;
+
+        Snapshot(long totalPosts, double overallSentiment, Map<String, Integer> damageStats,
+                 Map<String, Map<LocalDate, Double>> sentimentTrends, boolean complete) {
+            this.totalPosts = totalPosts;
+            this.overallSentiment = overallSentiment;
+            this.damageStats = damageStats;
+            this.sentimentTrends = sentimentTrends;
+            this.complete = complete;
+        }
+
+        public long getTotalPosts() { return totalPosts; }
+        public double getOverallSentiment() { return overallSentiment; }
+        public Map<String, Integer> getDamageStats() { return damageStats; }
+        public Map<String, Map<LocalDate, Double>> getSentimentTrends() { return sentimentTrends; }
+        // True if every repository follows a change stream; otherwise the figures may be up to a resync interval old
+        public boolean isComplete() { return complete; }
+    }
+}
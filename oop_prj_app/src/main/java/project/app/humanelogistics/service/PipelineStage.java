@@ -0,0 +1,170 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.metrics.LatencyHistogram;
+import project.app.humanelogistics.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * One stage of an {@link IngestionPipeline}: a bounded input queue served by its own workers.
+ *
+ * {@link #submit} blocks while the queue is full, so a slow stage holds back the stages that
+ * feed it instead of letting work pile up in memory.
+ */
+public class PipelineStage<I, O> {
+
+    @FunctionalInterface
+    public interface Worker<I, O> {
+        // Call emit zero or more times to pass results to the next stage
+        void process(I item, Consumer<O> emit) throws Exception;
+    }
+
+    private final String name;
+    private final int workerCount;
+    private final BlockingQueue<I> queue;
+    private final Worker<I, O> worker;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final DoubleSupplier queueGauge;
+    private String metricName;
+    private LatencyHistogram itemLatency;
+
+    private volatile Consumer<O> downstream = result -> {};
+    private volatile boolean closed;
+    private volatile long startedAt;
+
+    public PipelineStage(String name, int workerCount, int capacity, Worker<I, O> worker) {
+        this.name = name;
+        this.workerCount = workerCount;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = worker;
+        this.queueGauge = queue::size;
+    }
+
+    /** Connects this stage's output to the next stage and returns the next stage. */
+    public <N> PipelineStage<O, N> then(PipelineStage<O, N> next) {
+        this.downstream = next::submit;
+        return next;
+    }
+
+    /** Sends this stage's output somewhere other than a stage (e.g. a counter or a list). */
+    public void into(Consumer<O> sink) {
+        this.downstream = sink;
+    }
+
+    /** Queues an item, blocking while the stage is at capacity (backpressure). */
+    public void submit(I item) {
+        if (closed) throw new IllegalStateException("Stage '" + name + "' is closed");
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing for stage '" + name + "'", e);
+        }
+    }
+
+    // Metrics are per pipeline, so pipelines of different topics running at once stay apart
+    void bind(String pipeline) {
+        this.metricName = "pipeline." + pipeline + "." + name;
+        this.itemLatency = Metrics.histogram(metricName);
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        Metrics.gauge(metricName + ".queue", queueGauge);
+        for (int i = 0; i < workerCount; i++) {
+            Thread t = new Thread(this::runWorker, "stage-" + name + "-" + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+    }
+
+    /** No more input will arrive; workers exit once the queue is drained. */
+    void close() {
+        closed = true;
+    }
+
+    void awaitTermination() throws InterruptedException {
+        for (Thread t : threads) t.join();
+        Metrics.removeGauge(metricName + ".queue", queueGauge);
+    }
+
+    void abort() {
+        closed = true;
+        queue.clear();
+        for (Thread t : threads) t.interrupt();
+        Metrics.removeGauge(metricName + ".queue", queueGauge);
+    }
+
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            I item;
+            try {
+                item = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (item == null) {
+                if (closed && queue.isEmpty()) break;
+                continue;
+            }
+
+            // Time spent waiting for room downstream is backpressure, not this stage's work
+            long[] blocked = new long[1];
+            Consumer<O> next = downstream;
+            long start = System.nanoTime();
+            try {
+                worker.process(item, result -> {
+                    long emitStart = System.nanoTime();
+                    try {
+                        next.accept(result);
+                    } finally {
+                        blocked[0] += System.nanoTime() - emitStart;
+                    }
+                });
+                processed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                System.err.println("[" + name + "] Failed: " + e.getMessage());
+            } finally {
+                long elapsed = System.nanoTime() - start - blocked[0];
+                busyNanos.addAndGet(elapsed);
+                itemLatency.recordNanos(elapsed);
+            }
+        }
+    }
+
+    // --- STATS ---
+
+    public String getName() { return name; }
+    public int getQueueDepth() { return queue.size(); }
+    public long getProcessed() { return processed.get(); }
+    public long getFailed() { return failed.get(); }
+
+    public double getThroughputPerSecond() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        return seconds <= 0 ? 0.0 : processed.get() / seconds;
+    }
+
+    // Share of worker time spent processing, 1.0 = every worker busy all the time
+    public double getUtilization() {
+        double elapsed = (System.nanoTime() - startedAt) * (double) workerCount;
+        return elapsed <= 0 ? 0.0 : Math.min(1.0, busyNanos.get() / elapsed);
+    }
+
+    public String status() {
+        return String.format("%s[queue=%d, done=%d, failed=%d, %.1f/s, busy=%.0f%%]",
+                name, getQueueDepth(), getProcessed(), getFailed(), getThroughputPerSecond(), getUtilization() * 100);
+    }
+}
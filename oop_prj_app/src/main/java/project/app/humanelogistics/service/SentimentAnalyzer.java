@@ -1,8 +1,16 @@
 package project.app.humanelogistics.service;
 
+import project.app.humanelogistics.model.AnalysisVersion;
+
 public interface SentimentAnalyzer {
     enum SentimentType { POSITIVE, NEGATIVE, NEUTRAL }
 
     SentimentType analyze(String text);
+
+    // Throws IllegalStateException when no score could be obtained (no key, API error, unreadable
+    // reply): 0.0 is a real, neutral result and must not stand for a failure
     double analyzeScore(String text);
+
+    // Stored with every score; must change whenever the prompt or model changes
+    AnalysisVersion getAnalysisVersion();
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.Metrics;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.SurgeAlert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches analyzed items as they come out of enrichment and raises an alert when a topic
+ * suddenly gets far more reports of a damage category than usual, or its sentiment shifts.
+ * Works from the items alone, never the database, in a fixed amount of memory per series.
+ *
+ * Only fresh items are judged: an item published longer than {@code maxAge} ago (a collector
+ * catching up on past dates) describes the past, not what is happening now, and is ignored.
+ *
+ * Damage counts: items are counted into buckets of the time they arrive here, and the last
+ * {@code windowBuckets} buckets (a sliding window) are compared with an EWMA baseline of the
+ * buckets before them. Buckets only join the baseline once they leave the window, so a surge
+ * does not raise its own baseline while it is still going on.
+ *
+ * Sentiment: a fast EWMA (the last ~20 items) against a slow one (the last few hundred).
+ *
+ * A series alerts once when it crosses the threshold and again only after it has calmed down
+ * (below half the threshold). Thread-safe.
+ */
+public class SurgeDetector {
+
+    private static final double BASELINE_ALPHA = 0.05;
+    private static final int WARMUP_BUCKETS = 12;        // Baseline buckets needed before counts are judged
+    private static final int MIN_SURGE_COUNT = 5;        // Fewer items in the window are never a surge
+    private static final int MAX_IDLE_STEPS = 100;       // Empty buckets learned after a gap; the rest add nothing
+
+    private static final double FAST_ALPHA = 0.1;
+    private static final double SLOW_ALPHA = 0.005;
+    private static final int SENTIMENT_WARMUP = 100;
+
+    private static final Counter ALERTS = Metrics.counter("surge.alerts");
+    private static final Counter LATE = Metrics.counter("surge.lateItems");
+    private static final Counter STALE = Metrics.counter("surge.staleItems");
+
+    private final long bucketMillis;
+    private final int windowBuckets;
+    private final double threshold;
+    private final long maxAgeMillis;
+    private final Map<String, CountSeries> counts = new ConcurrentHashMap<>();
+    private final Map<String, SentimentSeries> sentiments = new ConcurrentHashMap<>();
+
+    /**
+     * threshold: standard deviations from the expected value that count as significant.
+     * maxAge: items published longer ago than this are ignored.
+     */
+    public SurgeDetector(Duration bucket, int windowBuckets, double threshold, Duration maxAge) {
+        this.bucketMillis = bucket.toMillis();
+        this.windowBuckets = windowBuckets;
+        this.threshold = threshold;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    /**
+     * Feeds one item as it gets its first analysis results, whether on arrival or from the
+     * backlog; each item should be fed once. Returns the alerts it raised, usually none.
+     */
+    public List<SurgeAlert> observe(Media item) {
+        String topic = item.getTopic();
+        if (topic == null) return Collections.emptyList();
+        // Publication times arrive in any order (and only to the day for some sources); arrival time does not
+        long time = System.currentTimeMillis();
+        if (item.getTimestamp() != null && time - item.getTimestamp().getTime() > maxAgeMillis) {
+            STALE.increment();
+            return Collections.emptyList();
+        }
+        List<SurgeAlert> alerts = Collections.emptyList();
+
+        DamageCategory category = item.getDamageType();
+        if (category != null && category != DamageCategory.UNKNOWN) {
+            CountSeries series = counts.computeIfAbsent(topic + '\0' + category.name(), key -> new CountSeries(topic, category));
+            alerts = collect(alerts, series.add(Math.floorDiv(time, bucketMillis)));
+        }
+        if (item.getSentiment() != 0.0) {
+            SentimentSeries series = sentiments.computeIfAbsent(topic, SentimentSeries::new);
+            alerts = collect(alerts, series.add(item.getSentiment(), time));
+        }
+        return alerts;
+    }
+
+    private static List<SurgeAlert> collect(List<SurgeAlert> alerts, SurgeAlert alert) {
+        if (alert == null) return alerts;
+        ALERTS.increment();
+        List<SurgeAlert> more = new ArrayList<>(alerts);
+        more.add(alert);
+        return more;
+    }
+
+    private final class CountSeries {
+        final String topic;
+        final DamageCategory category;
+        final long[] window = new long[windowBuckets]; // Ring of bucket counts, indexed by bucket mod size
+        long bucket = Long.MIN_VALUE;                  // Newest bucket seen
+        long windowSum;
+        double mean;
+        double variance;
+        int learned;
+        boolean alerting;
+
+        CountSeries(String topic, DamageCategory category) {
+            this.topic = topic;
+            this.category = category;
+        }
+
+        synchronized SurgeAlert add(long itemBucket) {
+            if (bucket == Long.MIN_VALUE) bucket = itemBucket;
+            if (itemBucket > bucket) {
+                advance(itemBucket);
+            } else if (bucket - itemBucket >= windowBuckets) {
+                LATE.increment(); // Already part of the baseline
+                return null;
+            }
+            window[(int) Math.floorMod(itemBucket, (long) windowBuckets)]++;
+            windowSum++;
+            return check();
+        }
+
+        // Moves the window forward; each bucket that falls out of it is learned by the baseline
+        private void advance(long to) {
+            long steps = Math.min(to - bucket, windowBuckets + MAX_IDLE_STEPS);
+            for (long i = 0; i < steps; i++) {
+                int slot = (int) Math.floorMod(bucket + 1 + i, (long) windowBuckets);
+                learn(window[slot]);
+                windowSum -= window[slot];
+                window[slot] = 0;
+            }
+            bucket = to;
+        }
+
+        private void learn(long count) {
+            double diff = count - mean;
+            double increment = BASELINE_ALPHA * diff;
+            mean += increment;
+            variance = (1 - BASELINE_ALPHA) * (variance + diff * increment);
+            learned++;
+        }
+
+        private SurgeAlert check() {
+            if (learned < WARMUP_BUCKETS) return null;
+            double expected = windowBuckets * mean;
+            // Counts vary at least as much as a Poisson process; +1 keeps a silent baseline from alerting on one item
+            double sd = Math.sqrt(windowBuckets * Math.max(variance, mean) + 1);
+            double z = (windowSum - expected) / sd;
+
+            if (z < threshold / 2) alerting = false;
+            if (alerting || z < threshold || windowSum < MIN_SURGE_COUNT) return null;
+            alerting = true;
+            return new SurgeAlert(topic, SurgeAlert.Kind.DAMAGE, category,
+                    new Date((bucket - windowBuckets + 1) * bucketMillis), new Date((bucket + 1) * bucketMillis),
+                    windowSum, expected, z, new Date());
+        }
+    }
+
+    private final class SentimentSeries {
+        final String topic;
+        double fast;
+        double slow;
+        double variance; // Of single scores around the slow average
+        long count;
+        long calmSince;  // Time of the last item at which fast and slow agreed
+        boolean alerting;
+
+        SentimentSeries(String topic) {
+            this.topic = topic;
+        }
+
+        synchronized SurgeAlert add(double score, long time) {
+            if (count++ == 0) {
+                fast = slow = score;
+                calmSince = time;
+                return null;
+            }
+            // Plain running means until each average has seen its span, so the first score carries no extra weight
+            fast += Math.max(FAST_ALPHA, 1.0 / count) * (score - fast);
+            double diff = score - slow;
+            double slowAlpha = Math.max(SLOW_ALPHA, 1.0 / count);
+            double increment = slowAlpha * diff;
+            slow += increment;
+            variance = (1 - slowAlpha) * (variance + diff * increment);
+            if (count < SENTIMENT_WARMUP || variance == 0) return null;
+
+            // Standard error of an EWMA with the fast rate
+            double z = (fast - slow) / Math.sqrt(variance * FAST_ALPHA / (2 - FAST_ALPHA));
+            if (Math.abs(z) < threshold / 2) {
+                alerting = false;
+                calmSince = time;
+            }
+            if (alerting || Math.abs(z) < threshold) return null;
+            alerting = true;
+            return new SurgeAlert(topic, SurgeAlert.Kind.SENTIMENT, null, new Date(Math.min(calmSince, time)),
+                    new Date(Math.max(calmSince, time)), fast, slow, z, new Date());
+        }
+    }
+}
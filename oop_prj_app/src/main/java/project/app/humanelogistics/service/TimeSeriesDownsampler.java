@@ -0,0 +1,113 @@
+package project.app.humanelogistics.service;
+
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.TimeSeriesDataItem;
+
+/**
+ * Thins a time series to about as many points as it has pixels to be drawn on, with
+ * Largest-Triangle-Three-Buckets: the points are split into equal buckets and from each the one
+ * forming the largest triangle with its neighbours is kept, so peaks and turns survive while
+ * flat stretches collapse. A series that already fits is returned unchanged.
+ */
+public final class TimeSeriesDownsampler {
+
+    private TimeSeriesDownsampler() {}
+
+    public static TimeSeriesCollection downsample(TimeSeriesCollection dataset, int maxPoints) {
+        boolean fits = true;
+        for (int s = 0; s < dataset.getSeriesCount(); s++) {
+            if (dataset.getSeries(s).getItemCount() > maxPoints) fits = false;
+        }
+        if (fits) return dataset;
+
+        TimeSeriesCollection result = new TimeSeriesCollection();
+        result.setXPosition(dataset.getXPosition());
+        for (int s = 0; s < dataset.getSeriesCount(); s++) {
+            result.addSeries(downsample(dataset.getSeries(s), maxPoints));
+        }
+        return result;
+    }
+
+    public static TimeSeries downsample(TimeSeries series, int maxPoints) {
+        int n = series.getItemCount();
+        if (n <= maxPoints || maxPoints < 3) return series;
+
+        // Gaps (null values) have no position to weigh; they are left out
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] item = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            TimeSeriesDataItem dataItem = series.getDataItem(i);
+            if (dataItem.getValue() == null) continue;
+            x[count] = dataItem.getPeriod().getMiddleMillisecond();
+            y[count] = dataItem.getValue().doubleValue();
+            item[count++] = i;
+        }
+
+        TimeSeries result = new TimeSeries(series.getKey());
+        for (int index : lttb(x, y, count, maxPoints)) {
+            result.add((TimeSeriesDataItem) series.getDataItem(item[index]).clone(), false);
+        }
+        return result;
+    }
+
+    /**
+     * Indexes of the points to keep among the first {@code count} of {@code x}/{@code y}, which
+     * are sorted by x; always the first and the last, {@code threshold} in all.
+     */
+    public static int[] lttb(double[] x, double[] y, int count, int threshold) {
+        if (count <= threshold || threshold < 3) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) all[i] = i;
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int k = 0;
+        kept[k++] = 0;
+
+        // First and last are fixed; the rest is split into threshold - 2 buckets
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int previous = 0;
+        for (int b = 0; b < threshold - 2; b++) {
+            int start = (int) (b * bucketSize) + 1;
+            int end = (int) ((b + 1) * bucketSize) + 1;
+
+            // The third corner is the average of the next bucket (the last point for the last bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((b + 2) * bucketSize) + 1, count);
+            double avgX = 0;
+            double avgY = 0;
+            if (nextStart >= nextEnd) {
+                avgX = x[count - 1];
+                avgY = y[count - 1];
+            } else {
+                for (int i = nextStart; i < nextEnd; i++) {
+                    avgX += x[i];
+                    avgY += y[i];
+                }
+                avgX /= nextEnd - nextStart;
+                avgY /= nextEnd - nextStart;
+            }
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[k++] = chosen;
+            previous = chosen;
+        }
+
+        kept[k] = count - 1;
+        return kept;
+    }
+}
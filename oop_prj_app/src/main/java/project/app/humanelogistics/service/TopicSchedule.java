@@ -0,0 +1,81 @@
+package project.app.humanelogistics.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One tracked topic of the ingestion daemon, read from a topics file with one line per topic:
+ *
+ * <pre>
+ * # topic | start (M/d/yyyy) | end (M/d/yyyy or "today") | refresh minutes
+ * Typhoon Yagi | 9/4/2024 | 11/30/2024 | 60
+ * Typhoon Trami | 10/20/2024 | today | 15
+ * </pre>
+ */
+public class TopicSchedule {
+
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    private final String topic;
+    private final LocalDate startDate;
+    private final LocalDate endDate; // null = open-ended ("today")
+    private final Duration refreshInterval;
+
+    public TopicSchedule(String topic, LocalDate startDate, LocalDate endDate, Duration refreshInterval) {
+        this.topic = topic;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.refreshInterval = refreshInterval;
+    }
+
+    public static List<TopicSchedule> load(Path file) throws IOException {
+        List<TopicSchedule> schedules = new ArrayList<>();
+        int lineNo = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] parts = line.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(file + ":" + lineNo + ": expected 'topic | start | end | refresh minutes'");
+            }
+            try {
+                String end = parts[2].trim();
+                long refreshMinutes = Long.parseLong(parts[3].trim());
+                if (refreshMinutes <= 0) throw new IllegalArgumentException("refresh minutes must be positive");
+                schedules.add(new TopicSchedule(
+                        parts[0].trim(),
+                        LocalDate.parse(parts[1].trim(), DATE_FORMAT),
+                        "today".equalsIgnoreCase(end) ? null : LocalDate.parse(end, DATE_FORMAT),
+                        Duration.ofMinutes(refreshMinutes)
+                ));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(file + ":" + lineNo + ": " + e.getMessage(), e);
+            }
+        }
+        return schedules;
+    }
+
+    // A fixed window that has ended still gets backlog analysis, but no new collection
+    public boolean isLive(LocalDate today) {
+        return endDate == null || !today.isAfter(endDate.plusDays(1));
+    }
+
+    public LocalDate resolveEndDate(LocalDate today) {
+        if (endDate == null) return today;
+        return endDate.isBefore(today) ? endDate : today;
+    }
+
+    public String getTopic() { return topic; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public Duration getRefreshInterval() { return refreshInterval; }
+}
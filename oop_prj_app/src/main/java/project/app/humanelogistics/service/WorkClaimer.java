@@ -0,0 +1,104 @@
+package project.app.humanelogistics.service;
+
+import project.app.humanelogistics.db.MediaRepository;
+import project.app.humanelogistics.model.Media;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims backlog items for one worker through time-limited leases, so several processes
+ * (or several claimers in one JVM) can analyze the same topic without doing an item twice.
+ *
+ * Held leases are renewed in the background. An item stays held after {@link #complete} only
+ * until its result is written, which must happen within what is left of the lease; the
+ * default lease comfortably covers the write-behind delay. A crashed worker's leases simply
+ * expire and the items are claimed again by the others.
+ */
+public class WorkClaimer implements AutoCloseable {
+
+    public static final Duration DEFAULT_LEASE = Duration.ofMinutes(2);
+
+    // Which items this claimer hands out; the repository makes each claim atomic
+    public interface ClaimSource {
+        Media claimNext(String owner, Duration lease);
+    }
+
+    private final MediaRepository repository;
+    private final ClaimSource source;
+    private final Duration lease;
+    private final String owner;
+    private final Set<Media> held = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService renewer;
+
+    public WorkClaimer(MediaRepository repository, String topic) {
+        this(repository, topic, DEFAULT_LEASE);
+    }
+
+    public WorkClaimer(MediaRepository repository, String topic, Duration lease) {
+        this(repository, (owner, l) -> repository.claimNext(topic, owner, l), lease);
+    }
+
+    public WorkClaimer(MediaRepository repository, ClaimSource source, Duration lease) {
+        this.repository = repository;
+        this.source = source;
+        this.lease = lease;
+        // Unique per claimer: host/pid identify the process, the suffix the claimer inside it
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        this.renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lease-renewer");
+            t.setDaemon(true);
+            return t;
+        });
+        long renewMillis = Math.max(1000, lease.toMillis() / 3);
+        renewer.scheduleWithFixedDelay(this::renewAll, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Leases the next item to work on, or returns null when there is none left. */
+    public Media claim() {
+        Media item = source.claimNext(owner, lease);
+        if (item != null) held.add(item);
+        return item;
+    }
+
+    /** Stops renewing: the analysis result (which clears the lease) is on its way to the database. */
+    public void complete(Media item) {
+        held.remove(item);
+    }
+
+    /** Gives the item back unprocessed so another worker can take it right away. */
+    public void release(Media item) {
+        if (held.remove(item)) repository.releaseLease(item, owner);
+    }
+
+    private void renewAll() {
+        for (Media item : new ArrayList<>(held)) {
+            try {
+                if (!repository.renewLease(item, owner, lease)) {
+                    held.remove(item);
+                    System.err.println("      [LEASE LOST] " + item.getUrl() + " was reclaimed by another worker.");
+                }
+            } catch (Exception e) {
+                System.err.println("      [LEASE] Renewal failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+        List<Media> remaining = new ArrayList<>(held);
+        for (Media item : remaining) release(item);
+    }
+
+    public String getOwner() { return owner; }
+}
@@ -0,0 +1,139 @@
+package project.app.humanelogistics.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Approximate count of distinct strings in 4 KB, whatever their number: standard error about
+ * 1.6%. Sketches of the same precision merge into the sketch of the union, so per-day or
+ * per-repository counts can be combined without seeing the values again.
+ *
+ * Not thread-safe.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private static final byte FORMAT_SPARSE = 1;
+    private static final byte FORMAT_DENSE = 2;
+
+    // Longest run of leading zeros (+1) seen among the hashes that fell into each register
+    private final byte[] registers = new byte[REGISTERS];
+
+    public void add(String value) {
+        if (value == null) return;
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The marker bit bounds the rank for a hash whose remaining bits are all zero
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) registers[index] = (byte) rank;
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Small cardinalities: count the empty registers instead (linear counting)
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) return false;
+        }
+        return true;
+    }
+
+    // --- SERIALIZATION ---
+
+    /**
+     * Few registers set (small days): index/value pairs, 3 bytes each. Otherwise all registers
+     * at 6 bits each, 3 KB.
+     */
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte register : registers) {
+            if (register != 0) used++;
+        }
+        int denseSize = REGISTERS * 6 / 8;
+        if (used * 3 < denseSize) {
+            ByteBuffer buffer = ByteBuffer.allocate(3 + used * 3);
+            buffer.put(FORMAT_SPARSE).putShort((short) used);
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] != 0) buffer.putShort((short) i).put(registers[i]);
+            }
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[1 + denseSize];
+        bytes[0] = FORMAT_DENSE;
+        long bits = 0;
+        int bitCount = 0;
+        int out = 1;
+        for (byte register : registers) {
+            bits = (bits << 6) | register;
+            bitCount += 6;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                bytes[out++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == FORMAT_SPARSE) {
+            int used = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < used; i++) {
+                int index = buffer.getShort() & 0xFFFF;
+                sketch.registers[index] = buffer.get();
+            }
+        } else if (format == FORMAT_DENSE) {
+            long bits = 0;
+            int bitCount = 0;
+            for (int i = 0; i < REGISTERS; i++) {
+                while (bitCount < 6) {
+                    bits = (bits << 8) | (buffer.get() & 0xFF);
+                    bitCount += 8;
+                }
+                bitCount -= 6;
+                sketch.registers[i] = (byte) ((bits >>> bitCount) & 0x3F);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown HyperLogLog format " + format);
+        }
+        return sketch;
+    }
+
+    // 64-bit FNV-1a over the characters, then MurmurHash3's finalizer to spread the bits
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
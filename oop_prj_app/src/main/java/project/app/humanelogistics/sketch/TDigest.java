@@ -0,0 +1,165 @@
+package project.app.humanelogistics.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Approximate quantiles of a stream of values in bounded memory (a merging t-digest). Values are
+ * kept as weighted centroids; centroids near the tails stay small, so extreme percentiles are
+ * more accurate than the median. About {@code COMPRESSION / 2} centroids are kept however many
+ * values went in (~500 bytes stored), and digests merge into the digest of the combined values.
+ *
+ * Not thread-safe.
+ */
+public class TDigest {
+
+    private static final int COMPRESSION = 100;
+    private static final int BUFFER_SIZE = 5 * COMPRESSION;
+    private static final byte FORMAT = 1;
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private final double[] bufferMeans = new double[BUFFER_SIZE];
+    private final double[] bufferWeights = new double[BUFFER_SIZE];
+    private int buffered;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.means.length; i++) add(other.means[i], other.weights[i]);
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+    }
+
+    private void add(double mean, double weight) {
+        if (Double.isNaN(mean)) return;
+        if (buffered == BUFFER_SIZE) compress();
+        bufferMeans[buffered] = mean;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        if (mean < min) min = mean;
+        if (mean > max) max = mean;
+    }
+
+    /** Number of values added. */
+    public long size() {
+        compress();
+        double total = 0;
+        for (double weight : weights) total += weight;
+        return Math.round(total);
+    }
+
+    /** The value below which a fraction {@code q} (0..1) of the values lie; NaN if empty. */
+    public double quantile(double q) {
+        compress();
+        int n = means.length;
+        if (n == 0) return Double.NaN;
+        if (n == 1) return means[0];
+
+        double total = 0;
+        for (double weight : weights) total += weight;
+        double index = Math.max(0, Math.min(1, q)) * total;
+
+        // Each centroid's weight is centred on its mean; interpolate between neighbouring centres
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double weightSoFar = weights[0] / 2;
+        for (int i = 0; i < n - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + step > index) {
+                return means[i] + (index - weightSoFar) / step * (means[i + 1] - means[i]);
+            }
+            weightSoFar += step;
+        }
+        double last = weights[n - 1] / 2;
+        return means[n - 1] + Math.min(1, (index - weightSoFar) / last) * (max - means[n - 1]);
+    }
+
+    // Merges buffered values into the centroids, keeping each centroid within its size bound
+    private void compress() {
+        if (buffered == 0) return;
+        int count = means.length + buffered;
+        double[] allMeans = Arrays.copyOf(means, count);
+        double[] allWeights = Arrays.copyOf(weights, count);
+        System.arraycopy(bufferMeans, 0, allMeans, means.length, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, means.length, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double total = 0;
+        for (double weight : allWeights) total += weight;
+
+        double[] newMeans = new double[count];
+        double[] newWeights = new double[count];
+        int n = 0;
+        double weightSoFar = 0;
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        for (int k = 1; k < count; k++) {
+            int i = order[k];
+            double proposed = weight + allWeights[i];
+            // A centroid may span one unit of the scale function: narrow at the tails, wide in the middle
+            if (scale((weightSoFar + proposed) / total) - scale(weightSoFar / total) <= 1) {
+                mean += (allMeans[i] - mean) * allWeights[i] / proposed;
+                weight = proposed;
+            } else {
+                newMeans[n] = mean;
+                newWeights[n] = weight;
+                n++;
+                weightSoFar += weight;
+                mean = allMeans[i];
+                weight = allWeights[i];
+            }
+        }
+        newMeans[n] = mean;
+        newWeights[n] = weight;
+        n++;
+
+        means = Arrays.copyOf(newMeans, n);
+        weights = Arrays.copyOf(newWeights, n);
+    }
+
+    // k1 scale function of the t-digest paper: COMPRESSION / 2 units from q = 0 to q = 1
+    private static double scale(double q) {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * Math.min(1, q) - 1);
+    }
+
+    // --- SERIALIZATION ---
+
+    // Centroid means as floats: the values are sentiment scores, far coarser than float precision
+    public byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 4 + means.length * 8);
+        buffer.put(FORMAT).putDouble(min).putDouble(max).putInt(means.length);
+        for (int i = 0; i < means.length; i++) {
+            buffer.putFloat((float) means[i]).putFloat((float) weights[i]);
+        }
+        return buffer.array();
+    }
+
+    public static TDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format != FORMAT) throw new IllegalArgumentException("Unknown t-digest format " + format);
+        TDigest digest = new TDigest();
+        digest.min = buffer.getDouble();
+        digest.max = buffer.getDouble();
+        int n = buffer.getInt();
+        digest.means = new double[n];
+        digest.weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            digest.means[i] = buffer.getFloat();
+            digest.weights[i] = buffer.getFloat();
+        }
+        return digest;
+    }
+}
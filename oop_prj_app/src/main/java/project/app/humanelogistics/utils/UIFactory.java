@@ -1,15 +1,36 @@
 package project.app.humanelogistics.utils;
 
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import project.app.humanelogistics.model.ArticleSummary;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Function;
 
 public class UIFactory {
 
+    public static final double CHART_DISPLAY_WIDTH = 800;
+
+    private static final DateTimeFormatter ARTICLE_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.systemDefault());
+
     public static VBox createMemberCard(String name, String role, String imagePath) {
         VBox card = new VBox(10);
         card.getStyleClass().add("card");
@@ -35,23 +56,87 @@ public class UIFactory {
     }
 
     public static VBox createChartContainer(String titleText, File chartFile) {
-        ImageView chartView = new ImageView();
-        try {
-            chartView.setImage(new Image(new FileInputStream(chartFile)));
-            chartView.setPreserveRatio(true);
-            chartView.setFitWidth(800);
-        } catch (FileNotFoundException e) {
+        try (FileInputStream in = new FileInputStream(chartFile)) {
+            return createChartContainer(titleText, new Image(in), CHART_DISPLAY_WIDTH, null);
+        } catch (IOException e) {
             return createErrorBox("Could not load chart image.");
         }
+    }
+
+    /**
+     * Shows an image rendered for {@code displayWidth} (its pixels may be denser on HiDPI screens).
+     * {@code onExport} adds an export button; null for none.
+     */
+    public static VBox createChartContainer(String titleText, Image chartImage, double displayWidth, Runnable onExport) {
+        ImageView chartView = new ImageView(chartImage);
+        chartView.setPreserveRatio(true);
+        chartView.setSmooth(true);
+        chartView.setFitWidth(displayWidth);
 
         Text title = new Text(titleText);
         title.getStyleClass().add("section-header");
 
         VBox container = new VBox(20, title, chartView);
+        if (onExport != null) {
+            Button export = new Button("Export PNG...");
+            export.getStyleClass().add("nav-button-secondary");
+            export.setOnAction(e -> onExport.run());
+            container.getChildren().add(export);
+        }
         container.setStyle("-fx-background-color: white; -fx-background-radius: 12; -fx-padding: 30; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 10, 0, 0, 2);");
         return container;
     }
 
+    /**
+     * Wraps a rendered chart as a JavaFX image by copying its pixels; no encoding involved.
+     * Safe to call off the FX thread.
+     */
+    public static Image toFxImage(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        WritableImage fxImage = new WritableImage(width, height);
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            fxImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+        } else {
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                fxImage.getPixelWriter().setPixels(0, y, width, 1, PixelFormat.getIntArgbInstance(), row, 0, width);
+            }
+        }
+        return fxImage;
+    }
+
+    /**
+     * Table of articles. Cells exist only for the visible rows and have a fixed height, so scrolling
+     * costs the same for any list length. Columns do not sort: the list comes sorted from the server.
+     */
+    public static TableView<ArticleSummary> createArticleTable(ObservableList<ArticleSummary> rows) {
+        TableView<ArticleSummary> table = new TableView<>(rows);
+        table.setFixedCellSize(28);
+        table.setPrefHeight(600);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.setPlaceholder(new Label("No articles"));
+
+        table.getColumns().add(articleColumn("Date", 130, a -> ARTICLE_DATE.format(a.getTimestamp().toInstant())));
+        table.getColumns().add(articleColumn("Source", 140, a -> "news".equals(a.getType())
+                ? (a.getSource() != null ? a.getSource() : "News") : "Social post"));
+        table.getColumns().add(articleColumn("Sentiment", 80, a -> String.format(Locale.ROOT, "%.2f", a.getSentiment())));
+        table.getColumns().add(articleColumn("Damage", 190, a -> a.getDamageType().getDisplayName()));
+        table.getColumns().add(articleColumn("Article", 400, a -> a.getSnippet()));
+        return table;
+    }
+
+    private static TableColumn<ArticleSummary, String> articleColumn(String title, double width,
+                                                                     Function<ArticleSummary, String> value) {
+        TableColumn<ArticleSummary, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setSortable(false);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        return column;
+    }
+
     public static Text createLoadingText(String message) {
         Text loading = new Text(message);
         loading.setStyle("-fx-font-size: 18px; -fx-fill: #7f8c8d;");
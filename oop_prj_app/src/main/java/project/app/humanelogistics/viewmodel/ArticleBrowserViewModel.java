@@ -0,0 +1,105 @@
+package project.app.humanelogistics.viewmodel;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import project.app.humanelogistics.db.MediaRepository;
+import project.app.humanelogistics.model.ArticleFilter;
+import project.app.humanelogistics.model.ArticleSummary;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Rows of the article browser. Pages are fetched as the user scrolls towards either end, and at
+ * most {@link #MAX_PAGES} are held: a page scrolled far out of view is dropped and fetched again
+ * if the user comes back, so memory does not grow with the size of the topic.
+ *
+ * Call from the FX thread.
+ */
+public class ArticleBrowserViewModel {
+
+    public static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 5;
+    private static final String PAGE_TASKS = "articles";
+
+    private final ObservableList<ArticleSummary> rows = FXCollections.observableArrayList();
+    private final StringProperty statusMessage = new SimpleStringProperty("");
+
+    private final BackgroundTasks tasks;
+    private final Supplier<MediaRepository> repository;
+    private ArticleFilter filter;
+    private boolean hasNext;
+    private boolean hasPrevious;
+
+    public ArticleBrowserViewModel(BackgroundTasks tasks, Supplier<MediaRepository> repository) {
+        this.tasks = tasks;
+        this.repository = repository;
+    }
+
+    // --- ACTIONS ---
+
+    /** Lists the articles matching the filter from the start. */
+    public void setFilter(ArticleFilter filter) {
+        this.filter = filter;
+        tasks.cancel(PAGE_TASKS);
+        rows.clear();
+        hasNext = true;
+        hasPrevious = false;
+        statusMessage.set("Loading articles...");
+        loadNext();
+    }
+
+    public void loadNext() {
+        if (filter == null || !hasNext) return;
+        load(rows.isEmpty() ? null : rows.get(rows.size() - 1), true);
+    }
+
+    public void loadPrevious() {
+        if (filter == null || !hasPrevious || rows.isEmpty()) return;
+        load(rows.get(0), false);
+    }
+
+    public void cancel() {
+        tasks.cancel(PAGE_TASKS);
+    }
+
+    // --- HELPERS ---
+
+    private void load(ArticleSummary from, boolean forward) {
+        ArticleFilter query = filter;
+        // One row more than a page tells whether there is anything beyond it
+        tasks.submit(PAGE_TASKS, (forward ? "next:" : "previous:") + (from != null ? from.getId() : ""),
+                () -> repository.get().findArticles(query, from, forward, PAGE_SIZE + 1),
+                page -> show(page, forward),
+                e -> statusMessage.set("Could not load articles: " + e.getMessage()));
+    }
+
+    private void show(List<ArticleSummary> page, boolean forward) {
+        boolean more = page.size() > PAGE_SIZE;
+        int excess = rows.size() + Math.min(page.size(), PAGE_SIZE) - MAX_PAGES * PAGE_SIZE;
+
+        if (forward) {
+            rows.addAll(more ? page.subList(0, PAGE_SIZE) : page);
+            hasNext = more;
+            if (excess > 0) {
+                rows.remove(0, excess);
+                hasPrevious = true;
+            }
+        } else {
+            rows.addAll(0, more ? page.subList(1, page.size()) : page);
+            hasPrevious = more;
+            if (excess > 0) {
+                rows.remove(rows.size() - excess, rows.size());
+                hasNext = true;
+            }
+        }
+        statusMessage.set(rows.isEmpty() ? "No articles match." : "");
+    }
+
+    // --- PROPERTIES ---
+
+    public ObservableList<ArticleSummary> getRows() { return rows; }
+    public StringProperty statusMessageProperty() { return statusMessage; }
+}
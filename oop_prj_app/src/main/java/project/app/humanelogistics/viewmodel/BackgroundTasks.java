@@ -0,0 +1,163 @@
+package project.app.humanelogistics.viewmodel;
+
+import project.app.humanelogistics.metrics.Counter;
+import project.app.humanelogistics.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs view-model work off the FX thread on a small bounded pool.
+ *
+ * Every task belongs to a group, e.g. whatever fills the main content area. A new task cancels
+ * (interrupts) the one its group is running, and a request with the same key as the running one
+ * joins it instead of starting again. Results are handed to the publisher (the FX thread in the
+ * app) and only the group's current task gets to publish, so a late result never replaces a newer view.
+ */
+public class BackgroundTasks {
+
+    private static final Counter STARTED = Metrics.counter("dashboard.tasks.started");
+    private static final Counter COALESCED = Metrics.counter("dashboard.tasks.coalesced");
+    private static final Counter CANCELLED = Metrics.counter("dashboard.tasks.cancelled");
+    private static final Counter REJECTED = Metrics.counter("dashboard.tasks.rejected");
+
+    private final ThreadPoolExecutor pool;
+    private final Executor publisher;
+    private final Map<String, Task<?>> current = new HashMap<>();
+
+    public BackgroundTasks(int threads, int queueCapacity, Executor publisher) {
+        this.publisher = publisher;
+        this.pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "dashboard-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts {@code work} as the current task of {@code group}. Returns false if it was not started:
+     * either the same request (same key) is already running, or the pool is saturated, in which
+     * case {@code onError} is told.
+     */
+    public synchronized <T> boolean submit(String group, String key, Callable<T> work,
+                                           Consumer<T> onResult, Consumer<Exception> onError) {
+        Task<?> running = current.get(group);
+        if (running != null && !running.isDone()) {
+            if (running.key.equals(key)) {
+                COALESCED.increment();
+                return false;
+            }
+            cancel(running);
+        }
+
+        Task<T> task = new Task<>(group, key, work, onResult, onError);
+        current.put(group, task);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            current.remove(group);
+            REJECTED.increment();
+            onError.accept(new IllegalStateException("Too busy, try again"));
+            return false;
+        }
+        STARTED.increment();
+        return true;
+    }
+
+    /** Cancels whatever the group is running; its result, if any arrives, is dropped. */
+    public synchronized void cancel(String group) {
+        Task<?> running = current.remove(group);
+        if (running != null && !running.isDone()) cancel(running);
+    }
+
+    /**
+     * Runs independent jobs of the calling task in parallel: all but the first are offered to the
+     * pool, and any no worker has picked up yet are run by the caller itself, so this never waits
+     * for a free worker. Cancelling the caller cancels the jobs.
+     */
+    public <T> List<T> parallel(List<Callable<T>> jobs) throws Exception {
+        List<FutureTask<T>> forked = new ArrayList<>();
+        for (Callable<T> job : jobs.subList(1, jobs.size())) {
+            FutureTask<T> task = new FutureTask<>(job);
+            forked.add(task);
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException ignored) {
+                // Runs inline below
+            }
+        }
+
+        List<T> results = new ArrayList<>();
+        try {
+            results.add(jobs.get(0).call());
+            for (FutureTask<T> task : forked) {
+                task.run(); // No-op if a worker already started it
+                pool.remove(task);
+                results.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            throw new CancellationException("Cancelled");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            for (FutureTask<T> task : forked) task.cancel(true);
+        }
+        return results;
+    }
+
+    private void cancel(Task<?> task) {
+        task.cancel(true);
+        pool.remove(task);
+        CANCELLED.increment();
+    }
+
+    private synchronized boolean finish(Task<?> task) {
+        if (current.get(task.group) != task) return false;
+        current.remove(task.group);
+        return true;
+    }
+
+    private final class Task<T> extends FutureTask<T> {
+        private final String group;
+        private final String key;
+        private final Consumer<T> onResult;
+        private final Consumer<Exception> onError;
+
+        Task(String group, String key, Callable<T> work, Consumer<T> onResult, Consumer<Exception> onError) {
+            super(work);
+            this.group = group;
+            this.key = key;
+            this.onResult = onResult;
+            this.onError = onError;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) return;
+            publisher.execute(() -> {
+                if (!finish(this)) return; // Superseded while the result was on its way
+                try {
+                    onResult.accept(get());
+                } catch (ExecutionException e) {
+                    onError.accept(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                } catch (InterruptedException | CancellationException ignored) {
+                    // Not reachable: the task is done and was not cancelled
+                }
+            });
+        }
+    }
+}
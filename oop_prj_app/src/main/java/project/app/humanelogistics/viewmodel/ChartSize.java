@@ -0,0 +1,49 @@
+package project.app.humanelogistics.viewmodel;
+
+import java.util.Objects;
+
+/**
+ * Where a chart will be shown: its size in layout units and the display's output scale
+ * (2.0 on a typical HiDPI screen). Charts are rendered at the resulting pixel size.
+ */
+public final class ChartSize {
+    private final double width;
+    private final double height;
+    private final double outputScale;
+
+    public ChartSize(double width, double height, double outputScale) {
+        this.width = width;
+        this.height = height;
+        this.outputScale = outputScale > 0 ? outputScale : 1.0;
+    }
+
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public double getOutputScale() { return outputScale; }
+
+    public int getPixelWidth() {
+        return Math.max(1, (int) Math.ceil(width * outputScale));
+    }
+
+    public int getPixelHeight() {
+        return Math.max(1, (int) Math.ceil(height * outputScale));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChartSize)) return false;
+        ChartSize other = (ChartSize) o;
+        return getPixelWidth() == other.getPixelWidth() && getPixelHeight() == other.getPixelHeight();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getPixelWidth(), getPixelHeight());
+    }
+
+    @Override
+    public String toString() {
+        return getPixelWidth() + "x" + getPixelHeight();
+    }
+}
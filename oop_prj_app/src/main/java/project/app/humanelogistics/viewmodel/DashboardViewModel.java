@@ -0,0 +1,438 @@
+package project.app.humanelogistics.viewmodel;
+
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import project.app.humanelogistics.Config;
+import project.app.humanelogistics.db.MediaRepository;
+import project.app.humanelogistics.db.MongoMediaRepository;
+import project.app.humanelogistics.model.TopicSketch;
+import project.app.humanelogistics.search.ContentIndex;
+import project.app.humanelogistics.service.AnalysisService;
+import project.app.humanelogistics.service.ChartRenderCache;
+import project.app.humanelogistics.service.ChartService;
+import project.app.humanelogistics.service.KeywordSentimentAnalyzer;
+import project.app.humanelogistics.service.LiveDashboard;
+import project.app.humanelogistics.utils.UIFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * State and actions behind the dashboard. Queries and chart rendering run as background tasks;
+ * results are published to the properties on the FX thread. Chart requests replace each other:
+ * only the latest one is worked on and shown.
+ */
+public class DashboardViewModel {
+
+    private static final String DEFAULT_TOPIC = "Typhoon Yagi";
+    private static final String SENTIMENT_TITLE = "Sentiment Analysis Result";
+    private static final String PIE_TITLE = "Damage Distribution";
+    private static final String BAR_TITLE = "Damage Counts";
+
+    // Task groups: what fills the main content area, and the summary cards
+    private static final String CHART_TASKS = "charts";
+    private static final String STATS_TASKS = "stats";
+    private static final String LIVE_TASKS = "live";
+    private static final String SKETCH_TASKS = "sketches";
+
+    // --- BOUND STATE ---
+    private final StringProperty totalPosts = new SimpleStringProperty("loading...");
+    private final StringProperty sentimentScore = new SimpleStringProperty("0.0");
+    private final StringProperty sentimentLabel = new SimpleStringProperty("Neutral");
+    private final StringProperty sentimentStyle = new SimpleStringProperty("");
+    private final StringProperty topDamage = new SimpleStringProperty("loading...");
+    private final StringProperty topDamageCount = new SimpleStringProperty("0 reports");
+    private final StringProperty postSources = new SimpleStringProperty("");
+    private final StringProperty sentimentSpread = new SimpleStringProperty("");
+    private final StringProperty statusMessage = new SimpleStringProperty("");
+    private final ObjectProperty<RenderedChart> chart = new SimpleObjectProperty<>();
+    private final ObjectProperty<List<RenderedChart>> gallery = new SimpleObjectProperty<>();
+
+    private final ChartService chartService;
+    private final ChartRenderCache renderCache;
+    private final BackgroundTasks tasks;
+    private final String topic;
+
+    // Data version each chart last showed, with what is needed to rebuild it for export
+    private final Map<RenderedChart.Kind, ShownChart> shown = new ConcurrentHashMap<>();
+    private AnalysisService analysisService;
+    private MediaRepository repository;
+
+    // Live figures, null until live updates run. Charts and cards are built from them instead of
+    // queries only while a change stream keeps them exact (see current())
+    private volatile LiveDashboard.Snapshot live;
+    // Set by the task that opened it; a stop closes it, or makes a task still opening close its own
+    private final Object liveLock = new Object();
+    private LiveDashboard liveDashboard; // Guarded by liveLock
+    private long liveGeneration;         // Guarded by liveLock; bumped by every stop
+    private Runnable refreshChart; // Re-requests the chart on screen, null if none (FX thread)
+
+    public DashboardViewModel() {
+        this(null, new ChartService(), new ChartRenderCache(Config.getChartCacheBytes(),
+                        Config.getChartCacheDir() != null ? Path.of(Config.getChartCacheDir()) : null),
+                new BackgroundTasks(Config.getDashboardThreads(), 8, Platform::runLater), DEFAULT_TOPIC);
+    }
+
+    // analysisService may be null: the default one (database from Config) is then created on first use
+    public DashboardViewModel(AnalysisService analysisService, ChartService chartService,
+                              ChartRenderCache renderCache, BackgroundTasks tasks, String topic) {
+        this.analysisService = analysisService;
+        this.chartService = chartService;
+        this.renderCache = renderCache;
+        this.tasks = tasks;
+        this.topic = topic;
+    }
+
+    // --- ACTIONS ---
+
+    public void loadDashboardStats() {
+        tasks.cancel(CHART_TASKS); // The cards are back on screen; a chart still on its way is not wanted
+        refreshChart = null;
+        // Approximate figures from sketches; slower than the cards' counts, so shown when ready
+        run(SKETCH_TASKS, topic, null, () -> service().getTopicSketch(topic), this::showSketch);
+        LiveDashboard.Snapshot snapshot = current();
+        if (snapshot != null) {
+            showStats(statsOf(snapshot));
+            return;
+        }
+        run(STATS_TASKS, topic, null, () -> {
+            AnalysisService service = service();
+            return new Stats(service.getTotalPostCount(topic), service.getOverallSentiment(topic),
+                    topEntry(service.getAggregatedDamageStats(topic)));
+        }, this::showStats);
+    }
+
+    /**
+     * Shows the last rendered version at once if there is one, then re-queries and re-renders
+     * only if the data has changed since.
+     */
+    public void generateSentimentChart(ChartSize size) {
+        refreshChart = () -> sentimentChart(size, true);
+        sentimentChart(size, false);
+    }
+
+    public void generateDamageCharts(ChartSize size) {
+        refreshChart = () -> damageCharts(size, true);
+        damageCharts(size, false);
+    }
+
+    /**
+     * Keeps the cards and the chart on screen current while data changes, without reloading:
+     * changes are applied as they arrive and shown at most once per LIVE_FRAME_MS.
+     */
+    public void startLiveUpdates() {
+        long frameMillis = Config.getLiveFrameMillis();
+        long generation;
+        synchronized (liveLock) {
+            if (frameMillis <= 0 || liveDashboard != null) return;
+            generation = liveGeneration;
+        }
+        tasks.submit(LIVE_TASKS, topic,
+                () -> {
+                    LiveDashboard started = service().openLiveDashboard(topic, frameMillis,
+                            snapshot -> Platform.runLater(() -> showLive(snapshot, generation)));
+                    synchronized (liveLock) {
+                        if (generation == liveGeneration) {
+                            liveDashboard = started;
+                            return started;
+                        }
+                    }
+                    started.close(); // Stopped while it was opening
+                    return null;
+                },
+                started -> {},
+                e -> System.err.println("Live updates unavailable: " + e.getMessage()));
+    }
+
+    public void stopLiveUpdates() {
+        tasks.cancel(LIVE_TASKS);
+        LiveDashboard stopped;
+        synchronized (liveLock) {
+            liveGeneration++;
+            stopped = liveDashboard;
+            liveDashboard = null;
+        }
+        if (stopped != null) stopped.close();
+        live = null;
+    }
+
+    /** Stops preparing a chart, e.g. because the user moved to a view without one. */
+    public void cancelCharts() {
+        tasks.cancel(CHART_TASKS);
+        refreshChart = null;
+        statusMessage.set("");
+    }
+
+    /** The articles behind the figures, sharing this dashboard's connection and background threads. */
+    public ArticleBrowserViewModel createArticleBrowser() {
+        return new ArticleBrowserViewModel(tasks, this::repository);
+    }
+
+    // Explicit export of a displayed chart at full resolution; nothing is written otherwise
+    public void exportChart(RenderedChart rendered, File file) {
+        tasks.submit("export:" + file.getAbsolutePath(), rendered.getKind().name(),
+                () -> chartService.exportPng(rendered.getChart(), file),
+                saved -> System.out.println("Chart exported to " + saved.getAbsolutePath()),
+                e -> System.err.println("Chart export failed: " + e.getMessage()));
+    }
+
+    // --- HELPERS ---
+
+    // A refresh re-renders only if the chart's data changed, and never shows a loading message
+    private void sentimentChart(ChartSize size, boolean refresh) {
+        RenderedChart.Kind kind = RenderedChart.Kind.SENTIMENT_TREND;
+        LiveDashboard.Snapshot snapshot = current();
+        RenderedChart cached = refresh ? null : cachedChart(kind, SENTIMENT_TITLE, size);
+        boolean quiet = refresh || cached != null;
+
+        boolean started = run(CHART_TASKS, taskKey(kind.name(), size), quiet ? null : "Generating sentiment chart...", () -> {
+            Map<String, Map<LocalDate, Double>> trends = snapshot != null
+                    ? snapshot.getSentimentTrends() : service().getSentimentTrends(topic);
+            long fingerprint = ChartRenderCache.fingerprint(trends);
+            if (quiet && isShown(kind, fingerprint)) return null;
+
+            return render(kind, SENTIMENT_TITLE, fingerprint, size, () -> chartService.createTrendChart(
+                    "Sentiment Trend: " + topic, "Date", "Avg. Sentiment", toTimeSeries(trends), size.getPixelWidth()));
+        }, rendered -> {
+            if (rendered != null) chart.set(rendered);
+            statusMessage.set("");
+            rerunIfBehind(snapshot);
+        });
+        if (started && cached != null) chart.set(cached);
+    }
+
+    private void damageCharts(ChartSize size, boolean refresh) {
+        LiveDashboard.Snapshot snapshot = current();
+        RenderedChart cachedPie = refresh ? null : cachedChart(RenderedChart.Kind.DAMAGE_PIE, PIE_TITLE, size);
+        RenderedChart cachedBar = refresh ? null : cachedChart(RenderedChart.Kind.DAMAGE_BAR, BAR_TITLE, size);
+        boolean cached = cachedPie != null && cachedBar != null;
+        boolean quiet = refresh || cached;
+
+        boolean started = run(CHART_TASKS, taskKey("DAMAGE", size), quiet ? null : "Generating damage charts...", () -> {
+            Map<String, Integer> stats = snapshot != null
+                    ? snapshot.getDamageStats() : service().getAggregatedDamageStats(topic);
+            long fingerprint = ChartRenderCache.fingerprint(stats);
+            if (quiet && isShown(RenderedChart.Kind.DAMAGE_PIE, fingerprint)) return null;
+
+            // Independent charts: rendered side by side, each from its own dataset
+            return tasks.parallel(List.<Callable<RenderedChart>>of(
+                    () -> render(RenderedChart.Kind.DAMAGE_PIE, PIE_TITLE, fingerprint, size,
+                            () -> chartService.createPieChart("Damage Types: " + topic, toCategoryDataset(stats))),
+                    () -> render(RenderedChart.Kind.DAMAGE_BAR, BAR_TITLE, fingerprint, size,
+                            () -> chartService.createBarChart("Damage Reports: " + topic, "Category", "Reports",
+                                    toCategoryDataset(stats)))));
+        }, rendered -> {
+            if (rendered != null) gallery.set(rendered);
+            statusMessage.set("");
+            rerunIfBehind(snapshot);
+        });
+        if (started && cached) gallery.set(List.of(cachedPie, cachedBar));
+    }
+
+    // Live refreshes join a render in progress instead of cancelling it; see rerunIfBehind
+    private static String taskKey(String chart, ChartSize size) {
+        return chart + "@" + size;
+    }
+
+    // Live figures that arrived while the chart rendered were not in it: render once more
+    private void rerunIfBehind(LiveDashboard.Snapshot rendered) {
+        if (current() != rendered && refreshChart != null) refreshChart.run();
+    }
+
+    // The live figures if they are exact; without a change stream they only serve the cards between queries
+    private LiveDashboard.Snapshot current() {
+        LiveDashboard.Snapshot snapshot = live;
+        return snapshot != null && snapshot.isComplete() ? snapshot : null;
+    }
+
+    // Frames still queued from live updates that have since stopped are dropped
+    private void showLive(LiveDashboard.Snapshot snapshot, long generation) {
+        synchronized (liveLock) {
+            if (generation != liveGeneration) return;
+        }
+        live = snapshot;
+        showStats(statsOf(snapshot));
+        // Re-aggregated figures (no change stream) refresh the cards; charts re-query when opened
+        if (refreshChart != null && snapshot.isComplete()) refreshChart.run();
+    }
+
+    private void showStats(Stats stats) {
+        totalPosts.set(String.format(Locale.ROOT, "%,d", stats.total));
+        sentimentScore.set(String.format(Locale.ROOT, "%.2f", stats.sentiment));
+        sentimentLabel.set(sentimentLabelFor(stats.sentiment));
+        sentimentStyle.set(sentimentStyleFor(stats.sentiment));
+        topDamage.set(stats.top != null ? stats.top.getKey() : "No data");
+        topDamageCount.set((stats.top != null ? stats.top.getValue() : 0) + " reports");
+    }
+
+    private void showSketch(TopicSketch sketch) {
+        postSources.set(sketch.getItemCount() == 0 ? "" : String.format(Locale.ROOT, "%,d sources, ~%,d articles",
+                sketch.getDistinctSources(), sketch.getDistinctArticles()));
+        sentimentSpread.set(sketch.getAnalyzedCount() == 0 ? "" : String.format(Locale.ROOT, "Median %.2f, middle 80%%: %.2f to %.2f",
+                sketch.getSentimentQuantile(0.5), sketch.getSentimentQuantile(0.1), sketch.getSentimentQuantile(0.9)));
+    }
+
+    private static Stats statsOf(LiveDashboard.Snapshot snapshot) {
+        return new Stats(snapshot.getTotalPosts(), snapshot.getOverallSentiment(), topEntry(snapshot.getDamageStats()));
+    }
+
+    // Starts work as the group's current task; the status is only shown if it really started
+    private <T> boolean run(String group, String key, String status, Callable<T> work, Consumer<T> publish) {
+        boolean started = tasks.submit(group, key, work, publish, e -> {
+            System.err.println("Dashboard: " + e.getMessage());
+            statusMessage.set("Could not load data: " + e.getMessage());
+        });
+        if (started && CHART_TASKS.equals(group)) statusMessage.set(status != null ? status : "");
+        return started;
+    }
+
+    // Renders through the cache; older versions of the chart are dropped once a new one exists
+    private RenderedChart render(RenderedChart.Kind kind, String title, long fingerprint, ChartSize size,
+                                 Supplier<JFreeChart> chartFactory) {
+        ChartRenderCache.Key key = new ChartRenderCache.Key(kind.name(), topic, fingerprint,
+                size.getPixelWidth(), size.getPixelHeight());
+        BufferedImage image = renderCache.get(key);
+        if (image == null) {
+            image = chartService.renderImage(chartFactory.get(), size.getPixelWidth(), size.getPixelHeight());
+            renderCache.put(key, image);
+            renderCache.retainOnly(kind.name(), topic, fingerprint);
+        }
+        shown.put(kind, new ShownChart(fingerprint, chartFactory));
+        return new RenderedChart(kind, title, UIFactory.toFxImage(image), chartFactory);
+    }
+
+    // The last version of the chart from memory, without querying; null if there is none
+    private RenderedChart cachedChart(RenderedChart.Kind kind, String title, ChartSize size) {
+        ShownChart last = shown.get(kind);
+        if (last == null) return null;
+        BufferedImage image = renderCache.getIfPresent(new ChartRenderCache.Key(kind.name(), topic, last.fingerprint,
+                size.getPixelWidth(), size.getPixelHeight()));
+        return image == null ? null : new RenderedChart(kind, title, UIFactory.toFxImage(image), last.chartFactory);
+    }
+
+    private boolean isShown(RenderedChart.Kind kind, long fingerprint) {
+        ShownChart last = shown.get(kind);
+        return last != null && last.fingerprint == fingerprint;
+    }
+
+    private synchronized AnalysisService service() {
+        if (analysisService == null) {
+            // Read-only use: the analyzers are never called from the dashboard
+            analysisService = new AnalysisService(new KeywordSentimentAnalyzer(), null);
+            analysisService.addRepository("News", repository());
+        }
+        return analysisService;
+    }
+
+    private synchronized MediaRepository repository() {
+        if (repository == null) {
+            MongoMediaRepository mongo = new MongoMediaRepository(Config.getDbConnectionString(), "storm_data", "news");
+            // Written by the ingestion tool; read here so the browser can search text
+            String indexDir = Config.getSearchIndexDir();
+            if (indexDir != null && Files.isDirectory(Path.of(indexDir))) {
+                try {
+                    mongo.setSearchIndex(ContentIndex.openReadOnly(Path.of(indexDir)));
+                } catch (IOException e) {
+                    System.err.println("Search index unavailable: " + e.getMessage());
+                }
+            }
+            repository = mongo;
+        }
+        return repository;
+    }
+
+    private static TimeSeriesCollection toTimeSeries(Map<String, Map<LocalDate, Double>> trends) {
+        TimeSeriesCollection dataset = new TimeSeriesCollection();
+        for (Map.Entry<String, Map<LocalDate, Double>> source : trends.entrySet()) {
+            TimeSeries series = new TimeSeries(source.getKey());
+            for (Map.Entry<LocalDate, Double> day : source.getValue().entrySet()) {
+                LocalDate date = day.getKey();
+                series.addOrUpdate(new Day(date.getDayOfMonth(), date.getMonthValue(), date.getYear()), day.getValue());
+            }
+            dataset.addSeries(series);
+        }
+        return dataset;
+    }
+
+    private static DefaultCategoryDataset toCategoryDataset(Map<String, Integer> stats) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        stats.forEach((category, count) -> dataset.addValue(count, "Reports", category));
+        return dataset;
+    }
+
+    private static Map.Entry<String, Integer> topEntry(Map<String, Integer> stats) {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> e : stats.entrySet()) {
+            if (top == null || e.getValue() > top.getValue()) top = e;
+        }
+        return top;
+    }
+
+    private static String sentimentLabelFor(double score) {
+        if (score > 0.05) return "Positive";
+        if (score < -0.05) return "Negative";
+        return "Neutral";
+    }
+
+    private static String sentimentStyleFor(double score) {
+        if (score > 0.05) return "-fx-text-fill: #27ae60;";
+        if (score < -0.05) return "-fx-text-fill: #e74c3c;";
+        return "-fx-text-fill: #7f8c8d;";
+    }
+
+    private static final class Stats {
+        final long total;
+        final double sentiment;
+        final Map.Entry<String, Integer> top;
+
+        Stats(long total, double sentiment, Map.Entry<String, Integer> top) {
+            this.total = total;
+            this.sentiment = sentiment;
+            this.top = top;
+        }
+    }
+
+    private static final class ShownChart {
+        final long fingerprint;
+        final Supplier<JFreeChart> chartFactory;
+
+        ShownChart(long fingerprint, Supplier<JFreeChart> chartFactory) {
+            this.fingerprint = fingerprint;
+            this.chartFactory = chartFactory;
+        }
+    }
+
+    // --- PROPERTIES ---
+
+    public String getTopic() { return topic; }
+    public StringProperty totalPostsProperty() { return totalPosts; }
+    public StringProperty sentimentScoreProperty() { return sentimentScore; }
+    public StringProperty sentimentLabelProperty() { return sentimentLabel; }
+    public StringProperty sentimentStyleProperty() { return sentimentStyle; }
+    public StringProperty topDamageProperty() { return topDamage; }
+    public StringProperty topDamageCountProperty() { return topDamageCount; }
+    public StringProperty postSourcesProperty() { return postSources; }
+    public StringProperty sentimentSpreadProperty() { return sentimentSpread; }
+    public StringProperty statusMessageProperty() { return statusMessage; }
+    public ObjectProperty<RenderedChart> chartProperty() { return chart; }
+    public ObjectProperty<List<RenderedChart>> galleryProperty() { return gallery; }
+}
@@ -0,0 +1,32 @@
+package project.app.humanelogistics.viewmodel;
+
+import javafx.scene.image.Image;
+import org.jfree.chart.JFreeChart;
+
+import java.util.function.Supplier;
+
+/**
+ * A chart ready to show: its image at display resolution, and a way to rebuild the chart
+ * itself for export (the image may come from the render cache).
+ */
+public final class RenderedChart {
+
+    public enum Kind { SENTIMENT_TREND, DAMAGE_PIE, DAMAGE_BAR }
+
+    private final Kind kind;
+    private final String title;
+    private final Image image;
+    private final Supplier<JFreeChart> chart;
+
+    public RenderedChart(Kind kind, String title, Image image, Supplier<JFreeChart> chart) {
+        this.kind = kind;
+        this.title = title;
+        this.image = image;
+        this.chart = chart;
+    }
+
+    public Kind getKind() { return kind; }
+    public String getTitle() { return title; }
+    public Image getImage() { return image; }
+    public JFreeChart getChart() { return chart.get(); }
+}
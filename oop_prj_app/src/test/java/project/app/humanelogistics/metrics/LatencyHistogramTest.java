@@ -0,0 +1,97 @@
+package project.app.humanelogistics.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long MICROS = 1_000;
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void emptySnapshotReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram("empty").snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getMeanMicros());
+        assertEquals(0, snapshot.percentile(99));
+        assertEquals(0, snapshot.getMaxMicros());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram("small");
+        for (long micros = 1; micros <= 64; micros++) histogram.recordNanos(micros * MICROS);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(64, snapshot.getCount());
+        assertEquals(32, snapshot.percentile(50));
+        assertEquals(1, snapshot.percentile(0));
+        assertEquals(64, snapshot.percentile(100));
+        assertEquals(32.5, snapshot.getMeanMicros());
+    }
+
+    @Test
+    void everyBucketBoundIsWithinThreePercent() {
+        int previous = -1;
+        for (long micros = 0; micros < (1L << 35); micros = micros * 21 / 20 + 1) {
+            int index = LatencyHistogram.indexOf(micros);
+            long bound = LatencyHistogram.upperBoundOf(index);
+            assertTrue(index >= previous, "index went down at " + micros);
+            assertTrue(bound >= micros, "bound " + bound + " below " + micros);
+            assertTrue(bound - micros <= micros / 32, "bound " + bound + " too far above " + micros);
+            assertEquals(index, LatencyHistogram.indexOf(bound));
+            previous = index;
+        }
+    }
+
+    @Test
+    void percentilesOfAUniformSpreadAreWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram("uniform");
+        for (int ms = 1; ms <= 10_000; ms++) histogram.recordNanos(ms * MILLIS);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(5_000_000, snapshot.percentile(50), 5_000_000 / 32.0);
+        assertEquals(9_900_000, snapshot.percentile(99), 9_900_000 / 32.0);
+        assertEquals(10_000_000, snapshot.percentile(100));
+        assertEquals(10_000_000, snapshot.getMaxMicros());
+        assertEquals(5_000_500, snapshot.getMeanMicros(), 1e-6);
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram("clamped");
+        histogram.recordNanos(-5);
+        histogram.recordNanos(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.percentile(50));
+        assertEquals((1L << 35) - 1, snapshot.percentile(100));
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("concurrent");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long micros = (t + 1) * 100L;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) histogram.recordNanos(micros * MICROS);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(200_000, snapshot.getCount());
+        assertEquals(250.0, snapshot.getMeanMicros(), 1e-9);
+        assertEquals(400, snapshot.getMaxMicros());
+    }
+}
@@ -0,0 +1,141 @@
+package project.app.humanelogistics.preprocessing;
+
+import org.junit.jupiter.api.Test;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateDetectorTest {
+
+    private static final String STORY = "Typhoon Yagi made landfall in Quang Ninh on Saturday afternoon, tearing roofs "
+            + "off thousands of homes and cutting power across the northern provinces, officials said, as rescue teams "
+            + "reached villages cut off by flooding along the Red River";
+
+    private final NearDuplicateDetector detector = new NearDuplicateDetector();
+
+    @Test
+    void textsTooShortToSignHaveNoSignature() {
+        assertNull(detector.signature(null));
+        assertNull(detector.signature("Floods hit town"));
+        assertEquals(NearDuplicateDetector.SIGNATURE_SIZE, detector.signature("Floods hit the town").length);
+    }
+
+    @Test
+    void signaturesDependOnlyOnTheWords() {
+        assertArrayEquals(detector.signature(STORY), new NearDuplicateDetector().signature(STORY));
+        assertArrayEquals(detector.signature(STORY), detector.signature(STORY.toUpperCase(Locale.ROOT).replace(",", " ;")));
+        assertEquals(1.0, NearDuplicateDetector.similarity(detector.signature(STORY), detector.signature(STORY)));
+    }
+
+    @Test
+    void similarityEstimatesTheJaccardIndex() {
+        String edited = STORY.replace("on Saturday afternoon", "late on Saturday") + ", the agency reported";
+
+        double estimate = NearDuplicateDetector.similarity(detector.signature(STORY), detector.signature(edited));
+
+        // Standard error with 64 values is at most 0.0625
+        assertEquals(jaccard(STORY, edited), estimate, 0.2);
+    }
+
+    @Test
+    void syndicatedCopiesJoinTheFirstCluster() {
+        String first = detector.findOrAdd(item("https://example.com/yagi", STORY));
+        String copy = detector.findOrAdd(item("https://other.example.org/yagi-landfall",
+                "UPDATE: " + STORY + ". More to follow."));
+
+        assertEquals("https://example.com/yagi", first);
+        assertEquals(first, copy);
+        assertEquals(1, detector.getClusterCount());
+        assertEquals(2, detector.getClusterSize(first));
+    }
+
+    @Test
+    void unrelatedStoriesStartTheirOwnClusters() {
+        String other = "Authorities in Lao Cai ordered the evacuation of hillside settlements after a landslide buried "
+                + "a bus on the mountain pass, and schools stayed shut for a second week while engineers inspected bridges";
+
+        String first = detector.findOrAdd(item("https://example.com/yagi", STORY));
+        String second = detector.findOrAdd(item("https://example.com/laocai", other));
+
+        assertNotEquals(first, second);
+        assertEquals(2, detector.getClusterCount());
+        assertTrue(NearDuplicateDetector.similarity(detector.signature(STORY), detector.signature(other)) < 0.2);
+    }
+
+    @Test
+    void shortHeadlinesMustBeNearlyIdentical() {
+        String first = detector.findOrAdd(item("https://example.com/a", "Floods hit coastal towns today"));
+        String second = detector.findOrAdd(item("https://example.com/b", "Floods hit coastal towns tonight"));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void itemsWithoutUrlOrWordsAreNotClustered() {
+        assertNull(detector.findOrAdd(item(null, STORY)));
+        assertNull(detector.findOrAdd(item("https://example.com/empty", "Breaking!")));
+        assertEquals(0, detector.getClusterCount());
+    }
+
+    @Test
+    void oldestClustersAreDroppedFirst() {
+        NearDuplicateDetector small = new NearDuplicateDetector(NearDuplicateDetector.DEFAULT_THRESHOLD, 2);
+        small.findOrAdd(item("https://example.com/1", STORY));
+        small.findOrAdd(item("https://example.com/2", "Rescue boats reached stranded families in Thai Nguyen city overnight as the river kept rising"));
+        small.findOrAdd(item("https://example.com/3", "Power was restored to most of Hai Phong after crews worked through the weekend on damaged lines"));
+
+        assertEquals(2, small.getClusterCount());
+        assertEquals(0, small.getClusterSize("https://example.com/1"));
+        assertEquals("https://example.com/4", small.findOrAdd(item("https://example.com/4", STORY))); // No longer matched
+    }
+
+    @Test
+    void loadedRepresentativesAreMatched() {
+        Media stored = item("https://example.com/yagi", STORY);
+        stored.setMinhash(detector.signature(STORY));
+        NearDuplicateDetector restarted = new NearDuplicateDetector();
+        restarted.add(stored);
+
+        assertEquals("https://example.com/yagi", restarted.findOrAdd(item("https://mirror.example.net/yagi", STORY)));
+    }
+
+    // --- HELPER METHODS ---
+
+    private static Media item(String canonicalUrl, String text) {
+        News news = new News("Typhoon Yagi", text, "Wire", canonicalUrl, new Date(), 0.0);
+        news.setCanonicalUrl(canonicalUrl);
+        return news;
+    }
+
+    // Exact Jaccard index of the word and bigram sets the signatures are built from
+    private static double jaccard(String a, String b) {
+        Set<String> first = features(a);
+        Set<String> second = features(b);
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        first.retainAll(second);
+        return (double) first.size() / union.size();
+    }
+
+    private static Set<String> features(String text) {
+        Set<String> features = new HashSet<>();
+        String previous = null;
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            features.add(token);
+            if (previous != null) features.add(previous + ' ' + token);
+            previous = token;
+        }
+        return features;
+    }
+}
@@ -0,0 +1,103 @@
+package project.app.humanelogistics.preprocessing;
+
+import org.junit.jupiter.api.Test;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RssFeedCollectorTest {
+
+    @Test
+    void parsesRssItems() throws Exception {
+        List<Media> items = parse("/feeds/rss.xml");
+
+        assertEquals(List.of("https://example.com/news/floods", "https://example.com/news/relief",
+                "https://example.com/sports/league", "https://example.com/news/shelters"), urls(items));
+        Media floods = items.get(0);
+        assertEquals("topic", floods.getTopic());
+        assertEquals("Floods hit coastal towns", floods.getContent());
+        assertEquals("Reuters", ((News) floods).getSource());
+        assertEquals(Date.from(Instant.parse("2024-09-01T12:00:00Z")), floods.getTimestamp());
+
+        assertEquals("Storm relief trucks arrive", items.get(1).getContent());
+        assertEquals("Example Wire", ((News) items.get(1)).getSource()); // No <source>: the channel
+        assertNull(items.get(3).getTimestamp());
+    }
+
+    @Test
+    void parsesAtomEntries() throws Exception {
+        List<Media> items = parse("/feeds/atom.xml");
+
+        assertEquals(List.of("https://atom.example.com/news/bridge", "https://atom.example.com/news/power"), urls(items));
+        assertEquals("Atom Desk", ((News) items.get(0)).getSource());
+        assertEquals(Date.from(Instant.parse("2024-09-10T06:30:00Z")), items.get(0).getTimestamp());
+        assertEquals("Example Atom Feed", ((News) items.get(1)).getSource());
+        assertEquals(Date.from(Instant.parse("2024-09-11T12:00:00Z")), items.get(1).getTimestamp());
+    }
+
+    @Test
+    void collectFiltersPublisherFeedByDateRangeAndTerms() throws Exception {
+        RssFeedCollector collector = new RssFeedCollector(fixtureUrl("/feeds/rss.xml"));
+
+        List<Media> items = collector.collect("storm flood", "9/5/2024", "9/15/2024", 10);
+
+        // The 9/1 flood is out of range, the league results do not match, the undated item is kept
+        assertEquals(List.of("https://example.com/news/relief", "https://example.com/news/shelters"), urls(items));
+    }
+
+    @Test
+    void pollReturnsUndatedItemsOnce() throws Exception {
+        RssFeedCollector collector = new RssFeedCollector(fixtureUrl("/feeds/rss.xml"));
+        Date since = Date.from(Instant.parse("2024-09-01T12:00:00Z"));
+
+        List<Media> first = collector.poll("storm flood", since);
+        List<Media> second = collector.poll("storm flood", since);
+
+        // Polling is exclusive of "since", so the flood item is never returned
+        assertEquals(List.of("https://example.com/news/relief", "https://example.com/news/shelters"), urls(first));
+        assertEquals(List.of("https://example.com/news/relief"), urls(second));
+        assertTrue(second.stream().allMatch(item -> item.getTimestamp() != null));
+    }
+
+    @Test
+    void collectSinceOnlyPollsAfterARun() throws Exception {
+        RssFeedCollector collector = new RssFeedCollector(fixtureUrl("/feeds/rss.xml"));
+
+        List<Media> full = collector.collectSince("storm flood", null, "9/1/2024", "9/15/2024", 10);
+        List<Media> polled = collector.collectSince("storm flood", Date.from(Instant.parse("2024-09-01T12:00:00Z")),
+                "9/1/2024", "9/15/2024", 10);
+
+        assertEquals(List.of("https://example.com/news/floods", "https://example.com/news/relief",
+                "https://example.com/news/shelters"), urls(full));
+        assertEquals(List.of("https://example.com/news/relief", "https://example.com/news/shelters"), urls(polled));
+    }
+
+    // --- HELPER METHODS ---
+
+    private List<Media> parse(String fixture) throws Exception {
+        List<Media> items = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream(fixture)) {
+            new RssFeedCollector().parse(in, "topic", items::add);
+        }
+        return items;
+    }
+
+    private String fixtureUrl(String fixture) throws URISyntaxException {
+        return Paths.get(getClass().getResource(fixture).toURI()).toUri().toString();
+    }
+
+    private static List<String> urls(List<Media> items) {
+        return items.stream().map(Media::getUrl).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package project.app.humanelogistics.preprocessing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer();
+
+    @Test
+    void syndicatedVariantsShareOneForm() {
+        String canonical = "https://example.com/news/story?id=7";
+
+        assertEquals(canonical, canonicalize("http://m.example.com/amp/news/story/?utm_source=fb&id=7#top"));
+        assertEquals(canonical, canonicalize("https://www.example.com/news/story?id=7&fbclid=abc"));
+        assertEquals(canonical, canonicalize("https://EXAMPLE.com:443/news//story/amp?id=7"));
+        assertEquals(canonical, canonicalize("  https://mobile.example.com/news/story?gclid=1&id=7&utm_medium=social  "));
+    }
+
+    @Test
+    void parameterOrderDoesNotMatter() {
+        assertEquals(canonicalize("https://example.com/a?b=2&a=1"), canonicalize("https://example.com/a?a=1&b=2"));
+    }
+
+    @Test
+    void genericParametersAreKept() {
+        assertEquals("https://example.com/search?output=json&q=flood&ref=home&share=1",
+                canonicalize("https://example.com/search?q=flood&ref=home&share=1&output=json"));
+        assertEquals("https://example.com/page?amp=1", canonicalize("https://example.com/page?amp=1"));
+    }
+
+    @Test
+    void hostPrefixIsOnlyStrippedWhenADomainRemains() {
+        assertEquals("https://amp.dev/documentation", canonicalize("https://amp.dev/documentation"));
+        assertEquals("https://m.co.uk/a", canonicalize("https://m.co.uk/a"));
+        assertEquals("https://bbc.co.uk/news", canonicalize("https://m.bbc.co.uk/news"));
+        assertEquals("https://example.com/", canonicalize("https://www.m.example.com/"));
+    }
+
+    @Test
+    void ampCachesAreUnwrapped() {
+        assertEquals("https://example.com/news/story",
+                canonicalize("https://example-com.cdn.ampproject.org/c/s/example.com/news/story"));
+        assertEquals("https://example.com/news/story",
+                canonicalize("https://www.google.com/amp/s/www.example.com/news/story.amp"));
+        assertEquals("https://example.com/news/story.html",
+                canonicalize("https://news.google.com/amp/s/example.com/news/story.amp.html"));
+    }
+
+    @Test
+    void lookalikeHostsAreNotTreatedAsGoogle() {
+        assertEquals("https://notgoogle.com/s/example.com/x", canonicalize("https://notgoogle.com/amp/s/example.com/x"));
+    }
+
+    @Test
+    void otherPortsAndOddInputSurvive() {
+        assertEquals("https://example.com:8080/a", canonicalize("http://example.com:8080/a/"));
+        assertEquals("", canonicalize(null));
+        assertEquals("", canonicalize("   "));
+        assertEquals("not a url", canonicalize(" not a url "));
+        assertEquals("mailto:desk@example.com", canonicalize("mailto:desk@example.com"));
+    }
+
+    // --- HELPER METHODS ---
+
+    private String canonicalize(String url) {
+        return canonicalizer.canonicalize(url);
+    }
+}
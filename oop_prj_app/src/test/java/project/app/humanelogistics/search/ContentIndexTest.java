@@ -0,0 +1,188 @@
+package project.app.humanelogistics.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentIndexTest {
+
+    private static final String TOPIC = "Typhoon Yagi";
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsWordsPhrasesAlternativesAndExclusions() throws IOException {
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            index.add(item(1, "Bridge collapse in Phú Thọ after the flood", 1));
+            index.add(item(2, "Collapse of an old bridge, rumored", 2));
+            index.add(item(3, "Landslide blocks the road to Sa Pa", 3));
+
+            assertEquals(List.of(id(2), id(1)), ids(index.search(query("bridge collapse"), 10)));
+            assertEquals(List.of(id(1)), ids(index.search(query("\"bridge collapse\""), 10)));
+            assertEquals(List.of(id(1)), ids(index.search(query("bridge -rumored"), 10)));
+            assertEquals(List.of(id(3), id(1)), ids(index.search(query("landslide OR \"bridge collapse\""), 10)));
+            assertEquals(List.of(id(1)), ids(index.search(query("phu tho"), 10)));
+            assertTrue(index.search(query("earthquake"), 10).isEmpty());
+            assertTrue(index.search(query("-rumored"), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void hitsAreNewestFirstUpToTheLimit() throws IOException {
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            for (int i = 1; i <= 20; i++) index.add(item(i, "Flood report " + i, (i * 7) % 20));
+
+            List<SearchHit> hits = index.search(query("flood"), 5);
+
+            assertEquals(5, hits.size());
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).getTimestamp().after(hits.get(i).getTimestamp()));
+            }
+            assertEquals(new Date(19 * DAY), hits.get(0).getTimestamp());
+            assertTrue(index.search(query("flood"), 0).isEmpty());
+        }
+    }
+
+    @Test
+    void topicCategoryAndDatesNarrowTheResults() throws IOException {
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            News otherTopic = new News("Other topic", "Flood in the delta", "Wire", "https://example.com/1", new Date(DAY), 0.0);
+            otherTopic.setId(id(1));
+            index.add(otherTopic);
+            index.add(withCategory(item(2, "Flood destroys houses", 2), DamageCategory.HOUSING_DAMAGE));
+            index.add(withCategory(item(3, "Flood cuts the highway", 5), DamageCategory.INFRASTRUCTURE_DAMAGE));
+
+            assertEquals(List.of(id(3), id(2)), ids(index.search(query("flood"), 10)));
+            assertEquals(List.of(id(2)), ids(index.search(
+                    new SearchQuery(TOPIC, "flood", DamageCategory.HOUSING_DAMAGE, null, null), 10)));
+            assertEquals(List.of(id(3)), ids(index.search(
+                    new SearchQuery(TOPIC, "flood", null, new Date(3 * DAY), null), 10)));
+            assertEquals(List.of(id(2)), ids(index.search(
+                    new SearchQuery(TOPIC, "flood", null, new Date(2 * DAY), new Date(5 * DAY)), 10)));
+        }
+    }
+
+    @Test
+    void addingAnIdAgainReplacesTheOldVersion() throws IOException {
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            index.add(item(1, "Flood warning issued", 1));
+            index.commit(); // The old version is in a segment, the new one in memory
+            index.add(item(1, "Storm warning issued", 1));
+
+            assertTrue(index.search(query("flood"), 10).isEmpty());
+            assertEquals(List.of(id(1)), ids(index.search(query("storm"), 10)));
+            assertTrue(index.contains(id(1)));
+            assertFalse(index.contains(id(2)));
+        }
+    }
+
+    @Test
+    void categoryUpdatesApplyToStoredSegments() throws IOException {
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            index.add(item(1, "Flood damages the bridge", 1));
+            index.commit();
+            index.updateCategory(id(1), DamageCategory.INFRASTRUCTURE_DAMAGE);
+
+            List<SearchHit> hits = index.search(new SearchQuery(TOPIC, "bridge", DamageCategory.INFRASTRUCTURE_DAMAGE, null, null), 10);
+            assertEquals(List.of(id(1)), ids(hits));
+            assertEquals(DamageCategory.INFRASTRUCTURE_DAMAGE, hits.get(0).getCategory());
+        }
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            assertEquals(DamageCategory.INFRASTRUCTURE_DAMAGE, index.search(query("bridge"), 10).get(0).getCategory());
+        }
+    }
+
+    @Test
+    void committedItemsSurviveReopeningAndReachReaders() throws IOException {
+        ContentIndex reader = ContentIndex.openReadOnly(dir);
+        try (ContentIndex writer = ContentIndex.open(dir)) {
+            writer.add(item(1, "Evacuation of coastal villages", 1));
+            writer.commit();
+            assertEquals(List.of(id(1)), ids(reader.search(query("evacuation"), 10)));
+            assertEquals(id(1), writer.getLastId());
+        }
+        reader.close();
+
+        try (ContentIndex reopened = ContentIndex.open(dir)) {
+            assertEquals(List.of(id(1)), ids(reopened.search(query("coastal villages"), 10)));
+            assertEquals(id(1), reopened.getLastId());
+        }
+    }
+
+    @Test
+    void onlyOneWriterAtATime() throws IOException {
+        try (ContentIndex writer = ContentIndex.open(dir)) {
+            assertThrows(IOException.class, () -> ContentIndex.open(dir));
+        }
+        ContentIndex.open(dir).close(); // Free again once closed
+    }
+
+    @Test
+    void mergedSegmentsKeepEveryLiveDocument() throws IOException {
+        try (ContentIndex index = ContentIndex.open(dir)) {
+            for (int i = 1; i <= 30; i++) {
+                index.add(item(i, "Relief convoy " + i + " reaches the flood zone", i));
+                if (i % 5 == 0) index.add(item(i - 1, "Convoy " + (i - 1) + " turned back", i - 1));
+                index.commit();
+            }
+
+            List<SearchHit> hits = index.search(query("relief convoy"), 100);
+            assertEquals(24, hits.size());
+            assertEquals(30, index.search(query("convoy"), 100).size());
+            assertTrue(segmentFiles() <= 10, segmentFiles() + " segments");
+        }
+        try (ContentIndex reopened = ContentIndex.openReadOnly(dir)) {
+            assertEquals(24, reopened.search(query("relief convoy"), 100).size());
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private static SearchQuery query(String text) {
+        return new SearchQuery(TOPIC, text, null, null, null);
+    }
+
+    private static Media item(int n, String content, int day) {
+        News news = new News(TOPIC, content, "Wire", "https://example.com/" + n, new Date(day * DAY), 0.0);
+        news.setId(id(n));
+        return news;
+    }
+
+    private static Media withCategory(Media item, DamageCategory category) {
+        item.setDamageType(category);
+        return item;
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        List<String> ids = new ArrayList<>();
+        for (SearchHit hit : hits) ids.add(hit.getId());
+        return ids;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+}
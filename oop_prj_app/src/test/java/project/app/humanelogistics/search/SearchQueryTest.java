@@ -0,0 +1,82 @@
+package project.app.humanelogistics.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchQueryTest {
+
+    @Test
+    void wordsAreAllRequired() {
+        SearchQuery query = query("Flood  bridge");
+
+        assertEquals(List.of(List.of(List.of("flood")), List.of(List.of("bridge"))), query.getRequired());
+        assertTrue(query.getExcluded().isEmpty());
+    }
+
+    @Test
+    void quotedWordsFormOnePhrase() {
+        assertEquals(List.of(List.of(List.of("bridge", "collapse")), List.of(List.of("flood"))),
+                query("\"bridge collapse\" flood").getRequired());
+    }
+
+    @Test
+    void unterminatedQuoteRunsToTheEnd() {
+        assertEquals(List.of(List.of(List.of("bridge", "collapse"))), query("\"bridge collapse").getRequired());
+    }
+
+    @Test
+    void orJoinsTheClausesOnEitherSide() {
+        SearchQuery query = query("storm flood OR \"land slide\"");
+
+        assertEquals(List.of(List.of(List.of("storm")), List.of(List.of("flood"), List.of("land", "slide"))),
+                query.getRequired());
+    }
+
+    @Test
+    void orWithoutALeftSideIsIgnored() {
+        assertEquals(List.of(List.of(List.of("flood"))), query("OR flood").getRequired());
+        assertEquals(List.of(List.of(List.of("flood")), List.of(List.of("or"))), query("flood \"OR\"").getRequired());
+    }
+
+    @Test
+    void minusExcludesWordsAndPhrases() {
+        SearchQuery query = query("-rumor flood -\"fake news\"");
+
+        assertEquals(List.of(List.of(List.of("flood"))), query.getRequired());
+        assertEquals(List.of(List.of("rumor"), List.of("fake", "news")), query.getExcluded());
+    }
+
+    @Test
+    void loneMinusIsNotAnExclusion() {
+        SearchQuery query = query("flood - levee");
+
+        assertEquals(List.of(List.of(List.of("flood")), List.of(List.of("levee"))), query.getRequired());
+        assertTrue(query.getExcluded().isEmpty());
+    }
+
+    @Test
+    void accentsAndSplitWordsAreFolded() {
+        assertEquals(List.of(List.of(List.of("phu", "tho")), List.of(List.of("sap"))), query("Phú-Thọ sập").getRequired());
+        assertEquals(List.of(List.of(List.of("da", "nang"))), query("\"Đà Nẵng\"").getRequired());
+    }
+
+    @Test
+    void queryWithoutRequiredWordsIsEmpty() {
+        assertTrue(query(null).isEmpty());
+        assertTrue(query("   ").isEmpty());
+        assertTrue(query("-rumor -\"fake news\"").isEmpty());
+        assertTrue(query("!!! ...").isEmpty());
+        assertFalse(query("flood").isEmpty());
+    }
+
+    // --- HELPER METHODS ---
+
+    private static SearchQuery query(String text) {
+        return new SearchQuery("topic", text, null, null, null);
+    }
+}
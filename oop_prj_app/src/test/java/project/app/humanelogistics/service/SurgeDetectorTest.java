@@ -0,0 +1,124 @@
+package project.app.humanelogistics.service;
+
+import org.junit.jupiter.api.Test;
+import project.app.humanelogistics.model.DamageCategory;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+import project.app.humanelogistics.model.SurgeAlert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SurgeDetectorTest {
+
+    private static final String TOPIC = "surge-test";
+
+    @Test
+    void itemsWithoutTopicOrTooOldAreIgnored() {
+        SurgeDetector detector = new SurgeDetector(Duration.ofMillis(50), 1, 3.0, Duration.ofDays(1));
+        Media old = item(DamageCategory.HOUSING_DAMAGE, -0.5, new Date(System.currentTimeMillis() - Duration.ofDays(3).toMillis()));
+
+        detector.observe(item(DamageCategory.HOUSING_DAMAGE, 0.1, new Date()));
+        sleep(700); // Past the warm-up, so anything counted could alert
+        List<SurgeAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            alerts.addAll(detector.observe(old));
+            alerts.addAll(detector.observe(new News(null, "No topic", "Wire", "https://example.com/x", new Date(), 0.3)));
+        }
+
+        assertTrue(alerts.isEmpty(), alerts.toString());
+    }
+
+    @Test
+    void noDamageAlertBeforeTheBaselineIsLearned() {
+        SurgeDetector detector = new SurgeDetector(Duration.ofHours(1), 3, 3.0, Duration.ofDays(1));
+
+        List<SurgeAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) alerts.addAll(detector.observe(item(DamageCategory.HOUSING_DAMAGE, 0.0, new Date())));
+
+        assertTrue(alerts.isEmpty(), alerts.toString());
+    }
+
+    @Test
+    void burstOverAQuietBaselineRaisesADamageAlert() {
+        SurgeDetector detector = new SurgeDetector(Duration.ofMillis(50), 1, 3.0, Duration.ofDays(1));
+
+        detector.observe(item(DamageCategory.INFRASTRUCTURE_DAMAGE, 0.0, new Date()));
+        sleep(700); // ~14 quiet buckets learned on the next item
+        List<SurgeAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) alerts.addAll(detector.observe(item(DamageCategory.INFRASTRUCTURE_DAMAGE, 0.0, new Date())));
+
+        assertFalse(alerts.isEmpty());
+        SurgeAlert alert = alerts.get(0);
+        assertEquals(SurgeAlert.Kind.DAMAGE, alert.getKind());
+        assertEquals(DamageCategory.INFRASTRUCTURE_DAMAGE, alert.getCategory());
+        assertEquals(TOPIC, alert.getTopic());
+        assertTrue(alert.getObserved() >= 5, "observed " + alert.getObserved());
+        assertTrue(alert.getZScore() >= 3.0);
+    }
+
+    @Test
+    void unknownDamageIsNotCounted() {
+        SurgeDetector detector = new SurgeDetector(Duration.ofMillis(50), 1, 3.0, Duration.ofDays(1));
+
+        detector.observe(item(DamageCategory.UNKNOWN, 0.0, new Date()));
+        sleep(700);
+        List<SurgeAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) alerts.addAll(detector.observe(item(DamageCategory.UNKNOWN, 0.0, new Date())));
+
+        assertTrue(alerts.isEmpty(), alerts.toString());
+    }
+
+    @Test
+    void sentimentShiftAlertsOnceWhileItLasts() {
+        SurgeDetector detector = new SurgeDetector(Duration.ofHours(1), 3, 3.0, Duration.ofDays(1));
+
+        List<SurgeAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 300; i++) alerts.addAll(detector.observe(item(null, i % 2 == 0 ? 0.2 : -0.2, new Date())));
+        assertTrue(alerts.isEmpty(), "alert on steady sentiment: " + alerts);
+
+        for (int i = 0; i < 40; i++) alerts.addAll(detector.observe(item(null, -0.9, new Date())));
+
+        assertEquals(1, alerts.size(), alerts.toString());
+        SurgeAlert alert = alerts.get(0);
+        assertEquals(SurgeAlert.Kind.SENTIMENT, alert.getKind());
+        assertTrue(alert.getObserved() < alert.getExpected(), "fast average should be below the slow one");
+        assertTrue(alert.getZScore() <= -3.0);
+    }
+
+    @Test
+    void topicsAreTrackedSeparately() {
+        SurgeDetector detector = new SurgeDetector(Duration.ofHours(1), 3, 3.0, Duration.ofDays(1));
+
+        List<SurgeAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < 300; i++) alerts.addAll(detector.observe(item(null, i % 2 == 0 ? 0.2 : -0.2, new Date())));
+        // A new topic starts its own averages from its first item
+        for (int i = 0; i < 40; i++) {
+            alerts.addAll(detector.observe(new News("other-topic", "Report " + i, "Wire", "https://example.com/" + i, new Date(), -0.9)));
+        }
+
+        assertTrue(alerts.isEmpty(), alerts.toString());
+    }
+
+    // --- HELPER METHODS ---
+
+    private static Media item(DamageCategory category, double sentiment, Date published) {
+        News news = new News(TOPIC, "Storm report", "Test Wire", "https://example.com/surge", published, sentiment);
+        news.setDamageType(category);
+        return news;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
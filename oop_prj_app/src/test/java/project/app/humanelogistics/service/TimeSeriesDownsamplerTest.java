@@ -0,0 +1,104 @@
+package project.app.humanelogistics.service;
+
+import org.jfree.data.time.Day;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesDownsamplerTest {
+
+    @Test
+    void pointsThatFitAreAllKept() {
+        double[] x = { 0, 1, 2, 3 };
+        double[] y = { 5, 1, 4, 2 };
+
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, TimeSeriesDownsampler.lttb(x, y, 4, 10));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, TimeSeriesDownsampler.lttb(x, y, 4, 2)); // Below 3: nothing to choose
+        assertArrayEquals(new int[0], TimeSeriesDownsampler.lttb(new double[0], new double[0], 0, 10));
+    }
+
+    @Test
+    void keepsFirstLastAndThresholdPointsInOrder() {
+        int count = 1_000;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 25.0);
+        }
+
+        int[] kept = TimeSeriesDownsampler.lttb(x, y, count, 100);
+
+        assertEquals(100, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(count - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) assertTrue(kept[i] > kept[i - 1], "not increasing at " + i);
+    }
+
+    @Test
+    void peaksSurviveWhileFlatStretchesCollapse() {
+        int count = 500;
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) x[i] = i;
+        y[137] = 10;
+        y[402] = -8;
+
+        int[] kept = TimeSeriesDownsampler.lttb(x, y, count, 20);
+
+        assertTrue(contains(kept, 137), "peak dropped");
+        assertTrue(contains(kept, 402), "dip dropped");
+    }
+
+    @Test
+    void seriesThatFitsIsReturnedAsIs() {
+        TimeSeries series = daily("Sentiment", 30);
+        TimeSeriesCollection dataset = new TimeSeriesCollection(series);
+
+        assertSame(series, TimeSeriesDownsampler.downsample(series, 30));
+        assertSame(dataset, TimeSeriesDownsampler.downsample(dataset, 30));
+    }
+
+    @Test
+    void longSeriesIsThinnedAndGapsAreLeftOut() {
+        TimeSeries series = daily("Sentiment", 365);
+        series.update(100, null);
+
+        TimeSeries thinned = TimeSeriesDownsampler.downsample(series, 50);
+
+        assertEquals(50, thinned.getItemCount());
+        assertEquals("Sentiment", thinned.getKey());
+        assertEquals(series.getTimePeriod(0), thinned.getTimePeriod(0));
+        assertEquals(series.getTimePeriod(364), thinned.getTimePeriod(49));
+        for (int i = 0; i < thinned.getItemCount(); i++) {
+            assertTrue(thinned.getValue(i) != null, "gap kept at " + i);
+        }
+        assertNull(series.getValue(100)); // The input is not changed
+    }
+
+    // --- HELPER METHODS ---
+
+    private static TimeSeries daily(String key, int days) {
+        TimeSeries series = new TimeSeries(key);
+        RegularTimePeriod day = new Day(1, 1, 2024);
+        for (int i = 0; i < days; i++) {
+            series.add(day, Math.sin(i / 10.0));
+            day = day.next();
+        }
+        return series;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) return true;
+        }
+        return false;
+    }
+}
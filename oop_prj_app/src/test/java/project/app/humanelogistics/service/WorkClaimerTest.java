@@ -0,0 +1,136 @@
+package project.app.humanelogistics.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import project.app.humanelogistics.db.MongoMediaRepository;
+import project.app.humanelogistics.model.Media;
+import project.app.humanelogistics.model.News;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Several claimers in one JVM against a real MongoDB. Runs against TEST_MONGODB_URI (default a
+ * local server) in a throwaway database, and is skipped when no server answers.
+ */
+class WorkClaimerTest {
+
+    private static final String TOPIC = "claim-test";
+    private static final int ITEMS = 200;
+    private static final int WORKERS = 4;
+
+    private String uri;
+    private String dbName;
+    private MongoMediaRepository repository;
+
+    @BeforeEach
+    void connect() {
+        String configured = System.getenv("TEST_MONGODB_URI");
+        uri = configured != null && !configured.isEmpty() ? configured : "mongodb://localhost:27017/?serverSelectionTimeoutMS=2000";
+        assumeTrue(reachable(uri), "No MongoDB at " + uri);
+        dbName = "claim_test_" + System.nanoTime();
+        repository = new MongoMediaRepository(uri, dbName, "news");
+    }
+
+    @AfterEach
+    void dropDatabase() {
+        if (dbName == null) return;
+        try (MongoClient client = MongoClients.create(uri)) {
+            client.getDatabase(dbName).drop();
+        }
+    }
+
+    @Test
+    void workersNeverClaimTheSameItem() throws Exception {
+        repository.insertAll(backlog(ITEMS));
+
+        Map<String, String> claimedBy = new ConcurrentHashMap<>();
+        List<String> duplicates = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        try {
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int w = 0; w < WORKERS; w++) {
+                workers.add(pool.submit(() -> {
+                    int claimed = 0;
+                    try (WorkClaimer claimer = new WorkClaimer(repository, TOPIC)) {
+                        for (Media item = claimer.claim(); item != null; item = claimer.claim()) {
+                            String previous = claimedBy.putIfAbsent(item.getId(), claimer.getOwner());
+                            if (previous != null) {
+                                synchronized (duplicates) {
+                                    duplicates.add(item.getId());
+                                }
+                            }
+                            claimer.complete(item); // Lease stays until it expires, like an unwritten result
+                            claimed++;
+                        }
+                    }
+                    return claimed;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> worker : workers) total += worker.get();
+
+            assertTrue(duplicates.isEmpty(), "Claimed twice: " + duplicates);
+            assertEquals(ITEMS, total);
+            assertEquals(ITEMS, claimedBy.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void closingReleasesHeldItemsToOtherWorkers() {
+        repository.insertAll(backlog(1));
+
+        Media held;
+        try (WorkClaimer first = new WorkClaimer(repository, TOPIC);
+             WorkClaimer second = new WorkClaimer(repository, TOPIC)) {
+            held = first.claim();
+            assertNotNull(held);
+            assertNull(second.claim()); // Leased to the first worker
+        }
+
+        try (WorkClaimer third = new WorkClaimer(repository, TOPIC, Duration.ofMinutes(1))) {
+            Media reclaimed = third.claim();
+            assertNotNull(reclaimed);
+            assertEquals(held.getId(), reclaimed.getId());
+        }
+    }
+
+    // --- HELPER METHODS ---
+
+    private static List<Media> backlog(int count) {
+        List<Media> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new News(TOPIC, "Storm report " + i, "Test Wire", "https://example.com/claim/" + i, new Date(), 0.0));
+        }
+        return items;
+    }
+
+    private static boolean reachable(String uri) {
+        try (MongoClient client = MongoClients.create(uri)) {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            return true;
+        } catch (MongoException e) {
+            return false;
+        }
+    }
+}
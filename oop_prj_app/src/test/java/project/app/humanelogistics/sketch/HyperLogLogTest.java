@@ -0,0 +1,103 @@
+package project.app.humanelogistics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    // Three standard errors of a 4096-register sketch
+    private static final double TOLERANCE = 0.05;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.add(null);
+
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.estimate());
+    }
+
+    @Test
+    void smallCountsAreNearlyExact() {
+        HyperLogLog sketch = sketchOf(0, 100);
+
+        assertFalse(sketch.isEmpty());
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    void largeCountsStayWithinTheErrorBound() {
+        assertWithin(100_000, sketchOf(0, 100_000).estimate());
+        assertWithin(1_000_000, sketchOf(0, 1_000_000).estimate());
+    }
+
+    @Test
+    void repeatedValuesCountOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 5_000; i++) sketch.add("https://example.com/story/" + i);
+        }
+
+        assertWithin(5_000, sketch.estimate());
+    }
+
+    @Test
+    void mergeGivesTheSketchOfTheUnion() {
+        HyperLogLog first = sketchOf(0, 60_000);
+        HyperLogLog second = sketchOf(40_000, 100_000);
+
+        first.merge(second);
+
+        assertArrayEquals(sketchOf(0, 100_000).toBytes(), first.toBytes());
+        assertWithin(100_000, first.estimate());
+    }
+
+    @Test
+    void mergingAnEmptySketchChangesNothing() {
+        HyperLogLog sketch = sketchOf(0, 1_000);
+        byte[] before = sketch.toBytes();
+
+        sketch.merge(new HyperLogLog());
+
+        assertArrayEquals(before, sketch.toBytes());
+    }
+
+    @Test
+    void sparseAndDenseFormsRoundTrip() {
+        HyperLogLog small = sketchOf(0, 50);
+        HyperLogLog large = sketchOf(0, 50_000);
+
+        byte[] sparse = small.toBytes();
+        byte[] dense = large.toBytes();
+
+        assertTrue(sparse.length < dense.length);
+        assertEquals(1 + 4096 * 6 / 8, dense.length);
+        assertArrayEquals(sparse, HyperLogLog.fromBytes(sparse).toBytes());
+        assertArrayEquals(dense, HyperLogLog.fromBytes(dense).toBytes());
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(sparse).estimate());
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(dense).estimate());
+        assertTrue(HyperLogLog.fromBytes(new HyperLogLog().toBytes()).isEmpty());
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] { 9 }));
+    }
+
+    // --- HELPER METHODS ---
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) sketch.add("value-" + i);
+        return sketch;
+    }
+
+    private static void assertWithin(long expected, long estimate) {
+        assertEquals(expected, estimate, expected * TOLERANCE, "estimate " + estimate);
+    }
+}
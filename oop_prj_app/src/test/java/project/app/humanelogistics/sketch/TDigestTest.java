@@ -0,0 +1,130 @@
+package project.app.humanelogistics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TDigestTest {
+
+    @Test
+    void emptyDigestHasNoQuantiles() {
+        TDigest digest = new TDigest();
+
+        assertEquals(0, digest.size());
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+        assertTrue(Double.isNaN(TDigest.fromBytes(digest.toBytes()).quantile(0.5)));
+    }
+
+    @Test
+    void singleValueIsEveryQuantile() {
+        TDigest digest = new TDigest();
+        digest.add(0.4);
+
+        assertEquals(0.4, digest.quantile(0.0));
+        assertEquals(0.4, digest.quantile(0.5));
+        assertEquals(0.4, digest.quantile(1.0));
+    }
+
+    @Test
+    void nanIsIgnored() {
+        TDigest digest = new TDigest();
+        digest.add(Double.NaN);
+        digest.add(1.0);
+
+        assertEquals(1, digest.size());
+    }
+
+    @Test
+    void uniformQuantilesAreAccurateEspeciallyAtTheTails() {
+        TDigest digest = uniform(100_000, new Random(42));
+
+        assertEquals(100_000, digest.size());
+        assertEquals(0.5, digest.quantile(0.5), 0.01);
+        assertEquals(0.25, digest.quantile(0.25), 0.01);
+        assertEquals(0.99, digest.quantile(0.99), 0.002);
+        assertEquals(0.01, digest.quantile(0.01), 0.002);
+    }
+
+    @Test
+    void extremesAreTheMinimumAndMaximum() {
+        TDigest digest = new TDigest();
+        for (int i = -500; i <= 500; i++) digest.add(i / 500.0);
+
+        assertEquals(-1.0, digest.quantile(0.0));
+        assertEquals(1.0, digest.quantile(1.0));
+        assertEquals(-1.0, digest.quantile(-3)); // Clamped to 0..1
+        assertEquals(1.0, digest.quantile(7));
+    }
+
+    @Test
+    void skewedValuesKeepTheirTail() {
+        // Mostly neutral sentiment, a few strongly negative reports
+        TDigest digest = new TDigest();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            digest.add(i % 100 == 0 ? -0.9 + random.nextDouble() * 0.05 : random.nextGaussian() * 0.1);
+        }
+
+        assertTrue(digest.quantile(0.005) < -0.8, "p0.5 " + digest.quantile(0.005));
+        assertEquals(0.0, digest.quantile(0.5), 0.01);
+    }
+
+    @Test
+    void mergedDigestMatchesOneBuiltFromAllValues() {
+        Random random = new Random(1);
+        TDigest first = uniform(30_000, random);
+        TDigest second = new TDigest();
+        for (int i = 0; i < 30_000; i++) second.add(1 + random.nextDouble()); // 1..2
+
+        first.merge(second);
+
+        assertEquals(60_000, first.size());
+        assertEquals(1.0, first.quantile(0.5), 0.02);
+        assertEquals(0.1, first.quantile(0.05), 0.01);
+        assertEquals(1.9, first.quantile(0.95), 0.01);
+        assertEquals(0.0, first.quantile(0.0), 1e-3);
+        assertEquals(2.0, first.quantile(1.0), 1e-3);
+    }
+
+    @Test
+    void mergingAnEmptyDigestChangesNothing() {
+        TDigest digest = uniform(1_000, new Random(3));
+        double median = digest.quantile(0.5);
+
+        digest.merge(new TDigest());
+
+        assertEquals(1_000, digest.size());
+        assertEquals(median, digest.quantile(0.5));
+    }
+
+    @Test
+    void serializationRoundTrips() {
+        TDigest digest = uniform(20_000, new Random(5));
+
+        byte[] bytes = digest.toBytes();
+        TDigest copy = TDigest.fromBytes(bytes);
+
+        assertTrue(bytes.length < 1_000, bytes.length + " bytes");
+        assertEquals(digest.size(), copy.size());
+        for (double q : new double[] { 0, 0.01, 0.25, 0.5, 0.75, 0.99, 1 }) {
+            assertEquals(digest.quantile(q), copy.quantile(q), 1e-6, "q=" + q);
+        }
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TDigest.fromBytes(new byte[] { 9 }));
+    }
+
+    // --- HELPER METHODS ---
+
+    private static TDigest uniform(int count, Random random) {
+        TDigest digest = new TDigest();
+        for (int i = 0; i < count; i++) digest.add(random.nextDouble());
+        return digest;
+    }
+}